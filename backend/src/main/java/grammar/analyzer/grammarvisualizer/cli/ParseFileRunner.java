@@ -0,0 +1,47 @@
+package grammar.analyzer.grammarvisualizer.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import grammar.analyzer.grammarvisualizer.dto.grammar.StreamParseResponseDto;
+import grammar.analyzer.grammarvisualizer.service.GrammarService;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parses a token file given on the command line and prints the verdict with its
+ * throughput and peak heap as JSON, e.g.
+ * {@code --grammar.parse.file=tokens.txt --grammar.parse.grammar-file=grammar.txt
+ * --spring.main.web-application-type=none}. The token file is memory-mapped, so it may be
+ * larger than the heap.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "grammar.parse", name = "file")
+public class ParseFileRunner implements ApplicationRunner {
+    static final String FILE_PROPERTY = "grammar.parse.file";
+    static final String GRAMMAR_FILE_PROPERTY = "grammar.parse.grammar-file";
+
+    private final GrammarService grammarService;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        String grammar = Files.readString(
+                Path.of(environment.getRequiredProperty(GRAMMAR_FILE_PROPERTY)));
+        Path tokens = Path.of(environment.getRequiredProperty(FILE_PROPERTY));
+        try (FileChannel channel = FileChannel.open(tokens, StandardOpenOption.READ)) {
+            StreamParseResponseDto result = grammarService.parseStream(null, grammar, channel);
+            System.out.println(objectMapper.writerWithDefaultPrettyPrinter()
+                    .writeValueAsString(result));
+        }
+    }
+}
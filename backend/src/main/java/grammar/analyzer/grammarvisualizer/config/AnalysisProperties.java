@@ -0,0 +1,146 @@
+package grammar.analyzer.grammarvisualizer.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tunable options of the grammar analysis pipeline, bound from
+ * {@code grammar.analysis.*} application properties.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "grammar.analysis")
+public class AnalysisProperties {
+    /**
+     * Engine used to compute FIRST sets.
+     */
+    private FirstEngine firstEngine = FirstEngine.ITERATIVE;
+
+    /**
+     * Engine used to compute FOLLOW sets.
+     */
+    private FollowEngine followEngine = FollowEngine.ITERATIVE;
+
+    /**
+     * Engine used to compute PREDICT sets.
+     */
+    private PredictEngine predictEngine = PredictEngine.ITERATIVE;
+
+    /**
+     * How the step-by-step traces of the FIRST, FOLLOW and PREDICT calculators are kept.
+     */
+    private StepTrace stepTrace = StepTrace.LAZY;
+
+    /**
+     * Limits of the store keeping analyses for step retrieval.
+     */
+    private final Store store = new Store();
+
+    /**
+     * Limits of the cache of analysis results.
+     */
+    private final Cache cache = new Cache();
+
+    /**
+     * Available FIRST set engines.
+     */
+    public enum FirstEngine {
+        /**
+         * Pseudocode-driven worklist iteration that records every step for visualization.
+         */
+        ITERATIVE,
+        /**
+         * Independent strongly connected components of the dependency graph solved
+         * concurrently on a ForkJoinPool; records a summary only.
+         */
+        PARALLEL
+    }
+
+    /**
+     * Available FOLLOW set engines.
+     */
+    public enum FollowEngine {
+        /**
+         * Pseudocode-driven fixpoint iteration that records every step for visualization.
+         */
+        ITERATIVE,
+        /**
+         * Single propagation over the SCC-collapsed inclusion graph; records a summary only.
+         */
+        SCC
+    }
+
+    /**
+     * Available PREDICT set engines.
+     */
+    public enum PredictEngine {
+        /**
+         * Production-by-production computation that records every step for visualization.
+         */
+        ITERATIVE,
+        /**
+         * All productions computed concurrently on a ForkJoinPool; records a summary only.
+         */
+        PARALLEL
+    }
+
+    /**
+     * Available step trace storage modes.
+     */
+    public enum StepTrace {
+        /**
+         * Every step is recorded during the analysis.
+         */
+        EAGER,
+        /**
+         * Steps are only counted during the analysis; bounded loop-state checkpoints are
+         * kept and pages of steps are replayed from them when a step is requested.
+         */
+        LAZY
+    }
+
+    /**
+     * Limits of the analysis store. An analysis is evicted when it is the least recently
+     * used one and a limit is exceeded, or when it has not been accessed for the TTL.
+     */
+    @Getter
+    @Setter
+    public static class Store {
+        /**
+         * Maximum number of analyses kept.
+         */
+        private int maxEntries = 256;
+
+        /**
+         * Time after the last access at which an analysis expires.
+         */
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /**
+         * Ceiling for the estimated memory used by all kept analyses.
+         */
+        private DataSize maxMemory = DataSize.ofMegabytes(256);
+    }
+
+    /**
+     * Limits of the analysis result cache, keyed by the hash of the normalized grammar.
+     */
+    @Getter
+    @Setter
+    public static class Cache {
+        /**
+         * Maximum number of cached results.
+         */
+        private int maxEntries = 512;
+
+        /**
+         * Time after being computed at which a result expires.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,58 @@
+package grammar.analyzer.grammarvisualizer.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarRequestDto;
+import grammar.analyzer.grammarvisualizer.model.TraceMode;
+import grammar.analyzer.grammarvisualizer.util.GrammarNormalizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caching configuration for analysis results.
+ * Results are kept in a bounded, expiring in-process cache that records hit and miss
+ * statistics, keyed by the hash of the normalized grammar and the trace mode. Requests
+ * re-analyzing an edit of a previous analysis are not cached.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String GRAMMAR_CACHE = "grammarCache";
+    public static final String GRAMMAR_KEY_GENERATOR = "grammarKeyGenerator";
+
+    /**
+     * Creates the cache manager holding the analysis result cache.
+     *
+     * @param analysisProperties configured cache limits
+     * @return a configured CacheManager
+     */
+    @Bean
+    public CacheManager cacheManager(AnalysisProperties analysisProperties) {
+        AnalysisProperties.Cache limits = analysisProperties.getCache();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(GRAMMAR_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(limits.getMaxEntries())
+                .expireAfterWrite(limits.getTtl())
+                .recordStats());
+        return cacheManager;
+    }
+
+    /**
+     * Creates the key generator for analysis requests, so that submissions differing only
+     * in escape sequences or whitespace share a cache entry.
+     *
+     * @return a KeyGenerator for methods taking a GrammarRequestDto
+     */
+    @Bean(GRAMMAR_KEY_GENERATOR)
+    public KeyGenerator grammarKeyGenerator() {
+        return (target, method, params) -> {
+            GrammarRequestDto request = (GrammarRequestDto) params[0];
+            return GrammarNormalizer.hash(GrammarNormalizer.normalize(request.getGrammar()))
+                    + "|" + TraceMode.of(request.getTrace())
+                    + (request.isCompactTable() ? "|compact" : "");
+        };
+    }
+}
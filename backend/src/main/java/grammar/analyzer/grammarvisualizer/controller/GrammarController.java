@@ -1,8 +1,17 @@
 package grammar.analyzer.grammarvisualizer.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisCacheStatsDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisStoreStatsDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.BatchParseRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.BatchParseSummaryDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarRequestDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarResponseDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarStepRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.StreamParseResponseDto;
 import grammar.analyzer.grammarvisualizer.service.GrammarService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,11 +20,24 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -28,7 +50,10 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/grammar")
 @RequiredArgsConstructor
 public class GrammarController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final GrammarService grammarService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Analyzes a provided grammar input, computing FIRST, FOLLOW, and PREDICT sets,
@@ -70,7 +95,7 @@ public class GrammarController {
      * Retrieves a specific step of the grammar analysis for FIRST, FOLLOW, or PREDICT,
      * based on step index and analysis type.
      *
-     * @param requestDto DTO specifying analysis type, step index, and grammar
+     * @param requestDto DTO specifying analysis id, analysis type, step index, and grammar
      * @return DTO with step-by-step analysis details
      */
     @Operation(
@@ -78,7 +103,9 @@ public class GrammarController {
             description = "POST endpoint to request a specific "
                     + "step of grammar analysis for a given analysis type "
                     + "(FIRST, FOLLOW, PREDICT). The request body must include "
-                    + "the analysis type, step index, and grammar."
+                    + "the analysis id returned by the analysis, the analysis type, "
+                    + "step index, and grammar; the grammar is re-analyzed "
+                    + "if the analysis has been evicted."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -105,9 +132,259 @@ public class GrammarController {
             @Valid @RequestBody GrammarStepRequestDto requestDto
     ) {
         return grammarService.getStep(
+                requestDto.getAnalysisId(),
                 requestDto.getAnalysisType(),
                 requestDto.getStepIndex(),
                 requestDto.getGrammar()
         );
     }
+
+    /**
+     * Parses a sentence with the LL(1) table of an analyzed grammar.
+     *
+     * @param parseRequest DTO with the analysis id or grammar and the input tokens
+     * @return DTO with the verdict and the failing position of a rejected sentence
+     */
+    @Operation(
+            summary = "Parse sentence",
+            description = "Endpoint parsing a whitespace-separated token string with "
+                    + "the LL(1) table of a stored analysis, or of the given grammar "
+                    + "if no stored analysis is named. Returns whether the sentence is "
+                    + "accepted and, if not, the position and token where parsing failed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Sentence successfully parsed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ParseResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input data",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Neither a stored analysis nor a grammar was given",
+                    content = @Content
+            )
+    })
+    @PostMapping("/parse")
+    public ParseResponseDto parse(
+            @Parameter(description = "Request containing the grammar and the input tokens")
+            @Valid @RequestBody ParseRequestDto parseRequest
+    ) {
+        return grammarService.parse(parseRequest);
+    }
+
+    /**
+     * Parses a list of sentences in parallel and streams back one verdict per line in
+     * input order, followed by a summary line with the throughput.
+     *
+     * @param batchRequest DTO with the analysis id or grammar and the sentences
+     * @param response     response the NDJSON lines are written to
+     * @throws IOException if writing the response fails
+     */
+    @Operation(
+            summary = "Parse sentences in batch",
+            description = "Endpoint parsing a list of whitespace-separated token strings "
+                    + "in parallel with the LL(1) table of a stored analysis or of the "
+                    + "given grammar. Streams back NDJSON: one verdict per sentence in "
+                    + "input order, then a summary with the number of accepted and "
+                    + "rejected sentences and the sentences parsed per second."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Sentences successfully parsed",
+                    content = @Content(
+                            mediaType = NDJSON,
+                            schema = @Schema(implementation = ParseResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input data",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Neither a stored analysis nor a grammar was given",
+                    content = @Content
+            )
+    })
+    @PostMapping(value = "/parse/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = NDJSON)
+    public void parseBatch(
+            @Parameter(description = "Request containing the grammar and the sentences")
+            @Valid @RequestBody BatchParseRequestDto batchRequest,
+            HttpServletResponse response
+    ) throws IOException {
+        writeVerdicts(batchRequest.getAnalysisId(), batchRequest.getGrammar(),
+                batchRequest.getSentences().iterator(), response);
+    }
+
+    /**
+     * Parses an NDJSON stream of sentences in parallel and streams back one verdict per line
+     * in input order, followed by a summary line with the throughput. Each input line holds
+     * either a JSON string or an object with an {@code input} field.
+     *
+     * @param analysisId id of a stored analysis; may be null
+     * @param grammar    grammar text used when the analysis is not stored; may be null
+     * @param request    request whose body holds the sentences
+     * @param response   response the NDJSON lines are written to
+     * @throws IOException if reading the request or writing the response fails
+     */
+    @Operation(
+            summary = "Parse a stream of sentences",
+            description = "Endpoint parsing an NDJSON stream of sentences, one JSON string "
+                    + "or {\"input\": ...} object per line, with the LL(1) table named by "
+                    + "the query parameters. Streams back verdicts as for a list of sentences."
+    )
+    @PostMapping(value = "/parse/batch", consumes = NDJSON, produces = NDJSON)
+    public void parseBatchStream(
+            @RequestParam(required = false) String analysisId,
+            @RequestParam(required = false) String grammar,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Iterator<String> sentences = request.getReader().lines()
+                .filter(line -> !line.isBlank())
+                .map(this::readSentence)
+                .iterator();
+        writeVerdicts(analysisId, grammar, sentences, response);
+    }
+
+    /**
+     * Parses an uploaded token stream of any size as it is received, without buffering the
+     * whole body, and reports the throughput and peak heap use of the run.
+     *
+     * @param analysisId id of a stored analysis; may be null
+     * @param grammar    grammar text used when the analysis is not stored; may be null
+     * @param request    request whose body holds whitespace-separated tokens
+     * @return DTO with the verdict, tokens per second and peak heap use
+     * @throws IOException if reading the request fails
+     */
+    @Operation(
+            summary = "Parse a token stream",
+            description = "Endpoint parsing a plain-text or binary upload of "
+                    + "whitespace-separated tokens with the LL(1) table named by the query "
+                    + "parameters. Tokens are read as they arrive, so the input may be larger "
+                    + "than the heap. Returns the verdict together with the tokens parsed per "
+                    + "second and the peak heap use, the largest JVM-wide used heap sampled "
+                    + "while reading."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Token stream successfully parsed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = StreamParseResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Neither a stored analysis nor a grammar was given",
+                    content = @Content
+            )
+    })
+    @PostMapping(value = "/parse/stream", consumes = {MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public StreamParseResponseDto parseStream(
+            @RequestParam(required = false) String analysisId,
+            @RequestParam(required = false) String grammar,
+            HttpServletRequest request
+    ) throws IOException {
+        return grammarService.parseStream(analysisId, grammar,
+                Channels.newChannel(request.getInputStream()));
+    }
+
+    /**
+     * Retrieves the counters and occupancy of the store keeping analyses for step retrieval.
+     *
+     * @return DTO with hit, miss and eviction counts and the estimated memory use
+     */
+    @Operation(
+            summary = "Retrieve analysis store statistics",
+            description = "Endpoint returning the hit, miss and eviction counters "
+                    + "of the analysis store together with its number of entries "
+                    + "and estimated memory use."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statistics successfully retrieved",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AnalysisStoreStatsDto.class)
+                    )
+            )
+    })
+    @GetMapping("/store/stats")
+    public AnalysisStoreStatsDto getStoreStats() {
+        return grammarService.getStoreStats();
+    }
+
+    /**
+     * Retrieves the counters of the analysis result cache.
+     *
+     * @return DTO with hit and miss counts, hit ratio and number of cached results
+     */
+    @Operation(
+            summary = "Retrieve analysis cache statistics",
+            description = "Endpoint returning the hit and miss counters, hit ratio, "
+                    + "evictions and size of the cache of analysis results."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statistics successfully retrieved",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AnalysisCacheStatsDto.class)
+                    )
+            )
+    })
+    @GetMapping("/cache/stats")
+    public AnalysisCacheStatsDto getCacheStats() {
+        return grammarService.getCacheStats();
+    }
+
+    /**
+     * Writes the verdicts of a batch and its summary as NDJSON. Nothing is written before
+     * the grammar is resolved, so a missing grammar still produces an error response.
+     */
+    private void writeVerdicts(String analysisId, String grammar, Iterator<String> sentences,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(),
+                StandardCharsets.UTF_8));
+        BatchParseSummaryDto summary = grammarService.parseBatch(analysisId, grammar,
+                sentences, verdict -> writeLine(writer, verdict));
+        writeLine(writer, summary);
+        writer.flush();
+    }
+
+    private void writeLine(Writer writer, Object value) {
+        try {
+            writer.write(objectMapper.writeValueAsString(value));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String readSentence(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return node.isTextual() ? node.asText() : node.path("input").asText();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object with the counters and occupancy of the analysis result cache.
+ */
+@Getter
+@Setter
+public class AnalysisCacheStatsDto {
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+    private long entries;
+}
@@ -0,0 +1,18 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object with the counters and occupancy of the analysis store.
+ */
+@Getter
+@Setter
+public class AnalysisStoreStatsDto {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int entries;
+    private long estimatedBytes;
+    private long maxBytes;
+}
@@ -0,0 +1,20 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for parsing a batch of sentences with the LL(1) table of a grammar.
+ * The grammar is given as for a single sentence, by the id of a stored analysis or as
+ * grammar text; each sentence is a whitespace-separated token string.
+ */
+@Getter
+@Setter
+public class BatchParseRequestDto {
+    private String analysisId;
+    private String grammar;
+    @NotNull
+    private List<String> sentences;
+}
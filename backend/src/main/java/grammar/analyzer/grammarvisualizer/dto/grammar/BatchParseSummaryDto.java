@@ -0,0 +1,18 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object closing a batch of verdicts: the number of sentences accepted and
+ * rejected, the elapsed time and the throughput in sentences per second.
+ */
+@Getter
+@Setter
+public class BatchParseSummaryDto {
+    private int sentences;
+    private int accepted;
+    private int rejected;
+    private long elapsedMillis;
+    private double sentencesPerSecond;
+}
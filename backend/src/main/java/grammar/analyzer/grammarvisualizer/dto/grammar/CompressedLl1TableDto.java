@@ -0,0 +1,27 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object carrying the LL(1) table as a compact array payload.
+ * The rule of row {@code A} and column {@code t} is {@code next[base[A] + t]} when
+ * {@code check[base[A] + t] == A}, otherwise the cell is empty; a base of -1 marks a row
+ * without any rule. Rule ids are zero-based, so id {@code p} is rule {@code R(p + 1)}.
+ * Cells predicting several rules are listed in {@code conflictCells} by dense index
+ * {@code A * terminals.size() + t}, with their rule ids at the same position of
+ * {@code conflictRules}.
+ */
+@Getter
+@Setter
+public class CompressedLl1TableDto {
+    private List<String> nonTerminals;
+    private List<String> terminals;
+    private int[] base;
+    private int[] next;
+    private int[] check;
+    private int[] conflictCells;
+    private int[][] conflictRules;
+    private TableSizeReportDto sizeReport;
+}
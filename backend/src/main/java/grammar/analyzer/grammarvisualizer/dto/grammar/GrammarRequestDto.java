@@ -6,11 +6,18 @@ import lombok.Setter;
 
 /**
  * Data Transfer Object for submitting grammar definitions.
- * Contains the raw grammar text to be analyzed.
+ * Contains the raw grammar text to be analyzed and the optional trace mode
+ * ("full" by default, or "none" to skip step recording). The optional previous analysis id
+ * names the analysis this submission edits, so that its unchanged results can be reused.
+ * With {@code compactTable} set, the LL(1) table is returned only in its compressed array
+ * form instead of the named table.
  */
 @Getter
 @Setter
 public class GrammarRequestDto {
     @NotBlank
     private String grammar;
+    private String trace;
+    private String previousAnalysisId;
+    private boolean compactTable;
 }
@@ -14,13 +14,17 @@ import lombok.Setter;
 @Getter
 @Setter
 public class GrammarResponseDto {
+    private String analysisId;
     private boolean ll1;
     private Map<String, Set<String>> firstSets;
     private Map<String, Set<String>> followSets;
     private Map<String, Set<String>> predictSets;
+    private Set<String> nullableNonTerminals;
     private Map<String, List<String>> productionRules;
 
     private Map<String, Map<String, String>> ll1Table;
+    private List<String> ll1Conflicts;
+    private CompressedLl1TableDto compressedLl1Table;
 
     private Map<String, Set<String>> partialResult;
     private Map<String, List<String>> currentStepDetails;
@@ -34,4 +38,6 @@ public class GrammarResponseDto {
     private Map<String, Integer> productionRuleNumbers;
 
     private String transformedGrammar;
+
+    private ReuseReportDto reuseReport;
 }
@@ -8,6 +8,7 @@ import lombok.Data;
  */
 @Data
 public class GrammarStepRequestDto {
+    private String analysisId;
     private String analysisType;
     private int stepIndex;
     private String grammar;
@@ -0,0 +1,24 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for parsing a sentence with the LL(1) table of a grammar.
+ * The grammar is given either by the id of a stored analysis or as grammar text, which is
+ * analyzed without a step trace when the id is missing or no longer stored.
+ * The input is a whitespace-separated token string; a token names a terminal with or
+ * without its quotes, so {@code id + id} and {@code 'id' '+' 'id'} are the same input.
+ * With {@code rawText} set, the input is program text split into terminals by the
+ * longest-match lexer of the grammar instead, so {@code x<=y} needs no spaces.
+ */
+@Getter
+@Setter
+public class ParseRequestDto {
+    private String analysisId;
+    private String grammar;
+    @NotNull
+    private String input;
+    private boolean rawText;
+}
@@ -0,0 +1,26 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object with the verdict of parsing a sentence, and its zero-based index
+ * among the sentences of a batch.
+ * A rejected sentence reports the zero-based position of the failing token (the token
+ * count when the input ended too early), the token itself ({@code $} for the end of
+ * input) and the terminals that were expected there. When parsing stopped at a cell
+ * predicting several rules, the conflict describes that cell.
+ */
+@Getter
+@Setter
+public class ParseResponseDto {
+    private int index;
+    private boolean accepted;
+    private boolean ll1;
+    private int tokenCount;
+    private int errorPosition;
+    private String errorToken;
+    private List<String> expected;
+    private String conflict;
+}
@@ -0,0 +1,22 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object reporting how much of a previous analysis was reused:
+ * the number of FIRST, FOLLOW and PREDICT sets and LL(1) table rows taken over
+ * unchanged and the number recomputed.
+ */
+@Getter
+@Setter
+public class ReuseReportDto {
+    private int firstReused;
+    private int firstRecomputed;
+    private int followReused;
+    private int followRecomputed;
+    private int predictReused;
+    private int predictRecomputed;
+    private int tableRowsReused;
+    private int tableRowsRebuilt;
+}
@@ -0,0 +1,18 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object with the verdict of parsing a streamed token input, the elapsed
+ * time, the throughput in tokens per second and the peak heap use in bytes. The heap
+ * use is the largest JVM-wide sample taken while reading, including uncollected garbage
+ * and other requests' allocations.
+ */
+@Getter
+@Setter
+public class StreamParseResponseDto extends ParseResponseDto {
+    private long elapsedMillis;
+    private double tokensPerSecond;
+    private long peakHeapBytes;
+}
@@ -0,0 +1,19 @@
+package grammar.analyzer.grammarvisualizer.dto.grammar;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object comparing the dense LL(1) table with its compressed form:
+ * cell counts and the bytes of the {@code int} arrays of both forms.
+ */
+@Getter
+@Setter
+public class TableSizeReportDto {
+    private int cells;
+    private int filledCells;
+    private int defaultErrorRows;
+    private int compressedSlots;
+    private long denseBytes;
+    private long compressedBytes;
+}
@@ -64,7 +64,7 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
 
     @ExceptionHandler(GrammarSyntaxException.class)
     public ResponseEntity<Object> handleGrammarSyntaxException(GrammarSyntaxException ex) {
-        return buildResponseEntity(ex.getMessage(), HttpStatus.BAD_REQUEST);
+        return buildResponseEntity(ex.getErrors(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(UnknownAnalysisTypeException.class)
@@ -74,6 +74,11 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
         return buildResponseEntity(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(UnknownTraceModeException.class)
+    public ResponseEntity<Object> handleUnknownTraceModeException(UnknownTraceModeException ex) {
+        return buildResponseEntity(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(GrammarNotInitializedException.class)
     public ResponseEntity<Object> handleGrammarNotInitializedException(
             GrammarNotInitializedException ex
@@ -85,10 +90,17 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
      * Builds a consistent error response body.
      */
     private ResponseEntity<Object> buildResponseEntity(String message, HttpStatus status) {
+        return buildResponseEntity(List.of(message), status);
+    }
+
+    /**
+     * Builds an error response body listing several errors.
+     */
+    private ResponseEntity<Object> buildResponseEntity(List<String> errors, HttpStatus status) {
         Map<String, Object> body = new LinkedHashMap<>();
         body.put(TIMESTAMP, LocalDateTime.now());
         body.put(STATUS, status);
-        body.put(ERRORS, List.of(message));
+        body.put(ERRORS, errors);
         return new ResponseEntity<>(body, status);
     }
 }
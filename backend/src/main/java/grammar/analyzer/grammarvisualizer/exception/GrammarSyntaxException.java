@@ -1,10 +1,25 @@
 package grammar.analyzer.grammarvisualizer.exception;
 
+import java.util.List;
+
 /**
  * Exception for handling grammar syntax errors.
+ * Holds every error found in the grammar; the message joins them line by line.
  */
 public class GrammarSyntaxException extends RuntimeException {
+    private final List<String> errors;
+
     public GrammarSyntaxException(String message) {
         super(message);
+        this.errors = List.of(message);
+    }
+
+    public GrammarSyntaxException(List<String> errors) {
+        super(String.join("\n", errors));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
     }
 }
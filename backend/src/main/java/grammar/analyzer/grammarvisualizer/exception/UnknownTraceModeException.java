@@ -0,0 +1,10 @@
+package grammar.analyzer.grammarvisualizer.exception;
+
+/**
+ * Exception for an unknown trace mode.
+ */
+public class UnknownTraceModeException extends RuntimeException {
+    public UnknownTraceModeException(String traceMode) {
+        super("Unknown trace mode: " + traceMode);
+    }
+}
@@ -1,8 +1,18 @@
 package grammar.analyzer.grammarvisualizer.mapper;
 
 import grammar.analyzer.grammarvisualizer.config.MapperConfig;
+import grammar.analyzer.grammarvisualizer.dto.grammar.BatchParseSummaryDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.CompressedLl1TableDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ReuseReportDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.StreamParseResponseDto;
+import grammar.analyzer.grammarvisualizer.model.BatchParseSummary;
+import grammar.analyzer.grammarvisualizer.model.CompressedLl1Table;
 import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ParseResult;
+import grammar.analyzer.grammarvisualizer.model.ReuseReport;
+import grammar.analyzer.grammarvisualizer.model.StreamParseResult;
 import org.mapstruct.Mapper;
 
 /**
@@ -18,4 +28,44 @@ public interface GrammarMapper {
      * @return the populated GrammarResponseDto
      */
     GrammarResponseDto toDto(Grammar grammar);
+
+    /**
+     * Maps a reuse report of an incremental re-analysis to its DTO.
+     *
+     * @param reuseReport the ReuseReport to convert
+     * @return the populated ReuseReportDto
+     */
+    ReuseReportDto toDto(ReuseReport reuseReport);
+
+    /**
+     * Maps a compressed LL(1) table, including its size report, to its DTO.
+     *
+     * @param table the CompressedLl1Table to convert
+     * @return the populated CompressedLl1TableDto
+     */
+    CompressedLl1TableDto toDto(CompressedLl1Table table);
+
+    /**
+     * Maps the verdict of parsing a sentence to its DTO.
+     *
+     * @param parseResult the ParseResult to convert
+     * @return the populated ParseResponseDto
+     */
+    ParseResponseDto toDto(ParseResult parseResult);
+
+    /**
+     * Maps the summary of a batch of parsed sentences to its DTO.
+     *
+     * @param summary the BatchParseSummary to convert
+     * @return the populated BatchParseSummaryDto
+     */
+    BatchParseSummaryDto toDto(BatchParseSummary summary);
+
+    /**
+     * Maps the verdict and statistics of parsing a streamed token input to its DTO.
+     *
+     * @param parseResult the StreamParseResult to convert
+     * @return the populated StreamParseResponseDto
+     */
+    StreamParseResponseDto toDto(StreamParseResult parseResult);
 }
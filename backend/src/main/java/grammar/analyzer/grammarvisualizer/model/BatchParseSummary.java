@@ -0,0 +1,18 @@
+package grammar.analyzer.grammarvisualizer.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Model summarizing a batch of parsed sentences: how many were accepted and rejected,
+ * the time the batch took and the resulting throughput in sentences per second.
+ */
+@Getter
+@Setter
+public class BatchParseSummary {
+    private int sentences;
+    private int accepted;
+    private int rejected;
+    private long elapsedMillis;
+    private double sentencesPerSecond;
+}
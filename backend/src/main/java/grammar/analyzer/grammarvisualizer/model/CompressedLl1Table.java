@@ -0,0 +1,50 @@
+package grammar.analyzer.grammarvisualizer.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * LL(1) parse table packed by row displacement into a comb vector.
+ * The cells of row {@code A} predicting a rule are stored at {@code next[base[A] + t]},
+ * and {@code check} records which row owns each slot, so rows with disjoint filled columns
+ * interleave in one array. A slot owned by another row, or a row whose base is
+ * {@link #DEFAULT_ERROR_ROW}, means the cell is empty and the parser reports an error.
+ * Cells predicting several rules hold the lowest one; their full rule lists are kept in the
+ * same sparse form as the dense table, keyed by the dense cell index
+ * {@code A * terminals.size() + t}.
+ */
+@Getter
+@AllArgsConstructor
+public class CompressedLl1Table {
+    /**
+     * Base of a row without any rule, which stores no slots.
+     */
+    public static final int DEFAULT_ERROR_ROW = -1;
+
+    private List<String> nonTerminals;
+    private List<String> terminals;
+    private int[] base;
+    private int[] next;
+    private int[] check;
+    private int[] conflictCells;
+    private int[][] conflictRules;
+    private TableSizeReport sizeReport;
+
+    /**
+     * Returns the production predicted in a cell, the lowest one if the cell holds several,
+     * or -1 if the cell is empty.
+     *
+     * @param nonTerminal row index
+     * @param terminal    column index
+     * @return production id or -1
+     */
+    public int rule(int nonTerminal, int terminal) {
+        int rowBase = base[nonTerminal];
+        if (rowBase == DEFAULT_ERROR_ROW) {
+            return -1;
+        }
+        int slot = rowBase + terminal;
+        return slot < check.length && check[slot] == nonTerminal ? next[slot] : -1;
+    }
+}
@@ -1,6 +1,12 @@
 package grammar.analyzer.grammarvisualizer.model;
 
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import grammar.analyzer.grammarvisualizer.util.TerminalLexer;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -15,17 +21,29 @@ import lombok.Setter;
 @Getter
 @Setter
 public class Grammar {
+    private String analysisId;
     private Map<String, Set<String>> firstSets = new LinkedHashMap<>();
     private Map<String, Set<String>> followSets = new LinkedHashMap<>();
     private Map<String, Set<String>> predictSets = new LinkedHashMap<>();
     private Map<String, List<String>> productionRules = new LinkedHashMap<>();
+    private GrammarIr grammarIr;
+    private Nullability nullability;
+    private Set<String> nullableNonTerminals = new LinkedHashSet<>();
 
+    private TerminalSet[] firstBitSets;
+    private TerminalSet[] followBitSets;
+    private TerminalSet[] predictBitSets;
+
+    private TraceMode traceMode = TraceMode.FULL;
     private List<StepRecord> firstStepRecords;
     private List<StepRecord> followStepRecords;
     private List<StepRecord> predictStepRecords;
 
+    private Ll1Table parseTable;
     private Map<String, Map<String, String>> ll1Table;
     private boolean ll1;
+    private List<String> ll1Conflicts;
+    private TerminalLexer lexer;
 
     private int pseudoCodeLine;
     private String currentAnalysisType;
@@ -36,4 +54,6 @@ public class Grammar {
     private Map<String, Integer> productionRuleNumbers;
 
     private String transformedGrammar;
+
+    private ReuseReport reuseReport;
 }
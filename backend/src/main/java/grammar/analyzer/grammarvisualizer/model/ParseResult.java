@@ -0,0 +1,26 @@
+package grammar.analyzer.grammarvisualizer.model;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Model holding the verdict of parsing a sentence with an LL(1) table, and the index of
+ * the sentence within its batch.
+ * For a rejected sentence it records the zero-based position of the failing token,
+ * the token ({@code $} at the end of input) and the terminals expected there;
+ * an accepted sentence has error position -1. A sentence reaching a cell of the table
+ * that predicts several rules is rejected there, with the conflicting cell described.
+ */
+@Getter
+@Setter
+public class ParseResult {
+    private int index;
+    private boolean accepted;
+    private boolean ll1;
+    private int tokenCount;
+    private int errorPosition = -1;
+    private String errorToken;
+    private List<String> expected;
+    private String conflict;
+}
@@ -0,0 +1,22 @@
+package grammar.analyzer.grammarvisualizer.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Model describing how much of a previous analysis an incremental re-analysis reused:
+ * the number of FIRST, FOLLOW and PREDICT sets and LL(1) table rows taken over
+ * unchanged and the number recomputed.
+ */
+@Getter
+@Setter
+public class ReuseReport {
+    private int firstReused;
+    private int firstRecomputed;
+    private int followReused;
+    private int followRecomputed;
+    private int predictReused;
+    private int predictRecomputed;
+    private int tableRowsReused;
+    private int tableRowsRebuilt;
+}
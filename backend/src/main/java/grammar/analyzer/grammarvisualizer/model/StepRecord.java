@@ -1,5 +1,6 @@
 package grammar.analyzer.grammarvisualizer.model;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,10 @@ import lombok.Setter;
 /**
  * Model representing a single analysis step in the grammar processing pipeline.
  * Contains a description, intermediate result sets, and the related pseudocode line.
+ * Intermediate results are stored either as a full checkpoint in {@code partialResult}
+ * or, for all other steps, as the elements added and removed since the previous step.
+ * The tail of a set given in {@code removed} is dropped before {@code added} is appended,
+ * which preserves insertion order on replay.
  */
 @Getter
 @Setter
@@ -19,4 +24,27 @@ public class StepRecord {
     private Map<String, Set<String>> partialResult;
 
     private int pseudocodeLine;
+
+    private Map<String, List<String>> added;
+
+    private Map<String, List<String>> removed;
+
+    /**
+     * Creates a checkpoint step holding a full snapshot of the intermediate sets.
+     *
+     * @param description    human-readable description of the step
+     * @param partialResult  full snapshot of the intermediate sets
+     * @param pseudocodeLine corresponding pseudocode line number
+     */
+    public StepRecord(String description, Map<String, Set<String>> partialResult,
+                      int pseudocodeLine) {
+        this(description, partialResult, pseudocodeLine, Map.of(), Map.of());
+    }
+
+    /**
+     * Returns whether this step carries a full snapshot rather than a delta.
+     */
+    public boolean isCheckpoint() {
+        return partialResult != null;
+    }
 }
@@ -0,0 +1,18 @@
+package grammar.analyzer.grammarvisualizer.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Model holding the verdict of parsing a streamed token input, together with the time the
+ * run took, the throughput in tokens per second and the peak JVM-wide heap use sampled
+ * while the input was read. The token count only covers the tokens read, so for a
+ * rejected input it ends at the failing token.
+ */
+@Getter
+@Setter
+public class StreamParseResult extends ParseResult {
+    private long elapsedMillis;
+    private double tokensPerSecond;
+    private long peakHeapBytes;
+}
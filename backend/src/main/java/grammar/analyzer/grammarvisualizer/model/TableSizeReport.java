@@ -0,0 +1,21 @@
+package grammar.analyzer.grammarvisualizer.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Model comparing the size of the dense LL(1) table with its comb-vector packing:
+ * the number of cells, of cells predicting a rule and of rows without any rule,
+ * and the bytes of the {@code int} arrays of both forms. Conflict lists are stored the
+ * same way in both forms and are not counted.
+ */
+@Getter
+@Setter
+public class TableSizeReport {
+    private int cells;
+    private int filledCells;
+    private int defaultErrorRows;
+    private int compressedSlots;
+    private long denseBytes;
+    private long compressedBytes;
+}
@@ -0,0 +1,36 @@
+package grammar.analyzer.grammarvisualizer.model;
+
+import grammar.analyzer.grammarvisualizer.exception.UnknownTraceModeException;
+import java.util.Locale;
+
+/**
+ * Level of step tracing requested for a grammar analysis.
+ */
+public enum TraceMode {
+    /**
+     * Records every step of the FIRST, FOLLOW and PREDICT computations for visualization.
+     */
+    FULL,
+    /**
+     * Computes only the final sets and the LL(1) table, without recording any steps.
+     */
+    NONE;
+
+    /**
+     * Resolves a trace mode from its case-insensitive name.
+     *
+     * @param value trace mode name, or {@code null} for the default
+     * @return matching trace mode; FULL when no value is given
+     * @throws UnknownTraceModeException if the name does not match any trace mode
+     */
+    public static TraceMode of(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new UnknownTraceModeException(value);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package grammar.analyzer.grammarvisualizer.model.ir;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Integer-encoded intermediate representation of a grammar, built once after parsing.
+ * Non-terminals are interned to ids {@code 0..N-1} in definition order and terminals to
+ * ids {@code N..N+T-1} in order of first appearance, with the end marker {@code $} last.
+ * Every production is stored as the id of its left-hand side and an {@code int[]} of
+ * right-hand side symbol ids; the {@code epsilon} keyword is encoded as an empty body.
+ * Terminal indices {@code 0..T-1} together with the extra ε index {@code T} form the
+ * universe of elements for FIRST, FOLLOW and PREDICT sets.
+ */
+public class GrammarIr {
+    public static final String EPSILON_KEYWORD = "epsilon";
+    public static final String EPSILON = "ε";
+    public static final String END_MARKER = "$";
+
+    private final SymbolTable symbols;
+    private final int nonTerminalCount;
+    private final int terminalCount;
+    private final int[] productionLhs;
+    private final int[][] productionRhs;
+    private final String[] productionTexts;
+    private final String[] productionKeys;
+    private final int[][] productionsByLhs;
+
+    private GrammarIr(SymbolTable symbols, int nonTerminalCount, int[] productionLhs,
+                      int[][] productionRhs, String[] productionTexts) {
+        this.symbols = symbols;
+        this.nonTerminalCount = nonTerminalCount;
+        this.terminalCount = symbols.size() - nonTerminalCount;
+        this.productionLhs = productionLhs;
+        this.productionRhs = productionRhs;
+        this.productionTexts = productionTexts;
+        this.productionKeys = new String[productionLhs.length];
+        int[] counts = new int[nonTerminalCount];
+        for (int p = 0; p < productionLhs.length; p++) {
+            productionKeys[p] = symbols.nameOf(productionLhs[p]) + " -> " + productionTexts[p];
+            counts[productionLhs[p]]++;
+        }
+        this.productionsByLhs = new int[nonTerminalCount][];
+        for (int a = 0; a < nonTerminalCount; a++) {
+            productionsByLhs[a] = new int[counts[a]];
+            counts[a] = 0;
+        }
+        for (int p = 0; p < productionLhs.length; p++) {
+            int a = productionLhs[p];
+            productionsByLhs[a][counts[a]++] = p;
+        }
+    }
+
+    /**
+     * Builds the IR from the production map produced by the grammar parser.
+     * Each production string is split into symbols exactly once.
+     *
+     * @param productionRules ordered map of non-terminals to their production alternatives
+     * @return integer-encoded grammar
+     */
+    public static GrammarIr of(Map<String, List<String>> productionRules) {
+        Builder builder = builder();
+        for (Map.Entry<String, List<String>> entry : productionRules.entrySet()) {
+            for (String production : entry.getValue()) {
+                builder.addProduction(entry.getKey(), production.trim().split("\\s+"),
+                        production);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a builder that collects productions symbol by symbol.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getNonTerminalCount() {
+        return nonTerminalCount;
+    }
+
+    /**
+     * Returns the number of terminals, including the end marker {@code $}.
+     */
+    public int getTerminalCount() {
+        return terminalCount;
+    }
+
+    public int getProductionCount() {
+        return productionLhs.length;
+    }
+
+    /**
+     * Returns the terminal index of the end marker {@code $}.
+     */
+    public int endMarker() {
+        return terminalCount - 1;
+    }
+
+    /**
+     * Returns the set-element index reserved for ε, one past the last terminal.
+     */
+    public int epsilon() {
+        return terminalCount;
+    }
+
+    /**
+     * Returns the size of the set-element universe: all terminals plus ε.
+     */
+    public int lookaheadCount() {
+        return terminalCount + 1;
+    }
+
+    /**
+     * Returns the display name of a set element (terminal index or ε).
+     */
+    public String lookaheadName(int index) {
+        return index == terminalCount ? EPSILON : symbols.nameOf(nonTerminalCount + index);
+    }
+
+    /**
+     * Returns the set-element index for a display name, or -1 if it is unknown.
+     */
+    public int lookaheadIndex(String name) {
+        if (EPSILON.equals(name)) {
+            return terminalCount;
+        }
+        int id = symbols.idOf(name);
+        return id < nonTerminalCount ? -1 : id - nonTerminalCount;
+    }
+
+    public boolean isNonTerminal(int symbol) {
+        return symbol < nonTerminalCount;
+    }
+
+    /**
+     * Converts a terminal symbol id into its terminal index.
+     */
+    public int terminalIndex(int symbol) {
+        return symbol - nonTerminalCount;
+    }
+
+    public String symbolName(int symbol) {
+        return symbols.nameOf(symbol);
+    }
+
+    public String nonTerminalName(int nonTerminal) {
+        return symbols.nameOf(nonTerminal);
+    }
+
+    public String terminalName(int terminal) {
+        return symbols.nameOf(nonTerminalCount + terminal);
+    }
+
+    /**
+     * Returns the id of the given non-terminal, or -1 if the name is not a non-terminal.
+     */
+    public int nonTerminalId(String name) {
+        int id = symbols.idOf(name);
+        return id < nonTerminalCount ? id : -1;
+    }
+
+    public int lhs(int production) {
+        return productionLhs[production];
+    }
+
+    public int[] rhs(int production) {
+        return productionRhs[production];
+    }
+
+    /**
+     * Returns the right-hand side exactly as written in the grammar (e.g. {@code epsilon}).
+     */
+    public String productionText(int production) {
+        return productionTexts[production];
+    }
+
+    /**
+     * Returns the production key in the {@code "A -> α"} form used by PREDICT sets.
+     */
+    public String productionKey(int production) {
+        return productionKeys[production];
+    }
+
+    /**
+     * Returns the ids of all productions of the given non-terminal, in definition order.
+     */
+    public int[] productionsOf(int nonTerminal) {
+        return productionsByLhs[nonTerminal];
+    }
+
+    /**
+     * Renders the symbols {@code rhs[from..]} as a space separated string.
+     */
+    public String render(int[] rhs, int from) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i < rhs.length; i++) {
+            if (i > from) {
+                sb.append(' ');
+            }
+            sb.append(symbols.nameOf(rhs[i]));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the ordered list of non-terminal names.
+     */
+    public List<String> nonTerminalNames() {
+        List<String> names = new ArrayList<>(nonTerminalCount);
+        for (int a = 0; a < nonTerminalCount; a++) {
+            names.add(symbols.nameOf(a));
+        }
+        return names;
+    }
+
+    /**
+     * Rebuilds the string production map in the shape returned by the grammar parser.
+     */
+    public Map<String, List<String>> toProductionRules() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        for (int a = 0; a < nonTerminalCount; a++) {
+            List<String> alternatives = new ArrayList<>(productionsByLhs[a].length);
+            for (int p : productionsByLhs[a]) {
+                alternatives.add(productionTexts[p]);
+            }
+            rules.put(symbols.nameOf(a), alternatives);
+        }
+        return rules;
+    }
+
+    /**
+     * Collects productions by symbol name and assigns the final dense ids on build.
+     * Productions are grouped by left-hand side in order of first definition, so a
+     * non-terminal defined on several lines keeps all of its alternatives together.
+     */
+    public static class Builder {
+        private final Map<String, List<RawProduction>> productions = new LinkedHashMap<>();
+
+        private record RawProduction(String[] symbols, String text) {
+        }
+
+        /**
+         * Adds a production given its right-hand side symbols and original text.
+         *
+         * @param lhs     left-hand side non-terminal
+         * @param symbols right-hand side symbols; {@code epsilon} entries are dropped
+         * @param text    right-hand side as written, used for display and keys
+         * @return this builder
+         */
+        public Builder addProduction(String lhs, String[] symbols, String text) {
+            productions.computeIfAbsent(lhs, k -> new ArrayList<>())
+                    .add(new RawProduction(symbols, text));
+            return this;
+        }
+
+        /**
+         * Interns all symbols and produces the immutable IR.
+         */
+        public GrammarIr build() {
+            SymbolTable table = new SymbolTable();
+            for (String lhs : productions.keySet()) {
+                table.intern(lhs);
+            }
+            int nonTerminalCount = table.size();
+            int productionCount = 0;
+            // Terminals are interned in order of first appearance, then the end marker
+            for (List<RawProduction> alternatives : productions.values()) {
+                for (RawProduction production : alternatives) {
+                    productionCount++;
+                    for (String symbol : production.symbols()) {
+                        if (!symbol.isEmpty() && !EPSILON_KEYWORD.equals(symbol)) {
+                            table.intern(symbol);
+                        }
+                    }
+                }
+            }
+            table.intern(END_MARKER);
+
+            int[] lhsIds = new int[productionCount];
+            int[][] rhsIds = new int[productionCount][];
+            String[] texts = new String[productionCount];
+            int p = 0;
+            for (Map.Entry<String, List<RawProduction>> entry : productions.entrySet()) {
+                int lhsId = table.idOf(entry.getKey());
+                for (RawProduction production : entry.getValue()) {
+                    String[] symbols = production.symbols();
+                    int length = 0;
+                    int[] rhs = new int[symbols.length];
+                    for (String symbol : symbols) {
+                        if (!symbol.isEmpty() && !EPSILON_KEYWORD.equals(symbol)) {
+                            rhs[length++] = table.idOf(symbol);
+                        }
+                    }
+                    lhsIds[p] = lhsId;
+                    rhsIds[p] = length == rhs.length ? rhs : Arrays.copyOf(rhs, length);
+                    texts[p] = production.text();
+                    p++;
+                }
+            }
+            return new GrammarIr(table, nonTerminalCount, lhsIds, rhsIds, texts);
+        }
+    }
+}
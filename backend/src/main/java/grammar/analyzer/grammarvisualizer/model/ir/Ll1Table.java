@@ -0,0 +1,309 @@
+package grammar.analyzer.grammarvisualizer.model.ir;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * LL(1) parse table of a {@link GrammarIr} stored as a dense {@code int[]} of production ids,
+ * one row per non-terminal and one column per terminal (including {@code $}).
+ * Cells holding several rules keep their lowest production id in the dense array and the
+ * full list in a separate sparse conflict map, keyed by cell index.
+ *
+ * <p>The named table of the API ({@code "R1"}, {@code "R1, R2"} or {@code ""} per cell) is
+ * available as a read-only view that renders labels on access, so no strings are kept.
+ */
+public class Ll1Table {
+    /**
+     * Content of a cell no rule predicts.
+     */
+    public static final int EMPTY = -1;
+
+    private final int nonTerminalCount;
+    private final int terminalCount;
+    private final int[] cells;
+    private final TreeMap<Integer, int[]> conflicts = new TreeMap<>();
+
+    /**
+     * Creates a table with all cells empty.
+     *
+     * @param nonTerminalCount number of rows
+     * @param terminalCount    number of columns, including the end marker {@code $}
+     */
+    public Ll1Table(int nonTerminalCount, int terminalCount) {
+        this.nonTerminalCount = nonTerminalCount;
+        this.terminalCount = terminalCount;
+        this.cells = new int[nonTerminalCount * terminalCount];
+        Arrays.fill(cells, EMPTY);
+    }
+
+    public int getNonTerminalCount() {
+        return nonTerminalCount;
+    }
+
+    public int getTerminalCount() {
+        return terminalCount;
+    }
+
+    /**
+     * Returns the index of a cell in the dense array.
+     */
+    public int cellIndex(int nonTerminal, int terminal) {
+        return nonTerminal * terminalCount + terminal;
+    }
+
+    /**
+     * Returns the production predicted in a cell, the lowest one if the cell holds several,
+     * or {@link #EMPTY}.
+     */
+    public int rule(int nonTerminal, int terminal) {
+        return cells[nonTerminal * terminalCount + terminal];
+    }
+
+    /**
+     * Returns all productions predicted in a cell in ascending order.
+     */
+    public int[] rules(int nonTerminal, int terminal) {
+        int cell = cellIndex(nonTerminal, terminal);
+        int[] rules = conflicts.get(cell);
+        if (rules != null) {
+            return rules.clone();
+        }
+        return cells[cell] == EMPTY ? new int[0] : new int[] {cells[cell]};
+    }
+
+    /**
+     * Stores the single production predicted in a cell. Rows are independent, so
+     * different rows may be filled concurrently.
+     */
+    public void set(int nonTerminal, int terminal, int production) {
+        cells[nonTerminal * terminalCount + terminal] = production;
+    }
+
+    /**
+     * Stores a cell predicting several productions. Must not be called concurrently.
+     *
+     * @param nonTerminal row of the cell
+     * @param terminal    column of the cell
+     * @param productions predicted production ids in ascending order
+     */
+    public void setConflict(int nonTerminal, int terminal, int[] productions) {
+        int cell = cellIndex(nonTerminal, terminal);
+        cells[cell] = productions[0];
+        conflicts.put(cell, productions.clone());
+    }
+
+    public boolean hasConflict(int nonTerminal, int terminal) {
+        return conflicts.containsKey(cellIndex(nonTerminal, terminal));
+    }
+
+    /**
+     * Returns true if no cell predicts more than one production.
+     */
+    public boolean isLl1() {
+        return conflicts.isEmpty();
+    }
+
+    public int getConflictCount() {
+        return conflicts.size();
+    }
+
+    /**
+     * Returns the indices of the cells predicting several productions in ascending order,
+     * which is row by row in non-terminal order.
+     */
+    public int[] conflictCells() {
+        return conflicts.keySet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Describes each conflicting cell as {@code M[A, 'a'] = R1, R2}, row by row.
+     *
+     * @param ir grammar the table was built for
+     * @return conflict descriptions in cell order
+     */
+    public List<String> describeConflicts(GrammarIr ir) {
+        List<String> descriptions = new ArrayList<>(conflicts.size());
+        for (int cell : conflicts.keySet()) {
+            descriptions.add(describeConflict(ir, cell / terminalCount, cell % terminalCount));
+        }
+        return descriptions;
+    }
+
+    /**
+     * Describes one conflicting cell as {@code M[A, 'a'] = R1, R2}.
+     *
+     * @param ir          grammar the table was built for
+     * @param nonTerminal row of the cell
+     * @param terminal    column of the cell
+     * @return conflict description, or null if the cell predicts at most one production
+     */
+    public String describeConflict(GrammarIr ir, int nonTerminal, int terminal) {
+        int[] productions = conflicts.get(cellIndex(nonTerminal, terminal));
+        if (productions == null) {
+            return null;
+        }
+        return "M[" + ir.nonTerminalName(nonTerminal) + ", " + ir.terminalName(terminal)
+                + "] = " + label(productions);
+    }
+
+    /**
+     * Returns the table keyed by non-terminal and terminal names with rule labels as values,
+     * in the shape of the former string table. The view is read-only and renders labels
+     * on access.
+     *
+     * @param ir grammar the table was built for
+     * @return named view of the table
+     */
+    public Map<String, Map<String, String>> toView(GrammarIr ir) {
+        return new TableView(ir);
+    }
+
+    private String label(int cell) {
+        int[] rules = conflicts.get(cell);
+        if (rules != null) {
+            return label(rules);
+        }
+        return cells[cell] == EMPTY ? "" : "R" + (cells[cell] + 1);
+    }
+
+    private static String label(int[] rules) {
+        StringBuilder label = new StringBuilder();
+        for (int rule : rules) {
+            if (label.length() > 0) {
+                label.append(", ");
+            }
+            label.append('R').append(rule + 1);
+        }
+        return label.toString();
+    }
+
+    /**
+     * Named view of all rows.
+     */
+    private final class TableView extends AbstractMap<String, Map<String, String>> {
+        private final GrammarIr ir;
+
+        private TableView(GrammarIr ir) {
+            this.ir = ir;
+        }
+
+        @Override
+        public Map<String, String> get(Object key) {
+            int row = key instanceof String name ? ir.nonTerminalId(name) : -1;
+            return row < 0 ? null : new RowView(ir, row);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String name && ir.nonTerminalId(name) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return nonTerminalCount;
+        }
+
+        @Override
+        public Set<Entry<String, Map<String, String>>> entrySet() {
+            return new IndexedEntries<>(nonTerminalCount) {
+                @Override
+                Entry<String, Map<String, String>> entry(int row) {
+                    return new SimpleImmutableEntry<>(ir.nonTerminalName(row),
+                            new RowView(ir, row));
+                }
+            };
+        }
+    }
+
+    /**
+     * Named view of one row.
+     */
+    private final class RowView extends AbstractMap<String, String> {
+        private final GrammarIr ir;
+        private final int offset;
+
+        private RowView(GrammarIr ir, int row) {
+            this.ir = ir;
+            this.offset = row * terminalCount;
+        }
+
+        @Override
+        public String get(Object key) {
+            int column = column(key);
+            return column < 0 ? null : label(offset + column);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return column(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return terminalCount;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new IndexedEntries<>(terminalCount) {
+                @Override
+                Entry<String, String> entry(int column) {
+                    return new SimpleImmutableEntry<>(ir.terminalName(column),
+                            label(offset + column));
+                }
+            };
+        }
+
+        private int column(Object key) {
+            int index = key instanceof String name ? ir.lookaheadIndex(name) : -1;
+            // ε is a set element but not a column
+            return index < terminalCount ? index : -1;
+        }
+    }
+
+    /**
+     * Entries produced by position.
+     */
+    private abstract static class IndexedEntries<E> extends AbstractSet<E> {
+        private final int size;
+
+        private IndexedEntries(int size) {
+            this.size = size;
+        }
+
+        abstract E entry(int index);
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public E next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return entry(next++);
+                }
+            };
+        }
+    }
+}
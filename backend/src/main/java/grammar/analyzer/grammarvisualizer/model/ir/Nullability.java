@@ -0,0 +1,57 @@
+package grammar.analyzer.grammarvisualizer.model.ir;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Result of the nullable (ε-derivability) analysis of a {@link GrammarIr}.
+ * Besides the nullable non-terminals it keeps, for every production, the start of its
+ * longest nullable suffix, so "does {@code rhs[i..]} derive ε" is a single comparison.
+ */
+public class Nullability {
+    private final boolean[] nullable;
+    private final int[] nullableSuffixStart;
+
+    /**
+     * Creates the analysis result.
+     *
+     * @param nullable            flag per non-terminal id
+     * @param nullableSuffixStart per production id, the smallest {@code i} such that every
+     *                            symbol of {@code rhs[i..]} derives ε
+     */
+    public Nullability(boolean[] nullable, int[] nullableSuffixStart) {
+        this.nullable = nullable;
+        this.nullableSuffixStart = nullableSuffixStart;
+    }
+
+    /**
+     * Returns whether the symbol derives ε; terminals never do.
+     */
+    public boolean isNullable(int symbol) {
+        return symbol < nullable.length && nullable[symbol];
+    }
+
+    /**
+     * Returns whether the symbols {@code rhs(production)[from..]} all derive ε.
+     * An empty suffix always does.
+     */
+    public boolean isNullableFrom(int production, int from) {
+        return from >= nullableSuffixStart[production];
+    }
+
+    /**
+     * Returns the names of the nullable non-terminals in definition order.
+     *
+     * @param ir grammar providing the names
+     * @return ordered set of nullable non-terminals
+     */
+    public Set<String> toNames(GrammarIr ir) {
+        Set<String> names = new LinkedHashSet<>();
+        for (int a = 0; a < nullable.length; a++) {
+            if (nullable[a]) {
+                names.add(ir.nonTerminalName(a));
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,60 @@
+package grammar.analyzer.grammarvisualizer.model.ir;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interning table that maps grammar symbol names to dense integer ids.
+ * Ids are assigned in insertion order starting from zero.
+ */
+public class SymbolTable {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * Returns the id of the given symbol, assigning the next free id if it is new.
+     *
+     * @param name symbol name to intern
+     * @return dense id of the symbol
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = names.size();
+        ids.put(name, newId);
+        names.add(name);
+        return newId;
+    }
+
+    /**
+     * Looks up the id of an already interned symbol.
+     *
+     * @param name symbol name
+     * @return id of the symbol, or -1 if it was never interned
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the name of the symbol with the given id.
+     *
+     * @param id dense symbol id
+     * @return interned symbol name
+     */
+    public String nameOf(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Returns the number of interned symbols.
+     */
+    public int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,224 @@
+package grammar.analyzer.grammarvisualizer.model.ir;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Set of terminal indices of a {@link GrammarIr} (including ε) backed by a {@code long[]}
+ * bitset. Membership, union and change detection work a word at a time; a separate list of
+ * the elements in the order they were added lets unions visit only the elements present.
+ *
+ * <p>Sets are converted to names in grammar order: terminals in order of their first
+ * appearance, then {@code $} and ε. The displayed sets thus depend only on their
+ * contents, not on the order in which an engine happened to add the elements.</p>
+ */
+public class TerminalSet {
+    private final long[] words;
+    private int[] order;
+    private int size;
+    private int version;
+
+    /**
+     * Creates an empty set able to hold indices {@code 0..universe-1}.
+     *
+     * @param universe number of distinct elements, usually {@link GrammarIr#lookaheadCount()}
+     */
+    public TerminalSet(int universe) {
+        this.words = new long[(universe + 63) >>> 6];
+        this.order = new int[Math.min(universe, 8)];
+    }
+
+    private TerminalSet(TerminalSet other) {
+        this.words = other.words.clone();
+        this.order = Arrays.copyOf(other.order, Math.max(other.size, 1));
+        this.size = other.size;
+        this.version = other.version;
+    }
+
+    /**
+     * Builds a set from element names, resolving each through the grammar IR.
+     * Names unknown to the grammar are ignored.
+     *
+     * @param ir    grammar providing the element indices
+     * @param names element names in insertion order
+     * @return set containing the resolved indices
+     */
+    public static TerminalSet of(GrammarIr ir, Iterable<String> names) {
+        TerminalSet set = new TerminalSet(ir.lookaheadCount());
+        for (String name : names) {
+            int index = ir.lookaheadIndex(name);
+            if (index >= 0) {
+                set.add(index);
+            }
+        }
+        return set;
+    }
+
+    public boolean contains(int element) {
+        return (words[element >>> 6] & (1L << element)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a counter that changes whenever an element is added or removed,
+     * letting observers skip sets that did not change since they last looked.
+     */
+    public int version() {
+        return version;
+    }
+
+    /**
+     * Returns the element at the given position in insertion order.
+     */
+    public int get(int position) {
+        return order[position];
+    }
+
+    /**
+     * Adds a single element.
+     *
+     * @return true if the element was not yet present
+     */
+    public boolean add(int element) {
+        int word = element >>> 6;
+        long bit = 1L << element;
+        if ((words[word] & bit) != 0) {
+            return false;
+        }
+        words[word] |= bit;
+        if (size == order.length) {
+            order = Arrays.copyOf(order, Math.max(8, size * 2));
+        }
+        order[size++] = element;
+        version++;
+        return true;
+    }
+
+    /**
+     * Adds all elements of another set, appending new ones in the other set's order.
+     * Whether anything is new is decided word by word before any element is visited.
+     *
+     * @return true if this set grew
+     */
+    public boolean addAll(TerminalSet other) {
+        return addAllExcept(other, -1);
+    }
+
+    /**
+     * Adds all elements of another set except one, e.g. FIRST(β) without ε.
+     *
+     * @param other    set to merge in
+     * @param excluded element to skip, or -1 to merge everything
+     * @return true if this set grew
+     */
+    public boolean addAllExcept(TerminalSet other, int excluded) {
+        boolean grows = false;
+        for (int w = 0; w < words.length; w++) {
+            long incoming = other.words[w] & ~words[w];
+            if (excluded >= 0 && excluded >>> 6 == w) {
+                incoming &= ~(1L << excluded);
+            }
+            if (incoming != 0) {
+                grows = true;
+                break;
+            }
+        }
+        if (!grows) {
+            return false;
+        }
+        for (int i = 0; i < other.size; i++) {
+            int element = other.order[i];
+            if (element != excluded) {
+                add(element);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a single element, keeping the order of the remaining ones.
+     *
+     * @return true if the element was present
+     */
+    public boolean remove(int element) {
+        if (!contains(element)) {
+            return false;
+        }
+        words[element >>> 6] &= ~(1L << element);
+        for (int i = 0; i < size; i++) {
+            if (order[i] == element) {
+                System.arraycopy(order, i + 1, order, i, size - i - 1);
+                break;
+            }
+        }
+        size--;
+        version++;
+        return true;
+    }
+
+    /**
+     * Compares set contents, ignoring insertion order.
+     */
+    public boolean sameElements(TerminalSet other) {
+        return Arrays.equals(words, other.words);
+    }
+
+    public TerminalSet copy() {
+        return new TerminalSet(this);
+    }
+
+    /**
+     * Returns the elements in ascending index order, which is grammar order.
+     */
+    public int[] toSortedArray() {
+        int[] elements = new int[size];
+        int i = 0;
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            while (bits != 0) {
+                elements[i++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Converts the set back to element names in grammar order.
+     *
+     * @param ir grammar providing the element names
+     * @return ordered set of names
+     */
+    public Set<String> toNames(GrammarIr ir) {
+        Set<String> names = new LinkedHashSet<>();
+        for (int element : toSortedArray()) {
+            names.add(ir.lookaheadName(element));
+        }
+        return names;
+    }
+
+    /**
+     * Formats the set as {@code [a, b]} in grammar order, like {@code Set.toString()}.
+     *
+     * @param ir grammar providing the element names
+     * @return printable representation used in step descriptions
+     */
+    public String format(GrammarIr ir) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int element : toSortedArray()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(ir.lookaheadName(element));
+        }
+        return sb.append(']').toString();
+    }
+}
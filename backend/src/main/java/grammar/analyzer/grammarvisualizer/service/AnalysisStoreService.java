@@ -0,0 +1,43 @@
+package grammar.analyzer.grammarvisualizer.service;
+
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisStoreStatsDto;
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import java.util.Optional;
+
+/**
+ * Service interface for keeping analyzed grammars by analysis id, so that their steps
+ * can be retrieved by later requests. Implementations bound the number and size
+ * of the kept analyses and may evict any of them at any time.
+ */
+public interface AnalysisStoreService {
+    /**
+     * Stores an analysis under a new id.
+     *
+     * @param grammar analyzed Grammar model
+     * @return id under which the analysis can be retrieved
+     */
+    String put(Grammar grammar);
+
+    /**
+     * Stores an analysis under the given id, replacing any analysis kept under it.
+     *
+     * @param analysisId id of the analysis
+     * @param grammar    analyzed Grammar model
+     */
+    void put(String analysisId, Grammar grammar);
+
+    /**
+     * Looks up an analysis and marks it as recently used.
+     *
+     * @param analysisId id returned when the analysis was stored; may be null
+     * @return the analysis, or empty if it is unknown, expired or evicted
+     */
+    Optional<Grammar> get(String analysisId);
+
+    /**
+     * Returns the hit, miss and eviction counters and the current occupancy of the store.
+     *
+     * @return DTO with store statistics
+     */
+    AnalysisStoreStatsDto getStats();
+}
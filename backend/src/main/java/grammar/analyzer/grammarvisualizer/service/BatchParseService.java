@@ -0,0 +1,26 @@
+package grammar.analyzer.grammarvisualizer.service;
+
+import grammar.analyzer.grammarvisualizer.model.BatchParseSummary;
+import grammar.analyzer.grammarvisualizer.model.ParseResult;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Service interface for parsing many sentences with the LL(1) table of one grammar.
+ */
+public interface BatchParseService {
+    /**
+     * Parses the sentences in parallel and passes their verdicts on in input order.
+     * Sentences are read as they are needed, so the input may be a stream of any length.
+     *
+     * @param ir        integer-encoded grammar
+     * @param table     LL(1) table of the grammar
+     * @param sentences whitespace-separated token strings
+     * @param verdicts  receives the verdict of each sentence, in input order
+     * @return counts, elapsed time and throughput of the batch
+     */
+    BatchParseSummary parseBatch(GrammarIr ir, Ll1Table table, Iterator<String> sentences,
+                                 Consumer<ParseResult> verdicts);
+}
@@ -1,5 +1,8 @@
 package grammar.analyzer.grammarvisualizer.service;
 
+import grammar.analyzer.grammarvisualizer.service.ebnf.transformer.EbnfRule;
+import java.util.List;
+
 /**
  * Service interface for converting EBNF grammar definitions into another format (e.g., BNF).
  * Implementations perform transformations on the grammar input string.
@@ -13,4 +16,14 @@ public interface EbnfTransformerService {
      * @return transformed grammar string in the target format
      */
     String transform(String grammarInput);
+
+    /**
+     * Lowers the grammar input straight into BNF rules, without rendering and re-parsing
+     * BNF text. Rule lines come first in input order, followed by the rules of the helper
+     * non-terminals in the order they are generated.
+     *
+     * @param grammarInput raw grammar definition string
+     * @return BNF rules of the grammar
+     */
+    List<EbnfRule> lower(String grammarInput);
 }
@@ -1,44 +1,49 @@
 package grammar.analyzer.grammarvisualizer.service;
 
 import grammar.analyzer.grammarvisualizer.model.Grammar;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 
 /**
  * Service interface defining methods to compute grammar analysis sets:
  * FIRST, FOLLOW, and PREDICT.
  */
 public interface FirstFollowPredictService {
+    /**
+     * Determines which non-terminals derive ε, for use by the other computations.
+     * @param ir      integer-encoded grammar
+     * @param grammar Grammar model to populate with the nullable analysis
+     */
+    void computeNullable(GrammarIr ir, Grammar grammar);
+
     /**
      * Computes the FIRST sets for each non-terminal in the grammar.
-     * @param productionRules map of non-terminals to their production lists
-     * @param nonTerminals    set of all non-terminal symbols
-     * @param grammar         Grammar model to populate with FIRST sets
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with FIRST sets
      */
-    void computeFirstSets(Map<String, List<String>> productionRules,
-                          Set<String> nonTerminals, Grammar grammar);
+    void computeFirstSets(GrammarIr ir, Nullability nullability, Grammar grammar);
 
     /**
      * Computes the FOLLOW sets for each non-terminal based on FIRST sets and start symbol.
-     * @param productionRules map of non-terminals to their production lists
-     * @param firstSets       precomputed FIRST sets for lookahead
-     * @param nonTerminals    set of all non-terminal symbols
-     * @param startSymbol     the grammar's start symbol for end-marker initialization
-     * @param grammar         Grammar model to populate with FOLLOW sets
+     * The start symbol is the first non-terminal of the grammar.
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with FOLLOW sets
      */
-    void computeFollowSets(Map<String, List<String>> productionRules,
-                           Map<String, Set<String>> firstSets, Set<String> nonTerminals,
-                           String startSymbol, Grammar grammar);
+    void computeFollowSets(GrammarIr ir, TerminalSet[] firstSets, Nullability nullability,
+                           Grammar grammar);
 
     /**
      * Computes the PREDICT sets for each production, combining FIRST and FOLLOW when ε is present.
-     * @param productionRules map of non-terminals to their production lists
-     * @param firstSets       computed FIRST sets
-     * @param followSets      computed FOLLOW sets
-     * @param grammar         Grammar model to populate with PREDICT sets
+     * @param ir          integer-encoded grammar
+     * @param firstSets   computed FIRST sets indexed by non-terminal id
+     * @param followSets  computed FOLLOW sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with PREDICT sets
      */
-    void computePredictSets(Map<String, List<String>> productionRules,
-                            Map<String, Set<String>> firstSets, Map<String, Set<String>> followSets,
-                            Grammar grammar);
+    void computePredictSets(GrammarIr ir, TerminalSet[] firstSets, TerminalSet[] followSets,
+                            Nullability nullability, Grammar grammar);
 }
@@ -1,7 +1,16 @@
 package grammar.analyzer.grammarvisualizer.service;
 
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisCacheStatsDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisStoreStatsDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.BatchParseSummaryDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarRequestDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.StreamParseResponseDto;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.function.Consumer;
 
 /**
  * Service interface for performing full grammar analysis and retrieving step-by-step details.
@@ -18,12 +27,65 @@ public interface GrammarService {
 
     /**
      * Retrieves details for a specific analysis step or the LL(1) table for
-     * the previously analyzed grammar.
+     * a previously analyzed grammar. An analysis that has been evicted meanwhile
+     * is recomputed from the grammar string.
      *
+     * @param analysisId   id returned by {@link #analyzeGrammar}
      * @param analysisType type of analysis ("FIRST", "FOLLOW", "PREDICT", or "LL1")
      * @param stepIndex    zero-based index of the step to fetch; ignored for LL1
      * @param grammar      original grammar string
      * @return DTO containing step-specific or LL(1) detail results
      */
-    GrammarResponseDto getStep(String analysisType, int stepIndex, String grammar);
+    GrammarResponseDto getStep(String analysisId, String analysisType, int stepIndex,
+                               String grammar);
+
+    /**
+     * Parses a sentence with the LL(1) table of a stored analysis or, if no stored
+     * analysis is named, of the given grammar analyzed without a step trace.
+     *
+     * @param parseRequest DTO with the analysis id or grammar and the input tokens
+     * @return DTO with the verdict and the failing position of a rejected sentence
+     */
+    ParseResponseDto parse(ParseRequestDto parseRequest);
+
+    /**
+     * Parses a batch of sentences in parallel with the LL(1) table of a stored analysis or,
+     * if no stored analysis is named, of the given grammar. The grammar is resolved before
+     * the first verdict is passed on.
+     *
+     * @param analysisId id of a stored analysis; may be null
+     * @param grammar    grammar text used when the analysis is not stored; may be null
+     * @param sentences  whitespace-separated token strings, read as they are needed
+     * @param verdicts   receives the verdict of each sentence, in input order
+     * @return DTO with the counts, elapsed time and throughput of the batch
+     */
+    BatchParseSummaryDto parseBatch(String analysisId, String grammar,
+                                    Iterator<String> sentences,
+                                    Consumer<ParseResponseDto> verdicts);
+
+    /**
+     * Parses a token stream of any size with the LL(1) table of a stored analysis or, if no
+     * stored analysis is named, of the given grammar, reading the tokens as they arrive.
+     *
+     * @param analysisId id of a stored analysis; may be null
+     * @param grammar    grammar text used when the analysis is not stored; may be null
+     * @param input      channel holding whitespace-separated tokens
+     * @return DTO with the verdict, tokens per second and peak heap use
+     */
+    StreamParseResponseDto parseStream(String analysisId, String grammar,
+                                       ReadableByteChannel input);
+
+    /**
+     * Returns the hit, miss and eviction counters of the analysis store.
+     *
+     * @return DTO with store statistics
+     */
+    AnalysisStoreStatsDto getStoreStats();
+
+    /**
+     * Returns the hit and miss counters and the hit ratio of the analysis result cache.
+     *
+     * @return DTO with cache statistics
+     */
+    AnalysisCacheStatsDto getCacheStats();
 }
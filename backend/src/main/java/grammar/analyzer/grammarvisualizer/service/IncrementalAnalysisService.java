@@ -0,0 +1,25 @@
+package grammar.analyzer.grammarvisualizer.service;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+
+/**
+ * Service interface for re-analyzing an edited grammar from a previous analysis,
+ * recomputing only the results whose inputs changed.
+ */
+public interface IncrementalAnalysisService {
+    /**
+     * Computes the FIRST, FOLLOW and PREDICT sets and the LL(1) table of the edited
+     * grammar, reusing the unaffected results of the previous analysis. The results are
+     * identical to a full analysis; step records are not set.
+     *
+     * @param ir          integer-encoded edited grammar
+     * @param nullability nullable analysis of the edited grammar
+     * @param previous    analysis of the grammar before the edit
+     * @param grammar     Grammar model to populate with the results and a reuse report
+     * @return false, leaving the grammar untouched, if the previous analysis cannot be
+     *         reused, e.g. because the start symbol changed or rules were reordered
+     */
+    boolean reanalyze(GrammarIr ir, Nullability nullability, Grammar previous, Grammar grammar);
+}
@@ -1,9 +1,10 @@
 package grammar.analyzer.grammarvisualizer.service;
 
+import grammar.analyzer.grammarvisualizer.model.CompressedLl1Table;
 import grammar.analyzer.grammarvisualizer.model.Grammar;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 
 /**
  * Service interface for constructing the LL(1) parsing table and
@@ -12,17 +13,48 @@ import java.util.Set;
 public interface LL1Service {
     /**
      * Builds the LL(1) parse table based on the provided production rules and PREDICT sets.
-     * Updates the given Grammar model with the table and
+     * Updates the given Grammar model with the table, the conflicting cells and
      * a flag indicating whether the grammar is LL(1).
      *
-     * @param productionRules map of non-terminal symbols to their production alternatives
-     * @param predictSets     map associating each production rule
-     *                        (keyed by "A -> α") with its PREDICT set
-     * @param grammar         Grammar model to populate with the LL(1) table and compliance flag
+     * @param ir          integer-encoded grammar
+     * @param predictSets PREDICT set of each production, indexed by production id
+     * @param grammar     Grammar model to populate with the LL(1) table, conflicts and
+     *                    compliance flag
      */
     void buildLl1Table(
-            Map<String, List<String>> productionRules,
-            Map<String, Set<String>> predictSets,
+            GrammarIr ir,
+            TerminalSet[] predictSets,
             Grammar grammar
     );
+
+    /**
+     * Builds the LL(1) parse table, copying the given rows of a previous table instead of
+     * filling them from the PREDICT sets. Used after an edit of the grammar for the rows
+     * whose productions, rule numbers, PREDICT sets and columns are all unchanged.
+     *
+     * @param ir            integer-encoded grammar
+     * @param predictSets   PREDICT set of each production, indexed by production id
+     * @param previousTable table of the previous analysis, or {@code null}
+     * @param previousRows  row of the previous table to keep for each non-terminal,
+     *                      or -1 to fill the row from the PREDICT sets
+     * @param grammar       Grammar model to populate with the LL(1) table, conflicts and
+     *                      compliance flag
+     */
+    void buildLl1Table(
+            GrammarIr ir,
+            TerminalSet[] predictSets,
+            Ll1Table previousTable,
+            int[] previousRows,
+            Grammar grammar
+    );
+
+    /**
+     * Packs the table into a comb vector by row displacement, for transfer to clients
+     * and table-driven parsers, and reports the size of both forms.
+     *
+     * @param ir    integer-encoded grammar
+     * @param table dense LL(1) table of the grammar
+     * @return compressed table with its conflict lists and size report
+     */
+    CompressedLl1Table compressLl1Table(GrammarIr ir, Ll1Table table);
 }
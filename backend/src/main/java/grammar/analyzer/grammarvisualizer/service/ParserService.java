@@ -0,0 +1,49 @@
+package grammar.analyzer.grammarvisualizer.service;
+
+import grammar.analyzer.grammarvisualizer.model.ParseResult;
+import grammar.analyzer.grammarvisualizer.model.StreamParseResult;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
+import grammar.analyzer.grammarvisualizer.util.TerminalLexer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Service interface for parsing sentences with the LL(1) table of an analyzed grammar.
+ */
+public interface ParserService {
+    /**
+     * Parses a whitespace-separated token string starting from the first non-terminal.
+     * Parsing stops at a cell holding several rules, since picking one of them can expand
+     * a left-recursive non-terminal forever; the sentence is then rejected with the
+     * conflict, and the result reports whether the table is LL(1).
+     *
+     * @param ir    integer-encoded grammar
+     * @param table LL(1) table of the grammar
+     * @param input tokens separated by whitespace, with or without terminal quotes
+     * @return verdict with the failing position of a rejected sentence
+     */
+    ParseResult parse(GrammarIr ir, Ll1Table table, String input);
+
+    /**
+     * Parses the whitespace-separated tokens of a channel as they are read, without holding
+     * the whole input, and reports the throughput and peak heap of the run.
+     *
+     * @param ir    integer-encoded grammar
+     * @param table LL(1) table of the grammar
+     * @param input channel holding the tokens; a file channel is memory-mapped
+     * @return verdict with the token count, tokens per second and peak heap use
+     */
+    StreamParseResult parse(GrammarIr ir, Ll1Table table, ReadableByteChannel input);
+
+    /**
+     * Parses raw text, splitting it into terminals with the grammar's longest-match lexer
+     * while parsing.
+     *
+     * @param ir    integer-encoded grammar
+     * @param table LL(1) table of the grammar
+     * @param lexer lexer compiled from the terminals of the grammar
+     * @param text  raw input
+     * @return verdict with the failing position of a rejected input
+     */
+    ParseResult parse(GrammarIr ir, Ll1Table table, TerminalLexer lexer, CharSequence text);
+}
@@ -1,11 +1,15 @@
 package grammar.analyzer.grammarvisualizer.service.calculators;
 
 import grammar.analyzer.grammarvisualizer.model.Grammar;
-import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 import grammar.analyzer.grammarvisualizer.util.GrammarUtils;
 import grammar.analyzer.grammarvisualizer.util.SetUtils;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -19,7 +23,7 @@ import org.springframework.stereotype.Component;
 public class FirstSetCalculator {
     /**
      * Computes and stores FIRST sets in the provided Grammar model.
-     * Records initialization, each production evaluation, and stabilization steps.
+     * Convenience overload that builds the grammar IR from the production map.
      *
      * @param productionRules map of non-terminals to their production alternatives
      * @param nonTerminals    set of all non-terminal symbols in the grammar
@@ -30,37 +34,248 @@ public class FirstSetCalculator {
             Set<String> nonTerminals,
             Grammar grammar
     ) {
-        // Initialize FIRST sets for all nonterminals
-        Map<String, Set<String>> firstSets = SetUtils.initializeEmptySets(nonTerminals);
-        List<StepRecord> steps = new ArrayList<>();
-
-        // Record initial empty FIRST sets state
-        SetUtils.recordStep("Initialize FIRST sets = ∅", SetUtils.copySets(firstSets), steps, 0);
-
-        boolean changed;
-        do {
-            changed = false;
-            // Process every production for each non-terminal
-            for (String nonTerminal : productionRules.keySet()) {
-                for (String production : productionRules.get(nonTerminal)) {
-                    // Snapshot before computing FIRST
-                    Map<String, Set<String>> before = SetUtils.copySets(firstSets);
-                    computeFirstForProduction(nonTerminal, production, productionRules,
-                            firstSets, nonTerminals, steps);
-                    // If FIRST sets changed, mark for another iteration
-                    if (!SetUtils.equalsSets(before, firstSets)) {
-                        changed = true;
+        GrammarIr ir = GrammarIr.of(productionRules);
+        computeFirstSets(ir, new NullableCalculator().computeNullable(ir), grammar);
+    }
+
+    /**
+     * Computes and stores FIRST sets in the provided Grammar model.
+     * Records initialization, each production evaluation, and stabilization steps.
+     *
+     * <p>Productions are driven by a worklist instead of whole-grammar passes: every
+     * production is evaluated once, and afterwards only when the FIRST set of a
+     * non-terminal it reads has grown. Dirty productions are still visited in definition
+     * order, wrapping around like a new pass, so the resulting sets and their element
+     * order match a plain repeat-until-stable loop without its no-op evaluations.
+     *
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with FIRST sets and step records
+     */
+    public void computeFirstSets(GrammarIr ir, Nullability nullability, Grammar grammar) {
+        computeFirstSets(ir, nullability, StepRecorder.full(), grammar);
+    }
+
+    /**
+     * Computes and stores FIRST sets in the provided Grammar model, recording steps
+     * through the given recorder. With a counting recorder the step records are
+     * replayed page by page from saved loop states when they are read.
+     *
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param recorder    recorder deciding which steps are materialized
+     * @param grammar     Grammar model to populate with FIRST sets and step records
+     */
+    public void computeFirstSets(GrammarIr ir, Nullability nullability, StepRecorder recorder,
+                                 Grammar grammar) {
+        int[][] dependents = buildDependents(ir);
+        TerminalSet[] firstSets = run(ir, nullability, dependents, recorder);
+
+        // Save computed sets and steps into grammar object
+        grammar.setFirstBitSets(firstSets);
+        grammar.setFirstSets(SetUtils.toNameSets(ir, firstSets));
+        grammar.setFirstStepRecords(recorder.toStepRecords((start, from, to) -> {
+            StepRecorder window = StepRecorder.window(start, from, to);
+            run(ir, nullability, dependents, window);
+            return window.getSteps();
+        }));
+    }
+
+    /**
+     * Recomputes the FIRST sets of some non-terminals after the grammar was edited.
+     * Sets outside {@code scope} are taken over from {@code known}, and the scope must
+     * contain every set read while computing a set inside it. Sets inside it start empty
+     * and are solved by the same worklist, seeded with their productions only, so they
+     * evolve exactly as in a full computation.
+     *
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param known       final FIRST sets to keep for the non-terminals outside the scope
+     * @param scope       ids of the non-terminals to recompute
+     * @return FIRST sets indexed by non-terminal id
+     */
+    public TerminalSet[] recomputeFirstSets(GrammarIr ir, Nullability nullability,
+                                            TerminalSet[] known, BitSet scope) {
+        TerminalSet[] firstSets = new TerminalSet[ir.getNonTerminalCount()];
+        BitSet productions = new BitSet(ir.getProductionCount());
+        for (int a = 0; a < firstSets.length; a++) {
+            if (scope.get(a)) {
+                firstSets[a] = new TerminalSet(ir.lookaheadCount());
+                for (int p : ir.productionsOf(a)) {
+                    productions.set(p);
+                }
+            } else {
+                firstSets[a] = known[a];
+            }
+        }
+        solve(ir, nullability, buildDependents(ir), firstSets, productions.stream().toArray());
+        return firstSets;
+    }
+
+    /**
+     * Runs the worklist over the given productions only, without recording steps.
+     * Every FIRST set read by them, other than those of their left-hand sides,
+     * is taken as final. Productions are visited in the same order as by the full
+     * worklist, so the sets evolve as they would in a full computation.
+     *
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param dependents  productions to re-queue when FIRST of a non-terminal grows
+     * @param firstSets   FIRST sets being computed, updated in place
+     * @param productions ids of the productions to evaluate, in ascending order
+     */
+    void solve(GrammarIr ir, Nullability nullability, int[][] dependents,
+               TerminalSet[] firstSets, int[] productions) {
+        StepRecorder recorder = StepRecorder.none();
+        // Pending productions are tracked by position, which keeps definition order
+        BitSet pending = new BitSet(productions.length);
+        pending.set(0, productions.length);
+        int i = pending.nextSetBit(0);
+        while (i >= 0) {
+            pending.clear(i);
+            int p = productions[i];
+            if (computeFirstForProduction(ir, p, firstSets, nullability, recorder)) {
+                for (int dependent : dependents[ir.lhs(p)]) {
+                    int position = Arrays.binarySearch(productions, dependent);
+                    if (position >= 0) {
+                        pending.set(position);
                     }
                 }
             }
-        } while (changed);
+            i = pending.nextSetBit(i + 1);
+            if (i < 0) {
+                i = pending.nextSetBit(0);
+            }
+        }
+    }
+
+    /**
+     * Runs the worklist from the beginning, or from the loop state saved in the
+     * recorder's resume checkpoint, until the sets stabilize or the recorder is complete.
+     *
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param dependents  productions to re-queue when FIRST of a non-terminal grows
+     * @param recorder    recorder deciding which steps are materialized
+     * @return FIRST sets indexed by non-terminal id
+     */
+    private TerminalSet[] run(GrammarIr ir, Nullability nullability, int[][] dependents,
+                              StepRecorder recorder) {
+        TerminalSet[] firstSets;
+        BitSet pending;
+        int p;
+        LoopState state = recorder.resumeState();
+        if (state == null) {
+            // Initialize FIRST sets for all nonterminals
+            firstSets = SetUtils.initializeEmptyBitSets(ir);
+            recorder.trackNonTerminals(ir, firstSets);
+
+            // Record initial empty FIRST sets state
+            if (recorder.step()) {
+                recorder.record("Initialize FIRST sets = ∅", 0);
+            }
+            pending = new BitSet(ir.getProductionCount());
+            pending.set(0, ir.getProductionCount());
+            p = pending.nextSetBit(0);
+        } else {
+            // Saved states are shared by all replays, so they are copied, never mutated
+            firstSets = SetUtils.copyBitSets(state.firstSets());
+            recorder.trackNonTerminals(ir, firstSets);
+            pending = (BitSet) state.pending().clone();
+            p = state.production();
+        }
+
+        p = iterate(ir, nullability, dependents, firstSets, pending, p, recorder);
 
         // Record final stabilized state
-        SetUtils.recordStep("FIRST sets stabilized", SetUtils.copySets(firstSets), steps, 15);
+        if (p < 0 && recorder.step()) {
+            recorder.record("FIRST sets stabilized", 15);
+        }
+        return firstSets;
+    }
 
-        // Save computed sets and steps into grammar object
-        grammar.setFirstSets(firstSets);
-        grammar.setFirstStepRecords(steps);
+    /**
+     * Evaluates pending productions in definition order, wrapping around,
+     * until none is left or the recorder is complete.
+     *
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param dependents  productions to re-queue when FIRST of a non-terminal grows
+     * @param firstSets   FIRST sets being computed
+     * @param pending     productions still to evaluate
+     * @param p           id of the next production to evaluate
+     * @param recorder    recorder deciding which steps are materialized
+     * @return id of the next pending production, or -1 once the sets are stable
+     */
+    private int iterate(GrammarIr ir, Nullability nullability, int[][] dependents,
+                        TerminalSet[] firstSets, BitSet pending, int p,
+                        StepRecorder recorder) {
+        while (p >= 0 && !recorder.isComplete()) {
+            if (recorder.isCheckpointDue()) {
+                recorder.checkpoint(new LoopState(p, SetUtils.copyBitSets(firstSets),
+                        (BitSet) pending.clone()));
+            }
+            pending.clear(p);
+            // If FIRST of the left-hand side grew, re-queue the productions reading it
+            if (computeFirstForProduction(ir, p, firstSets, nullability, recorder)) {
+                for (int dependent : dependents[ir.lhs(p)]) {
+                    pending.set(dependent);
+                }
+            }
+            p = pending.nextSetBit(p + 1);
+            if (p < 0) {
+                p = pending.nextSetBit(0);
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Worklist state before evaluating a production, saved for replaying steps.
+     *
+     * @param production id of the next production to evaluate
+     * @param firstSets  copy of the FIRST sets
+     * @param pending    copy of the pending productions
+     */
+    private record LoopState(int production, TerminalSet[] firstSets, BitSet pending) {
+    }
+
+    /**
+     * Builds the reverse dependency index of the worklist: for each non-terminal, the
+     * productions whose evaluation reads its FIRST set. A production {@code X → B β}
+     * reads FIRST of the non-terminals in β and in the alternatives of {@code B}.
+     *
+     * @param ir integer-encoded grammar
+     * @return production ids indexed by the non-terminal they depend on
+     */
+    int[][] buildDependents(GrammarIr ir) {
+        List<BitSet> readers = new ArrayList<>(ir.getNonTerminalCount());
+        for (int a = 0; a < ir.getNonTerminalCount(); a++) {
+            readers.add(new BitSet());
+        }
+        for (int p = 0; p < ir.getProductionCount(); p++) {
+            int[] symbols = ir.rhs(p);
+            if (symbols.length == 0 || !ir.isNonTerminal(symbols[0])) {
+                continue; // Steps 1 and 2 do not read any FIRST set
+            }
+            for (int i = 1; i < symbols.length; i++) {
+                if (ir.isNonTerminal(symbols[i])) {
+                    readers.get(symbols[i]).set(p);
+                }
+            }
+            for (int gamma : ir.productionsOf(symbols[0])) {
+                for (int symbol : ir.rhs(gamma)) {
+                    if (ir.isNonTerminal(symbol)) {
+                        readers.get(symbol).set(p);
+                    }
+                }
+            }
+        }
+        int[][] dependents = new int[readers.size()][];
+        for (int a = 0; a < dependents.length; a++) {
+            dependents[a] = readers.get(a).stream().toArray();
+        }
+        return dependents;
     }
 
     /**
@@ -68,186 +283,146 @@ public class FirstSetCalculator {
      * Implements the standard algorithm with null (ε) propagation.
      * Records each decision and addition into step records.
      *
-     * @param nonTerminal    left-hand nonterminal symbol
-     * @param production     right-hand side production string (symbols separated by whitespace)
-     * @param productionRules all grammar production rules for lookahead in nonterminals
-     * @param firstSets      modifiable map of current FIRST sets
-     * @param nonTerminals   set of nonterminal symbols for lookup
-     * @param steps          list collecting StepRecord entries for visualization
+     * @param ir          integer-encoded grammar
+     * @param production  id of the production to process
+     * @param firstSets   current FIRST sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param recorder    recorder collecting StepRecord entries for visualization
+     * @return true if FIRST of the production's left-hand side grew
      */
-    private void computeFirstForProduction(
-            String nonTerminal,
-            String production,
-            Map<String, List<String>> productionRules,
-            Map<String, Set<String>> firstSets,
-            Set<String> nonTerminals,
-            List<StepRecord> steps
+    private boolean computeFirstForProduction(
+            GrammarIr ir,
+            int production,
+            TerminalSet[] firstSets,
+            Nullability nullability,
+            StepRecorder recorder
     ) {
+        int epsilon = ir.epsilon();
+        int lhs = ir.lhs(production);
+        String nonTerminal = ir.nonTerminalName(lhs);
+        TerminalSet firstOfLhs = firstSets[lhs];
+        int[] symbols = ir.rhs(production);
+
         // Step 1: ε-production adds ε to FIRST(nonTerminal)
-        if ("epsilon".equals(production)) {
-            firstSets.get(nonTerminal).add("ε");
-            SetUtils.recordStep(
-                    "Step 1: Production is ε, so FIRST(" + nonTerminal + ") becomes {ε}",
-                    SetUtils.copySets(firstSets),
-                    steps,
-                    1
-            );
-            return;
+        if (symbols.length == 0) {
+            boolean updated = firstOfLhs.add(epsilon);
+            if (recorder.step()) {
+                recorder.record(
+                        "Step 1: Production is ε, so FIRST(" + nonTerminal + ") becomes {ε}", 1);
+            }
+            return updated;
         }
 
-        // Split the production into symbols.
-        String[] symbols = production.split("\\s+");
-
         // Step 2: Production starts with terminal => add terminal
-        if (!nonTerminals.contains(symbols[0])) {
-            firstSets.get(nonTerminal).add(symbols[0]);
-            SetUtils.recordStep(
-                    "Step 2: Production starts with terminal '" + symbols[0]
-                            + "', so FIRST(" + nonTerminal + ") becomes {" + symbols[0] + "}",
-                    SetUtils.copySets(firstSets),
-                    steps,
-                    2
-            );
-            return;
+        if (!ir.isNonTerminal(symbols[0])) {
+            String terminal = ir.symbolName(symbols[0]);
+            boolean updated = firstOfLhs.add(ir.terminalIndex(symbols[0]));
+            if (recorder.step()) {
+                recorder.record("Step 2: Production starts with terminal '" + terminal
+                        + "', so FIRST(" + nonTerminal + ") becomes {" + terminal + "}", 2);
+            }
+            return updated;
         }
 
+        String firstSymbol = ir.nonTerminalName(symbols[0]);
+
         // Step 3: Production starts with non-terminal => proceed
-        SetUtils.recordStep(
-                "Step 3: Production starts with nonterminal '" + symbols[0]
-                        + "'. Proceeding with nonterminal processing.",
-                SetUtils.copySets(firstSets),
-                steps,
-                3
-        );
+        if (recorder.step()) {
+            recorder.record("Step 3: Production starts with nonterminal '" + firstSymbol
+                    + "'. Proceeding with nonterminal processing.", 3);
+        }
 
         // Step 4: Initialize temporary set to accumulate FIRST outcomes
-        Set<String> fstAtemp = new LinkedHashSet<>();
-        SetUtils.recordStep(
-                "Step 4: Initialize temporary set FSTA = ∅",
-                SetUtils.copySets(firstSets),
-                steps,
-                4
-        );
-
-        String firstSymbol = symbols[0];
-        List<String> productionsForA = productionRules.get(firstSymbol);
-        if (productionsForA != null) {
-            // Iterate alternatives for recursive FIRST
-            for (String gamma : productionsForA) {
-                String[] gammaSymbols = gamma.split("\\s+");
-                if (gammaSymbols.length > 0 && !gammaSymbols[0].equals(firstSymbol)) {
-                    // Step 7: Add FIRST(gamma) to temporary set
-                    Set<String> firstGamma = new LinkedHashSet<>();
-                    computeFirstOfGamma(gamma, firstSets, nonTerminals, firstGamma);
-                    fstAtemp.addAll(firstGamma);
-                    SetUtils.recordStep(
-                            "Step 7: For production " + firstSymbol + " → " + gamma
-                                    + ", add FIRST(" + gamma + ") = " + firstGamma + " to FSTA",
-                            SetUtils.copySets(firstSets),
-                            steps,
-                            7
-                    );
-                } else {
-                    // Step 6: Skip left-recursive rule
-                    SetUtils.recordStep(
-                            "Step 6: Skipping production " + firstSymbol + " → " + gamma
-                                    + " as it is left-recursive (starts with itself).",
-                            SetUtils.copySets(firstSets),
-                            steps,
-                            6
-                    );
+        TerminalSet fstAtemp = new TerminalSet(ir.lookaheadCount());
+        if (recorder.step()) {
+            recorder.record("Step 4: Initialize temporary set FSTA = ∅", 4);
+        }
+
+        // Iterate alternatives for recursive FIRST
+        for (int gamma : ir.productionsOf(symbols[0])) {
+            int[] gammaSymbols = ir.rhs(gamma);
+            if (gammaSymbols.length == 0 || gammaSymbols[0] != symbols[0]) {
+                // Step 7: Add FIRST(gamma) to temporary set
+                TerminalSet firstGamma = computeFirstOfSequence(ir, gammaSymbols, 0, firstSets,
+                        nullability, new TerminalSet(ir.lookaheadCount()));
+                fstAtemp.addAll(firstGamma);
+                if (recorder.step()) {
+                    String gammaText = ir.productionText(gamma);
+                    recorder.record("Step 7: For production " + firstSymbol + " → " + gammaText
+                            + ", add FIRST(" + gammaText + ") = " + firstGamma.format(ir)
+                            + " to FSTA", 7);
+                }
+            } else {
+                // Step 6: Skip left-recursive rule
+                if (recorder.step()) {
+                    recorder.record("Step 6: Skipping production " + firstSymbol + " → "
+                            + ir.productionText(gamma)
+                            + " as it is left-recursive (starts with itself).", 6);
                 }
             }
         }
 
         // Step 10: If ε in temp set, process the remainder β
-        if (fstAtemp.contains("ε")) {
-            SetUtils.recordStep(
-                    "Step 10: ε is in FSTA; process β from the production.",
-                    SetUtils.copySets(firstSets),
-                    steps,
-                    10
-            );
-
-            fstAtemp.remove("ε");
-            String beta = "";
-            if (symbols.length > 1) {
-                beta = String.join(" ", java.util.Arrays.copyOfRange(symbols, 1, symbols.length));
-            }
-            Set<String> firstBeta = new LinkedHashSet<>();
-            if (!beta.isEmpty()) {
-                computeFirstOfGamma(beta, firstSets, nonTerminals, firstBeta);
-            }
-            fstAtemp.addAll(firstBeta);
-            SetUtils.recordStep(
-                    "Step 11: Updated FSTA after processing β: " + fstAtemp,
-                    SetUtils.copySets(firstSets),
-                    steps,
-                    11
-            );
+        if (fstAtemp.contains(epsilon)) {
+            if (recorder.step()) {
+                recorder.record("Step 10: ε is in FSTA; process β from the production.", 10);
+            }
+
+            // An empty β derives ε, so FSTA keeps ε exactly when the whole body is nullable
+            fstAtemp.remove(epsilon);
+            fstAtemp.addAll(computeFirstOfSequence(ir, symbols, 1, firstSets, nullability,
+                    new TerminalSet(ir.lookaheadCount())));
+            if (recorder.step()) {
+                recorder.record("Step 11: Updated FSTA after processing β: "
+                        + fstAtemp.format(ir), 11);
+            }
         }
 
         // Step 13: Merge temp set into FIRST(nonTerminal)
-        boolean updated = firstSets.get(nonTerminal).addAll(fstAtemp);
-        if (updated) {
-            SetUtils.recordStep(
-                    "Step 13: Update FIRST(" + nonTerminal + ") = " + firstSets.get(nonTerminal),
-                    SetUtils.copySets(firstSets),
-                    steps,
-                    13
-            );
+        boolean updated = firstOfLhs.addAll(fstAtemp);
+        if (updated && recorder.step()) {
+            recorder.record("Step 13: Update FIRST(" + nonTerminal + ") = "
+                    + firstOfLhs.format(ir), 13);
         }
 
         // Step 14: End of production processing
-        SetUtils.recordStep(
-                "Step 14: End processing production for " + nonTerminal,
-                SetUtils.copySets(firstSets),
-                steps,
-                14
-        );
+        if (recorder.step()) {
+            recorder.record("Step 14: End processing production for " + nonTerminal, 14);
+        }
+        return updated;
     }
 
     /**
-     * Recursively computes FIRST set for any symbol sequence (γ or β).
-     * Adds terminals and ε where appropriate following standard algorithm.
+     * Computes FIRST of {@code symbols[from..]} from the current FIRST sets. Unlike
+     * {@link GrammarUtils#computeFirstOfSequence}, a non-terminal is passed over only once
+     * ε has reached its current FIRST set, as in the repeat-until-stable algorithm. Both
+     * agree once the sets are stable, but this way the intermediate sets shown by the
+     * step trace evolve as with that algorithm.
      *
-     * @param production   sequence of symbols to analyze
-     * @param firstSets    existing FIRST sets for non-terminals
-     * @param nonTerminals set of non-terminal symbols
-     * @param result       set to accumulate FIRST(production)
+     * @param ir          integer-encoded grammar
+     * @param symbols     encoded symbol sequence
+     * @param from        index of the first symbol to consider
+     * @param firstSets   current FIRST sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals, ruling out the others early
+     * @param result      set to accumulate FIRST(symbols[from..]) into
+     * @return the {@code result} set
      */
-    public void computeFirstOfGamma(
-            String production,
-            Map<String, Set<String>> firstSets,
-            Set<String> nonTerminals,
-            Set<String> result
-    ) {
-        // Base: ε-production
-        if ("epsilon".equals(production)) {
-            result.add("ε");
-            return;
-        }
-
-        String[] symbols = production.split("\\s+");
-        // Terminal at start
-        if (!nonTerminals.contains(symbols[0])) {
-            result.add(symbols[0]);
-            return;
-        }
-
-        // Process each symbol, stopping when ε is absent
-        for (int i = 0; i < symbols.length; i++) {
-            String symbol = symbols[i];
-            Set<String> firstSymbol = GrammarUtils.computeFirstOfSymbol(symbol, firstSets);
-            result.addAll(firstSymbol);
-            if (!firstSymbol.contains("ε")) {
-                break; // stop if no ε
-            } else {
-                result.remove("ε");
-                if (i == symbols.length - 1) {
-                    result.add("ε");
-                }
+    private TerminalSet computeFirstOfSequence(GrammarIr ir, int[] symbols, int from,
+                                               TerminalSet[] firstSets,
+                                               Nullability nullability, TerminalSet result) {
+        int epsilon = ir.epsilon();
+        for (int i = from; i < symbols.length; i++) {
+            int symbol = symbols[i];
+            if (!ir.isNonTerminal(symbol)) {
+                result.add(ir.terminalIndex(symbol));
+                return result;
+            }
+            result.addAllExcept(firstSets[symbol], epsilon);
+            if (!nullability.isNullable(symbol) || !firstSets[symbol].contains(epsilon)) {
+                return result;
             }
         }
+        result.add(epsilon);
+        return result;
     }
 }
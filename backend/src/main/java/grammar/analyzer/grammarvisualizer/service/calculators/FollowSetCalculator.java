@@ -1,12 +1,13 @@
 package grammar.analyzer.grammarvisualizer.service.calculators;
 
 import grammar.analyzer.grammarvisualizer.model.Grammar;
-import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 import grammar.analyzer.grammarvisualizer.util.GrammarUtils;
 import grammar.analyzer.grammarvisualizer.util.SetUtils;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedHashSet;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,7 +21,7 @@ import org.springframework.stereotype.Component;
 public class FollowSetCalculator {
     /**
      * Computes and stores FOLLOW sets in the provided Grammar model.
-     * Implements the standard iterative algorithm, recording each line of pseudocode.
+     * Convenience overload that builds the grammar IR from the production map.
      *
      * @param productionRules map of non-terminals to their production alternatives
      * @param firstSets       precomputed FIRST sets for lookahead
@@ -35,114 +36,333 @@ public class FollowSetCalculator {
             String startSymbol,
             Grammar grammar
     ) {
-        // Step 1: Initialize FOLLOW(A) = ∅ for all non-terminals
-        Map<String, Set<String>> followSets = SetUtils.initializeEmptySets(nonTerminals);
-        List<StepRecord> steps = new ArrayList<>();
-        SetUtils.recordStep("Line 1: FOLLOW(A) = ∅ for all A (Initialize)",
-                SetUtils.copySets(followSets), steps, 1);
-
-        // Steps 2-4: Add endmarker $ to FOLLOW(startSymbol)
-        followSets.get(startSymbol).add("$");
-        SetUtils.recordStep("Line 2: if A = S then", SetUtils.copySets(followSets), steps, 2);
-        SetUtils.recordStep("Line 3: FLW(" + startSymbol + ") ← { $ }",
-                SetUtils.copySets(followSets), steps, 3);
-        SetUtils.recordStep("Line 4: end if", SetUtils.copySets(followSets), steps, 4);
+        GrammarIr ir = GrammarIr.of(productionRules);
+        computeFollowSets(ir, SetUtils.toBitSets(ir, firstSets),
+                new NullableCalculator().computeNullable(ir), ir.nonTerminalId(startSymbol),
+                StepRecorder.full(), grammar);
+    }
+
+    /**
+     * Computes and stores FOLLOW sets in the provided Grammar model,
+     * using the first non-terminal of the grammar as the start symbol.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with FOLLOW sets and step records
+     */
+    public void computeFollowSets(GrammarIr ir, TerminalSet[] firstSets,
+                                  Nullability nullability, Grammar grammar) {
+        computeFollowSets(ir, firstSets, nullability, StepRecorder.full(), grammar);
+    }
+
+    /**
+     * Computes and stores FOLLOW sets in the provided Grammar model, using the first
+     * non-terminal as the start symbol and recording steps through the given recorder.
+     * With a counting recorder the step records are replayed page by page from saved
+     * loop states when they are read.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param nullability precomputed nullable non-terminals
+     * @param recorder    recorder deciding which steps are materialized
+     * @param grammar     Grammar model to populate with FOLLOW sets and step records
+     */
+    public void computeFollowSets(GrammarIr ir, TerminalSet[] firstSets,
+                                  Nullability nullability, StepRecorder recorder,
+                                  Grammar grammar) {
+        computeFollowSets(ir, firstSets, nullability, 0, recorder, grammar);
+    }
+
+    /**
+     * Computes and stores FOLLOW sets in the provided Grammar model.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param nullability precomputed nullable non-terminals
+     * @param start       id of the start symbol, to initialize FOLLOW(start) with $
+     * @param recorder    recorder deciding which steps are materialized
+     * @param grammar     Grammar model to populate with FOLLOW sets and step records
+     */
+    private void computeFollowSets(
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            Nullability nullability,
+            int start,
+            StepRecorder recorder,
+            Grammar grammar
+    ) {
+        TerminalSet[] followSets = run(ir, firstSets, nullability, start, recorder);
 
+        // Persist results in grammar model
+        grammar.setFollowBitSets(followSets);
+        grammar.setFollowSets(SetUtils.toNameSets(ir, followSets));
+        grammar.setFollowStepRecords(recorder.toStepRecords((checkpoint, from, to) -> {
+            StepRecorder window = StepRecorder.window(checkpoint, from, to);
+            run(ir, firstSets, nullability, start, window);
+            return window.getSteps();
+        }));
+    }
+
+    /**
+     * Recomputes the FOLLOW sets of some non-terminals after the grammar was edited,
+     * using the first non-terminal as the start symbol. Sets outside {@code scope} are
+     * taken over from {@code known}, and the scope must contain every set read while
+     * computing a set inside it. Sets inside it start as in a full computation and only
+     * the productions in which they occur are processed, in the same passes, so they end
+     * up exactly as in a full computation.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param nullability precomputed nullable non-terminals
+     * @param known       final FOLLOW sets to keep for the non-terminals outside the scope
+     * @param scope       ids of the non-terminals to recompute
+     * @return FOLLOW sets indexed by non-terminal id
+     */
+    public TerminalSet[] recomputeFollowSets(GrammarIr ir, TerminalSet[] firstSets,
+                                             Nullability nullability, TerminalSet[] known,
+                                             BitSet scope) {
+        TerminalSet[] followSets = new TerminalSet[ir.getNonTerminalCount()];
+        for (int a = 0; a < followSets.length; a++) {
+            // Sets outside the scope are final, so processing never makes them grow
+            followSets[a] = scope.get(a) ? new TerminalSet(ir.lookaheadCount()) : known[a];
+        }
+        if (scope.get(0)) {
+            followSets[0].add(ir.endMarker());
+        }
+        BitSet productions = new BitSet(ir.getProductionCount());
+        for (int p = 0; p < ir.getProductionCount(); p++) {
+            for (int symbol : ir.rhs(p)) {
+                if (ir.isNonTerminal(symbol) && scope.get(symbol)) {
+                    productions.set(p);
+                    break;
+                }
+            }
+        }
+        StepRecorder recorder = StepRecorder.none();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int p = productions.nextSetBit(0); p >= 0; p = productions.nextSetBit(p + 1)) {
+                changed |= processProduction(ir, p, firstSets, followSets, nullability,
+                        recorder);
+            }
+        }
+        return followSets;
+    }
+
+    /**
+     * Implements the standard iterative algorithm, recording each line of pseudocode.
+     * Runs from the beginning, or from the loop state saved in the recorder's resume
+     * checkpoint, until the sets stabilize or the recorder is complete.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param nullability precomputed nullable non-terminals
+     * @param start       id of the start symbol, to initialize FOLLOW(start) with $
+     * @param recorder    recorder deciding which steps are materialized
+     * @return FOLLOW sets indexed by non-terminal id
+     */
+    private TerminalSet[] run(
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            Nullability nullability,
+            int start,
+            StepRecorder recorder
+    ) {
+        TerminalSet[] followSets;
+        int pass;
+        int p;
         boolean changed;
-        int pass = 0;
-        // Step 5: Repeat until no changes
-        do {
-            pass++;
-            SetUtils.recordStep("Line 5: (Iteration #" + pass + ") Repeat until no changes",
-                    SetUtils.copySets(followSets), steps, 5);
+        LoopState state = recorder.resumeState();
+        if (state == null) {
+            // Step 1: Initialize FOLLOW(A) = ∅ for all non-terminals
+            followSets = SetUtils.initializeEmptyBitSets(ir);
+            recorder.trackNonTerminals(ir, followSets);
+            if (recorder.step()) {
+                recorder.record("Line 1: FOLLOW(A) = ∅ for all A (Initialize)", 1);
+            }
 
+            // Steps 2-4: Add endmarker $ to FOLLOW(startSymbol)
+            followSets[start].add(ir.endMarker());
+            if (recorder.step()) {
+                recorder.record("Line 2: if A = S then", 2);
+            }
+            if (recorder.step()) {
+                recorder.record("Line 3: FLW(" + ir.nonTerminalName(start) + ") ← { $ }", 3);
+            }
+            if (recorder.step()) {
+                recorder.record("Line 4: end if", 4);
+            }
+            pass = 0;
+            p = 0;
             changed = false;
+        } else {
+            // Saved states are shared by all replays, so they are copied, never mutated
+            followSets = SetUtils.copyBitSets(state.followSets());
+            recorder.trackNonTerminals(ir, followSets);
+            pass = state.pass();
+            p = state.production();
+            changed = state.changed();
+        }
+
+        // Step 5: Repeat passes over the productions in definition order until no changes
+        boolean stable = false;
+        while (!recorder.isComplete()) {
+            if (recorder.isCheckpointDue()) {
+                recorder.checkpoint(new LoopState(pass, p, changed,
+                        SetUtils.copyBitSets(followSets)));
+            }
+            if (p == 0) {
+                pass++;
+                if (recorder.step()) {
+                    recorder.record("Line 5: (Iteration #" + pass
+                            + ") Repeat until no changes", 5);
+                }
+                changed = false;
+            }
+            if (p < ir.getProductionCount()) {
+                changed |= processProduction(ir, p, firstSets, followSets, nullability,
+                        recorder);
+                p++;
+            }
+            if (p >= ir.getProductionCount()) {
+                if (!changed) {
+                    stable = true;
+                    break;
+                }
+                p = 0;
+            }
+        }
 
-            // Process each production for each non-terminal
-            for (String lhs : productionRules.keySet()) {
-                for (String production : productionRules.get(lhs)) {
-                    String[] symbols = production.split("\\s+");
-                    // Examine each symbol in the production
-                    for (int i = 0; i < symbols.length; i++) {
-                        String currentSymbol = symbols[i];
-                        // Process only nonterminals (those with FOLLOW sets)
-                        if (!followSets.containsKey(currentSymbol)) {
-                            continue; // Skip terminals
+        // Step 11: Stabilization complete
+        if (stable && recorder.step()) {
+            recorder.record("Line 11: FOLLOW sets stabilized, return FLW_{A}", 11);
+        }
+        return followSets;
+    }
+
+    /**
+     * Examines each non-terminal of one production body and propagates FOLLOW sets into it.
+     *
+     * @param ir          integer-encoded grammar
+     * @param p           id of the production to process
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param followSets  current FOLLOW sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param recorder    recorder deciding which steps are materialized
+     * @return true if any FOLLOW set changed
+     */
+    private boolean processProduction(
+            GrammarIr ir,
+            int p,
+            TerminalSet[] firstSets,
+            TerminalSet[] followSets,
+            Nullability nullability,
+            StepRecorder recorder
+    ) {
+        int epsilon = ir.epsilon();
+        boolean changed = false;
+        int lhsId = ir.lhs(p);
+        String lhs = ir.nonTerminalName(lhsId);
+        TerminalSet followOfLhs = followSets[lhsId];
+        int[] symbols = ir.rhs(p);
+        // Examine each symbol in the production
+        for (int i = 0; i < symbols.length; i++) {
+            // Process only nonterminals (those with FOLLOW sets)
+            if (!ir.isNonTerminal(symbols[i])) {
+                continue; // Skip terminals
+            }
+            String currentSymbol = ir.nonTerminalName(symbols[i]);
+            TerminalSet followOfSymbol = followSets[symbols[i]];
+
+            // Case: symbol followed by β
+            if (i + 1 < symbols.length) {
+                TerminalSet firstBeta = GrammarUtils.computeFirstOfSequence(ir,
+                        symbols, i + 1, firstSets, nullability,
+                        new TerminalSet(ir.lookaheadCount()));
+                if (recorder.step()) {
+                    recorder.record("Line 6: Compute FIRST(β) for β = "
+                            + ir.render(symbols, i + 1)
+                            + " ⇒ " + firstBeta.format(ir), 6);
+                }
+
+                // Step 7: Add FIRST(β) \ {ε} to FOLLOW(sym)
+                boolean hasEpsilon = nullability.isNullableFrom(p, i + 1);
+                if (firstBeta.size() > (hasEpsilon ? 1 : 0)) {
+                    boolean updated = followOfSymbol.addAllExcept(firstBeta, epsilon);
+                    if (updated) {
+                        changed = true;
+                        if (recorder.step()) {
+                            recorder.record("Line 7: FLW(" + currentSymbol
+                                    + ") ← FLW(" + currentSymbol
+                                    + ") ∪ (FIRST(β) without ε) ⇒ "
+                                    + withoutEpsilon(ir, firstBeta), 7);
                         }
+                    }
+                }
 
-                        // Case: symbol followed by β
-                        if (i + 1 < symbols.length) {
-                            String[] beta = Arrays.copyOfRange(symbols, i + 1, symbols.length);
-                            Set<String> firstBeta = GrammarUtils.computeFirstOfAlpha(beta,
-                                    firstSets);
-                            SetUtils.recordStep("Line 6: Compute FIRST(β) for β = "
-                                            + String.join(" ", beta)
-                                            + " ⇒ " + firstBeta,
-                                    SetUtils.copySets(followSets), steps, 6);
-
-                            // Step 7: Add FIRST(β) \ {ε} to FOLLOW(sym)
-                            Set<String> firstBetaNoEps = new LinkedHashSet<>(firstBeta);
-                            firstBetaNoEps.remove("ε");
-                            if (!firstBetaNoEps.isEmpty()) {
-                                boolean updated = followSets.get(currentSymbol)
-                                        .addAll(firstBetaNoEps);
-                                if (updated) {
-                                    changed = true;
-                                    SetUtils.recordStep("Line 7: FLW(" + currentSymbol
-                                                    + ") ← FLW(" + currentSymbol
-                                                    + ") ∪ (FIRST(β) without ε) ⇒ "
-                                                    + firstBetaNoEps,
-                                            SetUtils.copySets(followSets), steps, 7);
-                                }
-                            }
-
-                            // Step 8: If ε ∈ FIRST(β), add FOLLOW(lhs) to FOLLOW(sym)
-                            SetUtils.recordStep("Line 8: if ε ∈ FIRST(β) then",
-                                    SetUtils.copySets(followSets), steps, 8);
-                            if (firstBeta.contains("ε")) {
-                                boolean updated = followSets.get(currentSymbol)
-                                        .addAll(followSets.get(lhs));
-                                if (updated) {
-                                    changed = true;
-                                    SetUtils.recordStep(
-                                            "Line 9: FLW(" + currentSymbol
-                                                    + ") ← FLW(" + currentSymbol
-                                                    + ") ∪ FOLLOW(" + lhs + ") ⇒ "
-                                                    + followSets.get(lhs),
-                                            SetUtils.copySets(followSets), steps, 9);
-                                }
-                            }
-                            SetUtils.recordStep("Line 10: end if",
-                                    SetUtils.copySets(followSets), steps, 10);
-                        } else {
-                            // Case: sym is last in production, add FOLLOW(lhs)
-                            SetUtils.recordStep("Line 8: if " + currentSymbol
-                                            + " is last in production (B → α A) then",
-                                    SetUtils.copySets(followSets), steps, 8);
-                            boolean updated = followSets.get(currentSymbol)
-                                    .addAll(followSets.get(lhs));
-                            if (updated) {
-                                changed = true;
-                                SetUtils.recordStep("Line 9: FLW(" + currentSymbol
-                                                + ") ← FLW(" + currentSymbol
-                                                + ") ∪ FOLLOW(" + lhs + ") ⇒ "
-                                                + followSets.get(lhs),
-                                        SetUtils.copySets(followSets), steps, 9);
-                            }
-                            SetUtils.recordStep("Line 10: end if",
-                                    SetUtils.copySets(followSets), steps, 10);
+                // Step 8: If ε ∈ FIRST(β), add FOLLOW(lhs) to FOLLOW(sym)
+                if (recorder.step()) {
+                    recorder.record("Line 8: if ε ∈ FIRST(β) then", 8);
+                }
+                if (hasEpsilon) {
+                    boolean updated = followOfSymbol.addAll(followOfLhs);
+                    if (updated) {
+                        changed = true;
+                        if (recorder.step()) {
+                            recorder.record("Line 9: FLW(" + currentSymbol
+                                    + ") ← FLW(" + currentSymbol
+                                    + ") ∪ FOLLOW(" + lhs + ") ⇒ "
+                                    + followOfLhs.format(ir), 9);
                         }
                     }
                 }
+                if (recorder.step()) {
+                    recorder.record("Line 10: end if", 10);
+                }
+            } else {
+                // Case: sym is last in production, add FOLLOW(lhs)
+                if (recorder.step()) {
+                    recorder.record("Line 8: if " + currentSymbol
+                            + " is last in production (B → α A) then", 8);
+                }
+                boolean updated = followOfSymbol.addAll(followOfLhs);
+                if (updated) {
+                    changed = true;
+                    if (recorder.step()) {
+                        recorder.record("Line 9: FLW(" + currentSymbol
+                                + ") ← FLW(" + currentSymbol
+                                + ") ∪ FOLLOW(" + lhs + ") ⇒ "
+                                + followOfLhs.format(ir), 9);
+                    }
+                }
+                if (recorder.step()) {
+                    recorder.record("Line 10: end if", 10);
+                }
             }
-        } while (changed);
+        }
+        return changed;
+    }
 
-        // Step 11: Stabilization complete
-        SetUtils.recordStep("Line 11: FOLLOW sets stabilized, return FLW_{A}",
-                SetUtils.copySets(followSets), steps, 11);
+    /**
+     * Iteration state before processing a production, saved for replaying steps.
+     *
+     * @param pass       number of the current pass, 0 before the first one
+     * @param production id of the next production to process; 0 starts a new pass
+     * @param changed    whether the current pass has changed any set so far
+     * @param followSets copy of the FOLLOW sets
+     */
+    private record LoopState(int pass, int production, boolean changed,
+                             TerminalSet[] followSets) {
+    }
 
-        // Persist results in grammar model
-        grammar.setFollowSets(followSets);
-        grammar.setFollowStepRecords(steps);
+    /**
+     * Formats a set without its ε element, as shown in the Line 7 description.
+     */
+    private String withoutEpsilon(GrammarIr ir, TerminalSet set) {
+        TerminalSet copy = set.copy();
+        copy.remove(ir.epsilon());
+        return copy.format(ir);
     }
 }
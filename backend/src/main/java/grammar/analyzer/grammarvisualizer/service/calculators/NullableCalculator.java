@@ -0,0 +1,108 @@
+package grammar.analyzer.grammarvisualizer.service.calculators;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import org.springframework.stereotype.Component;
+
+/**
+ * Component responsible for determining which non-terminals derive ε.
+ * Treats every production as a Horn clause and counts, per production, the right-hand
+ * side non-terminals not yet known to be nullable. Each occurrence is decremented at
+ * most once, so the analysis runs in time linear in the size of the grammar.
+ */
+@Component
+public class NullableCalculator {
+    /**
+     * Computes and stores the nullable analysis in the provided Grammar model.
+     *
+     * @param ir      integer-encoded grammar
+     * @param grammar Grammar model to populate with nullable non-terminals
+     */
+    public void computeNullable(GrammarIr ir, Grammar grammar) {
+        Nullability nullability = computeNullable(ir);
+        grammar.setNullability(nullability);
+        grammar.setNullableNonTerminals(nullability.toNames(ir));
+    }
+
+    /**
+     * Computes the nullable analysis of the grammar.
+     *
+     * @param ir integer-encoded grammar
+     * @return nullable non-terminals and nullable production suffixes
+     */
+    public Nullability computeNullable(GrammarIr ir) {
+        int nonTerminals = ir.getNonTerminalCount();
+        int productions = ir.getProductionCount();
+
+        // Count pending non-terminals; a terminal makes the production non-nullable
+        int[] pending = new int[productions];
+        for (int p = 0; p < productions; p++) {
+            for (int symbol : ir.rhs(p)) {
+                if (!ir.isNonTerminal(symbol)) {
+                    pending[p] = -1;
+                    break;
+                }
+                pending[p]++;
+            }
+        }
+
+        // Index occurrences: for each non-terminal, the candidate productions using it
+        // (with repeats); productions containing a terminal are never indexed
+        int[] occurrenceCount = new int[nonTerminals];
+        for (int p = 0; p < productions; p++) {
+            if (pending[p] > 0) {
+                for (int symbol : ir.rhs(p)) {
+                    occurrenceCount[symbol]++;
+                }
+            }
+        }
+        int[][] occurrences = new int[nonTerminals][];
+        for (int a = 0; a < nonTerminals; a++) {
+            occurrences[a] = new int[occurrenceCount[a]];
+            occurrenceCount[a] = 0;
+        }
+        for (int p = 0; p < productions; p++) {
+            if (pending[p] > 0) {
+                for (int symbol : ir.rhs(p)) {
+                    occurrences[symbol][occurrenceCount[symbol]++] = p;
+                }
+            }
+        }
+
+        // Propagate from ε-productions through the counters
+        boolean[] nullable = new boolean[nonTerminals];
+        int[] queue = new int[nonTerminals];
+        int head = 0;
+        int tail = 0;
+        for (int p = 0; p < productions; p++) {
+            int lhs = ir.lhs(p);
+            if (pending[p] == 0 && !nullable[lhs]) {
+                nullable[lhs] = true;
+                queue[tail++] = lhs;
+            }
+        }
+        while (head < tail) {
+            int symbol = queue[head++];
+            for (int p : occurrences[symbol]) {
+                int lhs = ir.lhs(p);
+                if (--pending[p] == 0 && !nullable[lhs]) {
+                    nullable[lhs] = true;
+                    queue[tail++] = lhs;
+                }
+            }
+        }
+
+        // Start of the longest nullable suffix of every production
+        int[] suffixStart = new int[productions];
+        for (int p = 0; p < productions; p++) {
+            int[] symbols = ir.rhs(p);
+            int i = symbols.length;
+            while (i > 0 && ir.isNonTerminal(symbols[i - 1]) && nullable[symbols[i - 1]]) {
+                i--;
+            }
+            suffixStart[p] = i;
+        }
+        return new Nullability(nullable, suffixStart);
+    }
+}
@@ -0,0 +1,351 @@
+package grammar.analyzer.grammarvisualizer.service.calculators;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import grammar.analyzer.grammarvisualizer.util.SetUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parallel FIRST set engine over the condensation of the dependency graph.
+ * The relation "FIRST(A) reads FIRST(B)" is collapsed into strongly connected components
+ * with Tarjan's algorithm, and each component is solved by the worklist of
+ * {@link FirstSetCalculator} once all components it reads are final. Components that do
+ * not depend on each other are solved concurrently on a {@link ForkJoinPool}.
+ *
+ * <p>Produces the same sets as {@link FirstSetCalculator}, without its step-by-step
+ * trace. Each set is filled from final sets instead of from partial ones, so its elements
+ * are added in another order, but sets are always listed in grammar order, so the
+ * displayed sets and everything computed from them are identical.
+ */
+@Component
+@RequiredArgsConstructor
+public class ParallelFirstSetCalculator {
+    /**
+     * Grammars with fewer non-terminals are solved on the calling thread, as are all
+     * grammars when the pool has a single worker.
+     */
+    static final int PARALLEL_THRESHOLD = 256;
+
+    private final FirstSetCalculator firstSetCalculator;
+
+    /**
+     * Computes and stores FIRST sets in the provided Grammar model using the common
+     * ForkJoinPool. A single summary step is recorded in place of the pseudocode trace.
+     *
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with FIRST sets and step records
+     */
+    public void computeFirstSets(GrammarIr ir, Nullability nullability, Grammar grammar) {
+        TerminalSet[] firstSets = SetUtils.initializeEmptyBitSets(ir);
+        int components = computeFirstSets(ir, nullability, ForkJoinPool.commonPool(),
+                firstSets);
+
+        Map<String, Set<String>> named = SetUtils.toNameSets(ir, firstSets);
+        List<StepRecord> steps = new ArrayList<>();
+        SetUtils.recordStep("FIRST sets computed over " + components
+                + " strongly connected components in dependency order", named, steps, 15);
+
+        grammar.setFirstBitSets(firstSets);
+        grammar.setFirstSets(named);
+        grammar.setFirstStepRecords(steps);
+    }
+
+    /**
+     * Computes FIRST sets into the given array.
+     *
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param pool        pool solving independent components concurrently, or
+     *                    {@code null} to solve them one by one on the calling thread
+     * @param firstSets   empty sets indexed by non-terminal id, filled in place
+     * @return number of strongly connected components of the dependency graph
+     */
+    public int computeFirstSets(GrammarIr ir, Nullability nullability, ForkJoinPool pool,
+                                TerminalSet[] firstSets) {
+        int[][] dependents = firstSetCalculator.buildDependents(ir);
+        int[][] reads = buildReads(ir, dependents);
+        int[] componentOf = new int[reads.length];
+        int components = findComponents(reads, componentOf);
+
+        int[] lhs = new int[ir.getProductionCount()];
+        for (int p = 0; p < lhs.length; p++) {
+            lhs[p] = ir.lhs(p);
+        }
+        int[][] productions = groupBy(lhs, componentOf, components);
+
+        if (pool == null || pool.getParallelism() < 2 || reads.length < PARALLEL_THRESHOLD) {
+            // Components are numbered in dependency order
+            for (int c = 0; c < components; c++) {
+                firstSetCalculator.solve(ir, nullability, dependents, firstSets,
+                        productions[c]);
+            }
+        } else {
+            int[][] members = groupBy(IntStream.range(0, reads.length).toArray(), componentOf,
+                    components);
+            new Schedule(ir, nullability, dependents, firstSets, productions,
+                    reads, componentOf, members).run(pool);
+        }
+        return components;
+    }
+
+    /**
+     * Groups ids by the component of their key, keeping ascending order in each group.
+     *
+     * @param keys        non-terminal id of each id
+     * @param componentOf component number of each non-terminal
+     * @param components  number of components
+     * @return ids indexed by component number
+     */
+    private int[][] groupBy(int[] keys, int[] componentOf, int components) {
+        int[] sizes = new int[components];
+        for (int key : keys) {
+            sizes[componentOf[key]]++;
+        }
+        int[][] groups = new int[components][];
+        for (int c = 0; c < components; c++) {
+            groups[c] = new int[sizes[c]];
+            sizes[c] = 0;
+        }
+        for (int id = 0; id < keys.length; id++) {
+            int c = componentOf[keys[id]];
+            groups[c][sizes[c]++] = id;
+        }
+        return groups;
+    }
+
+    /**
+     * Inverts the worklist's dependents index into, for each non-terminal,
+     * the distinct non-terminals whose FIRST sets its productions read.
+     *
+     * @param ir         integer-encoded grammar
+     * @param dependents productions reading each non-terminal's FIRST set
+     * @return read non-terminal ids indexed by non-terminal id
+     */
+    private int[][] buildReads(GrammarIr ir, int[][] dependents) {
+        int count = ir.getNonTerminalCount();
+        int[] sizes = new int[count];
+        int[] seen = new int[count];
+        Arrays.fill(seen, -1);
+        for (int b = 0; b < count; b++) {
+            for (int p : dependents[b]) {
+                int a = ir.lhs(p);
+                if (seen[a] != b) {
+                    seen[a] = b;
+                    sizes[a]++;
+                }
+            }
+        }
+        int[][] reads = new int[count][];
+        for (int a = 0; a < count; a++) {
+            reads[a] = new int[sizes[a]];
+            sizes[a] = 0;
+        }
+        Arrays.fill(seen, -1);
+        for (int b = 0; b < count; b++) {
+            for (int p : dependents[b]) {
+                int a = ir.lhs(p);
+                if (seen[a] != b) {
+                    seen[a] = b;
+                    reads[a][sizes[a]++] = b;
+                }
+            }
+        }
+        return reads;
+    }
+
+    /**
+     * Iterative Tarjan's algorithm. Components are numbered in the order they are
+     * closed, so every component is numbered after all components it reads.
+     *
+     * @param reads       read non-terminal ids indexed by non-terminal id
+     * @param componentOf filled with the component number of each non-terminal
+     * @return number of components
+     */
+    private int findComponents(int[][] reads, int[] componentOf) {
+        int count = reads.length;
+        int[] index = new int[count];
+        int[] low = new int[count];
+        int[] edge = new int[count];
+        boolean[] onStack = new boolean[count];
+        int[] stack = new int[count];
+        int[] calls = new int[count];
+        Arrays.fill(index, -1);
+        int counter = 0;
+        int top = 0;
+        int components = 0;
+        for (int root = 0; root < count; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int call = 0;
+            calls[0] = root;
+            index[root] = low[root] = counter++;
+            stack[top++] = root;
+            onStack[root] = true;
+            while (call >= 0) {
+                int v = calls[call];
+                if (edge[v] < reads[v].length) {
+                    int w = reads[v][edge[v]++];
+                    if (index[w] < 0) {
+                        index[w] = low[w] = counter++;
+                        stack[top++] = w;
+                        onStack[w] = true;
+                        calls[++call] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                if (low[v] == index[v]) {
+                    int member;
+                    do {
+                        member = stack[--top];
+                        onStack[member] = false;
+                        componentOf[member] = components;
+                    } while (member != v);
+                    components++;
+                }
+                if (--call >= 0) {
+                    int caller = calls[call];
+                    low[caller] = Math.min(low[caller], low[v]);
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Solves the components on a pool, each as soon as the last component it reads
+     * is solved.
+     */
+    private final class Schedule {
+        private final GrammarIr ir;
+        private final Nullability nullability;
+        private final int[][] dependents;
+        private final TerminalSet[] firstSets;
+        private final int[][] productions;
+        private final int[][] successors;
+        private final int[] roots;
+        private final AtomicIntegerArray waiting;
+        private final CountDownLatch done;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private Schedule(GrammarIr ir, Nullability nullability, int[][] dependents,
+                         TerminalSet[] firstSets, int[][] productions, int[][] reads,
+                         int[] componentOf, int[][] members) {
+            this.ir = ir;
+            this.nullability = nullability;
+            this.dependents = dependents;
+            this.firstSets = firstSets;
+            this.productions = productions;
+            int components = productions.length;
+
+            // Distinct edges from each component to the components reading it
+            int[] waitingCounts = new int[components];
+            int[] sizes = new int[components];
+            int[] seen = new int[components];
+            Arrays.fill(seen, -1);
+            for (int to = 0; to < components; to++) {
+                for (int a : members[to]) {
+                    for (int b : reads[a]) {
+                        int from = componentOf[b];
+                        if (from != to && seen[from] != to) {
+                            seen[from] = to;
+                            sizes[from]++;
+                            waitingCounts[to]++;
+                        }
+                    }
+                }
+            }
+            this.successors = new int[components][];
+            for (int c = 0; c < components; c++) {
+                successors[c] = new int[sizes[c]];
+                sizes[c] = 0;
+            }
+            Arrays.fill(seen, -1);
+            for (int to = 0; to < components; to++) {
+                for (int a : members[to]) {
+                    for (int b : reads[a]) {
+                        int from = componentOf[b];
+                        if (from != to && seen[from] != to) {
+                            seen[from] = to;
+                            successors[from][sizes[from]++] = to;
+                        }
+                    }
+                }
+            }
+            this.roots = IntStream.range(0, components)
+                    .filter(c -> waitingCounts[c] == 0).toArray();
+            this.waiting = new AtomicIntegerArray(waitingCounts);
+            this.done = new CountDownLatch(components);
+        }
+
+        private void run(ForkJoinPool pool) {
+            // Roots are collected up front, since running tasks already release others
+            for (int root : roots) {
+                pool.execute(new ComponentTask(root));
+            }
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while computing FIRST sets", e);
+            }
+            Throwable error = failure.get();
+            if (error instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (error instanceof Error fatal) {
+                throw fatal;
+            }
+        }
+
+        /**
+         * Solves one component, then releases the components waiting only for it.
+         */
+        private final class ComponentTask extends RecursiveAction {
+            private final int component;
+
+            private ComponentTask(int component) {
+                this.component = component;
+            }
+
+            @Override
+            protected void compute() {
+                try {
+                    firstSetCalculator.solve(ir, nullability, dependents, firstSets,
+                            productions[component]);
+                } catch (RuntimeException | Error e) {
+                    // Release the caller instead of waiting for components that never run
+                    failure.compareAndSet(null, e);
+                    while (done.getCount() > 0) {
+                        done.countDown();
+                    }
+                    return;
+                }
+                for (int next : successors[component]) {
+                    if (waiting.decrementAndGet(next) == 0) {
+                        new ComponentTask(next).fork();
+                    }
+                }
+                done.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package grammar.analyzer.grammarvisualizer.service.calculators;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import grammar.analyzer.grammarvisualizer.util.SetUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parallel PREDICT set engine. Once FIRST and FOLLOW sets are final, the PREDICT set of
+ * each production only reads them, so all productions of a large grammar are computed
+ * concurrently on the common ForkJoinPool, each into its own slot.
+ * Produces the same sets, in the same element order, as {@link PredictSetCalculator},
+ * without its step-by-step trace.
+ */
+@Component
+@RequiredArgsConstructor
+public class ParallelPredictSetCalculator {
+    /**
+     * Grammars with fewer productions are computed on the calling thread, where a
+     * PREDICT set costs less than splitting the work.
+     */
+    static final int PARALLEL_THRESHOLD = 1024;
+
+    private final PredictSetCalculator predictSetCalculator;
+
+    /**
+     * Computes and stores PREDICT sets in the provided Grammar model.
+     * A single summary step is recorded in place of the pseudocode trace.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param followSets  precomputed FOLLOW sets for ε propagation
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with PREDICT sets and step records
+     */
+    public void computePredictSets(
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            TerminalSet[] followSets,
+            Nullability nullability,
+            Grammar grammar
+    ) {
+        TerminalSet[] predictSets = new TerminalSet[ir.getProductionCount()];
+        IntStream productions = IntStream.range(0, predictSets.length);
+        boolean parallel = predictSets.length >= PARALLEL_THRESHOLD;
+        if (parallel) {
+            productions = productions.parallel();
+        }
+        productions.forEach(p ->
+                predictSets[p] = predictSetCalculator.computePredictSet(ir, p, firstSets,
+                        followSets, nullability));
+
+        Map<String, Set<String>> named = SetUtils.toPredictMap(ir, predictSets);
+        List<StepRecord> steps = new ArrayList<>();
+        SetUtils.recordStep("Line 4: PREDICT sets of " + predictSets.length
+                + " productions computed" + (parallel ? " in parallel" : ""), named, steps, 4);
+
+        grammar.setPredictBitSets(predictSets);
+        grammar.setPredictSets(named);
+        grammar.setPredictStepRecords(steps);
+    }
+}
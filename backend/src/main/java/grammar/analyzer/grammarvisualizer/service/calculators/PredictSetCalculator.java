@@ -1,12 +1,12 @@
 package grammar.analyzer.grammarvisualizer.service.calculators;
 
 import grammar.analyzer.grammarvisualizer.model.Grammar;
-import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 import grammar.analyzer.grammarvisualizer.util.GrammarUtils;
 import grammar.analyzer.grammarvisualizer.util.SetUtils;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,6 +20,7 @@ import org.springframework.stereotype.Component;
 public class PredictSetCalculator {
     /**
      * Computes PREDICT sets and records each pseudocode step for visualization.
+     * Convenience overload that builds the grammar IR from the production map.
      *
      * @param productionRules map of non-terminals to their production alternatives
      * @param firstSets       precomputed FIRST sets for lookahead
@@ -32,64 +33,190 @@ public class PredictSetCalculator {
             Map<String, Set<String>> followSets,
             Grammar grammar
     ) {
-        // Initialize storage for PREDICT sets and step records
-        Map<String, Set<String>> predictSets = new LinkedHashMap<>();
-        List<StepRecord> steps = new ArrayList<>();
-
-        // Step 0: Begin PREDICT computation
-        SetUtils.recordStep("Line 0: Start computing PREDICT sets",
-                SetUtils.copySets(predictSets), steps, 0);
-
-        // Iterate through each production
-        for (String nonTerminal : productionRules.keySet()) {
-            for (String production : productionRules.get(nonTerminal)) {
-                String key = nonTerminal + " -> " + production;
-
-                // Step 1: Calculate FIRST(α) for the production body
-                SetUtils.recordStep("Line 1: Compute FIRST(α) for " + key,
-                        SetUtils.copySets(predictSets), steps, 1);
-
-                // Split production or handle ε
-                String[] alpha = production.equals("epsilon") ? new String[]{"epsilon"}
-                        : production.split("\\s+");
-                Set<String> firstAlpha = GrammarUtils.computeFirstOfAlpha(alpha,
-                        firstSets);
-
-                // Step 2: If ε in FIRST(α), combine FIRST\{ε} with FOLLOW(nonTerminal)
-                if (firstAlpha.contains("ε")) {
-                    SetUtils.recordStep("Line 2: ε ∈ FIRST(α), do sub-steps 2a, 2b",
-                            SetUtils.copySets(predictSets), steps, 2);
-
-                    // Step 2a: Remove ε from FIRST(α)
-                    Set<String> withoutEps = new LinkedHashSet<>(firstAlpha);
-                    withoutEps.remove("ε");
-                    SetUtils.recordStep("Line 2a: (firstAlpha \\ {ε}) = " + withoutEps,
-                            SetUtils.copySets(predictSets), steps, 2);
-
-                    // Step 2b: Union with FOLLOW(nonTerminal)
-                    Set<String> combined = new LinkedHashSet<>(withoutEps);
-                    combined.addAll(followSets.get(nonTerminal));
-                    SetUtils.recordStep("Line 2b: PREDICT(" + key + ") = " + combined
-                                    + " = (firstAlpha\\{ε}) ∪ FOLLOW(" + nonTerminal + ")",
-                            SetUtils.copySets(predictSets), steps, 2);
-
-                    predictSets.put(key, combined);
-                } else {
-                    // Step 3: ε not in FIRST(α); PREDICT = FIRST(α)
-                    SetUtils.recordStep("Line 3: ε ∉ FIRST(α) => PREDICT("
-                                    + key + ") = " + firstAlpha,
-                            SetUtils.copySets(predictSets), steps, 3);
-                    predictSets.put(key, firstAlpha);
+        GrammarIr ir = GrammarIr.of(productionRules);
+        computePredictSets(ir, SetUtils.toBitSets(ir, firstSets),
+                SetUtils.toBitSets(ir, followSets), new NullableCalculator().computeNullable(ir),
+                grammar);
+    }
+
+    /**
+     * Computes PREDICT sets and records each pseudocode step for visualization.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param followSets  precomputed FOLLOW sets for ε propagation
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with PREDICT sets and step records
+     */
+    public void computePredictSets(
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            TerminalSet[] followSets,
+            Nullability nullability,
+            Grammar grammar
+    ) {
+        computePredictSets(ir, firstSets, followSets, nullability, StepRecorder.full(), grammar);
+    }
+
+    /**
+     * Computes PREDICT sets, recording steps through the given recorder. With a counting
+     * recorder the step records are replayed page by page from saved loop states
+     * when they are read.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param followSets  precomputed FOLLOW sets for ε propagation
+     * @param nullability precomputed nullable non-terminals
+     * @param recorder    recorder deciding which steps are materialized
+     * @param grammar     Grammar model to populate with PREDICT sets and step records
+     */
+    public void computePredictSets(
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            TerminalSet[] followSets,
+            Nullability nullability,
+            StepRecorder recorder,
+            Grammar grammar
+    ) {
+        TerminalSet[] predictSets = run(ir, firstSets, followSets, nullability, recorder);
+
+        // Persist results in grammar model
+        grammar.setPredictBitSets(predictSets);
+        grammar.setPredictSets(SetUtils.toPredictMap(ir, predictSets));
+        grammar.setPredictStepRecords(recorder.toStepRecords((start, from, to) -> {
+            StepRecorder window = StepRecorder.window(start, from, to);
+            run(ir, firstSets, followSets, nullability, window);
+            return window.getSteps();
+        }));
+    }
+
+    /**
+     * Computes PREDICT sets from the beginning, or from the loop state saved in the
+     * recorder's resume checkpoint, until all productions are done or the recorder
+     * is complete.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param followSets  precomputed FOLLOW sets for ε propagation
+     * @param nullability precomputed nullable non-terminals
+     * @param recorder    recorder deciding which steps are materialized
+     * @return PREDICT sets indexed by production id
+     */
+    private TerminalSet[] run(
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            TerminalSet[] followSets,
+            Nullability nullability,
+            StepRecorder recorder
+    ) {
+        int epsilon = ir.epsilon();
+        TerminalSet[] predictSets;
+        int p;
+        LoopState state = recorder.resumeState();
+        if (state == null) {
+            // Initialize storage for PREDICT sets, indexed by production id
+            predictSets = new TerminalSet[ir.getProductionCount()];
+            recorder.trackProductions(ir, predictSets);
+
+            // Step 0: Begin PREDICT computation
+            if (recorder.step()) {
+                recorder.record("Line 0: Start computing PREDICT sets", 0);
+            }
+            p = 0;
+        } else {
+            // Finished PREDICT sets are never modified, so a shallow copy is enough
+            predictSets = state.predictSets().clone();
+            recorder.trackProductions(ir, predictSets);
+            p = state.production();
+        }
+
+        // Iterate through each production in definition order
+        for (; p < ir.getProductionCount() && !recorder.isComplete(); p++) {
+            if (recorder.isCheckpointDue()) {
+                recorder.checkpoint(new LoopState(p, predictSets.clone()));
+            }
+            int lhs = ir.lhs(p);
+
+            // Step 1: Calculate FIRST(α) for the production body
+            if (recorder.step()) {
+                recorder.record("Line 1: Compute FIRST(α) for " + ir.productionKey(p), 1);
+            }
+
+            // An ε-production is encoded as an empty body and yields {ε}
+            TerminalSet firstAlpha = GrammarUtils.computeFirstOfSequence(ir, ir.rhs(p), 0,
+                    firstSets, nullability, new TerminalSet(ir.lookaheadCount()));
+
+            // Step 2: If ε in FIRST(α), combine FIRST\{ε} with FOLLOW(nonTerminal)
+            if (nullability.isNullableFrom(p, 0)) {
+                if (recorder.step()) {
+                    recorder.record("Line 2: ε ∈ FIRST(α), do sub-steps 2a, 2b", 2);
+                }
+
+                // Step 2a: Remove ε from FIRST(α)
+                TerminalSet withoutEps = firstAlpha.copy();
+                withoutEps.remove(epsilon);
+                if (recorder.step()) {
+                    recorder.record("Line 2a: (firstAlpha \\ {ε}) = " + withoutEps.format(ir),
+                            2);
+                }
+
+                // Step 2b: Union with FOLLOW(nonTerminal)
+                TerminalSet combined = withoutEps.copy();
+                combined.addAll(followSets[lhs]);
+                if (recorder.step()) {
+                    recorder.record("Line 2b: PREDICT(" + ir.productionKey(p) + ") = "
+                            + combined.format(ir) + " = (firstAlpha\\{ε}) ∪ FOLLOW("
+                            + ir.nonTerminalName(lhs) + ")", 2);
+                }
+
+                predictSets[p] = combined;
+            } else {
+                // Step 3: ε not in FIRST(α); PREDICT = FIRST(α)
+                if (recorder.step()) {
+                    recorder.record("Line 3: ε ∉ FIRST(α) => PREDICT("
+                            + ir.productionKey(p) + ") = " + firstAlpha.format(ir), 3);
                 }
+                predictSets[p] = firstAlpha;
             }
         }
 
         // Step 4: Finalize PREDICT set computation
-        SetUtils.recordStep("Line 4: Done computing PREDICT sets",
-                SetUtils.copySets(predictSets), steps, 4);
+        if (p == ir.getProductionCount() && recorder.step()) {
+            recorder.record("Line 4: Done computing PREDICT sets", 4);
+        }
+        return predictSets;
+    }
 
-        // Persist results in grammar model
-        grammar.setPredictSets(predictSets);
-        grammar.setPredictStepRecords(steps);
+    /**
+     * Computes the PREDICT set of a single production without recording steps,
+     * for recomputing only the productions whose inputs changed after an edit.
+     *
+     * @param ir          integer-encoded grammar
+     * @param production  id of the production
+     * @param firstSets   precomputed FIRST sets for lookahead
+     * @param followSets  precomputed FOLLOW sets for ε propagation
+     * @param nullability precomputed nullable non-terminals
+     * @return PREDICT set of the production, in the same order as a full computation
+     */
+    public TerminalSet computePredictSet(GrammarIr ir, int production, TerminalSet[] firstSets,
+                                         TerminalSet[] followSets, Nullability nullability) {
+        TerminalSet firstAlpha = GrammarUtils.computeFirstOfSequence(ir, ir.rhs(production), 0,
+                firstSets, nullability, new TerminalSet(ir.lookaheadCount()));
+        if (!nullability.isNullableFrom(production, 0)) {
+            return firstAlpha;
+        }
+        TerminalSet predict = firstAlpha.copy();
+        predict.remove(ir.epsilon());
+        predict.addAll(followSets[ir.lhs(production)]);
+        return predict;
+    }
+
+    /**
+     * Loop state before processing a production, saved for replaying steps.
+     *
+     * @param production  id of the next production to process
+     * @param predictSets shallow copy of the PREDICT sets computed so far
+     */
+    private record LoopState(int production, TerminalSet[] predictSets) {
     }
 }
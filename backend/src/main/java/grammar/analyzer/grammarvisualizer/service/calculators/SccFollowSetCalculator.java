@@ -0,0 +1,189 @@
+package grammar.analyzer.grammarvisualizer.service.calculators;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import grammar.analyzer.grammarvisualizer.util.SetUtils;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fast FOLLOW set engine based on the DeRemer–Pennello digraph algorithm.
+ * The relation "FOLLOW(A) ⊇ FOLLOW(B)" is built once from the grammar, its strongly
+ * connected components are collapsed with Tarjan's algorithm, and sets are propagated in
+ * a single traversal, so no whole-grammar passes are repeated.
+ * Produces the same sets as {@link FollowSetCalculator}, without its step-by-step trace;
+ * their elements are added in another order, but sets are listed in grammar order.
+ */
+@Component
+public class SccFollowSetCalculator {
+    private static final int DONE = Integer.MAX_VALUE;
+
+    /**
+     * Computes and stores FOLLOW sets in the provided Grammar model,
+     * using the first non-terminal of the grammar as the start symbol.
+     * A single summary step is recorded in place of the pseudocode trace.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with FOLLOW sets and step records
+     */
+    public void computeFollowSets(GrammarIr ir, TerminalSet[] firstSets,
+                                  Nullability nullability, Grammar grammar) {
+        TerminalSet[] followSets = SetUtils.initializeEmptyBitSets(ir);
+        int components = computeFollowSets(ir, firstSets, nullability, 0, followSets);
+
+        List<StepRecord> steps = new ArrayList<>();
+        SetUtils.recordStep("Line 11: FOLLOW sets computed in one pass over " + components
+                        + " strongly connected components, return FLW_{A}",
+                SetUtils.toNameSets(ir, followSets), steps, 11);
+
+        grammar.setFollowBitSets(followSets);
+        grammar.setFollowSets(SetUtils.toNameSets(ir, followSets));
+        grammar.setFollowStepRecords(steps);
+    }
+
+    /**
+     * Computes FOLLOW sets into the given array.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param start       id of the start symbol, whose FOLLOW set receives $
+     * @param followSets  empty sets indexed by non-terminal id, filled in place
+     * @return number of strongly connected components of the inclusion graph
+     */
+    public int computeFollowSets(
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            Nullability nullability,
+            int start,
+            TerminalSet[] followSets
+    ) {
+        BitSet[] includes = buildInclusionGraph(ir, firstSets, nullability, followSets);
+        followSets[start].add(ir.endMarker());
+
+        return traverse(includes, followSets);
+    }
+
+    /**
+     * Seeds every FOLLOW set with the terminals it directly receives and returns the
+     * inclusion relation. For each production {@code X → α A β}, FIRST(β) without ε is
+     * added to FOLLOW(A), and when β can derive ε (or is empty) FOLLOW(A) includes FOLLOW(X).
+     * FIRST(β) is accumulated right to left, so each production is scanned once.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param followSets  sets to seed, indexed by non-terminal id
+     * @return for each non-terminal A, the non-terminals B with FOLLOW(A) ⊇ FOLLOW(B)
+     */
+    private BitSet[] buildInclusionGraph(
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            Nullability nullability,
+            TerminalSet[] followSets
+    ) {
+        int epsilon = ir.epsilon();
+        BitSet[] includes = new BitSet[ir.getNonTerminalCount()];
+        for (int a = 0; a < includes.length; a++) {
+            includes[a] = new BitSet();
+        }
+        for (int p = 0; p < ir.getProductionCount(); p++) {
+            int lhs = ir.lhs(p);
+            int[] symbols = ir.rhs(p);
+            TerminalSet firstBeta = new TerminalSet(ir.lookaheadCount());
+            boolean betaNullable = true;
+            for (int i = symbols.length - 1; i >= 0; i--) {
+                int symbol = symbols[i];
+                if (!ir.isNonTerminal(symbol)) {
+                    firstBeta = new TerminalSet(ir.lookaheadCount());
+                    firstBeta.add(ir.terminalIndex(symbol));
+                    betaNullable = false;
+                    continue;
+                }
+                followSets[symbol].addAllExcept(firstBeta, epsilon);
+                if (betaNullable && symbol != lhs) {
+                    includes[symbol].set(lhs);
+                }
+                // FIRST(symbol β) = FIRST(symbol) \ {ε}, plus FIRST(β) if symbol derives ε
+                TerminalSet extended = new TerminalSet(ir.lookaheadCount());
+                extended.addAllExcept(firstSets[symbol], epsilon);
+                if (nullability.isNullable(symbol)) {
+                    extended.addAll(firstBeta);
+                } else {
+                    betaNullable = false;
+                }
+                firstBeta = extended;
+            }
+        }
+        return includes;
+    }
+
+    /**
+     * Tarjan-style traversal of the digraph algorithm: unions FOLLOW sets along the
+     * inclusion edges and assigns the combined set to every member of a component.
+     * The depth-first search keeps its own call stack, so long inclusion chains do not
+     * overflow the thread stack.
+     *
+     * @param includes   for each non-terminal A, the B with FOLLOW(A) ⊇ FOLLOW(B)
+     * @param followSets seeded sets indexed by non-terminal id, completed in place
+     * @return number of components of the inclusion graph
+     */
+    private int traverse(BitSet[] includes, TerminalSet[] followSets) {
+        int count = includes.length;
+        int[] depth = new int[count];
+        int[] height = new int[count];
+        int[] edge = new int[count];
+        int[] stack = new int[count];
+        int[] calls = new int[count];
+        int top = 0;
+        int components = 0;
+        for (int root = 0; root < count; root++) {
+            if (depth[root] != 0) {
+                continue;
+            }
+            int call = 0;
+            calls[0] = root;
+            stack[top++] = root;
+            depth[root] = height[root] = top;
+            while (call >= 0) {
+                int node = calls[call];
+                int next = includes[node].nextSetBit(edge[node]);
+                if (next >= 0) {
+                    edge[node] = next + 1;
+                    if (depth[next] == 0) {
+                        stack[top++] = next;
+                        depth[next] = height[next] = top;
+                        calls[++call] = next;
+                    } else {
+                        depth[node] = Math.min(depth[node], depth[next]);
+                        followSets[node].addAll(followSets[next]);
+                    }
+                    continue;
+                }
+                if (depth[node] == height[node]) {
+                    int member;
+                    do {
+                        member = stack[--top];
+                        depth[member] = DONE;
+                        followSets[member].addAll(followSets[node]);
+                    } while (member != node);
+                    components++;
+                }
+                // Return to the caller, which merges the finished node like any other edge
+                if (--call >= 0) {
+                    int caller = calls[call];
+                    depth[caller] = Math.min(depth[caller], depth[node]);
+                    followSets[caller].addAll(followSets[node]);
+                }
+            }
+        }
+        return components;
+    }
+}
@@ -1,9 +1,6 @@
 package grammar.analyzer.grammarvisualizer.service.ebnf.parser;
 
-import grammar.analyzer.grammarvisualizer.service.ebnf.model.token.Token;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.token.TokenType;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Lexer for EBNF grammar strings. Splits input into tokens representing
@@ -11,16 +8,20 @@ import java.util.List;
  */
 public class EbnfLexer {
     /**
-     * Tokenizes the given EBNF input string into a list of Token objects.
-     * Skips whitespace and handles single-quoted literals and identifiers.
+     * Tokenizes a range of the input into offset triples without copying any text.
+     * Skips whitespace and handles single-quoted literals and identifiers. The escape
+     * sequence {@code \mid} is read as a pipe; {@code \eps} is kept in the symbol
+     * and expanded when its text is built.
      *
-     * @param input raw EBNF grammar string
-     * @return list of tokens ending with an END token
+     * @param input text holding the EBNF expression
+     * @param start offset of the first character to read
+     * @param end   offset after the last character to read
+     * @return token buffer ending with an END token
      */
-    public static List<Token> tokenize(String input) {
-        List<Token> tokens = new ArrayList<>();
-        int i = 0;
-        while (i < input.length()) {
+    public static EbnfTokenBuffer scan(CharSequence input, int start, int end) {
+        EbnfTokenBuffer tokens = new EbnfTokenBuffer(input, end);
+        int i = start;
+        while (i < end) {
             char c = input.charAt(i);
             // Skip whitespace
             if (Character.isWhitespace(c)) {
@@ -28,38 +29,50 @@ public class EbnfLexer {
                 continue;
             }
             switch (c) {
-                case '(' -> tokens.add(new Token(TokenType.LPAREN, "("));
-                case ')' -> tokens.add(new Token(TokenType.RPAREN, ")"));
-                case '[' -> tokens.add(new Token(TokenType.LBRACKET, "["));
-                case ']' -> tokens.add(new Token(TokenType.RBRACKET, "]"));
-                case '{' -> tokens.add(new Token(TokenType.LBRACE, "{"));
-                case '}' -> tokens.add(new Token(TokenType.RBRACE, "}"));
-                case '|' -> tokens.add(new Token(TokenType.PIPE, "|"));
+                case '(' -> tokens.add(TokenType.LPAREN, i, i + 1);
+                case ')' -> tokens.add(TokenType.RPAREN, i, i + 1);
+                case '[' -> tokens.add(TokenType.LBRACKET, i, i + 1);
+                case ']' -> tokens.add(TokenType.RBRACKET, i, i + 1);
+                case '{' -> tokens.add(TokenType.LBRACE, i, i + 1);
+                case '}' -> tokens.add(TokenType.RBRACE, i, i + 1);
+                case '|' -> tokens.add(TokenType.PIPE, i, i + 1);
                 case '\'' -> {
-                    StringBuilder literal = new StringBuilder();
-                    i++;
-                    while (i < input.length() && input.charAt(i) != '\'') {
-                        literal.append(input.charAt(i++));
+                    int quote = i++;
+                    while (i < end && input.charAt(i) != '\'') {
+                        i++;
                     }
+                    // The literal ends before its closing quote, or at the end of the range
+                    tokens.add(TokenType.IDENTIFIER, quote, i);
                     i++; // Consume closing quote
-                    tokens.add(new Token(TokenType.IDENTIFIER, "'" + literal + "'"));
                     continue;
                 }
-                default -> { // Unquoted identifier
-                    int start = i;
+                default -> {
+                    if (isMid(input, i, end)) {
+                        tokens.add(TokenType.PIPE, i, i + 4);
+                        i += 4;
+                        continue;
+                    }
+                    // Unquoted identifier
+                    int identifierStart = i;
                     // Consume until whitespace or special symbol
-                    while (i < input.length() && !Character.isWhitespace(input.charAt(i))
-                            && "()[]{}|".indexOf(input.charAt(i)) == -1) {
+                    while (i < end && !Character.isWhitespace(input.charAt(i))
+                            && "()[]{}|".indexOf(input.charAt(i)) == -1
+                            && !isMid(input, i, end)) {
                         i++;
                     }
-                    tokens.add(new Token(TokenType.IDENTIFIER, input.substring(start, i)));
+                    tokens.add(TokenType.IDENTIFIER, identifierStart, i);
                     continue;
                 }
             }
             i++;
         }
         // Append end-of-input marker
-        tokens.add(new Token(TokenType.END, ""));
+        tokens.add(TokenType.END, end, end);
         return tokens;
     }
+
+    private static boolean isMid(CharSequence input, int i, int end) {
+        return i + 4 <= end && input.charAt(i) == '\\' && input.charAt(i + 1) == 'm'
+                && input.charAt(i + 2) == 'i' && input.charAt(i + 3) == 'd';
+    }
 }
@@ -8,17 +8,16 @@ import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.OptionalNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.RepetitionNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.SequenceNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.TerminalNode;
-import grammar.analyzer.grammarvisualizer.service.ebnf.model.token.Token;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.token.TokenType;
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Recursive-descent parser for EBNF grammar definitions.
  * Converts a token stream into an AST of EbnfNode objects.
  */
 public class EbnfParser {
-    private final List<Token> tokens;
+    private final EbnfTokenBuffer tokens;
+    private final EbnfSymbolTable symbols;
     private int pos;
 
     /**
@@ -26,23 +25,31 @@ public class EbnfParser {
      * @param input raw EBNF grammar text
      */
     public EbnfParser(String input) {
-        this.tokens = EbnfLexer.tokenize(input);
-        this.pos = 0;
+        this(input, 0, input.length(), new EbnfSymbolTable());
     }
 
     /**
-     * Peeks at the current token without consuming it.
-     * @return current token or END token if at input end
+     * Initializes the parser with a range of the input, lexed into offset triples.
+     * Symbols are interned in the given table, which can be shared by the parsers of
+     * one transformation.
+     *
+     * @param input   text holding the EBNF expression
+     * @param start   offset of the expression's first character
+     * @param end     offset after the expression's last character
+     * @param symbols table interning the expression's identifiers and literals
      */
-    private Token peek() {
-        return pos < tokens.size() ? tokens.get(pos) : new Token(TokenType.END, "");
+    public EbnfParser(CharSequence input, int start, int end, EbnfSymbolTable symbols) {
+        this.tokens = EbnfLexer.scan(input, start, end);
+        this.symbols = symbols;
+        this.pos = 0;
     }
 
     /**
-     * Consumes and returns the current token, advancing the position.
+     * Peeks at the type of the current token without consuming it.
+     * @return current token type or END if at input end
      */
-    private Token consume() {
-        return tokens.get(pos++);
+    private TokenType peek() {
+        return pos < tokens.size() ? tokens.type(pos) : TokenType.END;
     }
 
     /**
@@ -50,20 +57,43 @@ public class EbnfParser {
      * @param type expected token type
      */
     private boolean match(TokenType type) {
-        if (peek().getType() == type) {
-            consume();
+        if (peek() == type) {
+            pos++;
             return true;
         }
         return false;
     }
 
+    /**
+     * Parses the whole input as one expression.
+     *
+     * @return AST node representing the expression or alternatives
+     * @throws GrammarSyntaxException if the expression is malformed or followed by an
+     *                                unmatched closing token
+     */
+    public EbnfNode parse() {
+        EbnfNode node = parseExpression();
+        if (peek() != TokenType.END) {
+            throw new GrammarSyntaxException("Unexpected token: " + tokens.text(pos));
+        }
+        return node;
+    }
+
+    /**
+     * Returns the input offset of the current token, which is where parsing stopped
+     * if it failed.
+     */
+    public int getOffset() {
+        return tokens.start(Math.min(pos, tokens.size() - 1));
+    }
+
     /**
      * Parses an expression, handling alternatives separated by '|'.
      * @return AST node representing the expression or alternatives
      */
     public EbnfNode parseExpression() {
         EbnfNode left = parseTerm();
-        if (peek().getType() == TokenType.PIPE) {
+        if (peek() == TokenType.PIPE) {
             AlternativeNode alt = new AlternativeNode(new ArrayList<>());
             alt.getAlternatives().add(left);
             while (match(TokenType.PIPE)) {
@@ -76,17 +106,28 @@ public class EbnfParser {
 
     /**
      * Parses a term consisting of a sequence of factors until a delimiter token.
+     *
+     * @throws GrammarSyntaxException if the term is empty
      */
     private EbnfNode parseTerm() {
         SequenceNode seq = new SequenceNode(new ArrayList<>());
-        while (!List.of(TokenType.RPAREN, TokenType.RBRACKET,
-                        TokenType.RBRACE, TokenType.PIPE, TokenType.END)
-                .contains(peek().getType())) {
+        while (!isDelimiter(peek())) {
             seq.getElements().add(parseFactor());
         }
+        if (seq.getElements().isEmpty()) {
+            throw new GrammarSyntaxException("Empty alternative is not allowed. "
+                    + "Use 'epsilon' explicitly if needed");
+        }
         return seq.getElements().size() == 1 ? seq.getElements().get(0) : seq;
     }
 
+    private boolean isDelimiter(TokenType type) {
+        return switch (type) {
+            case RPAREN, RBRACKET, RBRACE, PIPE, END -> true;
+            default -> false;
+        };
+    }
+
     /**
      * Parses a factor; currently delegates to primary.
      */
@@ -99,11 +140,11 @@ public class EbnfParser {
      * optional, or repetition.
      */
     private EbnfNode parsePrimary() {
-        Token t = peek();
-        if (t.getType() == TokenType.IDENTIFIER) {
-            consume();
-            return t.getText().startsWith("'") ? new TerminalNode(t.getText())
-                    : new NonTerminalNode(t.getText());
+        if (peek() == TokenType.IDENTIFIER) {
+            String symbol = symbols.intern(tokens, pos);
+            boolean literal = tokens.isLiteral(pos);
+            pos++;
+            return literal ? new TerminalNode(symbol) : new NonTerminalNode(symbol);
         } else if (match(TokenType.LPAREN)) {
             EbnfNode node = parseExpression();
             if (!match(TokenType.RPAREN)) {
@@ -123,7 +164,7 @@ public class EbnfParser {
             }
             return new RepetitionNode(node);
         } else {
-            throw new GrammarSyntaxException("Unexpected token: " + t);
+            throw new GrammarSyntaxException("Unexpected token: " + tokens.text(pos));
         }
     }
 }
@@ -0,0 +1,120 @@
+package grammar.analyzer.grammarvisualizer.service.ebnf.parser;
+
+/**
+ * Interns the symbols of EBNF tokens. Symbols are hashed and compared straight from the
+ * source text, so each distinct symbol is materialized as a string once and every later
+ * occurrence returns that same string without copying. Not thread-safe; one table serves
+ * one transformation.
+ */
+public class EbnfSymbolTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] symbols = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the interned text of an identifier or literal token.
+     *
+     * @param tokens buffer holding the token
+     * @param index  position of the token
+     * @return the shared string of the symbol, with quotes for a literal
+     */
+    public String intern(EbnfTokenBuffer tokens, int index) {
+        CharSequence source = tokens.getSource();
+        int start = tokens.start(index);
+        int end = tokens.end(index);
+        boolean literal = tokens.isLiteral(index);
+        if (tokens.isEscaped(index)) {
+            // The expanded text differs from the source
+            return intern(tokens.text(index));
+        }
+        if (literal) {
+            if (end >= tokens.getRangeEnd() || source.charAt(end) != '\'') {
+                // Unterminated literal; the closing quote is not part of the scanned range
+                return intern(tokens.text(index));
+            }
+            end++;
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        int mask = symbols.length - 1;
+        int slot = spread(hash) & mask;
+        for (; symbols[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && regionEquals(symbols[slot], source, start, end)) {
+                return symbols[slot];
+            }
+        }
+        return insert(slot, hash, source.subSequence(start, end).toString());
+    }
+
+    /**
+     * Returns the interned copy of a symbol.
+     *
+     * @param symbol symbol text
+     * @return the shared string equal to the symbol
+     */
+    public String intern(String symbol) {
+        int hash = symbol.hashCode();
+        int mask = symbols.length - 1;
+        int slot = spread(hash) & mask;
+        for (; symbols[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && symbols[slot].equals(symbol)) {
+                return symbols[slot];
+            }
+        }
+        return insert(slot, hash, symbol);
+    }
+
+    /**
+     * Returns the number of distinct symbols.
+     */
+    public int size() {
+        return size;
+    }
+
+    private String insert(int slot, int hash, String symbol) {
+        symbols[slot] = symbol;
+        hashes[slot] = hash;
+        if (++size * 2 > symbols.length) {
+            grow();
+        }
+        return symbol;
+    }
+
+    private void grow() {
+        String[] oldSymbols = symbols;
+        int[] oldHashes = hashes;
+        symbols = new String[oldSymbols.length * 2];
+        hashes = new int[symbols.length];
+        int mask = symbols.length - 1;
+        for (int i = 0; i < oldSymbols.length; i++) {
+            if (oldSymbols[i] != null) {
+                int slot = spread(oldHashes[i]) & mask;
+                while (symbols[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                symbols[slot] = oldSymbols[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    private static boolean regionEquals(String symbol, CharSequence source, int start, int end) {
+        if (symbol.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,113 @@
+package grammar.analyzer.grammarvisualizer.service.ebnf.parser;
+
+import grammar.analyzer.grammarvisualizer.service.ebnf.model.token.TokenType;
+import java.util.Arrays;
+
+/**
+ * Tokens of an EBNF expression stored as (type, start, end) triples in one {@code int[]},
+ * with offsets into the source text. No text is copied while lexing; a token's text is
+ * only built when it is asked for, normally by an {@link EbnfSymbolTable} that returns
+ * the same string for every occurrence of a symbol.
+ *
+ * <p>A quoted literal keeps the offset of its opening quote as start and the end of its
+ * contents as end, so a missing closing quote is still read as a complete literal. The
+ * literal is closed within the scanned range only if its end lies before the range end.
+ */
+public class EbnfTokenBuffer {
+    private static final TokenType[] TYPES = TokenType.values();
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final CharSequence source;
+    private final int rangeEnd;
+    private int[] triples = new int[INITIAL_CAPACITY * 3];
+    private int size;
+
+    /**
+     * Creates an empty buffer over a range of a source text.
+     *
+     * @param source   text the token offsets refer to
+     * @param rangeEnd offset after the last character scanned
+     */
+    EbnfTokenBuffer(CharSequence source, int rangeEnd) {
+        this.source = source;
+        this.rangeEnd = rangeEnd;
+    }
+
+    /**
+     * Appends a token.
+     */
+    void add(TokenType type, int start, int end) {
+        if (size * 3 == triples.length) {
+            triples = Arrays.copyOf(triples, triples.length * 2);
+        }
+        triples[size * 3] = type.ordinal();
+        triples[size * 3 + 1] = start;
+        triples[size * 3 + 2] = end;
+        size++;
+    }
+
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the offset after the last character scanned; the source may go on beyond it.
+     */
+    public int getRangeEnd() {
+        return rangeEnd;
+    }
+
+    /**
+     * Returns the number of tokens, including the final END token.
+     */
+    public int size() {
+        return size;
+    }
+
+    public TokenType type(int index) {
+        return TYPES[triples[index * 3]];
+    }
+
+    public int start(int index) {
+        return triples[index * 3 + 1];
+    }
+
+    public int end(int index) {
+        return triples[index * 3 + 2];
+    }
+
+    /**
+     * Returns true if the token is a quoted literal, i.e. a terminal.
+     */
+    public boolean isLiteral(int index) {
+        return type(index) == TokenType.IDENTIFIER && source.charAt(start(index)) == '\'';
+    }
+
+    /**
+     * Returns true if the token's text contains an escape sequence to be expanded.
+     */
+    public boolean isEscaped(int index) {
+        for (int i = start(index); i < end(index); i++) {
+            if (source.charAt(i) == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the text of a token; a literal is returned with both quotes. The escape
+     * sequences {@code \eps} and {@code \mid} are expanded as in the normalized grammar.
+     *
+     * @param index position of the token
+     * @return new string with the token's text
+     */
+    public String text(int index) {
+        int start = start(index);
+        int end = end(index);
+        String text = isLiteral(index) ? "'" + source.subSequence(start + 1, end) + "'"
+                : source.subSequence(start, end).toString();
+        return isEscaped(index) ? text.replace("\\eps", "epsilon").replace("\\mid", "|")
+                : text;
+    }
+}
@@ -0,0 +1,72 @@
+package grammar.analyzer.grammarvisualizer.service.ebnf.transformer;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Helper non-terminal standing for an EBNF alternative, optional or repetition.
+ * Helpers are compared by structure, so a lowering context can keep one helper for all
+ * identical subexpressions; names are only assigned once the whole grammar is lowered.
+ *
+ * <p>A body is a list of symbols, each either a symbol name or a nested helper. An
+ * alternative keeps one body per branch; an optional or repetition keeps its inner body
+ * only, the epsilon branch and the recursive reference being implied by its kind.
+ */
+public final class EbnfHelper {
+    /**
+     * Kind of EBNF construct a helper stands for, with the prefix of its name.
+     */
+    public enum Kind {
+        ALT("alt"), OPT("opt"), REP("rep");
+
+        private final String prefix;
+
+        Kind(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+
+    private final Kind kind;
+    private final List<List<Object>> bodies;
+    private final int hash;
+
+    /**
+     * Creates a helper.
+     *
+     * @param kind   construct the helper stands for
+     * @param bodies branches of an alternative, or the single inner body of an optional
+     *               or repetition; nested helpers must already be shared ones
+     */
+    public EbnfHelper(Kind kind, List<List<Object>> bodies) {
+        this.kind = kind;
+        this.bodies = bodies;
+        this.hash = 31 * kind.hashCode() + bodies.hashCode();
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<List<Object>> getBodies() {
+        return bodies;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        // Nested helpers are shared, so comparing bodies stops at the first level
+        return o instanceof EbnfHelper other && hash == other.hash && kind == other.kind
+                && Objects.equals(bodies, other.bodies);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
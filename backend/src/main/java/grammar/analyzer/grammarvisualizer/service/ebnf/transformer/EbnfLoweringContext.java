@@ -0,0 +1,101 @@
+package grammar.analyzer.grammarvisualizer.service.ebnf.transformer;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State of one EBNF transformation: the table of its helper non-terminals. Identical
+ * subexpressions are hash-consed into one helper, so {@code { ',' expr }} written on several
+ * lines yields a single {@code _rep} rule. A context is created per transformation and
+ * never shared between requests; the lines of one transformation may be lowered into it
+ * concurrently.
+ */
+public class EbnfLoweringContext {
+    private final Map<EbnfHelper, EbnfHelper> helpers = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the helper already created for an identical subexpression, or the given one.
+     *
+     * @param helper newly lowered helper
+     * @return the shared helper of its structure, the same for all threads
+     */
+    public EbnfHelper share(EbnfHelper helper) {
+        EbnfHelper shared = helpers.putIfAbsent(helper, helper);
+        return shared == null ? helper : shared;
+    }
+
+    /**
+     * Returns the number of distinct helpers created so far.
+     */
+    public int getHelperCount() {
+        return helpers.size();
+    }
+
+    /**
+     * Names the helpers and renders the rules of the grammar. Helpers are numbered in the
+     * order they are first reached, each before the helpers nested in it, and their rules
+     * follow the rule lines, each after the rules of its nested helpers. The result only
+     * depends on the lowered bodies, not on the order or the threads they were lowered in,
+     * so it is the same as lowering the lines one after another.
+     *
+     * @param lhs    left-hand side of each rule line
+     * @param bodies lowered body of each rule line
+     * @return rule lines in input order, followed by the rules of the helpers
+     */
+    public List<EbnfRule> toRules(List<String> lhs, List<List<Object>> bodies) {
+        Naming naming = new Naming();
+        List<EbnfRule> rules = new ArrayList<>(lhs.size());
+        for (int i = 0; i < lhs.size(); i++) {
+            rules.add(new EbnfRule(lhs.get(i), List.of(naming.render(bodies.get(i)))));
+        }
+        rules.addAll(naming.helperRules);
+        return rules;
+    }
+
+    /**
+     * Assigns names in first-reached order.
+     */
+    private static final class Naming {
+        private final Map<EbnfHelper, String> names = new IdentityHashMap<>();
+        private final List<EbnfRule> helperRules = new ArrayList<>();
+        private int counter;
+
+        private String render(List<Object> body) {
+            StringBuilder text = new StringBuilder();
+            for (Object symbol : body) {
+                if (text.length() > 0) {
+                    text.append(' ');
+                }
+                text.append(symbol instanceof EbnfHelper helper ? name(helper) : symbol);
+            }
+            return text.toString();
+        }
+
+        private String name(EbnfHelper helper) {
+            String name = names.get(helper);
+            if (name != null) {
+                return name;
+            }
+            name = "_" + helper.getKind().getPrefix() + (++counter);
+            names.put(helper, name);
+
+            List<String> alternatives = new ArrayList<>(helper.getBodies().size() + 1);
+            for (List<Object> body : helper.getBodies()) {
+                alternatives.add(render(body));
+            }
+            if (helper.getKind() == EbnfHelper.Kind.REP) {
+                // Repetition: recursive definition or epsilon
+                String inner = alternatives.get(0);
+                alternatives.set(0, inner.isEmpty() ? name : inner + " " + name);
+            }
+            if (helper.getKind() != EbnfHelper.Kind.ALT) {
+                alternatives.add("epsilon");
+            }
+            helperRules.add(new EbnfRule(name, alternatives));
+            return name;
+        }
+    }
+}
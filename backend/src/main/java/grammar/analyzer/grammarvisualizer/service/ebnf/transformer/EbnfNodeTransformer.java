@@ -7,66 +7,52 @@ import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.OptionalNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.RepetitionNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.SequenceNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.TerminalNode;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
- * Converts EBNF AST nodes into BNF productions.
- * Generates helper non-terminals for alternatives, optionals, and repetitions.
+ * Lowers EBNF AST nodes straight into BNF production bodies. Generates helper
+ * non-terminals for alternatives, optionals, and repetitions, shared between identical
+ * subexpressions.
  */
 public class EbnfNodeTransformer {
     /**
-     * Functional interface for generating unique non-terminal names.
-     */
-    public interface NonTerminalGenerator {
-        String generate(String prefix);
-    }
-
-    /**
-     * Transforms an EBNF AST node into its BNF string representation.
-     * Appends any newly created productions to the provided list.
+     * Lowers an EBNF AST node into the symbols of a production body without rendering
+     * BNF text. Alternatives, optionals and repetitions become helpers shared through the
+     * context, so identical subexpressions reuse one helper; helpers are named later by
+     * {@link EbnfLoweringContext#toRules}.
      *
-     * @param node                  the EBNF AST node to transform
-     * @param additionalProductions list collecting generated BNF productions
-     * @param generator             non-terminal name generator
-     * @return BNF fragment or non-terminal name representing the node
+     * @param node    the EBNF AST node to lower
+     * @param body    production body the node's symbols and helpers are appended to
+     * @param context transformation the helpers are shared in
      */
-    public static String transformNode(EbnfNode node, List<EbnfProduction> additionalProductions,
-                                       NonTerminalGenerator generator) {
+    public static void lowerNode(EbnfNode node, List<Object> body, EbnfLoweringContext context) {
         if (node instanceof TerminalNode term) {
-            // Return literal terminal value
-            return term.getValue();
+            body.add(term.getValue());
         } else if (node instanceof NonTerminalNode nonTerm) {
-            // Return existing non-terminal name
-            return nonTerm.getName();
+            body.add(nonTerm.getName());
         } else if (node instanceof SequenceNode seq) {
-            // Concatenate child nodes with space separator
-            return seq.getElements().stream()
-                    .map(child -> transformNode(child, additionalProductions, generator))
-                    .collect(Collectors.joining(" "));
+            for (EbnfNode child : seq.getElements()) {
+                lowerNode(child, body, context);
+            }
         } else if (node instanceof AlternativeNode alt) {
-            // Create a new non-terminal to represent the alternatives
-            String newNonTerminal = generator.generate("alt");
-            String rhs = alt.getAlternatives().stream()
-                    .map(child -> transformNode(child, additionalProductions, generator))
-                    .collect(Collectors.joining(" | "));
-            additionalProductions.add(new EbnfProduction(newNonTerminal, rhs));
-            return newNonTerminal;
+            List<List<Object>> alternatives = new ArrayList<>(alt.getAlternatives().size());
+            for (EbnfNode child : alt.getAlternatives()) {
+                alternatives.add(lowerBody(child, context));
+            }
+            body.add(context.share(new EbnfHelper(EbnfHelper.Kind.ALT, alternatives)));
         } else if (node instanceof OptionalNode opt) {
-            // Optional: either inner or epsilon
-            String newNonTerminal = generator.generate("opt");
-            String inner = transformNode(opt.getNode(), additionalProductions, generator);
-            additionalProductions.add(new EbnfProduction(newNonTerminal, inner + " | epsilon"));
-            return newNonTerminal;
+            body.add(context.share(new EbnfHelper(EbnfHelper.Kind.OPT,
+                    List.of(lowerBody(opt.getNode(), context)))));
         } else if (node instanceof RepetitionNode rep) {
-            // Repetition: recursive definition or epsilon
-            String newNonTerminal = generator.generate("rep");
-            String inner = transformNode(rep.getNode(), additionalProductions, generator);
-            additionalProductions.add(new EbnfProduction(newNonTerminal,
-                    inner + " " + newNonTerminal + " | epsilon"));
-            return newNonTerminal;
+            body.add(context.share(new EbnfHelper(EbnfHelper.Kind.REP,
+                    List.of(lowerBody(rep.getNode(), context)))));
         }
-        // Fallback empty string for unsupported node types
-        return "";
+    }
+
+    private static List<Object> lowerBody(EbnfNode node, EbnfLoweringContext context) {
+        List<Object> body = new ArrayList<>();
+        lowerNode(node, body, context);
+        return body;
     }
 }
@@ -0,0 +1,25 @@
+package grammar.analyzer.grammarvisualizer.service.ebnf.transformer;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents one BNF rule lowered from an EBNF rule line or generated for a helper
+ * non-terminal, with each alternative as a space-separated production body.
+ */
+@Getter
+@AllArgsConstructor
+public class EbnfRule {
+    private String lhs;
+    private List<String> alternatives;
+
+    /**
+     * Renders the rule as a BNF line, e.g. for error messages.
+     *
+     * @return rule text in the form {@code A -> x | y}
+     */
+    public String render() {
+        return lhs + " -> " + String.join(" | ", alternatives);
+    }
+}
@@ -1,76 +1,220 @@
 package grammar.analyzer.grammarvisualizer.service.ebnf.transformer;
 
+import grammar.analyzer.grammarvisualizer.exception.GrammarSyntaxException;
 import grammar.analyzer.grammarvisualizer.service.EbnfTransformerService;
-import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.EbnfNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.parser.EbnfParser;
+import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.EbnfNode;
+import grammar.analyzer.grammarvisualizer.service.ebnf.parser.EbnfSymbolTable;
+import grammar.analyzer.grammarvisualizer.util.GrammarNormalizer;
+import grammar.analyzer.grammarvisualizer.util.GrammarScanner;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.springframework.stereotype.Service;
 
 /**
  * Service that converts EBNF grammar definitions into BNF format.
- * Reads each production line, parses the RHS, and applies AST transformations
- * to expand EBNF constructs into equivalent BNF productions.
+ * Reads each production line, parses the RHS, and lowers the AST into BNF productions,
+ * expanding EBNF constructs into helper non-terminals. All state of a transformation
+ * lives in its own {@link EbnfLoweringContext}, so concurrent requests do not interfere.
  */
 @Service
 public class EbnfTransformerServiceImpl implements EbnfTransformerService {
-    private int newNonTerminalCounter = 0;
-    private List<EbnfProduction> additionalProductions;
+    /**
+     * Grammars with at least this many lines are lowered in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 512;
+
+    /**
+     * Number of lines lowered by one task, sharing one symbol table.
+     */
+    static final int CHUNK_SIZE = 128;
 
     /**
-     * Transforms an EBNF grammar string into its BNF equivalent.
-     * Initializes state, processes each input production, and appends any
-     * additional productions created for alternatives, optionals, and repetitions.
+     * Transforms an EBNF grammar string into its BNF equivalent, rendering the rules
+     * returned by {@link #lower}.
      *
      * @param grammarInput multiline EBNF grammar text
      * @return multiline BNF grammar string
      */
     @Override
     public String transform(String grammarInput) {
-        newNonTerminalCounter = 0; // Reset counter for unique name generation
-        additionalProductions = new ArrayList<>(); // Collect generated productions
-
         StringBuilder transformedGrammar = new StringBuilder();
-        String[] lines = grammarInput.split("\n");
-        for (String line : lines) {
-            if (line.trim().isEmpty()) {
-                continue; // Skip blank lines
-            }
-            int arrowIndex = line.indexOf("->");
-            if (arrowIndex == -1) {
-                transformedGrammar.append(line).append("\n"); // Pass through non-production lines
-                continue;
-            }
-
-            // Split LHS and RHS of the production
-            String lhs = line.substring(0, arrowIndex).trim();
-            String rhs = line.substring(arrowIndex + 2).trim();
+        for (EbnfRule rule : lower(grammarInput)) {
+            transformedGrammar.append(rule.render()).append("\n");
+        }
+        return transformedGrammar.toString();
+    }
 
-            // Parse RHS into AST
-            EbnfParser parser = new EbnfParser(rhs);
-            EbnfNode node = parser.parseExpression();
+    /**
+     * Lowers an EBNF grammar string straight into BNF rules. Each rule line is parsed into
+     * an AST that is lowered into production bodies, so no BNF text is built. Identical
+     * subexpressions share one helper non-terminal.
+     *
+     * @param grammarInput multiline EBNF grammar text
+     * @return rule lines in input order, followed by the rules of helper non-terminals
+     * @throws GrammarSyntaxException listing, with line and column, every line that is
+     *                                not a rule or whose EBNF is malformed
+     */
+    @Override
+    public List<EbnfRule> lower(String grammarInput) {
+        return lower(grammarInput, PARALLEL_THRESHOLD);
+    }
 
-            // Transform AST into BNF fragment, collecting extra productions
-            String bnfRhs = EbnfNodeTransformer.transformNode(node, additionalProductions,
-                    this::generateNewNonTerminal);
-            transformedGrammar.append(lhs).append(" -> ").append(bnfRhs).append("\n");
+    /**
+     * Lowers the lines in chunks, concurrently for large grammars. Lines do not depend on
+     * each other: helpers are shared through the context and only named once all lines
+     * are lowered, so the rules are identical to lowering the lines one by one. Lines are
+     * read as offset ranges of the input, so no line is copied; a malformed line does not
+     * stop the others, and every error is reported with its line and column.
+     *
+     * @param grammarInput      multiline EBNF grammar text
+     * @param parallelThreshold number of lines from which chunks are lowered in parallel
+     * @return rule lines in input order, followed by the rules of helper non-terminals
+     * @throws GrammarSyntaxException listing the errors of all malformed lines in order
+     */
+    List<EbnfRule> lower(String grammarInput, int parallelThreshold) {
+        EbnfLoweringContext context = new EbnfLoweringContext();
+        int[] lineStarts = lineStarts(grammarInput);
+        int lines = lineStarts.length - 1;
+        boolean parallel = lines >= parallelThreshold;
+        int chunkSize = parallel ? CHUNK_SIZE : Math.max(lines, 1);
+        int chunks = (lines + chunkSize - 1) / chunkSize;
+        String[] lhs = new String[lines];
+        List<List<Object>> bodies = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            bodies.add(null);
         }
+        String[] errors = new String[lines];
 
-        // Append all helper productions generated during transformation
-        for (EbnfProduction p : additionalProductions) {
-            transformedGrammar.append(p.getLhs()).append(" -> ").append(p.getRhs()).append("\n");
+        IntStream range = IntStream.range(0, chunks);
+        if (parallel) {
+            range = range.parallel();
+        }
+        range.forEach(chunk -> {
+            EbnfSymbolTable symbols = new EbnfSymbolTable(); // Shared strings of the chunk
+            int end = Math.min(lines, (chunk + 1) * chunkSize);
+            for (int i = chunk * chunkSize; i < end; i++) {
+                // The line break ends the previous line
+                int lineEnd = i + 1 < lines ? lineStarts[i + 1] - 1 : lineStarts[i + 1];
+                try {
+                    lowerLine(grammarInput, lineStarts[i], lineEnd, i, lhs, bodies, symbols,
+                            context);
+                } catch (GrammarSyntaxException e) {
+                    errors[i] = e.getMessage();
+                }
+            }
+        });
+        List<String> failures = new ArrayList<>();
+        for (String error : errors) {
+            if (error != null) {
+                failures.add(error);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new GrammarSyntaxException(failures);
         }
 
-        return transformedGrammar.toString();
+        // Name helpers and append their rules after the rule lines
+        List<String> ruleLhs = new ArrayList<>();
+        List<List<Object>> ruleBodies = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            if (lhs[i] != null) {
+                ruleLhs.add(lhs[i]);
+                ruleBodies.add(bodies.get(i));
+            }
+        }
+        return context.toRules(ruleLhs, ruleBodies);
     }
 
     /**
-     * Generates a unique non-terminal name using the given prefix.
+     * Parses one line and stores its left-hand side and lowered body at its index.
+     * Blank lines are skipped and leave their slots empty. The arrow may be written as
+     * {@code ->} or {@code \to}.
      *
-     * @param prefix base prefix for the generated name
-     * @return unique non-terminal string beginning with '_' and the prefix
+     * @throws GrammarSyntaxException with the line and column of the error
+     */
+    private void lowerLine(String source, int start, int end, int index, String[] lhs,
+                           List<List<Object>> bodies, EbnfSymbolTable symbols,
+                           EbnfLoweringContext context) {
+        int first = start;
+        while (first < end && Character.isWhitespace(source.charAt(first))) {
+            first++;
+        }
+        if (first == end) {
+            return; // Skip blank lines
+        }
+        int arrow = findArrow(source, first, end);
+        if (arrow == -1) {
+            throw error(index, first - start, "Invalid syntax: each rule "
+                    + "must contain '->'. Rule: " + ruleText(source, start, end));
+        }
+        String nonTerminal = source.substring(first, arrow).trim();
+        if (!GrammarScanner.isNonTerminal(nonTerminal)) {
+            throw error(index, first - start, "Invalid syntax: left-hand side of the rule "
+                    + "must be a valid non-terminal (e.g., A, S', Expr). Rule: "
+                    + ruleText(source, start, end));
+        }
+        int bodyStart = arrow + (source.charAt(arrow) == '-' ? 2 : 3);
+        int secondArrow = findArrow(source, bodyStart, end);
+        if (secondArrow != -1) {
+            throw error(index, secondArrow - start, "Invalid syntax: exactly one '->' "
+                    + "expected in each rule. Rule: " + ruleText(source, start, end));
+        }
+
+        // Parse RHS into AST, lexing it in place, and lower it into one body
+        EbnfParser parser = new EbnfParser(source, bodyStart, end, symbols);
+        EbnfNode node;
+        try {
+            node = parser.parse();
+        } catch (GrammarSyntaxException e) {
+            throw error(index, parser.getOffset() - start, e.getMessage());
+        }
+        List<Object> body = new ArrayList<>();
+        EbnfNodeTransformer.lowerNode(node, body, context);
+        lhs[index] = symbols.intern(nonTerminal);
+        bodies.set(index, body);
+    }
+
+    /**
+     * Returns the offsets at which the lines start, followed by the end of the input.
      */
-    private String generateNewNonTerminal(String prefix) {
-        return "_" + prefix + (++newNonTerminalCounter);
+    private static int[] lineStarts(String source) {
+        int[] starts = new int[16];
+        int count = 0;
+        int start = 0;
+        while (true) {
+            if (count + 1 == starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            starts[count++] = start;
+            int lineBreak = source.indexOf('\n', start);
+            if (lineBreak == -1) {
+                break;
+            }
+            start = lineBreak + 1;
+        }
+        starts[count] = source.length();
+        return Arrays.copyOf(starts, count + 1);
+    }
+
+    private static int findArrow(String source, int start, int end) {
+        for (int i = start; i < end - 1; i++) {
+            if (source.startsWith("->", i)
+                    || (i + 3 <= end && source.startsWith("\\to", i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String ruleText(String source, int start, int end) {
+        return GrammarNormalizer.normalize(source.substring(start, end));
+    }
+
+    private static GrammarSyntaxException error(int index, int offset, String message) {
+        return new GrammarSyntaxException("Line " + (index + 1) + ", column " + (offset + 1)
+                + ": " + message);
     }
 }
@@ -0,0 +1,245 @@
+package grammar.analyzer.grammarvisualizer.service.impl;
+
+import grammar.analyzer.grammarvisualizer.config.AnalysisProperties;
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisStoreStatsDto;
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
+import grammar.analyzer.grammarvisualizer.service.AnalysisStoreService;
+import grammar.analyzer.grammarvisualizer.util.DeferredStepRecords;
+import grammar.analyzer.grammarvisualizer.util.LazyStepRecords;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import lombok.Setter;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory analysis store with least-recently-used eviction. An analysis is evicted when
+ * it has not been accessed for the configured TTL, or when the entry limit or the memory
+ * ceiling is exceeded; the limits never evict the last remaining analysis, so that a
+ * single oversized analysis can still be stepped through until it expires. Memory is
+ * accounted with a rough estimate of each analysis' sets, LL(1) table and step records,
+ * which is renewed whenever deferred steps are computed or a page of lazy steps is
+ * replayed.
+ */
+@Service
+public class AnalysisStoreServiceImpl implements AnalysisStoreService {
+    private static final long BASE_BYTES = 1024;
+    private static final long ELEMENT_BYTES = 48;
+    private static final long STEP_BYTES = 256;
+
+    private final AnalysisProperties.Store limits;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long estimatedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    /**
+     * -- SETTER --
+     *  For test purposes only.
+     */
+    @Setter
+    private Clock clock = Clock.systemUTC();
+
+    public AnalysisStoreServiceImpl(AnalysisProperties analysisProperties) {
+        this.limits = analysisProperties.getStore();
+    }
+
+    /**
+     * Stores an analysis under a new random id.
+     *
+     * @param grammar analyzed Grammar model
+     * @return id under which the analysis can be retrieved
+     */
+    @Override
+    public String put(Grammar grammar) {
+        String analysisId = UUID.randomUUID().toString();
+        put(analysisId, grammar);
+        return analysisId;
+    }
+
+    /**
+     * Stores an analysis and evicts others until the store is within its limits again.
+     *
+     * @param analysisId id of the analysis
+     * @param grammar    analyzed Grammar model
+     */
+    @Override
+    public synchronized void put(String analysisId, Grammar grammar) {
+        Entry previous = entries.remove(analysisId);
+        if (previous != null) {
+            previous.removed = true;
+            estimatedBytes -= previous.bytes;
+        }
+        long bytes = estimateBytes(grammar);
+        Entry entry = new Entry(grammar, bytes, clock.millis());
+        entries.put(analysisId, entry);
+        estimatedBytes += bytes;
+        watchStepRecords(grammar.getFirstStepRecords(), entry);
+        watchStepRecords(grammar.getFollowStepRecords(), entry);
+        watchStepRecords(grammar.getPredictStepRecords(), entry);
+        evict();
+    }
+
+    /**
+     * Looks up an analysis, counting a hit or a miss, and refreshes its TTL.
+     *
+     * @param analysisId id returned when the analysis was stored; may be null
+     * @return the analysis, or empty if it is unknown, expired or evicted
+     */
+    @Override
+    public synchronized Optional<Grammar> get(String analysisId) {
+        evict();
+        Entry entry = analysisId == null ? null : entries.get(analysisId);
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        entry.lastAccess = clock.millis();
+        return Optional.of(entry.grammar);
+    }
+
+    @Override
+    public synchronized AnalysisStoreStatsDto getStats() {
+        AnalysisStoreStatsDto stats = new AnalysisStoreStatsDto();
+        stats.setHits(hits);
+        stats.setMisses(misses);
+        stats.setEvictions(evictions);
+        stats.setEntries(entries.size());
+        stats.setEstimatedBytes(estimatedBytes);
+        stats.setMaxBytes(limits.getMaxMemory().toBytes());
+        return stats;
+    }
+
+    /**
+     * Removes expired analyses, then the least recently used ones while a limit is exceeded.
+     * Entries iterate in access order, so expired ones are always at the head.
+     */
+    private void evict() {
+        long expiredBefore = clock.millis() - limits.getTtl().toMillis();
+        long maxBytes = limits.getMaxMemory().toBytes();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > 1 && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (eldest.lastAccess > expiredBefore && entries.size() <= limits.getMaxEntries()
+                    && estimatedBytes <= maxBytes) {
+                break;
+            }
+            iterator.remove();
+            eldest.removed = true;
+            estimatedBytes -= eldest.bytes;
+            evictions++;
+        }
+        if (entries.size() == 1) {
+            Entry last = entries.values().iterator().next();
+            if (last.lastAccess <= expiredBefore) {
+                last.removed = true;
+                entries.clear();
+                estimatedBytes = 0;
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * Registers callbacks re-estimating an analysis when its deferred steps are computed,
+     * including those of lazy steps they resolve to, or a page of lazy steps is replayed.
+     */
+    private void watchStepRecords(List<StepRecord> steps, Entry entry) {
+        if (steps instanceof DeferredStepRecords deferred) {
+            deferred.setResolveListener(() -> {
+                watchStepRecords(deferred.getResolved(), entry);
+                reestimate(entry);
+            });
+        } else if (steps instanceof LazyStepRecords lazy) {
+            lazy.setPageListener(() -> reestimate(entry));
+        }
+    }
+
+    /**
+     * Renews the estimate of a stored analysis and evicts others if it has grown beyond
+     * the memory ceiling.
+     */
+    private synchronized void reestimate(Entry entry) {
+        if (entry.removed) {
+            return;
+        }
+        long bytes = estimateBytes(entry.grammar);
+        estimatedBytes += bytes - entry.bytes;
+        entry.bytes = bytes;
+        evict();
+    }
+
+    /**
+     * Roughly estimates the heap used by an analysis.
+     */
+    private long estimateBytes(Grammar grammar) {
+        long firstElements = countElements(grammar.getFirstSets());
+        long followElements = countElements(grammar.getFollowSets());
+        long predictElements = countElements(grammar.getPredictSets());
+        long bytes = BASE_BYTES + (firstElements + followElements + predictElements) * ELEMENT_BYTES;
+        if (grammar.getParseTable() != null) {
+            // One int per cell; the named table is a view rendering labels on access
+            Ll1Table table = grammar.getParseTable();
+            bytes += (long) table.getNonTerminalCount() * table.getTerminalCount() * Integer.BYTES
+                    + table.getConflictCount() * ELEMENT_BYTES;
+        } else if (grammar.getLl1Table() != null) {
+            for (Map<String, String> row : grammar.getLl1Table().values()) {
+                bytes += row.size() * ELEMENT_BYTES;
+            }
+        }
+        bytes += estimateStepBytes(grammar.getFirstStepRecords(), firstElements);
+        bytes += estimateStepBytes(grammar.getFollowStepRecords(), followElements);
+        bytes += estimateStepBytes(grammar.getPredictStepRecords(), predictElements);
+        return bytes;
+    }
+
+    private long estimateStepBytes(List<StepRecord> steps, long setElements) {
+        if (steps == null) {
+            return 0;
+        }
+        if (steps instanceof DeferredStepRecords deferred) {
+            // Nothing is held until the steps are first read
+            return estimateStepBytes(deferred.getResolved(), setElements);
+        }
+        if (steps instanceof LazyStepRecords lazy) {
+            // Every loop-state checkpoint copies the sets; only the last page read is cached
+            return lazy.getCheckpointCount() * (setElements * Integer.BYTES + BASE_BYTES)
+                    + lazy.getCachedStepCount() * STEP_BYTES;
+        }
+        return steps.size() * STEP_BYTES;
+    }
+
+    private long countElements(Map<String, Set<String>> sets) {
+        long count = 0;
+        if (sets != null) {
+            for (Set<String> set : sets.values()) {
+                count += set.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Stored analysis with its estimated size and last access time.
+     */
+    private static final class Entry {
+        private final Grammar grammar;
+        private long bytes;
+        private long lastAccess;
+        private boolean removed;
+
+        private Entry(Grammar grammar, long bytes, long lastAccess) {
+            this.grammar = grammar;
+            this.bytes = bytes;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
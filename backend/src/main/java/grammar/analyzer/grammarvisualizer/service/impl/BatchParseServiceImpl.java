@@ -0,0 +1,78 @@
+package grammar.analyzer.grammarvisualizer.service.impl;
+
+import grammar.analyzer.grammarvisualizer.model.BatchParseSummary;
+import grammar.analyzer.grammarvisualizer.model.ParseResult;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
+import grammar.analyzer.grammarvisualizer.service.BatchParseService;
+import grammar.analyzer.grammarvisualizer.service.ParserService;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation parsing batches of sentences across cores.
+ * Sentences are read in chunks; the sentences of a chunk are parsed in parallel, each into
+ * its own slot, and the verdicts of the chunk are passed on in input order before the next
+ * chunk is read. Memory therefore stays bounded by the chunk size for streamed input.
+ * The table and the IR are only read, so all workers share them.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchParseServiceImpl implements BatchParseService {
+    /**
+     * Number of sentences parsed together before their verdicts are passed on.
+     */
+    static final int CHUNK_SIZE = 1024;
+
+    private final ParserService parserService;
+
+    /**
+     * Parses the sentences in parallel and passes their verdicts on in input order.
+     *
+     * @param ir        integer-encoded grammar
+     * @param table     LL(1) table of the grammar
+     * @param sentences whitespace-separated token strings
+     * @param verdicts  receives the verdict of each sentence, in input order
+     * @return counts, elapsed time and throughput of the batch
+     */
+    @Override
+    public BatchParseSummary parseBatch(GrammarIr ir, Ll1Table table,
+                                        Iterator<String> sentences,
+                                        Consumer<ParseResult> verdicts) {
+        long start = System.nanoTime();
+        List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+        int index = 0;
+        int accepted = 0;
+        while (sentences.hasNext()) {
+            chunk.clear();
+            while (sentences.hasNext() && chunk.size() < CHUNK_SIZE) {
+                chunk.add(sentences.next());
+            }
+            ParseResult[] results = new ParseResult[chunk.size()];
+            IntStream.range(0, chunk.size()).parallel()
+                    .forEach(i -> results[i] = parserService.parse(ir, table, chunk.get(i)));
+
+            for (ParseResult result : results) {
+                result.setIndex(index++);
+                if (result.isAccepted()) {
+                    accepted++;
+                }
+                verdicts.accept(result);
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        BatchParseSummary summary = new BatchParseSummary();
+        summary.setSentences(index);
+        summary.setAccepted(accepted);
+        summary.setRejected(index - accepted);
+        summary.setElapsedMillis(elapsedNanos / 1_000_000);
+        summary.setSentencesPerSecond(elapsedNanos == 0 ? 0 : index * 1e9 / elapsedNanos);
+        return summary;
+    }
+}
@@ -1,13 +1,20 @@
 package grammar.analyzer.grammarvisualizer.service.impl;
 
+import grammar.analyzer.grammarvisualizer.config.AnalysisProperties;
 import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.TraceMode;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 import grammar.analyzer.grammarvisualizer.service.FirstFollowPredictService;
 import grammar.analyzer.grammarvisualizer.service.calculators.FirstSetCalculator;
 import grammar.analyzer.grammarvisualizer.service.calculators.FollowSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.NullableCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.ParallelFirstSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.ParallelPredictSetCalculator;
 import grammar.analyzer.grammarvisualizer.service.calculators.PredictSetCalculator;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import grammar.analyzer.grammarvisualizer.service.calculators.SccFollowSetCalculator;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -17,62 +24,108 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class FirstFollowPredictServiceImpl implements FirstFollowPredictService {
+    private final NullableCalculator nullableCalculator;
     private final FirstSetCalculator firstSetCalculator;
     private final FollowSetCalculator followSetCalculator;
     private final PredictSetCalculator predictSetCalculator;
+    private final SccFollowSetCalculator sccFollowSetCalculator;
+    private final ParallelFirstSetCalculator parallelFirstSetCalculator;
+    private final ParallelPredictSetCalculator parallelPredictSetCalculator;
+    private final AnalysisProperties analysisProperties;
 
     /**
-     * Delegates computation of FIRST sets to FirstSetCalculator.
+     * Delegates the nullable analysis to NullableCalculator.
      *
-     * @param productionRules grammar production rules
-     * @param nonTerminals    set of non-terminal symbols
-     * @param grammar         Grammar model to populate with FIRST sets
+     * @param ir      integer-encoded grammar
+     * @param grammar Grammar model to populate with the nullable analysis
      */
     @Override
-    public void computeFirstSets(
-            Map<String, List<String>> productionRules,
-            Set<String> nonTerminals,
-            Grammar grammar
-    ) {
-        firstSetCalculator.computeFirstSets(productionRules, nonTerminals, grammar);
+    public void computeNullable(GrammarIr ir, Grammar grammar) {
+        nullableCalculator.computeNullable(ir, grammar);
     }
 
     /**
-     * Delegates computation of FOLLOW sets to FollowSetCalculator.
+     * Delegates computation of FIRST sets to FirstSetCalculator, or to
+     * ParallelFirstSetCalculator when the parallel engine is configured.
      *
-     * @param productionRules grammar production rules
-     * @param firstSets       precomputed FIRST sets for lookahead
-     * @param nonTerminals    set of non-terminal symbols
-     * @param startSymbol     start symbol to initialize FOLLOW(startSymbol)
-     * @param grammar         Grammar model to populate with FOLLOW sets
+     * @param ir          integer-encoded grammar
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with FIRST sets
+     */
+    @Override
+    public void computeFirstSets(GrammarIr ir, Nullability nullability, Grammar grammar) {
+        if (analysisProperties.getFirstEngine() == AnalysisProperties.FirstEngine.PARALLEL) {
+            parallelFirstSetCalculator.computeFirstSets(ir, nullability, grammar);
+        } else {
+            firstSetCalculator.computeFirstSets(ir, nullability, newRecorder(grammar),
+                    grammar);
+        }
+    }
+
+    /**
+     * Delegates computation of FOLLOW sets to FollowSetCalculator, or to
+     * SccFollowSetCalculator when the fast SCC engine is configured.
+     *
+     * @param ir          integer-encoded grammar
+     * @param firstSets   precomputed FIRST sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with FOLLOW sets
      */
     @Override
     public void computeFollowSets(
-            Map<String, List<String>> productionRules,
-            Map<String, Set<String>> firstSets,
-            Set<String> nonTerminals,
-            String startSymbol,
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            Nullability nullability,
             Grammar grammar
     ) {
-        followSetCalculator.computeFollowSets(productionRules, firstSets,
-                nonTerminals, startSymbol, grammar);
+        if (analysisProperties.getFollowEngine() == AnalysisProperties.FollowEngine.SCC) {
+            sccFollowSetCalculator.computeFollowSets(ir, firstSets, nullability, grammar);
+        } else {
+            followSetCalculator.computeFollowSets(ir, firstSets, nullability,
+                    newRecorder(grammar), grammar);
+        }
     }
 
     /**
-     * Delegates computation of PREDICT sets to PredictSetCalculator.
+     * Delegates computation of PREDICT sets to PredictSetCalculator, or to
+     * ParallelPredictSetCalculator when the parallel engine is configured.
      *
-     * @param productionRules grammar production rules
-     * @param firstSets       computed FIRST sets
-     * @param followSets      computed FOLLOW sets
-     * @param grammar         Grammar model to populate with PREDICT sets
+     * @param ir          integer-encoded grammar
+     * @param firstSets   computed FIRST sets indexed by non-terminal id
+     * @param followSets  computed FOLLOW sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param grammar     Grammar model to populate with PREDICT sets
      */
     @Override
     public void computePredictSets(
-            Map<String, List<String>> productionRules,
-            Map<String, Set<String>> firstSets,
-            Map<String, Set<String>> followSets,
+            GrammarIr ir,
+            TerminalSet[] firstSets,
+            TerminalSet[] followSets,
+            Nullability nullability,
             Grammar grammar
     ) {
-        predictSetCalculator.computePredictSets(productionRules, firstSets, followSets, grammar);
+        if (analysisProperties.getPredictEngine() == AnalysisProperties.PredictEngine.PARALLEL) {
+            parallelPredictSetCalculator.computePredictSets(ir, firstSets, followSets,
+                    nullability, grammar);
+        } else {
+            predictSetCalculator.computePredictSets(ir, firstSets, followSets, nullability,
+                    newRecorder(grammar), grammar);
+        }
+    }
+
+    /**
+     * Creates a step recorder for the grammar's trace mode and the configured
+     * step trace storage.
+     *
+     * @param grammar Grammar model being analyzed
+     * @return recorder recording no steps, every step, or counting them for lazy replay
+     */
+    private StepRecorder newRecorder(Grammar grammar) {
+        if (grammar.getTraceMode() == TraceMode.NONE) {
+            return StepRecorder.none();
+        }
+        return analysisProperties.getStepTrace() == AnalysisProperties.StepTrace.EAGER
+                ? StepRecorder.full()
+                : StepRecorder.counting();
     }
 }
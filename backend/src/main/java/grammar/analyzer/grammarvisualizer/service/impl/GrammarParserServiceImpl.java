@@ -3,6 +3,8 @@ package grammar.analyzer.grammarvisualizer.service.impl;
 import grammar.analyzer.grammarvisualizer.exception.GrammarSyntaxException;
 import grammar.analyzer.grammarvisualizer.service.EbnfTransformerService;
 import grammar.analyzer.grammarvisualizer.service.GrammarParserService;
+import grammar.analyzer.grammarvisualizer.service.ebnf.transformer.EbnfRule;
+import grammar.analyzer.grammarvisualizer.util.GrammarScanner;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -12,7 +14,7 @@ import org.springframework.stereotype.Service;
 
 /**
  * Service implementation for parsing grammar definitions into production maps.
- * Supports EBNF syntax by transforming constructs into BNF before parsing.
+ * Supports EBNF syntax by lowering its constructs straight into BNF rules.
  */
 @RequiredArgsConstructor
 @Service
@@ -21,8 +23,10 @@ public class GrammarParserServiceImpl implements GrammarParserService {
 
     /**
      * Parses a grammar input string into a map of non-terminals to their production lists.
-     * Applies EBNF-to-BNF transformation if EBNF constructs are detected.
-     * Validates syntax and throws GrammarSyntaxException on errors.
+     * BNF rules are read by a single-pass {@link GrammarScanner}; if EBNF constructs are
+     * detected, the raw input is lowered directly into productions instead. Validates
+     * syntax and throws GrammarSyntaxException listing every error with its line and
+     * column.
      *
      * @param grammarInput multiline string with grammar rules separated by newlines
      * @return ordered map of non-terminal keys and lists of production alternatives
@@ -30,85 +34,27 @@ public class GrammarParserServiceImpl implements GrammarParserService {
      */
     @Override
     public Map<String, List<String>> parseGrammar(String grammarInput) {
-        // Detect and transform EBNF constructs ({}, [], ()) to BNF
-        if (grammarInput.contains("{") || grammarInput.contains("[")
-                || grammarInput.contains("(")
-        ) {
-            grammarInput = ebnfTransformerService.transform(grammarInput);
-        }
-
-        // Normalize escape sequences and delimiter symbols
-        grammarInput = grammarInput
-                .replace("\\eps", "epsilon")
-                .replace("\\to", "->")
-                .replace("\\mid", "|");
-
-        // Split input into individual rule lines
-        String[] rules = grammarInput.split("\n");
-        Map<String, List<String>> productionRules = new LinkedHashMap<>();
-
-        // Process each rule line
-        for (String rule : rules) {
-            if (!rule.contains("->")) {
-                throw new GrammarSyntaxException("Invalid syntax: each rule "
-                        + "must contain '->'. Rule: " + rule);
-            }
-
-            String[] parts = rule.split("->");
-            if (parts.length != 2) {
-                throw new GrammarSyntaxException("Invalid syntax: exactly one '->' "
-                        + "expected in each rule. Rule: " + rule);
-            }
-
-            // Extract and validate non-terminal on LHS
-            String nonTerminal = parts[0].trim();
-            if (nonTerminal.isEmpty() || !nonTerminal.matches("[A-Za-z_][A-Za-z0-9_']*")) {
-                throw new GrammarSyntaxException("Invalid syntax: left-hand side of the rule "
-                        + "must be a valid non-terminal (e.g., A, S', Expr). Rule: " + rule);
-            }
-
-            // Split RHS into alternatives and collect productions
-            String[] alternatives = parts[1].trim().split("\\|", -1);
-            List<String> currentProductions = productionRules
-                    .computeIfAbsent(nonTerminal, k -> new ArrayList<>());
-
-            for (String alternative : alternatives) {
-                String trimmed = alternative.trim();
-                if (trimmed.isEmpty()) {
-                    throw new GrammarSyntaxException("Empty alternative is not allowed. "
-                            + "Use 'epsilon' explicitly if needed");
-                }
-                currentProductions.add(trimmed);
-            }
-        }
-
-        // Collect defined non-terminals and used symbols
-        List<String> defined = new ArrayList<>(productionRules.keySet());
-        List<String> used = new ArrayList<>();
-
-        for (List<String> prods : productionRules.values()) {
-            for (String prod : prods) {
-                for (String sym : prod.trim().split("\\s+")) {
-                    boolean isTerminal = sym.startsWith("'") && sym.endsWith("'");
-                    boolean isEpsilon = "epsilon".equals(sym);
-                    boolean isOperator = "|".equals(sym) || "->".equals(sym);
-                    if (!isTerminal && !isEpsilon && !isOperator) {
-                        used.add(sym);
-                    }
-                }
+        GrammarScanner scanner = new GrammarScanner(grammarInput);
+        Map<String, List<String>> productionRules;
+        List<String> errors = new ArrayList<>();
+
+        if (scanner.hasEbnfConstructs()) {
+            // Lower EBNF constructs ({}, [], ()) straight into BNF rules
+            productionRules = new LinkedHashMap<>();
+            for (EbnfRule rule : ebnfTransformerService.lower(grammarInput)) {
+                productionRules.computeIfAbsent(rule.getLhs(), k -> new ArrayList<>())
+                        .addAll(rule.getAlternatives());
             }
+        } else {
+            // Scan rules in one pass, collecting productions and all syntax errors
+            productionRules = scanner.scan();
+            errors.addAll(scanner.getErrors());
         }
 
         // Identify any undefined non-terminals
-        List<String> undefined = used.stream()
-                .distinct()
-                .filter(sym -> !defined.contains(sym))
-                .toList();
-
-        if (!undefined.isEmpty()) {
-            throw new GrammarSyntaxException(
-                    "Undefined non-terminal(s): " + String.join(", ", undefined)
-            );
+        errors.addAll(scanner.findUndefined(productionRules));
+        if (!errors.isEmpty()) {
+            throw new GrammarSyntaxException(errors);
         }
 
         return productionRules;
@@ -1,25 +1,46 @@
 package grammar.analyzer.grammarvisualizer.service.impl;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import grammar.analyzer.grammarvisualizer.config.CacheConfig;
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisCacheStatsDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisStoreStatsDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.BatchParseSummaryDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarRequestDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.StreamParseResponseDto;
 import grammar.analyzer.grammarvisualizer.exception.GrammarNotInitializedException;
 import grammar.analyzer.grammarvisualizer.exception.UnknownAnalysisTypeException;
 import grammar.analyzer.grammarvisualizer.mapper.GrammarMapper;
 import grammar.analyzer.grammarvisualizer.model.Grammar;
 import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.TraceMode;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.service.AnalysisStoreService;
+import grammar.analyzer.grammarvisualizer.service.BatchParseService;
 import grammar.analyzer.grammarvisualizer.service.FirstFollowPredictService;
 import grammar.analyzer.grammarvisualizer.service.GrammarParserService;
 import grammar.analyzer.grammarvisualizer.service.GrammarService;
+import grammar.analyzer.grammarvisualizer.service.IncrementalAnalysisService;
 import grammar.analyzer.grammarvisualizer.service.LL1Service;
+import grammar.analyzer.grammarvisualizer.service.ParserService;
+import grammar.analyzer.grammarvisualizer.util.DeferredStepRecords;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
+import grammar.analyzer.grammarvisualizer.util.TerminalLexer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.stereotype.Service;
 
 /**
@@ -34,47 +55,76 @@ public class GrammarServiceImpl implements GrammarService {
     private final GrammarParserService grammarParserService;
     private final FirstFollowPredictService firstFollowPredictService;
     private final LL1Service ll1Service;
-    /**
-     * -- GETTER --
-     *  For test purposes only.
-     * -- SETTER --
-     *  For test purposes only.
-     */
-    @Setter
-    @Getter
-    private Grammar currentGrammar;
+    private final IncrementalAnalysisService incrementalAnalysisService;
+    private final ParserService parserService;
+    private final BatchParseService batchParseService;
+    private final AnalysisStoreService analysisStoreService;
+    private final CacheManager cacheManager;
 
     /**
      * Analyzes input grammar and returns full analysis results.
-     * Caches results by grammar text for performance.
+     * Caches results by the hash of the normalized grammar and the trace mode, so identical
+     * submissions share one result and, with it, one stored analysis.
+     * With trace mode "none" no steps are recorded, only the sets, the LL(1) table and
+     * the verdict are returned, and the analysis is not kept for step retrieval.
+     * Otherwise the analysis is kept in the analysis store under the returned analysis id.
+     * If the request names a stored previous analysis, the results unaffected by the edit
+     * are reused and the response carries a reuse report; such requests bypass the cache,
+     * since their response describes that edit and its own stored analysis. A request for
+     * a compact table receives the LL(1) table as compressed arrays with a size report
+     * instead of the named table.
      *
-     * @param grammarRequest DTO containing raw grammar string
-     * @return DTO with FIRST/FOLLOW/PREDICT sets and LL(1) table
+     * @param grammarRequest DTO containing raw grammar string, optional trace mode and
+     *                       optional previous analysis id
+     * @return DTO with FIRST/FOLLOW/PREDICT sets, LL(1) table and analysis id
      */
-    @Cacheable(value = "grammarCache", key = "#grammarRequest.grammar")
+    @Cacheable(cacheNames = CacheConfig.GRAMMAR_CACHE,
+            keyGenerator = CacheConfig.GRAMMAR_KEY_GENERATOR,
+            condition = "#grammarRequest.previousAnalysisId == null")
     @Override
     public GrammarResponseDto analyzeGrammar(GrammarRequestDto grammarRequest) {
-        currentGrammar = performAnalysis(grammarRequest.getGrammar());
-        currentGrammar.setCurrentAnalysisType("FIRST");
-        return grammarMapper.toDto(currentGrammar);
+        TraceMode traceMode = TraceMode.of(grammarRequest.getTrace());
+        Grammar grammar = performAnalysis(grammarRequest.getGrammar(), traceMode,
+                grammarRequest.getPreviousAnalysisId());
+        GrammarResponseDto response;
+        if (traceMode == TraceMode.NONE) {
+            response = toResultDto(grammar);
+        } else {
+            grammar.setCurrentAnalysisType("FIRST");
+            grammar.setAnalysisId(analysisStoreService.put(grammar));
+            response = grammarMapper.toDto(grammar);
+        }
+        if (grammarRequest.isCompactTable()) {
+            // The compressed arrays replace the named table in the payload
+            response.setCompressedLl1Table(grammarMapper.toDto(
+                    ll1Service.compressLl1Table(grammar.getGrammarIr(), grammar.getParseTable())));
+            response.setLl1Table(null);
+        }
+        return response;
     }
 
     /**
      * Retrieves details for a specific analysis step or the LL(1) table.
+     * If the analysis is no longer in the store, it is recomputed from the grammar text
+     * and stored again under the same id.
      *
+     * @param analysisId   id returned by the analysis; may be null
      * @param analysisType type of analysis: FIRST, FOLLOW, PREDICT, or LL1
      * @param stepIndex    zero-based index of the step to fetch
      * @param grammar      original grammar string
      * @return DTO with step-specific details or LL(1) info
      */
     @Override
-    public GrammarResponseDto getStep(String analysisType, int stepIndex, String grammar) {
-        checkGrammarInitialized();
+    public GrammarResponseDto getStep(String analysisId, String analysisType, int stepIndex,
+                                      String grammar) {
+        Grammar currentGrammar = analysisStoreService.get(analysisId)
+                .orElseGet(() -> reanalyze(analysisId, grammar));
         GrammarResponseDto response = grammarMapper.toDto(currentGrammar);
 
         if ("LL1".equalsIgnoreCase(analysisType)) {
             response.setLl1Table(currentGrammar.getLl1Table());
             response.setLl1(currentGrammar.isLl1());
+            response.setLl1Conflicts(currentGrammar.getLl1Conflicts());
             response.setCurrentStepDetails(Map.of("details",
                     List.of("LL(1) table and PREDICT rules shown below.")));
             response.setTotalSteps(1);
@@ -86,7 +136,8 @@ public class GrammarServiceImpl implements GrammarService {
             stepIndex = Math.max(0, Math.min(stepIndex, totalSteps - 1));
 
             StepRecord currentStep = stepRecords.get(stepIndex);
-            response.setPartialResult(currentStep.getPartialResult());
+            // Steps store deltas; rebuild the full sets from the nearest checkpoint
+            response.setPartialResult(StepRecorder.snapshotAt(stepRecords, stepIndex));
             response.setCurrentStepDetails(Map.of("details",
                     List.of(currentStep.getDescription())));
             response.setPseudoCodeLine(currentStep.getPseudocodeLine());
@@ -98,28 +149,243 @@ public class GrammarServiceImpl implements GrammarService {
         return response;
     }
 
+    /**
+     * Parses a sentence with the LL(1) table of a stored analysis or, if the analysis id is
+     * missing or no longer stored, of the given grammar analyzed without a step trace.
+     * Such an analysis is not stored. Raw text is split by the lexer of the analysis,
+     * which is compiled once and kept with the stored analysis.
+     *
+     * @param parseRequest DTO with the analysis id or grammar and the input tokens
+     * @return DTO with the verdict and the failing position of a rejected sentence
+     */
+    @Override
+    public ParseResponseDto parse(ParseRequestDto parseRequest) {
+        Grammar grammar = resolveForParsing(parseRequest.getAnalysisId(),
+                parseRequest.getGrammar());
+        if (parseRequest.isRawText()) {
+            return grammarMapper.toDto(parserService.parse(grammar.getGrammarIr(),
+                    grammar.getParseTable(), lexerOf(grammar), parseRequest.getInput()));
+        }
+        return grammarMapper.toDto(parserService.parse(grammar.getGrammarIr(),
+                grammar.getParseTable(), parseRequest.getInput()));
+    }
+
+    /**
+     * Parses a batch of sentences in parallel with the LL(1) table of a stored analysis or,
+     * if the analysis id is missing or no longer stored, of the given grammar analyzed
+     * without a step trace.
+     *
+     * @param analysisId id of a stored analysis; may be null
+     * @param grammar    grammar text used when the analysis is not stored; may be null
+     * @param sentences  whitespace-separated token strings, read as they are needed
+     * @param verdicts   receives the verdict of each sentence, in input order
+     * @return DTO with the counts, elapsed time and throughput of the batch
+     */
+    @Override
+    public BatchParseSummaryDto parseBatch(String analysisId, String grammar,
+                                           Iterator<String> sentences,
+                                           Consumer<ParseResponseDto> verdicts) {
+        Grammar analysis = resolveForParsing(analysisId, grammar);
+        return grammarMapper.toDto(batchParseService.parseBatch(analysis.getGrammarIr(),
+                analysis.getParseTable(), sentences,
+                result -> verdicts.accept(grammarMapper.toDto(result))));
+    }
+
+    /**
+     * Parses a token stream with the LL(1) table of a stored analysis or, if the analysis id
+     * is missing or no longer stored, of the given grammar analyzed without a step trace.
+     *
+     * @param analysisId id of a stored analysis; may be null
+     * @param grammar    grammar text used when the analysis is not stored; may be null
+     * @param input      channel holding whitespace-separated tokens
+     * @return DTO with the verdict, tokens per second and peak heap use
+     */
+    @Override
+    public StreamParseResponseDto parseStream(String analysisId, String grammar,
+                                              ReadableByteChannel input) {
+        Grammar analysis = resolveForParsing(analysisId, grammar);
+        return grammarMapper.toDto(parserService.parse(analysis.getGrammarIr(),
+                analysis.getParseTable(), input));
+    }
+
+    /**
+     * Returns the counters and occupancy of the analysis store.
+     *
+     * @return DTO with store statistics
+     */
+    @Override
+    public AnalysisStoreStatsDto getStoreStats() {
+        return analysisStoreService.getStats();
+    }
+
+    /**
+     * Returns the hit and miss counters and the occupancy of the analysis result cache.
+     *
+     * @return DTO with cache statistics
+     */
+    @Override
+    public AnalysisCacheStatsDto getCacheStats() {
+        AnalysisCacheStatsDto response = new AnalysisCacheStatsDto();
+        if (cacheManager.getCache(CacheConfig.GRAMMAR_CACHE) instanceof CaffeineCache cache) {
+            CacheStats stats = cache.getNativeCache().stats();
+            response.setHits(stats.hitCount());
+            response.setMisses(stats.missCount());
+            response.setHitRatio(stats.hitRate());
+            response.setEvictions(stats.evictionCount());
+            response.setEntries(cache.getNativeCache().estimatedSize());
+        }
+        return response;
+    }
+
+    /**
+     * Returns the stored analysis, or analyzes the grammar text without a step trace.
+     *
+     * @param analysisId id of a stored analysis; may be null
+     * @param grammar    grammar text used when the analysis is not stored; may be null
+     * @return analyzed Grammar model with its LL(1) table
+     */
+    private Grammar resolveForParsing(String analysisId, String grammar) {
+        Grammar stored = analysisId == null ? null
+                : analysisStoreService.get(analysisId).orElse(null);
+        if (stored != null) {
+            return stored;
+        }
+        if (grammar == null || grammar.isBlank()) {
+            throw new GrammarNotInitializedException(analysisId == null
+                    ? "Either an analysis id or a grammar is required."
+                    : "Analysis " + analysisId + " is no longer available.");
+        }
+        return performAnalysis(grammar, TraceMode.NONE, null);
+    }
+
+    /**
+     * Returns the lexer of an analysis, compiling it on first use. The lexer is immutable,
+     * so concurrent first uses at worst compile it twice.
+     *
+     * @param grammar analyzed Grammar model
+     * @return lexer of the grammar's quoted terminals
+     */
+    private TerminalLexer lexerOf(Grammar grammar) {
+        TerminalLexer lexer = grammar.getLexer();
+        if (lexer == null) {
+            lexer = TerminalLexer.of(grammar.getGrammarIr());
+            grammar.setLexer(lexer);
+        }
+        return lexer;
+    }
+
+    /**
+     * Recomputes an analysis missing from the store and stores it again.
+     *
+     * @param analysisId id to store the analysis under; a new id is used if null
+     * @param grammar    original grammar string
+     * @return analyzed Grammar model
+     */
+    private Grammar reanalyze(String analysisId, String grammar) {
+        if (grammar == null || grammar.isBlank()) {
+            throw new GrammarNotInitializedException(analysisId == null
+                    ? "No grammar has been analyzed yet."
+                    : "Analysis " + analysisId + " is no longer available.");
+        }
+        Grammar analysis = performAnalysis(grammar, TraceMode.FULL, null);
+        analysis.setCurrentAnalysisType("FIRST");
+        if (analysisId == null) {
+            analysis.setAnalysisId(analysisStoreService.put(analysis));
+        } else {
+            analysis.setAnalysisId(analysisId);
+            analysisStoreService.put(analysisId, analysis);
+        }
+        return analysis;
+    }
+
     /**
      * Runs the full pipeline: parsing, computing sets, and LL(1) table construction.
+     * When a stored previous analysis can be reused, only the affected results are
+     * recomputed and the steps are traced on first request.
      *
-     * @param grammarInput raw grammar definition
+     * @param grammarInput       raw grammar definition
+     * @param traceMode          whether calculators record their steps
+     * @param previousAnalysisId id of the analysis being edited; may be null
      * @return fully populated Grammar domain model
      */
-    private Grammar performAnalysis(String grammarInput) {
+    private Grammar performAnalysis(String grammarInput, TraceMode traceMode,
+                                    String previousAnalysisId) {
         Grammar grammar = new Grammar();
+        grammar.setTraceMode(traceMode);
         grammar.setProductionRules(grammarParserService.parseGrammar(grammarInput));
-        var nonTerminals = grammar.getProductionRules().keySet();
-        final String startSymbol = nonTerminals.iterator().next();
 
-        List<String> rules = new ArrayList<>();
-        Map<String, Integer> ruleNumbers = new HashMap<>();
-        int ruleIndex = 1;
-        for (Map.Entry<String, List<String>> entry : grammar.getProductionRules().entrySet()) {
-            String lhs = entry.getKey();
-            for (String rhs : entry.getValue()) {
-                String fullRule = lhs + " -> " + rhs;
-                rules.add(fullRule);
-                ruleNumbers.put(fullRule, ruleIndex++);
+        // Intern symbols and encode productions once for all calculators
+        GrammarIr ir = GrammarIr.of(grammar.getProductionRules());
+        grammar.setGrammarIr(ir);
+        if (traceMode == TraceMode.FULL) {
+            describeRules(ir, grammar);
+        }
+
+        // Determine nullable non-terminals once, then compute FIRST, FOLLOW, and PREDICT sets
+        firstFollowPredictService.computeNullable(ir, grammar);
+        Nullability nullability = grammar.getNullability();
+        Grammar previous = previousAnalysisId == null ? null
+                : analysisStoreService.get(previousAnalysisId).orElse(null);
+        if (previous != null
+                && incrementalAnalysisService.reanalyze(ir, nullability, previous, grammar)) {
+            if (traceMode == TraceMode.FULL) {
+                deferStepRecords(ir, grammar);
             }
+            return grammar;
+        }
+        firstFollowPredictService.computeFirstSets(ir, nullability, grammar);
+        firstFollowPredictService.computeFollowSets(ir, grammar.getFirstBitSets(), nullability,
+                grammar);
+        firstFollowPredictService.computePredictSets(ir, grammar.getFirstBitSets(),
+                grammar.getFollowBitSets(), nullability, grammar);
+
+        // Build LL(1) parse table
+        ll1Service.buildLl1Table(ir, grammar.getPredictBitSets(), grammar);
+
+        return grammar;
+    }
+
+    /**
+     * Sets step records that trace each analysis of a reused result on first access,
+     * so that re-analysis stays incremental unless the steps are viewed.
+     *
+     * @param ir      integer-encoded grammar
+     * @param grammar re-analyzed Grammar model
+     */
+    private void deferStepRecords(GrammarIr ir, Grammar grammar) {
+        Nullability nullability = grammar.getNullability();
+        grammar.setFirstStepRecords(new DeferredStepRecords(() -> {
+            Grammar trace = new Grammar();
+            firstFollowPredictService.computeFirstSets(ir, nullability, trace);
+            return trace.getFirstStepRecords();
+        }));
+        grammar.setFollowStepRecords(new DeferredStepRecords(() -> {
+            Grammar trace = new Grammar();
+            firstFollowPredictService.computeFollowSets(ir, grammar.getFirstBitSets(),
+                    nullability, trace);
+            return trace.getFollowStepRecords();
+        }));
+        grammar.setPredictStepRecords(new DeferredStepRecords(() -> {
+            Grammar trace = new Grammar();
+            firstFollowPredictService.computePredictSets(ir, grammar.getFirstBitSets(),
+                    grammar.getFollowBitSets(), nullability, trace);
+            return trace.getPredictStepRecords();
+        }));
+    }
+
+    /**
+     * Numbers the production rules and renders the transformed grammar for display.
+     *
+     * @param ir      integer-encoded grammar
+     * @param grammar Grammar model to populate with the rule list and numbers
+     */
+    private void describeRules(GrammarIr ir, Grammar grammar) {
+        List<String> rules = new ArrayList<>(ir.getProductionCount());
+        Map<String, Integer> ruleNumbers = new HashMap<>();
+        for (int p = 0; p < ir.getProductionCount(); p++) {
+            String fullRule = ir.productionKey(p);
+            rules.add(fullRule);
+            ruleNumbers.put(fullRule, p + 1);
         }
         grammar.setProductionRuleList(rules);
         grammar.setProductionRuleNumbers(ruleNumbers);
@@ -128,29 +394,26 @@ public class GrammarServiceImpl implements GrammarService {
                         .map(e -> e.getKey() + " -> " + String.join(" | ", e.getValue()))
                         .collect(Collectors.joining("\n"))
         );
-
-        // Compute FIRST, FOLLOW, and PREDICT sets
-        firstFollowPredictService.computeFirstSets(grammar.getProductionRules(),
-                nonTerminals, grammar);
-        firstFollowPredictService.computeFollowSets(grammar.getProductionRules(),
-                grammar.getFirstSets(), nonTerminals, startSymbol, grammar);
-        firstFollowPredictService.computePredictSets(grammar.getProductionRules(),
-                grammar.getFirstSets(), grammar.getFollowSets(), grammar);
-
-        // Build LL(1) parse table
-        ll1Service.buildLl1Table(grammar.getProductionRules(),
-                grammar.getPredictSets(), grammar);
-
-        return grammar;
     }
 
     /**
-     * Throws if no grammar has been analyzed before fetching steps.
+     * Builds the response of a trace-free analysis, carrying only the computed sets,
+     * the LL(1) table and the LL(1) verdict.
+     *
+     * @param grammar analyzed Grammar model
+     * @return DTO with the analysis results
      */
-    private void checkGrammarInitialized() {
-        if (currentGrammar == null) {
-            throw new GrammarNotInitializedException("No grammar has been analyzed yet.");
-        }
+    private GrammarResponseDto toResultDto(Grammar grammar) {
+        GrammarResponseDto response = new GrammarResponseDto();
+        response.setFirstSets(grammar.getFirstSets());
+        response.setFollowSets(grammar.getFollowSets());
+        response.setPredictSets(grammar.getPredictSets());
+        response.setNullableNonTerminals(grammar.getNullableNonTerminals());
+        response.setLl1Table(grammar.getLl1Table());
+        response.setLl1(grammar.isLl1());
+        response.setLl1Conflicts(grammar.getLl1Conflicts());
+        response.setReuseReport(grammarMapper.toDto(grammar.getReuseReport()));
+        return response;
     }
 
     /**
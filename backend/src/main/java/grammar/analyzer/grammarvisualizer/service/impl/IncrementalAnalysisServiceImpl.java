@@ -0,0 +1,419 @@
+package grammar.analyzer.grammarvisualizer.service.impl;
+
+import grammar.analyzer.grammarvisualizer.config.AnalysisProperties;
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ReuseReport;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import grammar.analyzer.grammarvisualizer.service.IncrementalAnalysisService;
+import grammar.analyzer.grammarvisualizer.service.LL1Service;
+import grammar.analyzer.grammarvisualizer.service.calculators.FirstSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.FollowSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.PredictSetCalculator;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation re-analyzing an edited grammar from its previous analysis.
+ *
+ * <p>A set is reused when nothing it is computed from has changed: for FIRST, the
+ * alternatives of its non-terminal and of the non-terminals it reads, and their
+ * nullability; for FOLLOW, every production in which its non-terminal occurs and the
+ * FIRST sets following the occurrences. The sets affected by a change are recomputed
+ * together with every set they read, starting from scratch, by the same fixpoint
+ * iterations as a full analysis. PREDICT sets and LL(1) table rows are recomputed only
+ * where one of their inputs differs. Reused sets share their previous names as long as
+ * the terminals keep their order, which keeps them listed in grammar order.
+ */
+@Service
+@RequiredArgsConstructor
+public class IncrementalAnalysisServiceImpl implements IncrementalAnalysisService {
+    private final FirstSetCalculator firstSetCalculator;
+    private final FollowSetCalculator followSetCalculator;
+    private final PredictSetCalculator predictSetCalculator;
+    private final LL1Service ll1Service;
+    private final AnalysisProperties analysisProperties;
+
+    /**
+     * Re-analyzes the edited grammar, reusing the unaffected results of the previous
+     * analysis. Only results of the iterative FIRST and FOLLOW engines can be reused.
+     *
+     * @param ir          integer-encoded edited grammar
+     * @param nullability nullable analysis of the edited grammar
+     * @param previous    analysis of the grammar before the edit
+     * @param grammar     Grammar model to populate with the results and a reuse report
+     * @return false if the previous analysis cannot be reused
+     */
+    @Override
+    public boolean reanalyze(GrammarIr ir, Nullability nullability, Grammar previous,
+                             Grammar grammar) {
+        GrammarIr old = previous.getGrammarIr();
+        if (old == null || previous.getParseTable() == null
+                || analysisProperties.getFirstEngine() != AnalysisProperties.FirstEngine.ITERATIVE
+                || analysisProperties.getFollowEngine() != AnalysisProperties.FollowEngine.ITERATIVE
+                || !isCompatible(old, ir)) {
+            return false;
+        }
+        int count = ir.getNonTerminalCount();
+        int[] oldIds = new int[count];
+        for (int a = 0; a < count; a++) {
+            oldIds[a] = old.nonTerminalId(ir.nonTerminalName(a));
+        }
+
+        // Non-terminals whose alternatives changed, and those whose nullability changed
+        Map<String, List<String>> rules = ir.toProductionRules();
+        Map<String, List<String>> oldRules = old.toProductionRules();
+        BitSet edited = new BitSet(count);
+        BitSet inputsChanged = new BitSet(count);
+        for (int a = 0; a < count; a++) {
+            String name = ir.nonTerminalName(a);
+            if (oldIds[a] < 0 || !rules.get(name).equals(oldRules.get(name))) {
+                edited.set(a);
+            }
+            if (oldIds[a] < 0 || nullability.isNullable(a)
+                    != previous.getNullableNonTerminals().contains(name)) {
+                inputsChanged.set(a);
+            }
+        }
+        ReuseReport report = new ReuseReport();
+
+        // FIRST: recompute the sets reading a changed one, and every set they read
+        BitSet firstSeeds = (BitSet) edited.clone();
+        firstSeeds.or(inputsChanged);
+        int[][] firstReads = firstReads(ir);
+        BitSet firstScope = closure(closure(firstSeeds, reverse(firstReads)), firstReads);
+        TerminalSet[] firstSets = firstSetCalculator.recomputeFirstSets(ir, nullability,
+                known(ir, previous.getFirstSets(), firstScope), firstScope);
+        for (int a = firstScope.nextSetBit(0); a >= 0; a = firstScope.nextSetBit(a + 1)) {
+            if (oldIds[a] < 0 || !sameElements(ir, firstSets[a],
+                    previous.getFirstSets().get(ir.nonTerminalName(a)))) {
+                inputsChanged.set(a);
+            }
+        }
+        report.setFirstRecomputed(firstScope.cardinality());
+        report.setFirstReused(count - firstScope.cardinality());
+
+        // FOLLOW: recompute the sets whose occurrences or lookahead changed, the same way
+        BitSet followSeeds = followSeeds(ir, old, edited, inputsChanged);
+        int[][] followReads = followReads(ir, nullability);
+        BitSet followScope = closure(closure(followSeeds, reverse(followReads)), followReads);
+        TerminalSet[] followSets = followSetCalculator.recomputeFollowSets(ir, firstSets,
+                nullability, known(ir, previous.getFollowSets(), followScope), followScope);
+        BitSet followChanged = new BitSet(count);
+        for (int a = followScope.nextSetBit(0); a >= 0; a = followScope.nextSetBit(a + 1)) {
+            if (oldIds[a] < 0 || !sameElements(ir, followSets[a],
+                    previous.getFollowSets().get(ir.nonTerminalName(a)))) {
+                followChanged.set(a);
+            }
+        }
+        report.setFollowRecomputed(followScope.cardinality());
+        report.setFollowReused(count - followScope.cardinality());
+
+        // PREDICT: recompute a production's set only if FIRST of its body or FOLLOW changed
+        TerminalSet[] predictSets = new TerminalSet[ir.getProductionCount()];
+        Map<String, Set<String>> predictNames = new LinkedHashMap<>();
+        boolean sameTerminals = sameTerminals(old, ir);
+        BitSet predictReused = new BitSet(ir.getProductionCount());
+        for (int p = 0; p < ir.getProductionCount(); p++) {
+            String key = ir.productionKey(p);
+            Set<String> oldPredict = previous.getPredictSets().get(key);
+            if (oldPredict != null && !readsChanged(ir, p, nullability, inputsChanged,
+                    followChanged)) {
+                predictSets[p] = TerminalSet.of(ir, oldPredict);
+                predictNames.put(key, sameTerminals ? oldPredict : predictSets[p].toNames(ir));
+                predictReused.set(p);
+            } else {
+                predictSets[p] = predictSetCalculator.computePredictSet(ir, p, firstSets,
+                        followSets, nullability);
+                predictNames.put(key, predictSets[p].toNames(ir));
+            }
+        }
+        report.setPredictReused(predictReused.cardinality());
+        report.setPredictRecomputed(ir.getProductionCount() - predictReused.cardinality());
+
+        // LL(1) table: keep a row if its rules, their numbers, PREDICT sets and columns match
+        int[] previousRows = new int[count];
+        Arrays.fill(previousRows, -1);
+        int rowsReused = 0;
+        if (sameTerminals) {
+            for (int a = 0; a < count; a++) {
+                if (oldIds[a] >= 0 && !edited.get(a)
+                        && Arrays.equals(ir.productionsOf(a), old.productionsOf(oldIds[a]))
+                        && allSet(predictReused, ir.productionsOf(a))) {
+                    previousRows[a] = oldIds[a];
+                    rowsReused++;
+                }
+            }
+        }
+        ll1Service.buildLl1Table(ir, predictSets, previous.getParseTable(), previousRows,
+                grammar);
+        report.setTableRowsReused(rowsReused);
+        report.setTableRowsRebuilt(count - rowsReused);
+
+        grammar.setFirstBitSets(firstSets);
+        grammar.setFirstSets(toNameSets(ir, firstSets, sameTerminals ? firstScope : null,
+                previous.getFirstSets()));
+        grammar.setFollowBitSets(followSets);
+        grammar.setFollowSets(toNameSets(ir, followSets, sameTerminals ? followScope : null,
+                previous.getFollowSets()));
+        grammar.setPredictBitSets(predictSets);
+        grammar.setPredictSets(predictNames);
+        grammar.setReuseReport(report);
+        return true;
+    }
+
+    /**
+     * Checks that the grammar keeps its start symbol and the relative order of the
+     * non-terminals it shares with the previous one, which fixes the order of their rules.
+     */
+    private boolean isCompatible(GrammarIr old, GrammarIr ir) {
+        if (old.getNonTerminalCount() == 0 || ir.getNonTerminalCount() == 0
+                || !old.nonTerminalName(0).equals(ir.nonTerminalName(0))) {
+            return false;
+        }
+        int last = -1;
+        for (int a = 0; a < ir.getNonTerminalCount(); a++) {
+            int o = old.nonTerminalId(ir.nonTerminalName(a));
+            if (o >= 0) {
+                if (o < last) {
+                    return false;
+                }
+                last = o;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds, for each non-terminal, the non-terminals its FIRST computation reads:
+     * for a production {@code A → B β}, B itself (whose alternatives are expanded),
+     * the non-terminals in the alternatives of B, and those in β.
+     */
+    private int[][] firstReads(GrammarIr ir) {
+        int[][] reads = new int[ir.getNonTerminalCount()][];
+        for (int a = 0; a < reads.length; a++) {
+            BitSet read = new BitSet();
+            for (int p : ir.productionsOf(a)) {
+                int[] symbols = ir.rhs(p);
+                if (symbols.length == 0 || !ir.isNonTerminal(symbols[0])) {
+                    continue;
+                }
+                read.set(symbols[0]);
+                for (int gamma : ir.productionsOf(symbols[0])) {
+                    setNonTerminals(ir, ir.rhs(gamma), 0, read);
+                }
+                setNonTerminals(ir, symbols, 1, read);
+            }
+            reads[a] = read.stream().toArray();
+        }
+        return reads;
+    }
+
+    /**
+     * Builds, for each non-terminal, the non-terminals whose FOLLOW set is added to its
+     * own: the left-hand sides of the productions where it occurs before a nullable suffix.
+     */
+    private int[][] followReads(GrammarIr ir, Nullability nullability) {
+        BitSet[] read = new BitSet[ir.getNonTerminalCount()];
+        for (int a = 0; a < read.length; a++) {
+            read[a] = new BitSet();
+        }
+        for (int p = 0; p < ir.getProductionCount(); p++) {
+            int[] symbols = ir.rhs(p);
+            for (int i = 0; i < symbols.length; i++) {
+                if (ir.isNonTerminal(symbols[i]) && nullability.isNullableFrom(p, i + 1)) {
+                    read[symbols[i]].set(ir.lhs(p));
+                }
+            }
+        }
+        int[][] reads = new int[read.length][];
+        for (int a = 0; a < read.length; a++) {
+            reads[a] = read[a].stream().toArray();
+        }
+        return reads;
+    }
+
+    /**
+     * Collects the non-terminals whose FOLLOW inputs changed: those occurring in a
+     * production that was added or removed, and those followed by a symbol whose FIRST
+     * set or nullability changed.
+     */
+    private BitSet followSeeds(GrammarIr ir, GrammarIr old, BitSet edited,
+                               BitSet inputsChanged) {
+        BitSet seeds = new BitSet(ir.getNonTerminalCount());
+        for (int a = edited.nextSetBit(0); a >= 0; a = edited.nextSetBit(a + 1)) {
+            seeds.set(a);
+            for (int p : ir.productionsOf(a)) {
+                setNonTerminals(ir, ir.rhs(p), 0, seeds);
+            }
+        }
+        for (int o = 0; o < old.getNonTerminalCount(); o++) {
+            int a = ir.nonTerminalId(old.nonTerminalName(o));
+            if (a >= 0 && !edited.get(a)) {
+                continue;
+            }
+            for (int p : old.productionsOf(o)) {
+                for (int symbol : old.rhs(p)) {
+                    if (old.isNonTerminal(symbol)) {
+                        int b = ir.nonTerminalId(old.nonTerminalName(symbol));
+                        if (b >= 0) {
+                            seeds.set(b);
+                        }
+                    }
+                }
+            }
+        }
+        for (int p = 0; p < ir.getProductionCount(); p++) {
+            int[] symbols = ir.rhs(p);
+            boolean suffixChanged = false;
+            for (int i = symbols.length - 1; i >= 0; i--) {
+                if (ir.isNonTerminal(symbols[i])) {
+                    if (suffixChanged) {
+                        seeds.set(symbols[i]);
+                    }
+                    suffixChanged |= inputsChanged.get(symbols[i]);
+                }
+            }
+        }
+        return seeds;
+    }
+
+    /**
+     * Returns whether the PREDICT set of a production reads a changed FIRST set,
+     * nullability, or, for a nullable body, a changed FOLLOW set of its left-hand side.
+     */
+    private boolean readsChanged(GrammarIr ir, int production, Nullability nullability,
+                                 BitSet inputsChanged, BitSet followChanged) {
+        for (int symbol : ir.rhs(production)) {
+            if (ir.isNonTerminal(symbol) && inputsChanged.get(symbol)) {
+                return true;
+            }
+        }
+        return nullability.isNullableFrom(production, 0)
+                && followChanged.get(ir.lhs(production));
+    }
+
+    /**
+     * Extends a set of non-terminals with everything reachable along the given edges.
+     */
+    private BitSet closure(BitSet seeds, int[][] edges) {
+        BitSet result = (BitSet) seeds.clone();
+        Deque<Integer> stack = new ArrayDeque<>();
+        seeds.stream().forEach(stack::push);
+        while (!stack.isEmpty()) {
+            for (int b : edges[stack.pop()]) {
+                if (!result.get(b)) {
+                    result.set(b);
+                    stack.push(b);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reverses the direction of all edges of a graph over non-terminal ids.
+     */
+    private int[][] reverse(int[][] edges) {
+        int[] counts = new int[edges.length];
+        for (int[] targets : edges) {
+            for (int b : targets) {
+                counts[b]++;
+            }
+        }
+        int[][] reversed = new int[edges.length][];
+        for (int b = 0; b < edges.length; b++) {
+            reversed[b] = new int[counts[b]];
+            counts[b] = 0;
+        }
+        for (int a = 0; a < edges.length; a++) {
+            for (int b : edges[a]) {
+                reversed[b][counts[b]++] = a;
+            }
+        }
+        return reversed;
+    }
+
+    /**
+     * Converts the previous sets of the non-terminals outside the scope for the new IR.
+     */
+    private TerminalSet[] known(GrammarIr ir, Map<String, Set<String>> previousSets,
+                                BitSet scope) {
+        TerminalSet[] known = new TerminalSet[ir.getNonTerminalCount()];
+        for (int a = 0; a < known.length; a++) {
+            if (!scope.get(a)) {
+                known[a] = TerminalSet.of(ir, previousSets.get(ir.nonTerminalName(a)));
+            }
+        }
+        return known;
+    }
+
+    /**
+     * Builds the named sets, sharing the previous name sets of the reused non-terminals.
+     * Without a scope every set is named anew, e.g. when the terminals were reordered.
+     */
+    private Map<String, Set<String>> toNameSets(GrammarIr ir, TerminalSet[] sets, BitSet scope,
+                                                Map<String, Set<String>> previousSets) {
+        Map<String, Set<String>> named = new LinkedHashMap<>();
+        for (int a = 0; a < sets.length; a++) {
+            String name = ir.nonTerminalName(a);
+            named.put(name, scope == null || scope.get(a) ? sets[a].toNames(ir)
+                    : previousSets.get(name));
+        }
+        return named;
+    }
+
+    /**
+     * Compares the contents of a set with previous names.
+     */
+    private boolean sameElements(GrammarIr ir, TerminalSet set, Set<String> names) {
+        if (names == null || names.size() != set.size()) {
+            return false;
+        }
+        for (String name : names) {
+            int element = ir.lookaheadIndex(name);
+            if (element < 0 || !set.contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameTerminals(GrammarIr old, GrammarIr ir) {
+        if (old.getTerminalCount() != ir.getTerminalCount()) {
+            return false;
+        }
+        for (int t = 0; t < ir.getTerminalCount(); t++) {
+            if (!old.terminalName(t).equals(ir.terminalName(t))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean allSet(BitSet bits, int[] indices) {
+        for (int i : indices) {
+            if (!bits.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setNonTerminals(GrammarIr ir, int[] symbols, int from, BitSet target) {
+        for (int i = from; i < symbols.length; i++) {
+            if (ir.isNonTerminal(symbols[i])) {
+                target.set(symbols[i]);
+            }
+        }
+    }
+}
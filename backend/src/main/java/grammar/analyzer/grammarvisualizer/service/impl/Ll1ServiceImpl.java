@@ -1,11 +1,19 @@
 package grammar.analyzer.grammarvisualizer.service.impl;
 
+import grammar.analyzer.grammarvisualizer.model.CompressedLl1Table;
 import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.TableSizeReport;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 import grammar.analyzer.grammarvisualizer.service.LL1Service;
-import grammar.analyzer.grammarvisualizer.util.LL1TableUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
 import org.springframework.stereotype.Service;
 
 /**
@@ -14,49 +22,279 @@ import org.springframework.stereotype.Service;
 @Service
 public class Ll1ServiceImpl implements LL1Service {
     /**
-     * Builds the LL(1) parse table based on PREDICT sets and production rule numbering.
-     * Marks the grammar as LL(1) if no parsing conflicts are detected.
+     * Tables with at least this many cells are built with rows in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Builds the LL(1) parse table from a production map.
+     * Convenience overload that builds the grammar IR from the production map.
      *
      * @param productionRules map of non-terminals to their production alternatives
      * @param predictSets     map of production identifiers to their PREDICT sets
      * @param grammar         Grammar model to populate with LL(1) table and compliance flag
      */
-    @Override
     public void buildLl1Table(
             Map<String, List<String>> productionRules,
             Map<String, Set<String>> predictSets,
             Grammar grammar
     ) {
-        // Initialize table cells to empty strings
-        Map<String, Map<String, String>> ll1Table = LL1TableUtils
-                .initializeLl1Table(productionRules);
-        boolean isLL1 = true;
-
-        // Iterate over each production to fill table entries
-        for (String nonTerminal : productionRules.keySet()) {
-            for (String production : productionRules.get(nonTerminal)) {
-                String rule = nonTerminal + " -> " + production;
-                int ruleNumber = grammar.getProductionRuleNumbers().get(rule);
-                String ruleLabel = "R" + ruleNumber;
-                Set<String> predictSet = predictSets.get(rule);
-
-                // For each terminal in PREDICT, assign or append the rule label
-                for (String terminal : predictSet) {
-                    String existing = ll1Table.get(nonTerminal).get(terminal);
-                    if (!existing.isEmpty()) {
-                        // Conflict: multiple rules predict the same terminal
-                        isLL1 = false;
-                        ll1Table.get(nonTerminal).put(terminal, existing + ", " + ruleLabel);
-                    } else {
-                        // No conflict: assign this rule label
-                        ll1Table.get(nonTerminal).put(terminal, ruleLabel);
-                    }
+        GrammarIr ir = GrammarIr.of(productionRules);
+        TerminalSet[] predictById = new TerminalSet[ir.getProductionCount()];
+        for (int p = 0; p < predictById.length; p++) {
+            predictById[p] = TerminalSet.of(ir, predictSets.get(ir.productionKey(p)));
+        }
+        buildLl1Table(ir, predictById, grammar);
+    }
+
+    /**
+     * Builds the LL(1) parse table based on PREDICT sets and production rule numbering.
+     * Production ids of the IR follow the rule list order, so rule {@code p} is labeled
+     * {@code R(p + 1)}. Marks the grammar as LL(1) if no parsing conflicts are detected.
+     *
+     * @param ir          integer-encoded grammar
+     * @param predictSets PREDICT set of each production, indexed by production id
+     * @param grammar     Grammar model to populate with LL(1) table and compliance flag
+     */
+    @Override
+    public void buildLl1Table(
+            GrammarIr ir,
+            TerminalSet[] predictSets,
+            Grammar grammar
+    ) {
+        buildLl1Table(ir, predictSets, null, null, grammar);
+    }
+
+    /**
+     * Builds the LL(1) parse table, taking over the given rows of a previous table.
+     * A kept row marks the grammar as not LL(1) if one of its cells holds several rules.
+     *
+     * <p>Rows are independent once the PREDICT sets are known, so each row is filled from
+     * its own productions into its slice of the dense table, concurrently for large tables.
+     * Conflicts are merged in non-terminal order and every cell lists its rules in
+     * production order, so the result does not depend on the scheduling.
+     *
+     * @param ir            integer-encoded grammar
+     * @param predictSets   PREDICT set of each production, indexed by production id
+     * @param previousTable table of the previous analysis, or {@code null}
+     * @param previousRows  row of the previous table to keep for each non-terminal,
+     *                      or -1 to fill the row from the PREDICT sets
+     * @param grammar       Grammar model to populate with LL(1) table, conflicts and
+     *                      compliance flag
+     */
+    @Override
+    public void buildLl1Table(
+            GrammarIr ir,
+            TerminalSet[] predictSets,
+            Ll1Table previousTable,
+            int[] previousRows,
+            Grammar grammar
+    ) {
+        Ll1Table table = new Ll1Table(ir.getNonTerminalCount(), ir.getTerminalCount());
+        IntStream nonTerminals = IntStream.range(0, ir.getNonTerminalCount());
+        if ((long) ir.getNonTerminalCount() * ir.getTerminalCount() >= PARALLEL_THRESHOLD) {
+            nonTerminals = nonTerminals.parallel();
+        }
+        List<Map<Integer, int[]>> rowConflicts = nonTerminals
+                .mapToObj(a -> previousRows != null && previousRows[a] >= 0
+                        ? copyRow(previousTable, previousRows[a], table, a)
+                        : fillRow(ir, a, predictSets, table))
+                .toList();
+
+        // Merge conflicts in non-terminal order
+        for (int a = 0; a < rowConflicts.size(); a++) {
+            for (Map.Entry<Integer, int[]> conflict : rowConflicts.get(a).entrySet()) {
+                table.setConflict(a, conflict.getKey(), conflict.getValue());
+            }
+        }
+
+        // Store the completed table, its named view and LL(1) status
+        grammar.setParseTable(table);
+        grammar.setLl1Table(table.toView(ir));
+        grammar.setLl1Conflicts(table.describeConflicts(ir));
+        grammar.setLl1(table.isLl1());
+    }
+
+    /**
+     * Fills the row of a non-terminal from the PREDICT sets of its productions.
+     *
+     * @param ir          integer-encoded grammar
+     * @param nonTerminal id of the row's non-terminal
+     * @param predictSets PREDICT set of each production, indexed by production id
+     * @param table       table whose row is filled
+     * @return rules of the row's cells holding several rules, keyed by terminal index
+     */
+    private Map<Integer, int[]> fillRow(
+            GrammarIr ir,
+            int nonTerminal,
+            TerminalSet[] predictSets,
+            Ll1Table table
+    ) {
+        Map<Integer, int[]> conflicts = new TreeMap<>();
+        // Iterate over the row's productions in ascending order to fill its entries
+        for (int p : ir.productionsOf(nonTerminal)) {
+            TerminalSet predictSet = predictSets[p];
+            for (int i = 0; i < predictSet.size(); i++) {
+                int terminal = predictSet.get(i);
+                int existing = table.rule(nonTerminal, terminal);
+                if (existing == Ll1Table.EMPTY) {
+                    table.set(nonTerminal, terminal, p);
+                } else {
+                    // Multiple rules predicting the same terminal are a conflict
+                    int[] rules = conflicts.getOrDefault(terminal, new int[] {existing});
+                    rules = Arrays.copyOf(rules, rules.length + 1);
+                    rules[rules.length - 1] = p;
+                    conflicts.put(terminal, rules);
                 }
             }
         }
+        return conflicts;
+    }
 
-        // Store the completed table and LL(1) status
-        grammar.setLl1Table(ll1Table);
-        grammar.setLl1(isLL1);
+    /**
+     * Copies a row of a previous table with the same columns and rule numbers.
+     *
+     * @param previousTable table of the previous analysis
+     * @param previousRow   row to copy
+     * @param table         table whose row is filled
+     * @param nonTerminal   id of the row's non-terminal
+     * @return rules of the row's cells holding several rules, keyed by terminal index
+     */
+    private Map<Integer, int[]> copyRow(
+            Ll1Table previousTable,
+            int previousRow,
+            Ll1Table table,
+            int nonTerminal
+    ) {
+        Map<Integer, int[]> conflicts = new TreeMap<>();
+        for (int t = 0; t < table.getTerminalCount(); t++) {
+            table.set(nonTerminal, t, previousTable.rule(previousRow, t));
+            if (previousTable.hasConflict(previousRow, t)) {
+                conflicts.put(t, previousTable.rules(previousRow, t));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Packs the table into a comb vector by row displacement. Rows are placed from the
+     * fullest to the emptiest, each at the lowest base where all its filled columns land on
+     * free slots; rows without any rule take no slots and get the default-error base.
+     * The search for a base only tries bases that put the row's first filled column on a
+     * free slot, starting from the lowest free slot, which is tracked as rows are placed.
+     *
+     * @param ir    integer-encoded grammar
+     * @param table dense LL(1) table of the grammar
+     * @return compressed table with its conflict lists and size report
+     */
+    @Override
+    public CompressedLl1Table compressLl1Table(GrammarIr ir, Ll1Table table) {
+        int rows = table.getNonTerminalCount();
+        int columns = table.getTerminalCount();
+        int[][] filled = new int[rows][];
+        int filledCells = 0;
+        for (int a = 0; a < rows; a++) {
+            int[] row = new int[columns];
+            int size = 0;
+            for (int t = 0; t < columns; t++) {
+                if (table.rule(a, t) != Ll1Table.EMPTY) {
+                    row[size++] = t;
+                }
+            }
+            filled[a] = Arrays.copyOf(row, size);
+            filledCells += size;
+        }
+        Integer[] order = new Integer[rows];
+        for (int a = 0; a < rows; a++) {
+            order[a] = a;
+        }
+        // Stable sort, so rows of equal size keep non-terminal order
+        Arrays.sort(order, (x, y) -> Integer.compare(filled[y].length, filled[x].length));
+
+        int[] base = new int[rows];
+        int[] next = new int[Math.max(columns, 1)];
+        int[] check = new int[next.length];
+        Arrays.fill(check, CompressedLl1Table.DEFAULT_ERROR_ROW);
+        int slots = 0;
+        int firstFree = 0;
+        int defaultErrorRows = 0;
+        for (int a : order) {
+            int[] row = filled[a];
+            if (row.length == 0) {
+                base[a] = CompressedLl1Table.DEFAULT_ERROR_ROW;
+                defaultErrorRows++;
+                continue;
+            }
+            // Slots below the first free one are taken, so bases landing there are skipped
+            int slot = nextFree(check, Math.max(firstFree, row[0]));
+            while (!fits(check, slot - row[0], row)) {
+                slot = nextFree(check, slot + 1);
+            }
+            int rowBase = slot - row[0];
+            int end = rowBase + row[row.length - 1] + 1;
+            if (end > next.length) {
+                int capacity = Math.max(end, next.length * 2);
+                int length = check.length;
+                next = Arrays.copyOf(next, capacity);
+                check = Arrays.copyOf(check, capacity);
+                Arrays.fill(check, length, capacity, CompressedLl1Table.DEFAULT_ERROR_ROW);
+            }
+            for (int t : row) {
+                next[rowBase + t] = table.rule(a, t);
+                check[rowBase + t] = a;
+            }
+            base[a] = rowBase;
+            slots = Math.max(slots, end);
+            firstFree = nextFree(check, firstFree);
+        }
+        next = Arrays.copyOf(next, slots);
+        check = Arrays.copyOf(check, slots);
+
+        int[] conflictCells = table.conflictCells();
+        int[][] conflictRules = new int[conflictCells.length][];
+        for (int i = 0; i < conflictCells.length; i++) {
+            conflictRules[i] = table.rules(conflictCells[i] / columns, conflictCells[i] % columns);
+        }
+
+        TableSizeReport report = new TableSizeReport();
+        report.setCells(rows * columns);
+        report.setFilledCells(filledCells);
+        report.setDefaultErrorRows(defaultErrorRows);
+        report.setCompressedSlots(slots);
+        report.setDenseBytes((long) rows * columns * Integer.BYTES);
+        report.setCompressedBytes((long) (rows + 2 * slots) * Integer.BYTES);
+        return new CompressedLl1Table(ir.nonTerminalNames(), terminalNames(ir), base, next,
+                check, conflictCells, conflictRules, report);
+    }
+
+    /**
+     * Checks whether a row placed at the given base lands only on free slots.
+     */
+    private boolean fits(int[] check, int rowBase, int[] filledColumns) {
+        for (int t : filledColumns) {
+            int slot = rowBase + t;
+            if (slot < check.length && check[slot] != CompressedLl1Table.DEFAULT_ERROR_ROW) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first free slot at or after the given one; slots past the end are free.
+     */
+    private int nextFree(int[] check, int slot) {
+        while (slot < check.length && check[slot] != CompressedLl1Table.DEFAULT_ERROR_ROW) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private List<String> terminalNames(GrammarIr ir) {
+        List<String> names = new ArrayList<>(ir.getTerminalCount());
+        for (int t = 0; t < ir.getTerminalCount(); t++) {
+            names.add(ir.terminalName(t));
+        }
+        return names;
     }
 }
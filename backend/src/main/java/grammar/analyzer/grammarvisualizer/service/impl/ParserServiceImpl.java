@@ -0,0 +1,216 @@
+package grammar.analyzer.grammarvisualizer.service.impl;
+
+import grammar.analyzer.grammarvisualizer.model.ParseResult;
+import grammar.analyzer.grammarvisualizer.model.StreamParseResult;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
+import grammar.analyzer.grammarvisualizer.service.ParserService;
+import grammar.analyzer.grammarvisualizer.util.ChannelTokenizer;
+import grammar.analyzer.grammarvisualizer.util.TerminalDictionary;
+import grammar.analyzer.grammarvisualizer.util.TerminalLexer;
+import grammar.analyzer.grammarvisualizer.util.TokenSource;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.stereotype.Service;
+
+/**
+ * Table-driven predictive parser. Tokens are resolved to terminal indices by a
+ * {@link TokenSource} and parsed with an explicit {@code int} stack of symbol ids, without
+ * recursion; the loop over the tokens only reads the table and the production bodies of
+ * the IR and allocates nothing except when the stack has to grow.
+ */
+@Service
+public class ParserServiceImpl implements ParserService {
+    private static final int INITIAL_STACK_SIZE = 64;
+
+    /**
+     * Parses a whitespace-separated token string starting from the first non-terminal.
+     *
+     * @param ir    integer-encoded grammar
+     * @param table LL(1) table of the grammar
+     * @param input tokens separated by whitespace, with or without terminal quotes
+     * @return verdict with the failing position of a rejected sentence
+     */
+    @Override
+    public ParseResult parse(GrammarIr ir, Ll1Table table, String input) {
+        String trimmed = input.trim();
+        String[] words = trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+        int[] tokens = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            tokens[i] = terminalIndex(ir, words[i]);
+        }
+
+        ParseResult result = new ParseResult();
+        result.setTokenCount(words.length);
+        run(ir, table, new ArrayTokenSource(words, tokens, ir.endMarker()), result);
+        return result;
+    }
+
+    /**
+     * Parses the whitespace-separated tokens of a channel as they are read, without holding
+     * the whole input. Files are memory-mapped in windows. Tokens are resolved against the
+     * quoted terminals of the grammar, written with or without their quotes.
+     *
+     * @param ir    integer-encoded grammar
+     * @param table LL(1) table of the grammar
+     * @param input channel holding the tokens
+     * @return verdict with the token count, throughput and peak heap of the run
+     */
+    @Override
+    public StreamParseResult parse(GrammarIr ir, Ll1Table table, ReadableByteChannel input) {
+        long start = System.nanoTime();
+        ChannelTokenizer tokenizer = new ChannelTokenizer(input, TerminalDictionary.of(ir),
+                ir.endMarker());
+        StreamParseResult result = new StreamParseResult();
+        run(ir, table, tokenizer, result);
+
+        long elapsedNanos = System.nanoTime() - start;
+        result.setTokenCount((int) Math.min(tokenizer.getTokenCount(), Integer.MAX_VALUE));
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setTokensPerSecond(elapsedNanos == 0 ? 0
+                : tokenizer.getTokenCount() * 1e9 / elapsedNanos);
+        result.setPeakHeapBytes(tokenizer.getPeakHeapBytes());
+        return result;
+    }
+
+    /**
+     * Parses raw text, reading its terminals from the lexer as the parser needs them.
+     * The token count only covers the tokens read, so for a rejected input it ends at the
+     * failing token.
+     *
+     * @param ir    integer-encoded grammar
+     * @param table LL(1) table of the grammar
+     * @param lexer lexer compiled from the terminals of the grammar
+     * @param text  raw input
+     * @return verdict with the failing position of a rejected input
+     */
+    @Override
+    public ParseResult parse(GrammarIr ir, Ll1Table table, TerminalLexer lexer,
+                             CharSequence text) {
+        TerminalLexer.Scanner scanner = lexer.scan(text, ir.endMarker());
+        ParseResult result = new ParseResult();
+        run(ir, table, scanner, result);
+        result.setTokenCount((int) Math.min(scanner.getTokenCount(), Integer.MAX_VALUE));
+        return result;
+    }
+
+    /**
+     * Runs the predictive parser over a token source, starting from the first non-terminal.
+     * Reaching a cell holding several rules rejects the input at the current token: any
+     * choice could expand a left-recursive non-terminal forever without consuming input.
+     *
+     * @param ir     integer-encoded grammar
+     * @param table  LL(1) table of the grammar
+     * @param source tokens resolved to terminal indices
+     * @param result verdict to fill in
+     */
+    private void run(GrammarIr ir, Ll1Table table, TokenSource source, ParseResult result) {
+        boolean ll1 = table.isLl1();
+        result.setLl1(ll1);
+        int nonTerminals = ir.getNonTerminalCount();
+        int endSymbol = nonTerminals + ir.endMarker();
+        int[] stack = new int[INITIAL_STACK_SIZE];
+        int top = 0;
+        stack[top++] = endSymbol;
+        stack[top++] = 0;
+        int position = 0;
+        int lookahead = source.next();
+        while (true) {
+            int symbol = stack[--top];
+            if (symbol < nonTerminals) {
+                int production = lookahead < 0 ? Ll1Table.EMPTY : table.rule(symbol, lookahead);
+                if (production == Ll1Table.EMPTY) {
+                    reject(ir, table, symbol, source, position, result);
+                    return;
+                }
+                if (!ll1 && table.hasConflict(symbol, lookahead)) {
+                    reject(ir, table, symbol, source, position, result);
+                    result.setConflict(table.describeConflict(ir, symbol, lookahead));
+                    return;
+                }
+                // Push the body right to left, so its first symbol is on top
+                int[] body = ir.rhs(production);
+                if (top + body.length > stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + body.length));
+                }
+                for (int i = body.length - 1; i >= 0; i--) {
+                    stack[top++] = body[i];
+                }
+            } else if (symbol - nonTerminals != lookahead) {
+                reject(ir, table, symbol, source, position, result);
+                return;
+            } else if (symbol == endSymbol) {
+                result.setAccepted(true);
+                return;
+            } else {
+                position++;
+                lookahead = source.next();
+            }
+        }
+    }
+
+    /**
+     * Resolves a token to its terminal index, accepting the terminal name with or
+     * without quotes.
+     *
+     * @return terminal index, or -1 for a token that is not a terminal of the grammar
+     */
+    private int terminalIndex(GrammarIr ir, String token) {
+        int index = ir.lookaheadIndex(token);
+        if (index < 0) {
+            index = ir.lookaheadIndex("'" + token + "'");
+        }
+        // Neither ε nor the end marker can appear in the input
+        return index >= 0 && index < ir.endMarker() ? index : -1;
+    }
+
+    /**
+     * Records the failing token and the terminals expected for the symbol on top.
+     */
+    private void reject(GrammarIr ir, Ll1Table table, int symbol, TokenSource source,
+                        int position, ParseResult result) {
+        List<String> expected = new ArrayList<>();
+        if (ir.isNonTerminal(symbol)) {
+            for (int t = 0; t < ir.getTerminalCount(); t++) {
+                if (table.rule(symbol, t) != Ll1Table.EMPTY) {
+                    expected.add(ir.terminalName(t));
+                }
+            }
+        } else {
+            expected.add(ir.symbolName(symbol));
+        }
+        result.setAccepted(false);
+        result.setErrorPosition(position);
+        result.setErrorToken(source.lastToken());
+        result.setExpected(expected);
+    }
+
+    /**
+     * Tokens of a sentence already resolved to terminal indices.
+     */
+    private static final class ArrayTokenSource implements TokenSource {
+        private final String[] words;
+        private final int[] tokens;
+        private final int endMarker;
+        private int position = -1;
+
+        private ArrayTokenSource(String[] words, int[] tokens, int endMarker) {
+            this.words = words;
+            this.tokens = tokens;
+            this.endMarker = endMarker;
+        }
+
+        @Override
+        public int next() {
+            position++;
+            return position < tokens.length ? tokens[position] : endMarker;
+        }
+
+        @Override
+        public String lastToken() {
+            return position < words.length ? words[position] : "$";
+        }
+    }
+}
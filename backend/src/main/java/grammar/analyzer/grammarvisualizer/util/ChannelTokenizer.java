@@ -0,0 +1,175 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongSupplier;
+
+/**
+ * Token source reading whitespace-separated tokens from a byte channel without ever
+ * holding the whole input. Files are memory-mapped in windows; other channels are read
+ * through one reused direct buffer. Token bytes are copied into a scratch array sized for
+ * the longest terminal and resolved by {@link TerminalDictionary}, so no objects are
+ * created per token.
+ *
+ * <p>The heap in use is sampled when the tokenizer is created, whenever a new window or
+ * buffer is loaded, every {@link #HEAP_SAMPLE_INTERVAL} tokens and at the end of input.
+ * A sample is the JVM-wide used heap, so it includes garbage not yet collected and the
+ * allocations of other threads; the largest sample is thus an upper bound of the heap
+ * this run needed at those moments rather than its own footprint, and a short-lived
+ * peak between two samples is missed.</p>
+ */
+public class ChannelTokenizer implements TokenSource {
+    static final int BUFFER_SIZE = 1 << 16;
+    static final long MAP_WINDOW = 1L << 26;
+    static final int HEAP_SAMPLE_INTERVAL = 1 << 12;
+
+    private final ReadableByteChannel channel;
+    private final FileChannel file;
+    private final TerminalDictionary dictionary;
+    private final int endMarker;
+    private final LongSupplier heapUsed;
+    private final byte[] token;
+    private ByteBuffer buffer;
+    private long filePosition;
+    private int length;
+    private boolean truncated;
+    private long tokenCount;
+    private long peakHeapBytes;
+
+    /**
+     * Creates a tokenizer reading from the channel's current position.
+     *
+     * @param channel    input; a {@link FileChannel} is memory-mapped
+     * @param dictionary terminals of the grammar
+     * @param endMarker  terminal index returned once the input is exhausted
+     */
+    public ChannelTokenizer(ReadableByteChannel channel, TerminalDictionary dictionary,
+                            int endMarker) {
+        this(channel, dictionary, endMarker, () -> {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        });
+    }
+
+    /**
+     * Creates a tokenizer taking its heap samples from the given probe.
+     */
+    ChannelTokenizer(ReadableByteChannel channel, TerminalDictionary dictionary,
+                     int endMarker, LongSupplier heapUsed) {
+        this.channel = channel;
+        this.dictionary = dictionary;
+        this.endMarker = endMarker;
+        this.heapUsed = heapUsed;
+        this.token = new byte[Math.max(dictionary.getMaxLength(), 1)];
+        try {
+            if (channel instanceof FileChannel fileChannel) {
+                this.file = fileChannel;
+                this.filePosition = fileChannel.position();
+                this.buffer = ByteBuffer.allocate(0);
+            } else {
+                this.file = null;
+                this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).limit(0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        sampleHeap();
+    }
+
+    @Override
+    public int next() {
+        length = 0;
+        truncated = false;
+        int hash = TerminalDictionary.initialHash();
+        while (true) {
+            if (!buffer.hasRemaining() && !refill()) {
+                break;
+            }
+            byte b = buffer.get();
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f') {
+                if (length > 0 || truncated) {
+                    break;
+                }
+                continue;
+            }
+            if (length < token.length) {
+                token[length++] = b;
+                hash = TerminalDictionary.hash(hash, b);
+            } else {
+                truncated = true;
+            }
+        }
+        if (length == 0 && !truncated) {
+            sampleHeap();
+            return endMarker;
+        }
+        if (++tokenCount % HEAP_SAMPLE_INTERVAL == 0) {
+            sampleHeap();
+        }
+        return truncated ? -1 : dictionary.lookup(token, length, hash);
+    }
+
+    @Override
+    public String lastToken() {
+        if (length == 0 && !truncated) {
+            return "$";
+        }
+        String text = new String(token, 0, length, StandardCharsets.UTF_8);
+        return truncated ? text + "..." : text;
+    }
+
+    /**
+     * Returns the number of tokens read so far, not counting the end of input.
+     */
+    public long getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Returns the largest JVM-wide heap use sampled so far, in bytes.
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    /**
+     * Loads the next window of a file or the next block of another channel.
+     *
+     * @return false at the end of input
+     */
+    private boolean refill() {
+        try {
+            if (file != null) {
+                long remaining = file.size() - filePosition;
+                if (remaining <= 0) {
+                    return false;
+                }
+                long window = Math.min(MAP_WINDOW, remaining);
+                buffer = file.map(FileChannel.MapMode.READ_ONLY, filePosition, window);
+                filePosition += window;
+            } else {
+                buffer.clear();
+                int read;
+                do {
+                    read = channel.read(buffer);
+                } while (read == 0);
+                buffer.flip();
+                if (read < 0) {
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        sampleHeap();
+        return true;
+    }
+
+    private void sampleHeap() {
+        peakHeapBytes = Math.max(peakHeapBytes, heapUsed.getAsLong());
+    }
+}
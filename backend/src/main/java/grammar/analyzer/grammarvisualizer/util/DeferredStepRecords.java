@@ -0,0 +1,75 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-only list of the steps of an analysis that are only computed when first read.
+ * Used when the sets of an analysis were obtained without running the tracing
+ * calculators, e.g. by an incremental re-analysis, so that the trace is only paid for
+ * when the steps are actually viewed.
+ */
+public class DeferredStepRecords extends AbstractList<StepRecord> {
+    private final Supplier<List<StepRecord>> supplier;
+    private volatile List<StepRecord> steps;
+    private volatile Runnable resolveListener;
+
+    /**
+     * Creates the list.
+     *
+     * @param supplier runs the calculator and returns its step records
+     */
+    public DeferredStepRecords(Supplier<List<StepRecord>> supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public StepRecord get(int index) {
+        return steps().get(index);
+    }
+
+    @Override
+    public int size() {
+        return steps().size();
+    }
+
+    /**
+     * Returns the step records if they have been computed already, or {@code null}.
+     */
+    public List<StepRecord> getResolved() {
+        return steps;
+    }
+
+    /**
+     * Sets a callback run once the step records have been computed, e.g. to account for
+     * the memory they hold. It runs on the reading thread, outside the list's lock.
+     *
+     * @param resolveListener callback, or {@code null} for none
+     */
+    public void setResolveListener(Runnable resolveListener) {
+        this.resolveListener = resolveListener;
+    }
+
+    private List<StepRecord> steps() {
+        List<StepRecord> result = steps;
+        if (result != null) {
+            return result;
+        }
+        boolean resolved = false;
+        synchronized (this) {
+            result = steps;
+            if (result == null) {
+                result = supplier.get();
+                steps = result;
+                resolved = true;
+            }
+        }
+        Runnable listener = resolveListener;
+        if (resolved && listener != null) {
+            listener.run();
+        }
+        return result;
+    }
+}
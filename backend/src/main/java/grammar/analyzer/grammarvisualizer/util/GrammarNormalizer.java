@@ -0,0 +1,61 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility class bringing grammar input into a canonical text form, so that submissions
+ * differing only in escape sequences or whitespace are analyzed identically and share
+ * one cache entry.
+ */
+public class GrammarNormalizer {
+    /**
+     * Rewrites the escape sequences {@code \eps}, {@code \to} and {@code \mid}, and collapses
+     * whitespace: runs of spaces and tabs become a single space and every line is trimmed.
+     * Line breaks are kept, since each line is a separate rule; trailing empty lines
+     * are dropped.
+     *
+     * @param grammarInput raw grammar text; may be null
+     * @return normalized grammar text, or an empty string for null input
+     */
+    public static String normalize(String grammarInput) {
+        if (grammarInput == null) {
+            return "";
+        }
+        String rewritten = grammarInput
+                .replace("\\eps", "epsilon")
+                .replace("\\to", "->")
+                .replace("\\mid", "|");
+        String[] lines = rewritten.split("\r?\n");
+        StringBuilder normalized = new StringBuilder(rewritten.length());
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                normalized.append('\n');
+            }
+            normalized.append(lines[i].trim().replaceAll("\\s+", " "));
+        }
+        // Trailing blank lines carry no rules
+        int end = normalized.length();
+        while (end > 0 && normalized.charAt(end - 1) == '\n') {
+            end--;
+        }
+        return normalized.substring(0, end);
+    }
+
+    /**
+     * Computes a SHA-256 hash of the given text, used as a compact cache key.
+     *
+     * @param text text to hash, typically a normalized grammar
+     * @return lowercase hexadecimal hash
+     */
+    public static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single-pass scanner and parser of BNF grammar text. The raw input is read once: escape
+ * sequences are resolved and whitespace is collapsed on the fly, exactly as
+ * {@link GrammarNormalizer} does, and every alternative is appended straight to the
+ * productions of its non-terminal. Bodies that are already normalized in the input are
+ * taken as substrings, so most rules cost one string per alternative.
+ *
+ * <p>A malformed rule does not stop the scan: every error is collected with its line and
+ * column, and non-terminals used without a definition are found by hash lookups once the
+ * whole grammar is read. Input containing EBNF constructs is detected up front, without
+ * scanning its rules, since its productions come from the EBNF lowering. One scanner
+ * reads one grammar.</p>
+ */
+public class GrammarScanner {
+    private static final int SYMBOL = 0;
+    private static final int ARROW = 1;
+    private static final int BAR = 2;
+    private static final int END = 3;
+
+    private final String source;
+    private final int limit;
+    private final Map<String, List<String>> productionRules = new LinkedHashMap<>();
+    private final Map<String, Long> firstUse = new LinkedHashMap<>();
+    private final List<String> errors = new ArrayList<>();
+    private final StringBuilder body = new StringBuilder();
+    private final boolean ebnf;
+
+    private int pos;
+    private int line = 1;
+    private int lineStart;
+    private int tokenType;
+    private int tokenStart;
+    private int tokenEnd;
+    private boolean tokenEscaped;
+
+    /**
+     * Creates a scanner of raw grammar input.
+     *
+     * @param grammarInput grammar text as submitted; may be null
+     */
+    public GrammarScanner(String grammarInput) {
+        source = grammarInput == null ? "" : grammarInput;
+        // Trailing blank lines carry no rules
+        int end = source.length();
+        while (end > 0 && source.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        limit = end;
+        // Brackets are neither whitespace, bars nor arrows, so they can only be in symbols
+        boolean brackets = false;
+        for (int i = 0; i < limit && !brackets; i++) {
+            char c = source.charAt(i);
+            brackets = c == '{' || c == '[' || c == '(';
+        }
+        ebnf = brackets;
+    }
+
+    /**
+     * Reads the whole grammar, one rule per line.
+     *
+     * @return ordered map of non-terminals to their production bodies, holding every
+     *         non-terminal with a valid left-hand side even if its rule has errors
+     */
+    public Map<String, List<String>> scan() {
+        do {
+            scanRule();
+        } while (nextLine());
+        return productionRules;
+    }
+
+    /**
+     * Returns whether the input contains the EBNF constructs {@code {}}, {@code []} or
+     * {@code ()}, in which case its productions have to be lowered instead of scanned.
+     * Known as soon as the scanner is created.
+     */
+    public boolean hasEbnfConstructs() {
+        return ebnf;
+    }
+
+    /**
+     * Returns the syntax errors of the scanned rules in input order, each prefixed
+     * with its position.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Finds the non-terminals used in productions but never defined. For BNF input they
+     * are reported in order of their first use, at its position; lowered EBNF productions
+     * are checked in map order, at the first occurrence of the symbol in the input if
+     * there is one.
+     *
+     * @param productions productions of the grammar, scanned or lowered
+     * @return one error per undefined non-terminal
+     */
+    public List<String> findUndefined(Map<String, List<String>> productions) {
+        List<String> undefined = new ArrayList<>();
+        if (!ebnf) {
+            for (Map.Entry<String, Long> use : firstUse.entrySet()) {
+                if (!productions.containsKey(use.getKey())) {
+                    undefined.add(undefinedError(use.getKey()));
+                }
+            }
+            return undefined;
+        }
+        Set<String> reported = new HashSet<>();
+        for (List<String> alternatives : productions.values()) {
+            for (String alternative : alternatives) {
+                int start = 0;
+                while (start < alternative.length()) {
+                    int end = alternative.indexOf(' ', start);
+                    if (end == -1) {
+                        end = alternative.length();
+                    }
+                    if (end > start && isNonTerminalUse(alternative, start, end)) {
+                        String symbol = alternative.substring(start, end);
+                        if (!productions.containsKey(symbol) && reported.add(symbol)) {
+                            undefined.add(undefinedError(symbol));
+                        }
+                    }
+                    start = end + 1;
+                }
+            }
+        }
+        return undefined;
+    }
+
+    /**
+     * Checks that a symbol is a valid non-terminal name: a letter or underscore followed
+     * by letters, digits, underscores or primes (e.g. A, S', Expr).
+     *
+     * @param symbol symbol text
+     * @return true if the symbol can stand on the left-hand side of a rule
+     */
+    public static boolean isNonTerminal(String symbol) {
+        if (symbol.isEmpty()) {
+            return false;
+        }
+        char first = symbol.charAt(0);
+        if (!isLetter(first) && first != '_') {
+            return false;
+        }
+        for (int i = 1; i < symbol.length(); i++) {
+            char c = symbol.charAt(i);
+            if (!isLetter(c) && !(c >= '0' && c <= '9') && c != '_' && c != '\'') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the rule on the current line: the left-hand side up to the arrow, then the
+     * alternatives separated by bars.
+     */
+    private void scanRule() {
+        int ruleStart = lineStart;
+        nextToken();
+        int lhsCount = 0;
+        boolean lhsBar = false;
+        int lhsColumn = 0;
+        String lhs = null;
+        while (tokenType == SYMBOL || tokenType == BAR) {
+            if (lhsCount++ == 0) {
+                lhsColumn = column(tokenStart);
+                lhs = tokenType == SYMBOL ? tokenText() : null;
+            }
+            lhsBar |= tokenType == BAR;
+            nextToken();
+        }
+        if (tokenType == END) {
+            error(lhsCount == 0 ? 1 : lhsColumn, "Invalid syntax: each rule "
+                    + "must contain '->'. Rule: " + ruleText(ruleStart));
+            return;
+        }
+
+        // Validate non-terminal on LHS
+        List<String> productions = null;
+        if (lhsCount == 1 && !lhsBar && lhs != null && isNonTerminal(lhs)) {
+            productions = productionRules.computeIfAbsent(lhs, k -> new ArrayList<>());
+        } else {
+            error(lhsCount == 0 ? column(tokenStart) : lhsColumn, "Invalid syntax: "
+                    + "left-hand side of the rule must be a valid non-terminal "
+                    + "(e.g., A, S', Expr). Rule: " + ruleText(ruleStart));
+        }
+
+        // Collect alternatives until the end of the line
+        nextToken();
+        while (true) {
+            String alternative = scanAlternative();
+            if (alternative == null) {
+                error(column(tokenStart), "Empty alternative is not allowed. "
+                        + "Use 'epsilon' explicitly if needed");
+            } else if (productions != null) {
+                productions.add(alternative);
+            }
+            if (tokenType == ARROW) {
+                error(column(tokenStart), "Invalid syntax: exactly one '->' "
+                        + "expected in each rule. Rule: " + ruleText(ruleStart));
+                return;
+            }
+            if (tokenType == END) {
+                return;
+            }
+            nextToken();
+        }
+    }
+
+    /**
+     * Reads the symbols of one alternative and records the non-terminals it uses.
+     *
+     * @return the symbols joined by single spaces, or null if the alternative is empty
+     */
+    private String scanAlternative() {
+        int count = 0;
+        int first = 0;
+        int previousEnd = 0;
+        boolean simple = true;
+        while (tokenType == SYMBOL) {
+            recordUse();
+            if (count == 0) {
+                first = tokenStart;
+                simple = !tokenEscaped;
+                if (!simple) {
+                    body.setLength(0);
+                    appendToken(body);
+                }
+            } else {
+                // Copy the body once its input text stops being normalized
+                if (simple && (tokenEscaped || tokenStart != previousEnd + 1
+                        || source.charAt(previousEnd) != ' ')) {
+                    simple = false;
+                    body.setLength(0);
+                    body.append(source, first, previousEnd);
+                }
+                if (!simple) {
+                    appendToken(body.append(' '));
+                }
+            }
+            previousEnd = tokenEnd;
+            count++;
+            nextToken();
+        }
+        if (count == 0) {
+            return null;
+        }
+        return simple ? source.substring(first, previousEnd) : body.toString();
+    }
+
+    /**
+     * Remembers the first position of the current symbol if it is a non-terminal.
+     */
+    private void recordUse() {
+        String symbol = null;
+        if (tokenEscaped) {
+            symbol = tokenText();
+            if (!isNonTerminalUse(symbol, 0, symbol.length())) {
+                return;
+            }
+        } else if (!isNonTerminalUse(source, tokenStart, tokenEnd)) {
+            return;
+        }
+        if (symbol == null) {
+            symbol = source.substring(tokenStart, tokenEnd);
+        }
+        if (!firstUse.containsKey(symbol)) {
+            firstUse.put(symbol, (long) line << 32 | column(tokenStart));
+        }
+    }
+
+    /**
+     * Reads the next token of the current line, skipping whitespace. Escape sequences
+     * stand for the arrow and the bar; {@code \eps} is expanded inside symbols.
+     */
+    private void nextToken() {
+        while (pos < limit && source.charAt(pos) <= ' ' && source.charAt(pos) != '\n') {
+            pos++;
+        }
+        tokenStart = pos;
+        tokenEscaped = false;
+        if (pos >= limit || source.charAt(pos) == '\n') {
+            tokenType = END;
+        } else if (source.startsWith("->", pos) || source.startsWith("\\to", pos)) {
+            tokenType = ARROW;
+            pos += source.charAt(pos) == '-' ? 2 : 3;
+        } else if (source.charAt(pos) == '|' || source.startsWith("\\mid", pos)) {
+            tokenType = BAR;
+            pos += source.charAt(pos) == '|' ? 1 : 4;
+        } else {
+            tokenType = SYMBOL;
+            scanSymbol();
+        }
+        tokenEnd = pos;
+    }
+
+    /**
+     * Advances over a symbol, which ends at whitespace, a bar or an arrow.
+     */
+    private void scanSymbol() {
+        while (pos < limit) {
+            char c = source.charAt(pos);
+            if (c <= ' ' || c == '|' || source.startsWith("->", pos)) {
+                return;
+            }
+            if (c == '\\') {
+                if (source.startsWith("\\to", pos) || source.startsWith("\\mid", pos)) {
+                    return;
+                }
+                if (source.startsWith("\\eps", pos)) {
+                    tokenEscaped = true;
+                    pos += 4;
+                    continue;
+                }
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Moves to the start of the next line.
+     *
+     * @return false if the input is exhausted
+     */
+    private boolean nextLine() {
+        while (pos < limit && source.charAt(pos) != '\n') {
+            pos++;
+        }
+        if (pos >= limit) {
+            return false;
+        }
+        lineStart = ++pos;
+        line++;
+        return true;
+    }
+
+    private String tokenText() {
+        if (!tokenEscaped) {
+            return source.substring(tokenStart, tokenEnd);
+        }
+        StringBuilder text = new StringBuilder(tokenEnd - tokenStart + 3);
+        appendToken(text);
+        return text.toString();
+    }
+
+    private void appendToken(StringBuilder out) {
+        for (int i = tokenStart; i < tokenEnd; i++) {
+            if (source.startsWith("\\eps", i)) {
+                out.append("epsilon");
+                i += 3;
+            } else {
+                out.append(source.charAt(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the normalized text of the rule starting at the given offset, for messages.
+     */
+    private String ruleText(int ruleStart) {
+        int end = source.indexOf('\n', ruleStart);
+        return GrammarNormalizer.normalize(
+                source.substring(ruleStart, end == -1 || end > limit ? limit : end));
+    }
+
+    private int column(int offset) {
+        return offset - lineStart + 1;
+    }
+
+    private void error(int column, String message) {
+        errors.add(at(line, column, message));
+    }
+
+    private String undefinedError(String symbol) {
+        String message = "Undefined non-terminal(s): " + symbol;
+        Long position = ebnf ? locate(symbol) : firstUse.get(symbol);
+        return position == null ? message
+                : at((int) (position >>> 32), (int) (long) position, message);
+    }
+
+    /**
+     * Finds the first occurrence of a symbol in unscanned EBNF input, delimited by
+     * whitespace, brackets, bars or the arrow.
+     *
+     * @return line and column packed into one long, or null if the symbol does not occur
+     */
+    private Long locate(String symbol) {
+        for (int i = source.indexOf(symbol); i != -1 && i < limit;
+             i = source.indexOf(symbol, i + 1)) {
+            int end = i + symbol.length();
+            boolean before = i == 0 || isDelimiter(source.charAt(i - 1))
+                    || source.charAt(i - 1) == '>';
+            boolean after = end == source.length() || isDelimiter(source.charAt(end));
+            if (before && after) {
+                int start = source.lastIndexOf('\n', i) + 1;
+                int lineNumber = 1;
+                for (int j = source.indexOf('\n'); j != -1 && j < i;
+                     j = source.indexOf('\n', j + 1)) {
+                    lineNumber++;
+                }
+                return (long) lineNumber << 32 | (i - start + 1);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c <= ' ' || "|{}[]()".indexOf(c) != -1;
+    }
+
+    private static String at(int line, int column, String message) {
+        return "Line " + line + ", column " + column + ": " + message;
+    }
+
+    private static boolean isNonTerminalUse(String text, int start, int end) {
+        boolean terminal = text.charAt(start) == '\'' && text.charAt(end - 1) == '\'';
+        boolean epsilon = end - start == 7 && text.startsWith("epsilon", start);
+        return !terminal && !epsilon;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+}
@@ -1,63 +1,49 @@
 package grammar.analyzer.grammarvisualizer.util;
 
-import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.Set;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 
 /**
- * Utility class providing methods to compute FIRST sets for symbols and symbol sequences.
+ * Utility class providing the FIRST set of a symbol sequence on the grammar IR, as used
+ * once FIRST sets are stable.
  */
 public class GrammarUtils {
     /**
-     * Computes the FIRST set for a single symbol.
+     * Computes FIRST of the encoded symbol sequence {@code symbols[from..]} on the grammar IR.
+     * Adds FIRST of each symbol without ε, moving on only while the symbol is nullable;
+     * ε is added when every symbol of the sequence derives ε, so an empty one yields {ε}.
      *
-     * @param symbol       the symbol for which to compute FIRST
-     * @param firstSets    the map of existing FIRST sets
-     * @return the FIRST set for the given symbol
+     * @param ir          integer-encoded grammar
+     * @param symbols     encoded symbol sequence
+     * @param from        index of the first symbol to consider
+     * @param firstSets   FIRST sets indexed by non-terminal id
+     * @param nullability precomputed nullable non-terminals
+     * @param result      set to accumulate FIRST(symbols[from..]) into
+     * @return the {@code result} set
      */
-    public static Set<String> computeFirstOfSymbol(
-            String symbol,
-            Map<String, Set<String>> firstSets
+    public static TerminalSet computeFirstOfSequence(
+            GrammarIr ir,
+            int[] symbols,
+            int from,
+            TerminalSet[] firstSets,
+            Nullability nullability,
+            TerminalSet result
     ) {
-        if (symbol.startsWith("'") && symbol.endsWith("'")) {
-            return Set.of(symbol);
-        } else if ("epsilon".equals(symbol)) {
-            return Set.of("ε");
-        } else {
-            return firstSets.getOrDefault(symbol, Set.of());
-        }
-    }
-
-    /**
-     * Computes the FIRST set for a sequence of grammar symbols (α).
-     * Iterates symbols, adding their FIRST sets, stopping when ε is not present.
-     * If all symbols derive ε, ε is included in the result.
-     *
-     * @param alpha     array of grammar symbols (terminals or non-terminals)
-     * @param firstSets map of non-terminals to their FIRST sets
-     * @return set of terminals representing FIRST(α)
-     */
-    public static Set<String> computeFirstOfAlpha(
-            String[] alpha,
-            Map<String, Set<String>> firstSets
-    ) {
-        if (alpha.length == 0) {
-            return Set.of("ε");
-        }
-        Set<String> result = new LinkedHashSet<>();
-        for (int i = 0; i < alpha.length; i++) {
-            String cur = alpha[i];
-            Set<String> firstSet = computeFirstOfSymbol(cur, firstSets);
-            result.addAll(firstSet);
-            if (!firstSet.contains("ε")) {
-                break;
+        int epsilon = ir.epsilon();
+        for (int i = from; i < symbols.length; i++) {
+            int symbol = symbols[i];
+            if (!ir.isNonTerminal(symbol)) {
+                // A terminal never derives ε, so it ends the sequence
+                result.add(ir.terminalIndex(symbol));
+                return result;
             }
-            if (i == alpha.length - 1 && firstSet.contains("ε")) {
-                result.add("ε");
-            } else {
-                result.remove("ε");
+            result.addAllExcept(firstSets[symbol], epsilon);
+            if (!nullability.isNullable(symbol)) {
+                return result;
             }
         }
+        result.add(epsilon);
         return result;
     }
 }
@@ -0,0 +1,105 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Read-only list of the steps of an analysis that keeps only loop-state checkpoints
+ * of the calculator instead of the steps themselves. Steps are materialized one page
+ * at a time by re-running the calculator from the nearest checkpoint before the page;
+ * the last page is cached, so stepping through a trace replays each page once.
+ * Every returned StepRecord is a checkpoint carrying its full intermediate sets.
+ */
+public class LazyStepRecords extends AbstractList<StepRecord> {
+    private static final int PAGE_SIZE = StepRecorder.CHECKPOINT_INTERVAL;
+
+    private final int size;
+    private final List<StepRecorder.Checkpoint> checkpoints;
+    private final StepRecorder.Replayer replayer;
+    private int pageStart = -1;
+    private volatile List<StepRecord> page;
+    private volatile Runnable pageListener;
+
+    /**
+     * Creates the list.
+     *
+     * @param size        total number of steps of the analysis
+     * @param checkpoints loop-state checkpoints ordered by step index
+     * @param replayer    re-runs the calculator for a window of steps
+     */
+    public LazyStepRecords(int size, List<StepRecorder.Checkpoint> checkpoints,
+                           StepRecorder.Replayer replayer) {
+        this.size = size;
+        this.checkpoints = checkpoints;
+        this.replayer = replayer;
+    }
+
+    @Override
+    public StepRecord get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int start = index - index % PAGE_SIZE;
+        List<StepRecord> steps;
+        boolean loaded = false;
+        synchronized (this) {
+            if (start != pageStart) {
+                page = replayer.replay(nearestCheckpoint(start), start,
+                        Math.min(start + PAGE_SIZE, size));
+                pageStart = start;
+                loaded = true;
+            }
+            steps = page;
+        }
+        Runnable listener = pageListener;
+        if (loaded && listener != null) {
+            listener.run();
+        }
+        StepRecord step = steps.get(index - start);
+        return new StepRecord(step.getDescription(),
+                StepRecorder.snapshotAt(steps, index - start), step.getPseudocodeLine());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of loop-state checkpoints the steps are replayed from.
+     */
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    /**
+     * Returns the number of steps of the cached page, 0 before any step has been read.
+     */
+    public int getCachedStepCount() {
+        List<StepRecord> steps = page;
+        return steps == null ? 0 : steps.size();
+    }
+
+    /**
+     * Sets a callback run whenever a page of steps has been replayed and replaces the
+     * cached one, e.g. to account for the memory it holds. It runs on the reading
+     * thread, outside the list's lock.
+     *
+     * @param pageListener callback, or {@code null} for none
+     */
+    public void setPageListener(Runnable pageListener) {
+        this.pageListener = pageListener;
+    }
+
+    private StepRecorder.Checkpoint nearestCheckpoint(int index) {
+        StepRecorder.Checkpoint nearest = null;
+        for (StepRecorder.Checkpoint checkpoint : checkpoints) {
+            if (checkpoint.stepIndex() > index) {
+                break;
+            }
+            nearest = checkpoint;
+        }
+        return nearest;
+    }
+}
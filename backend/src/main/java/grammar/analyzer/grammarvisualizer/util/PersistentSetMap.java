@@ -0,0 +1,252 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable, insertion-ordered map from symbol names to sets of symbol names, used for the
+ * intermediate results of analysis steps. Updating a key returns a new map that shares
+ * every other entry, and most of the internal structure, with the original, so consecutive
+ * snapshots cost O(changed entries) instead of a deep copy of all sets.
+ *
+ * <p>Keys are located through a hash array mapped trie (HAMT) that stores each key's
+ * insertion position; entries live in a persistent 32-way vector indexed by that position,
+ * which keeps iteration in insertion order. Since it is a regular {@link Map}, it
+ * serializes exactly like a {@code LinkedHashMap} of {@code LinkedHashSet}s.
+ */
+public final class PersistentSetMap extends AbstractMap<String, Set<String>> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentSetMap EMPTY =
+            new PersistentSetMap(HamtNode.EMPTY, new Object[WIDTH], 0, 0);
+
+    private final HamtNode index;
+    private final Object[] entries;
+    private final int shift;
+    private final int size;
+
+    private PersistentSetMap(HamtNode index, Object[] entries, int shift, int size) {
+        this.index = index;
+        this.entries = entries;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     */
+    public static PersistentSetMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns a persistent map with the same entries, in the same order, as the given map.
+     *
+     * @param map map to convert; returned as is when already persistent
+     * @return persistent map with copies of the given sets
+     */
+    public static PersistentSetMap copyOf(Map<String, ? extends Collection<String>> map) {
+        if (map instanceof PersistentSetMap persistent) {
+            return persistent;
+        }
+        PersistentSetMap result = EMPTY;
+        for (Map.Entry<String, ? extends Collection<String>> entry : map.entrySet()) {
+            result = result.with(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a map in which the given key is associated with the given set. An existing
+     * key keeps its position; a new key is appended. The set is exposed read-only and must
+     * not be modified by the caller afterwards.
+     *
+     * @param key   key to associate
+     * @param value set to associate with the key
+     * @return updated map sharing all other entries with this one
+     */
+    public PersistentSetMap with(String key, Set<String> value) {
+        Map.Entry<String, Set<String>> entry =
+                new SimpleImmutableEntry<>(key, Collections.unmodifiableSet(value));
+        int hash = key.hashCode();
+        int position = index.find(key, hash, 0);
+        if (position >= 0) {
+            return new PersistentSetMap(index, assoc(entries, shift, position, entry),
+                    shift, size);
+        }
+        Object[] root = entries;
+        int rootShift = shift;
+        if (size == 1 << (shift + BITS)) {
+            // The vector is full: grow it by one level, the old root becomes the first child
+            root = new Object[WIDTH];
+            root[0] = entries;
+            rootShift += BITS;
+        }
+        return new PersistentSetMap(index.insert(new HamtLeaf(key, hash, size), 0),
+                assoc(root, rootShift, size, entry), rootShift, size + 1);
+    }
+
+    @Override
+    public Set<String> get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        int position = index.find(name, name.hashCode(), 0);
+        return position < 0 ? null : entryAt(position).getValue();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String name && index.find(name, name.hashCode(), 0) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Set<String>>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Set<String>>> iterator() {
+                return new Iterator<>() {
+                    private int position;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < size;
+                    }
+
+                    @Override
+                    public Entry<String, Set<String>> next() {
+                        if (position >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        return entryAt(position++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry<String, Set<String>> entryAt(int position) {
+        Object[] node = entries;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(position >>> level) & MASK];
+        }
+        return (Entry<String, Set<String>>) node[position & MASK];
+    }
+
+    /**
+     * Copies the path from a vector node down to the given position and stores the value.
+     */
+    private static Object[] assoc(Object[] node, int level, int position, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (level == 0) {
+            copy[position & MASK] = value;
+        } else {
+            int slot = (position >>> level) & MASK;
+            copy[slot] = assoc((Object[]) copy[slot], level - BITS, position, value);
+        }
+        return copy;
+    }
+
+    /**
+     * Key of the HAMT together with its insertion position.
+     */
+    private record HamtLeaf(String key, int hash, int position) {
+    }
+
+    /**
+     * Keys whose full 32-bit hashes are equal.
+     */
+    private record HamtCollision(int hash, HamtLeaf[] leaves) {
+    }
+
+    /**
+     * HAMT node holding a slot only for the hash fragments present in its bitmap;
+     * each slot is a {@link HamtLeaf}, a {@link HamtCollision} or a child node.
+     */
+    private record HamtNode(int bitmap, Object[] slots) {
+        static final HamtNode EMPTY = new HamtNode(0, new Object[0]);
+
+        int find(String key, int hash, int level) {
+            int bit = 1 << ((hash >>> level) & MASK);
+            if ((bitmap & bit) == 0) {
+                return -1;
+            }
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if (slot instanceof HamtNode child) {
+                return child.find(key, hash, level + BITS);
+            }
+            if (slot instanceof HamtCollision collision) {
+                for (HamtLeaf leaf : collision.leaves()) {
+                    if (leaf.key().equals(key)) {
+                        return leaf.position();
+                    }
+                }
+                return -1;
+            }
+            HamtLeaf leaf = (HamtLeaf) slot;
+            return leaf.key().equals(key) ? leaf.position() : -1;
+        }
+
+        /**
+         * Returns a node that additionally holds the given leaf, whose key must be absent.
+         */
+        HamtNode insert(HamtLeaf leaf, int level) {
+            int bit = 1 << ((leaf.hash() >>> level) & MASK);
+            int pos = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, pos);
+                copy[pos] = leaf;
+                System.arraycopy(slots, pos, copy, pos + 1, slots.length - pos);
+                return new HamtNode(bitmap | bit, copy);
+            }
+            Object[] copy = slots.clone();
+            copy[pos] = merge(slots[pos], leaf, level + BITS);
+            return new HamtNode(bitmap, copy);
+        }
+
+        private static Object merge(Object slot, HamtLeaf leaf, int level) {
+            if (slot instanceof HamtNode child) {
+                return child.insert(leaf, level);
+            }
+            if (slot instanceof HamtCollision collision) {
+                if (collision.hash() == leaf.hash()) {
+                    HamtLeaf[] leaves = Arrays.copyOf(collision.leaves(),
+                            collision.leaves().length + 1);
+                    leaves[leaves.length - 1] = leaf;
+                    return new HamtCollision(leaf.hash(), leaves);
+                }
+                return EMPTY.insertSlot(collision, collision.hash(), level).insert(leaf, level);
+            }
+            HamtLeaf existing = (HamtLeaf) slot;
+            if (existing.hash() == leaf.hash()) {
+                return new HamtCollision(leaf.hash(), new HamtLeaf[] {existing, leaf});
+            }
+            return EMPTY.insertSlot(existing, existing.hash(), level).insert(leaf, level);
+        }
+
+        private HamtNode insertSlot(Object slot, int hash, int level) {
+            return new HamtNode(1 << ((hash >>> level) & MASK), new Object[] {slot});
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package grammar.analyzer.grammarvisualizer.util;
 
 import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -15,10 +18,10 @@ public class SetUtils {
     /**
      * Initializes a map mapping each key to an empty LinkedHashSet.
      *
-     * @param keys set of keys for which to create empty sets
+     * @param keys ordered keys for which to create empty sets
      * @return map of keys to empty sets
      */
-    public static Map<String, Set<String>> initializeEmptySets(Set<String> keys) {
+    public static Map<String, Set<String>> initializeEmptySets(Collection<String> keys) {
         Map<String, Set<String>> sets = new LinkedHashMap<>();
         for (String k : keys) {
             sets.put(k, new LinkedHashSet<>());
@@ -26,6 +29,70 @@ public class SetUtils {
         return sets;
     }
 
+    /**
+     * Creates one empty bitset-backed set per non-terminal of the grammar IR.
+     *
+     * @param ir integer-encoded grammar
+     * @return array of empty sets indexed by non-terminal id
+     */
+    public static TerminalSet[] initializeEmptyBitSets(GrammarIr ir) {
+        TerminalSet[] sets = new TerminalSet[ir.getNonTerminalCount()];
+        for (int a = 0; a < sets.length; a++) {
+            sets[a] = new TerminalSet(ir.lookaheadCount());
+        }
+        return sets;
+    }
+
+    /**
+     * Converts a map of non-terminal name sets into bitset-backed sets indexed by id.
+     * Non-terminals missing from the map are given an empty set.
+     *
+     * @param ir   integer-encoded grammar providing ids and element indices
+     * @param sets map of non-terminal names to their sets
+     * @return array of sets indexed by non-terminal id
+     */
+    public static TerminalSet[] toBitSets(GrammarIr ir, Map<String, Set<String>> sets) {
+        TerminalSet[] bitSets = new TerminalSet[ir.getNonTerminalCount()];
+        for (int a = 0; a < bitSets.length; a++) {
+            bitSets[a] = TerminalSet.of(ir, sets.getOrDefault(ir.nonTerminalName(a), Set.of()));
+        }
+        return bitSets;
+    }
+
+    /**
+     * Converts bitset-backed non-terminal sets back into an ordered map of name sets.
+     * Keys keep the non-terminal order and each set is listed in grammar order.
+     *
+     * @param ir   integer-encoded grammar providing the names
+     * @param sets array of sets indexed by non-terminal id
+     * @return map of non-terminal names to their sets
+     */
+    public static Map<String, Set<String>> toNameSets(GrammarIr ir, TerminalSet[] sets) {
+        Map<String, Set<String>> named = new LinkedHashMap<>();
+        for (int a = 0; a < sets.length; a++) {
+            named.put(ir.nonTerminalName(a), sets[a].toNames(ir));
+        }
+        return named;
+    }
+
+    /**
+     * Converts per-production PREDICT sets into a map keyed by {@code "A -> α"}.
+     * Productions whose set has not been computed yet ({@code null}) are skipped.
+     *
+     * @param ir      integer-encoded grammar providing the production keys
+     * @param predict array of PREDICT sets indexed by production id
+     * @return ordered map of production keys to their PREDICT sets
+     */
+    public static Map<String, Set<String>> toPredictMap(GrammarIr ir, TerminalSet[] predict) {
+        Map<String, Set<String>> named = new LinkedHashMap<>();
+        for (int p = 0; p < predict.length; p++) {
+            if (predict[p] != null) {
+                named.put(ir.productionKey(p), predict[p].toNames(ir));
+            }
+        }
+        return named;
+    }
+
     /**
      * Creates a deep copy of the given map of sets.
      *
@@ -40,6 +107,20 @@ public class SetUtils {
         return copy;
     }
 
+    /**
+     * Creates a deep copy of an array of bitset-backed sets; {@code null} entries stay null.
+     *
+     * @param original sets to copy
+     * @return new array with cloned sets preserving insertion order
+     */
+    public static TerminalSet[] copyBitSets(TerminalSet[] original) {
+        TerminalSet[] copy = new TerminalSet[original.length];
+        for (int i = 0; i < original.length; i++) {
+            copy[i] = original[i] == null ? null : original[i].copy();
+        }
+        return copy;
+    }
+
     /**
      * Compares two maps of sets for equality by keys and set contents.
      *
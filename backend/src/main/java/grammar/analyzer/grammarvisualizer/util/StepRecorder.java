@@ -0,0 +1,363 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Records analysis steps for the sets a calculator is working on.
+ * Instead of copying every set on every step, each StepRecord stores only what changed
+ * since the previous step, with a full checkpoint every {@link #CHECKPOINT_INTERVAL} steps.
+ * Checkpoints are {@link PersistentSetMap}s sharing the sets unchanged since the previous
+ * checkpoint, and {@link #snapshotAt} rebuilds the intermediate sets of any step from
+ * the nearest checkpoint by copying only the sets changed since.
+ *
+ * <p>Calculators announce every step with {@link #step()} and only build its description
+ * and call {@link #record} when that returns true. This lets the same calculator run in
+ * several modes: recording every step, only counting steps while saving a bounded number
+ * of loop-state checkpoints, or replaying a window of steps from such a checkpoint.
+ */
+public class StepRecorder {
+    public static final int CHECKPOINT_INTERVAL = 32;
+    private static final int STATE_CHECKPOINT_LIMIT = 64;
+    private static final int INITIAL_STATE_INTERVAL = 256;
+
+    private final int from;
+    private final int to;
+    private final Checkpoint resume;
+    private final List<Checkpoint> checkpoints;
+    private final List<StepRecord> steps = new ArrayList<>();
+    private int stateInterval = INITIAL_STATE_INTERVAL;
+    private int lastCheckpointStep;
+    private int stepCount;
+
+    private GrammarIr ir;
+    private TerminalSet[] sets;
+    private IntFunction<String> keys;
+    private TerminalSet[] observed;
+    private int[] observedVersions;
+    private TerminalSet[] recorded;
+    private PersistentSetMap snapshot;
+    private TerminalSet[] snapshotSets;
+    private int[] snapshotVersions;
+
+    /**
+     * Saved loop state of a calculator, taken right before the step with the given index.
+     *
+     * @param stepIndex index of the next step the calculator emits after resuming
+     * @param state     calculator-specific copy of its loop state
+     */
+    public record Checkpoint(int stepIndex, Object state) {
+    }
+
+    /**
+     * Produces the recorded steps {@code from..to-1} by re-running a calculator
+     * from the given checkpoint ({@code null} meaning from the beginning).
+     */
+    @FunctionalInterface
+    public interface Replayer {
+        List<StepRecord> replay(Checkpoint start, int from, int to);
+    }
+
+    private StepRecorder(int from, int to, Checkpoint resume, List<Checkpoint> checkpoints) {
+        this.from = from;
+        this.to = to;
+        this.resume = resume;
+        this.checkpoints = checkpoints;
+        this.stepCount = resume == null ? 0 : resume.stepIndex();
+        this.lastCheckpointStep = stepCount;
+    }
+
+    /**
+     * Creates a recorder that records every step.
+     */
+    public static StepRecorder full() {
+        return new StepRecorder(0, Integer.MAX_VALUE, null, null);
+    }
+
+    /**
+     * Creates a recorder that records no steps, for analyses that only need the final sets.
+     */
+    public static StepRecorder none() {
+        return new StepRecorder(Integer.MAX_VALUE, Integer.MAX_VALUE, null, null);
+    }
+
+    /**
+     * Creates a recorder that only counts steps and keeps loop-state checkpoints,
+     * so that any window of steps can be replayed later.
+     */
+    public static StepRecorder counting() {
+        return new StepRecorder(Integer.MAX_VALUE, Integer.MAX_VALUE, null, new ArrayList<>());
+    }
+
+    /**
+     * Creates a recorder that replays steps {@code from..to-1}.
+     *
+     * @param start checkpoint to resume the calculator from, or {@code null} to start over
+     * @param from  index of the first step to record
+     * @param to    index one past the last step to record
+     * @return recorder for the replay run
+     */
+    public static StepRecorder window(Checkpoint start, int from, int to) {
+        return new StepRecorder(from, to, start, null);
+    }
+
+    /**
+     * Starts observing sets indexed by non-terminal id, such as FIRST and FOLLOW.
+     *
+     * @param ir   integer-encoded grammar
+     * @param sets sets being computed, observed on every recorded step
+     */
+    public void trackNonTerminals(GrammarIr ir, TerminalSet[] sets) {
+        track(ir, sets, ir::nonTerminalName);
+    }
+
+    /**
+     * Starts observing sets indexed by production id, such as PREDICT.
+     * Productions whose set is still {@code null} are not part of the snapshot.
+     *
+     * @param ir   integer-encoded grammar
+     * @param sets sets being computed, observed on every recorded step
+     */
+    public void trackProductions(GrammarIr ir, TerminalSet[] sets) {
+        track(ir, sets, ir::productionKey);
+    }
+
+    private void track(GrammarIr ir, TerminalSet[] sets, IntFunction<String> keys) {
+        this.ir = ir;
+        this.sets = sets;
+        this.keys = keys;
+        this.observed = new TerminalSet[sets.length];
+        this.observedVersions = new int[sets.length];
+        this.recorded = new TerminalSet[sets.length];
+        this.snapshot = PersistentSetMap.empty();
+        this.snapshotSets = new TerminalSet[sets.length];
+        this.snapshotVersions = new int[sets.length];
+    }
+
+    /**
+     * Advances to the next step.
+     *
+     * @return true if the step has to be recorded with {@link #record}
+     */
+    public boolean step() {
+        int index = stepCount++;
+        return index >= from && index < to;
+    }
+
+    /**
+     * Returns whether all steps of the requested window have been produced,
+     * so a replaying calculator can stop early.
+     */
+    public boolean isComplete() {
+        return stepCount >= to;
+    }
+
+    /**
+     * Returns whether the calculator should save its loop state now.
+     */
+    public boolean isCheckpointDue() {
+        return checkpoints != null && stepCount - lastCheckpointStep >= stateInterval;
+    }
+
+    /**
+     * Saves a loop-state checkpoint before the next step. When too many checkpoints
+     * have accumulated, every other one is dropped and the interval doubles, so their
+     * number stays bounded however long the trace gets.
+     *
+     * @param state calculator-specific copy of its loop state
+     */
+    public void checkpoint(Object state) {
+        checkpoints.add(new Checkpoint(stepCount, state));
+        lastCheckpointStep = stepCount;
+        if (checkpoints.size() > STATE_CHECKPOINT_LIMIT) {
+            for (int i = checkpoints.size() - 2; i >= 0; i -= 2) {
+                checkpoints.remove(i);
+            }
+            stateInterval *= 2;
+        }
+    }
+
+    /**
+     * Returns the loop state to resume from, or {@code null} to start from the beginning.
+     */
+    @SuppressWarnings("unchecked")
+    public <S> S resumeState() {
+        return resume == null ? null : (S) resume.state();
+    }
+
+    /**
+     * Records a computation step with the current state of the observed sets.
+     *
+     * @param description human-readable description of the step
+     * @param line        corresponding pseudocode line number for this step
+     */
+    public void record(String description, int line) {
+        if (steps.size() % CHECKPOINT_INTERVAL == 0) {
+            for (int i = 0; i < sets.length; i++) {
+                if (sets[i] != null && hasChanged(i)) {
+                    remember(i);
+                }
+            }
+            steps.add(new StepRecord(description, snapshot(), line));
+            return;
+        }
+        Map<String, List<String>> added = Map.of();
+        Map<String, List<String>> removed = Map.of();
+        for (int i = 0; i < sets.length; i++) {
+            if (sets[i] == null || !hasChanged(i)) {
+                continue;
+            }
+            // Sets are listed in grammar order, so the delta replaces the tail after the
+            // longest common prefix: removing it and appending the new one keeps the order
+            int[] current = sets[i].toSortedArray();
+            int[] previous = recorded[i] == null ? null : recorded[i].toSortedArray();
+            int common = 0;
+            if (previous != null) {
+                int limit = Math.min(previous.length, current.length);
+                while (common < limit && previous[common] == current[common]) {
+                    common++;
+                }
+                if (common < previous.length) {
+                    if (removed.isEmpty()) {
+                        removed = new LinkedHashMap<>();
+                    }
+                    removed.put(keys.apply(i), names(previous, common));
+                }
+            }
+            // A newly observed set is reported even when empty, so its key appears
+            if (previous == null || common < current.length) {
+                if (added.isEmpty()) {
+                    added = new LinkedHashMap<>();
+                }
+                added.put(keys.apply(i), names(current, common));
+            }
+            remember(i);
+        }
+        steps.add(new StepRecord(description, null, line, added, removed));
+    }
+
+    /**
+     * Returns the steps recorded by this run so far.
+     */
+    public List<StepRecord> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Returns the number of steps announced so far, including the ones not recorded.
+     */
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Returns the loop-state checkpoints kept by a counting recorder.
+     */
+    public List<Checkpoint> getCheckpoints() {
+        return checkpoints == null ? List.of() : Collections.unmodifiableList(checkpoints);
+    }
+
+    /**
+     * Returns the step records of this run: every step for a full recorder, no steps
+     * for a recorder without trace, or a list that replays pages of steps on demand
+     * for a counting recorder.
+     *
+     * @param replayer re-runs the calculator for a window of steps
+     * @return step records of the analysis
+     */
+    public List<StepRecord> toStepRecords(Replayer replayer) {
+        if (checkpoints == null) {
+            return steps;
+        }
+        return new LazyStepRecords(stepCount, List.copyOf(checkpoints), replayer);
+    }
+
+    /**
+     * Rebuilds the intermediate sets of a step by replaying deltas
+     * from the nearest preceding checkpoint.
+     *
+     * @param steps recorded steps of one analysis
+     * @param index index of the step to rebuild
+     * @return snapshot of the sets as of the given step
+     */
+    public static Map<String, Set<String>> snapshotAt(List<StepRecord> steps, int index) {
+        int checkpoint = index;
+        while (checkpoint > 0 && !steps.get(checkpoint).isCheckpoint()) {
+            checkpoint--;
+        }
+        if (checkpoint == index && steps.get(index).isCheckpoint()) {
+            return steps.get(index).getPartialResult();
+        }
+        PersistentSetMap snapshot = steps.get(checkpoint).isCheckpoint()
+                ? PersistentSetMap.copyOf(steps.get(checkpoint).getPartialResult())
+                : PersistentSetMap.empty();
+        // Each set touched by the deltas is copied once; all others stay shared
+        Map<String, Set<String>> touched = new LinkedHashMap<>();
+        for (int i = checkpoint + 1; i <= index; i++) {
+            StepRecord step = steps.get(i);
+            for (Map.Entry<String, List<String>> entry : step.getRemoved().entrySet()) {
+                touched(touched, snapshot, entry.getKey()).removeAll(entry.getValue());
+            }
+            for (Map.Entry<String, List<String>> entry : step.getAdded().entrySet()) {
+                touched(touched, snapshot, entry.getKey()).addAll(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Set<String>> entry : touched.entrySet()) {
+            snapshot = snapshot.with(entry.getKey(), entry.getValue());
+        }
+        return snapshot;
+    }
+
+    private static Set<String> touched(Map<String, Set<String>> touched,
+                                       PersistentSetMap snapshot, String key) {
+        return touched.computeIfAbsent(key, k -> snapshot.containsKey(k)
+                ? new LinkedHashSet<>(snapshot.get(k))
+                : new LinkedHashSet<>());
+    }
+
+    private boolean hasChanged(int i) {
+        return sets[i] != observed[i] || sets[i].version() != observedVersions[i];
+    }
+
+    private void remember(int i) {
+        observed[i] = sets[i];
+        observedVersions[i] = sets[i].version();
+        recorded[i] = sets[i].copy();
+    }
+
+    /**
+     * Brings the persistent snapshot up to date, converting only the sets
+     * that changed since the previous checkpoint.
+     */
+    private Map<String, Set<String>> snapshot() {
+        for (int i = 0; i < sets.length; i++) {
+            if (sets[i] != null && (sets[i] != snapshotSets[i]
+                    || sets[i].version() != snapshotVersions[i])) {
+                snapshot = snapshot.with(keys.apply(i), sets[i].toNames(ir));
+                snapshotSets[i] = sets[i];
+                snapshotVersions[i] = sets[i].version();
+            }
+        }
+        return snapshot;
+    }
+
+    private List<String> names(int[] elements, int from) {
+        if (from == elements.length) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>(elements.length - from);
+        for (int i = from; i < elements.length; i++) {
+            names.add(ir.lookaheadName(elements[i]));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,116 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Open-addressing hash table from the UTF-8 bytes of a terminal to its terminal index.
+ * Tokens are looked up straight from a byte buffer with a hash computed while they are
+ * scanned, so resolving a token creates no objects. Every quoted terminal can be written
+ * with or without its quotes.
+ */
+public class TerminalDictionary {
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final byte[][] keys;
+    private final int[] values;
+    private final int mask;
+    private final int maxLength;
+
+    private TerminalDictionary(byte[][] keys, int[] values, int maxLength) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Builds the dictionary of the quoted terminals found by
+     * {@link LL1TableUtils#extractTerminals}.
+     *
+     * @param ir integer-encoded grammar resolving terminal names to indices
+     * @return dictionary accepting each terminal with and without quotes
+     */
+    public static TerminalDictionary of(GrammarIr ir) {
+        Set<String> terminals = LL1TableUtils.extractTerminals(ir.toProductionRules());
+        int capacity = Integer.highestOneBit(Math.max(4 * terminals.size(), 4) - 1) << 1;
+        byte[][] keys = new byte[capacity][];
+        int[] values = new int[capacity];
+        int maxLength = 0;
+        for (String terminal : terminals) {
+            int index = ir.lookaheadIndex(terminal);
+            // The quoted form goes first and wins over an equal unquoted form
+            for (String form : new String[] {terminal,
+                    terminal.substring(1, terminal.length() - 1)}) {
+                byte[] key = form.getBytes(StandardCharsets.UTF_8);
+                if (key.length > 0) {
+                    put(keys, values, key, index);
+                    maxLength = Math.max(maxLength, key.length);
+                }
+            }
+        }
+        return new TerminalDictionary(keys, values, maxLength);
+    }
+
+    /**
+     * Returns the initial value of the token hash.
+     */
+    public static int initialHash() {
+        return FNV_OFFSET;
+    }
+
+    /**
+     * Extends a token hash by one byte.
+     */
+    public static int hash(int hash, byte b) {
+        return (hash ^ (b & 0xff)) * FNV_PRIME;
+    }
+
+    /**
+     * Returns the length of the longest key; longer tokens are never terminals.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Looks up a token.
+     *
+     * @param bytes  buffer holding the token from offset 0
+     * @param length length of the token
+     * @param hash   hash of the token's bytes
+     * @return terminal index, or -1 if the token is not a terminal
+     */
+    public int lookup(byte[] bytes, int length, int hash) {
+        for (int slot = spread(hash) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot].length == length
+                    && Arrays.equals(keys[slot], 0, length, bytes, 0, length)) {
+                return values[slot];
+            }
+        }
+        return -1;
+    }
+
+    private static void put(byte[][] keys, int[] values, byte[] key, int value) {
+        int hash = initialHash();
+        for (byte b : key) {
+            hash = hash(hash, b);
+        }
+        int mask = keys.length - 1;
+        int slot = spread(hash) & mask;
+        while (keys[slot] != null && !Arrays.equals(keys[slot], key)) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == null) {
+            keys[slot] = key;
+            values[slot] = value;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,215 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Longest-match lexer compiled from the quoted terminals of a grammar. The literals found by
+ * {@link LL1TableUtils#extractTerminals} are merged into a trie, which is a DFA over the
+ * characters they use: transitions live in one dense {@code int[]} indexed by state and
+ * character class, and each state knows the terminal ending there, if any.
+ *
+ * <p>A scan starts at the first non-whitespace character and follows the DFA as far as it
+ * goes, keeping the last accepting state, so {@code <=} wins over {@code <}. A literal ending
+ * in a letter, digit or underscore only matches at a word boundary, so the keyword
+ * {@code if} is not found in {@code iffy}. Text that matches no terminal becomes an unknown
+ * token: a whole word, or a single other character. Every character is looked at a bounded
+ * number of times, at most the length of the longest literal, and scanning creates no
+ * objects per token.
+ */
+public class TerminalLexer {
+    private static final int DEAD = -1;
+    private static final int ASCII = 128;
+
+    private final int[] asciiClasses;
+    private final char[] otherChars;
+    private final int width;
+    private final int[] transitions;
+    private final int[] accepting;
+    private final boolean[] boundaryRequired;
+    private final int stateCount;
+
+    private TerminalLexer(int[] asciiClasses, char[] otherChars, int width, int[] transitions,
+                          int[] accepting, boolean[] boundaryRequired, int stateCount) {
+        this.asciiClasses = asciiClasses;
+        this.otherChars = otherChars;
+        this.width = width;
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.boundaryRequired = boundaryRequired;
+        this.stateCount = stateCount;
+    }
+
+    /**
+     * Compiles the lexer of a grammar's quoted terminals.
+     *
+     * @param ir integer-encoded grammar resolving terminal names to indices
+     * @return lexer returning terminal indices of the IR
+     */
+    public static TerminalLexer of(GrammarIr ir) {
+        Set<String> terminals = LL1TableUtils.extractTerminals(ir.toProductionRules());
+
+        // Character classes: 0 for characters no literal uses, then one per character
+        Set<Character> alphabet = new TreeSet<>();
+        for (String terminal : terminals) {
+            for (int i = 1; i < terminal.length() - 1; i++) {
+                alphabet.add(terminal.charAt(i));
+            }
+        }
+        int[] asciiClasses = new int[ASCII];
+        char[] otherChars = new char[alphabet.size()];
+        int others = 0;
+        int classes = 1;
+        for (char c : alphabet) {
+            if (c < ASCII) {
+                asciiClasses[c] = classes++;
+            } else {
+                otherChars[others++] = c;
+            }
+        }
+        otherChars = Arrays.copyOf(otherChars, others);
+        int width = classes + others;
+
+        int capacity = 1;
+        for (String terminal : terminals) {
+            capacity += terminal.length();
+        }
+        int[] transitions = new int[capacity * width];
+        Arrays.fill(transitions, DEAD);
+        int[] accepting = new int[capacity];
+        Arrays.fill(accepting, DEAD);
+        boolean[] boundaryRequired = new boolean[capacity];
+        int states = 1;
+        for (String terminal : terminals) {
+            String literal = terminal.substring(1, terminal.length() - 1);
+            if (literal.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                int charClass = c < ASCII ? asciiClasses[c]
+                        : classes + Arrays.binarySearch(otherChars, c);
+                int cell = state * width + charClass;
+                if (transitions[cell] == DEAD) {
+                    transitions[cell] = states++;
+                }
+                state = transitions[cell];
+            }
+            if (accepting[state] == DEAD) {
+                accepting[state] = ir.lookaheadIndex(terminal);
+                boundaryRequired[state] = isWordChar(literal.charAt(literal.length() - 1));
+            }
+        }
+        return new TerminalLexer(asciiClasses, otherChars, width,
+                Arrays.copyOf(transitions, states * width), Arrays.copyOf(accepting, states),
+                Arrays.copyOf(boundaryRequired, states), states);
+    }
+
+    /**
+     * Returns the number of DFA states, including the start state.
+     */
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    /**
+     * Starts tokenizing a text.
+     *
+     * @param text      raw input
+     * @param endMarker terminal index returned once the text is exhausted
+     * @return token source reading the text from its start
+     */
+    public Scanner scan(CharSequence text, int endMarker) {
+        return new Scanner(text, endMarker);
+    }
+
+    private int charClass(char c) {
+        if (c < ASCII) {
+            return asciiClasses[c];
+        }
+        int other = Arrays.binarySearch(otherChars, c);
+        return other < 0 ? 0 : width - otherChars.length + other;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Tokens of one text, read on demand.
+     */
+    public final class Scanner implements TokenSource {
+        private final CharSequence text;
+        private final int endMarker;
+        private int position;
+        private int tokenStart;
+        private int tokenEnd;
+        private long tokenCount;
+
+        private Scanner(CharSequence text, int endMarker) {
+            this.text = text;
+            this.endMarker = endMarker;
+        }
+
+        @Override
+        public int next() {
+            int length = text.length();
+            while (position < length && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            tokenStart = position;
+            if (position == length) {
+                tokenEnd = position;
+                return endMarker;
+            }
+            tokenCount++;
+
+            // Follow the DFA as far as possible, remembering the last accepted terminal
+            int terminal = DEAD;
+            int matchEnd = position;
+            int state = 0;
+            for (int i = position; i < length; ) {
+                int charClass = charClass(text.charAt(i));
+                state = charClass == 0 ? DEAD : transitions[state * width + charClass];
+                if (state == DEAD) {
+                    break;
+                }
+                i++;
+                if (accepting[state] != DEAD && (!boundaryRequired[state] || i == length
+                        || !isWordChar(text.charAt(i)))) {
+                    terminal = accepting[state];
+                    matchEnd = i;
+                }
+            }
+            if (terminal != DEAD) {
+                position = tokenEnd = matchEnd;
+                return terminal;
+            }
+
+            // Unknown text: a whole word or a single other character
+            int end = position + 1;
+            if (isWordChar(text.charAt(position))) {
+                while (end < length && isWordChar(text.charAt(end))) {
+                    end++;
+                }
+            }
+            position = tokenEnd = end;
+            return DEAD;
+        }
+
+        @Override
+        public String lastToken() {
+            return tokenStart == tokenEnd ? "$" : text.subSequence(tokenStart, tokenEnd).toString();
+        }
+
+        /**
+         * Returns the number of tokens read so far, not counting the end of input.
+         */
+        public long getTokenCount() {
+            return tokenCount;
+        }
+    }
+}
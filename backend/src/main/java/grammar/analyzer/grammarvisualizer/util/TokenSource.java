@@ -0,0 +1,20 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+/**
+ * Sequence of input tokens resolved to terminal indices of a grammar IR,
+ * consumed one at a time by the table-driven parser.
+ */
+public interface TokenSource {
+    /**
+     * Reads the next token.
+     *
+     * @return terminal index of the token, -1 for a token that is not a terminal of the
+     *         grammar, or the end marker's index once the input is exhausted
+     */
+    int next();
+
+    /**
+     * Returns the text of the token last returned by {@link #next()}, for error reports.
+     */
+    String lastToken();
+}
@@ -0,0 +1,39 @@
+package grammar.analyzer.grammarvisualizer.cli;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import grammar.analyzer.grammarvisualizer.dto.grammar.StreamParseResponseDto;
+import grammar.analyzer.grammarvisualizer.service.GrammarService;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.mock.env.MockEnvironment;
+
+class ParseFileRunnerTest {
+    @Test
+    void testParsesTokenFileThroughFileChannel(@TempDir Path directory) throws IOException {
+        Path grammarFile = Files.writeString(directory.resolve("grammar.txt"), "S -> 'a'");
+        Path tokenFile = Files.writeString(directory.resolve("tokens.txt"), "a");
+        GrammarService grammarService = mock(GrammarService.class);
+        when(grammarService.parseStream(isNull(), eq("S -> 'a'"), any(FileChannel.class)))
+                .thenReturn(new StreamParseResponseDto());
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(ParseFileRunner.FILE_PROPERTY, tokenFile.toString())
+                .withProperty(ParseFileRunner.GRAMMAR_FILE_PROPERTY, grammarFile.toString());
+
+        new ParseFileRunner(grammarService, new ObjectMapper(), environment)
+                .run(new DefaultApplicationArguments());
+
+        verify(grammarService).parseStream(isNull(), eq("S -> 'a'"), any(FileChannel.class));
+    }
+}
@@ -0,0 +1,87 @@
+package grammar.analyzer.grammarvisualizer.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisCacheStatsDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarResponseDto;
+import grammar.analyzer.grammarvisualizer.service.GrammarService;
+import java.lang.reflect.Method;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.interceptor.KeyGenerator;
+
+@SpringBootTest
+class CacheConfigTest {
+    @Autowired
+    private GrammarService grammarService;
+
+    @Test
+    void testKeyIgnoresEscapesAndWhitespace() throws NoSuchMethodException {
+        KeyGenerator keyGenerator = new CacheConfig().grammarKeyGenerator();
+        Method method = GrammarService.class.getMethod("analyzeGrammar",
+                GrammarRequestDto.class);
+
+        Object key = keyGenerator.generate(grammarService, method,
+                request("S -> 'a' A\nA -> 'b' | epsilon", null));
+        assertEquals(key, keyGenerator.generate(grammarService, method,
+                request("  S \\to 'a'   A\r\nA\t-> 'b' \\mid \\eps\n\n", "full")));
+        assertNotEquals(key, keyGenerator.generate(grammarService, method,
+                request("S -> 'a' A\nA -> 'b' | epsilon", "none")));
+        assertNotEquals(key, keyGenerator.generate(grammarService, method,
+                request("S -> 'a' A\nA -> 'c' | epsilon", null)));
+        GrammarRequestDto compact = request("S -> 'a' A\nA -> 'b' | epsilon", null);
+        compact.setCompactTable(true);
+        assertNotEquals(key, keyGenerator.generate(grammarService, method, compact));
+    }
+
+    @Test
+    void testReturnsCachedResultForEquivalentGrammar() {
+        AnalysisCacheStatsDto before = grammarService.getCacheStats();
+        GrammarResponseDto first = grammarService.analyzeGrammar(
+                request("E -> T E'\nE' -> '+' T E' | epsilon\nT -> 'id'", null));
+        GrammarResponseDto second = grammarService.analyzeGrammar(
+                request("E \\to T  E'\nE' \\to '+' T E' \\mid \\eps\nT \\to 'id'\n", null));
+        GrammarResponseDto other = grammarService.analyzeGrammar(
+                request("E -> T E'\nE' -> '-' T E' | epsilon\nT -> 'id'", null));
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        AnalysisCacheStatsDto after = grammarService.getCacheStats();
+        assertEquals(before.getHits() + 1, after.getHits());
+        assertEquals(before.getMisses() + 2, after.getMisses());
+    }
+
+    @Test
+    void testDoesNotCacheReanalysisOfPreviousAnalysis() {
+        String grammar = "S -> 'a' A\nA -> 'b' | 'c'";
+        GrammarResponseDto first = grammarService.analyzeGrammar(request(grammar, null));
+        GrammarRequestDto edit = request(grammar, null);
+        edit.setPreviousAnalysisId(first.getAnalysisId());
+        AnalysisCacheStatsDto before = grammarService.getCacheStats();
+
+        GrammarResponseDto resubmitted = grammarService.analyzeGrammar(edit);
+        GrammarResponseDto again = grammarService.analyzeGrammar(edit);
+
+        assertNotSame(first, resubmitted);
+        assertNotSame(resubmitted, again);
+        assertNotNull(resubmitted.getReuseReport());
+        assertNotEquals(first.getAnalysisId(), resubmitted.getAnalysisId());
+        AnalysisCacheStatsDto after = grammarService.getCacheStats();
+        assertEquals(before.getHits(), after.getHits());
+        assertEquals(before.getMisses(), after.getMisses());
+        assertSame(first, grammarService.analyzeGrammar(request(grammar, null)));
+    }
+
+    private GrammarRequestDto request(String grammar, String trace) {
+        GrammarRequestDto request = new GrammarRequestDto();
+        request.setGrammar(grammar);
+        request.setTrace(trace);
+        return request;
+    }
+}
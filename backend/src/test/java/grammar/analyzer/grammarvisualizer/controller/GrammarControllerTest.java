@@ -1,17 +1,40 @@
 package grammar.analyzer.grammarvisualizer.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisCacheStatsDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisStoreStatsDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.BatchParseRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.BatchParseSummaryDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarRequestDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarResponseDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarStepRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.StreamParseResponseDto;
 import grammar.analyzer.grammarvisualizer.service.GrammarService;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 class GrammarControllerTest {
     private GrammarService grammarService;
@@ -20,7 +43,7 @@ class GrammarControllerTest {
     @BeforeEach
     void setUp() {
         grammarService = mock(GrammarService.class);
-        grammarController = new GrammarController(grammarService);
+        grammarController = new GrammarController(grammarService, new ObjectMapper());
     }
 
     @Test
@@ -37,16 +60,113 @@ class GrammarControllerTest {
     @Test
     void testGetStep() {
         GrammarStepRequestDto requestDto = new GrammarStepRequestDto();
+        requestDto.setAnalysisId("id");
         requestDto.setAnalysisType("FIRST");
         requestDto.setStepIndex(0);
         requestDto.setGrammar("S -> 'a'");
 
         GrammarResponseDto responseDto = new GrammarResponseDto();
-        when(grammarService.getStep("FIRST", 0, "S -> 'a'")).thenReturn(responseDto);
+        when(grammarService.getStep("id", "FIRST", 0, "S -> 'a'")).thenReturn(responseDto);
 
         GrammarResponseDto response = grammarController.getStep(requestDto);
         assertSame(responseDto, response);
 
-        verify(grammarService, times(1)).getStep("FIRST", 0, "S -> 'a'");
+        verify(grammarService, times(1)).getStep("id", "FIRST", 0, "S -> 'a'");
+    }
+
+    @Test
+    void testParse() {
+        ParseRequestDto requestDto = new ParseRequestDto();
+        requestDto.setAnalysisId("id");
+        requestDto.setInput("a");
+        ParseResponseDto responseDto = new ParseResponseDto();
+        when(grammarService.parse(requestDto)).thenReturn(responseDto);
+
+        assertSame(responseDto, grammarController.parse(requestDto));
+    }
+
+    @Test
+    void testParseBatchStreamsVerdictsAndSummary() throws IOException {
+        BatchParseRequestDto requestDto = new BatchParseRequestDto();
+        requestDto.setAnalysisId("id");
+        requestDto.setSentences(List.of("a", "b"));
+        stubBatch();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        grammarController.parseBatch(requestDto, response);
+
+        assertBatchResponse(response);
+    }
+
+    @Test
+    void testParseBatchStreamReadsNdjsonLines() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("\"a\"\n\n{\"input\": \"b\"}\n".getBytes(StandardCharsets.UTF_8));
+        stubBatch();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        grammarController.parseBatchStream("id", null, request, response);
+
+        assertBatchResponse(response);
+    }
+
+    @Test
+    void testParseStreamReadsRequestBody() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("a b".getBytes(StandardCharsets.UTF_8));
+        StreamParseResponseDto responseDto = new StreamParseResponseDto();
+        when(grammarService.parseStream(eq("id"), isNull(), any(ReadableByteChannel.class)))
+                .thenAnswer(invocation -> {
+                    ReadableByteChannel channel = invocation.getArgument(2);
+                    responseDto.setTokenCount(channel.read(ByteBuffer.allocate(16)));
+                    return responseDto;
+                });
+
+        assertSame(responseDto, grammarController.parseStream("id", null, request));
+        assertEquals(3, responseDto.getTokenCount());
+    }
+
+    private void stubBatch() {
+        when(grammarService.parseBatch(eq("id"), isNull(), any(), any())).thenAnswer(invocation -> {
+            Iterator<String> sentences = invocation.getArgument(2);
+            Consumer<ParseResponseDto> verdicts = invocation.getArgument(3);
+            int index = 0;
+            while (sentences.hasNext()) {
+                ParseResponseDto verdict = new ParseResponseDto();
+                verdict.setIndex(index++);
+                verdict.setAccepted("a".equals(sentences.next()));
+                verdicts.accept(verdict);
+            }
+            BatchParseSummaryDto summary = new BatchParseSummaryDto();
+            summary.setSentences(index);
+            return summary;
+        });
+    }
+
+    private void assertBatchResponse(MockHttpServletResponse response) throws IOException {
+        assertEquals("application/x-ndjson", response.getContentType().split(";")[0]);
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(0, objectMapper.readTree(lines[0]).get("index").asInt());
+        assertTrue(objectMapper.readTree(lines[0]).get("accepted").asBoolean());
+        assertFalse(objectMapper.readTree(lines[1]).get("accepted").asBoolean());
+        assertEquals(2, objectMapper.readTree(lines[2]).get("sentences").asInt());
+    }
+
+    @Test
+    void testGetStoreStats() {
+        AnalysisStoreStatsDto stats = new AnalysisStoreStatsDto();
+        when(grammarService.getStoreStats()).thenReturn(stats);
+
+        assertSame(stats, grammarController.getStoreStats());
+    }
+
+    @Test
+    void testGetCacheStats() {
+        AnalysisCacheStatsDto stats = new AnalysisCacheStatsDto();
+        when(grammarService.getCacheStats()).thenReturn(stats);
+
+        assertSame(stats, grammarController.getCacheStats());
     }
 }
@@ -2,6 +2,7 @@ package grammar.analyzer.grammarvisualizer.exception;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class GrammarSyntaxExceptionTest {
@@ -9,5 +10,13 @@ class GrammarSyntaxExceptionTest {
     void testExceptionMessage() {
         GrammarSyntaxException ex = new GrammarSyntaxException("Syntax error");
         assertEquals("Syntax error", ex.getMessage());
+        assertEquals(List.of("Syntax error"), ex.getErrors());
+    }
+
+    @Test
+    void testExceptionJoinsErrors() {
+        GrammarSyntaxException ex = new GrammarSyntaxException(List.of("first", "second"));
+        assertEquals("first\nsecond", ex.getMessage());
+        assertEquals(List.of("first", "second"), ex.getErrors());
     }
 }
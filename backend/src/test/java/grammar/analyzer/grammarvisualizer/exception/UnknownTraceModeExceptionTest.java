@@ -0,0 +1,13 @@
+package grammar.analyzer.grammarvisualizer.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class UnknownTraceModeExceptionTest {
+    @Test
+    void testExceptionMessage() {
+        UnknownTraceModeException ex = new UnknownTraceModeException("partial");
+        assertEquals("Unknown trace mode: partial", ex.getMessage());
+    }
+}
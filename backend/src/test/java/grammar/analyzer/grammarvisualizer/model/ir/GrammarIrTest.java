@@ -0,0 +1,60 @@
+package grammar.analyzer.grammarvisualizer.model.ir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class GrammarIrTest {
+    private Map<String, List<String>> rules() {
+        Map<String, List<String>> productionRules = new LinkedHashMap<>();
+        productionRules.put("S", List.of("A 'b'", "epsilon"));
+        productionRules.put("A", List.of("'a' S"));
+        return productionRules;
+    }
+
+    @Test
+    void testSymbolEncoding() {
+        GrammarIr ir = GrammarIr.of(rules());
+        assertEquals(2, ir.getNonTerminalCount());
+        assertEquals(3, ir.getTerminalCount());
+        assertEquals("S", ir.nonTerminalName(0));
+        assertEquals("A", ir.nonTerminalName(1));
+        assertEquals("'b'", ir.terminalName(0));
+        assertEquals("'a'", ir.terminalName(1));
+        assertEquals("$", ir.terminalName(ir.endMarker()));
+        assertEquals("ε", ir.lookaheadName(ir.epsilon()));
+        assertEquals(1, ir.nonTerminalId("A"));
+        assertEquals(-1, ir.nonTerminalId("'a'"));
+    }
+
+    @Test
+    void testProductionEncoding() {
+        GrammarIr ir = GrammarIr.of(rules());
+        assertEquals(3, ir.getProductionCount());
+        assertArrayEquals(new int[]{1, 2}, ir.rhs(0));
+        assertEquals(0, ir.rhs(1).length);
+        assertEquals("S -> epsilon", ir.productionKey(1));
+        assertArrayEquals(new int[]{0, 1}, ir.productionsOf(0));
+        assertTrue(ir.isNonTerminal(ir.rhs(2)[1]));
+        assertFalse(ir.isNonTerminal(ir.rhs(2)[0]));
+        assertEquals("'a' S", ir.render(ir.rhs(2), 0));
+    }
+
+    @Test
+    void testBuilderGroupsProductionsByLhs() {
+        GrammarIr ir = GrammarIr.builder()
+                .addProduction("S", new String[]{"'x'"}, "'x'")
+                .addProduction("A", new String[]{"'y'"}, "'y'")
+                .addProduction("S", new String[]{"A"}, "A")
+                .build();
+        assertEquals("S -> A", ir.productionKey(1));
+        assertEquals("A -> 'y'", ir.productionKey(2));
+        assertEquals(List.of("'x'", "A"), ir.toProductionRules().get("S"));
+    }
+}
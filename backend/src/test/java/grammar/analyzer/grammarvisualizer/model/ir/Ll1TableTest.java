@@ -0,0 +1,55 @@
+package grammar.analyzer.grammarvisualizer.model.ir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class Ll1TableTest {
+    private final GrammarIr ir = GrammarIr.of(new LinkedHashMap<>(Map.of(
+            "S", List.of("'a' S", "'a'", "epsilon"))));
+
+    @Test
+    void testViewHasShapeOfNamedTable() {
+        Ll1Table table = new Ll1Table(1, ir.getTerminalCount());
+        table.setConflict(0, ir.lookaheadIndex("'a'"), new int[] {0, 1});
+        table.set(0, ir.endMarker(), 2);
+
+        Map<String, String> row = new LinkedHashMap<>();
+        row.put("'a'", "R1, R2");
+        row.put("$", "R3");
+        Map<String, Map<String, String>> expected = Map.of("S", row);
+
+        Map<String, Map<String, String>> view = table.toView(ir);
+        assertEquals(expected, view);
+        assertEquals(expected.toString(), view.toString());
+        assertEquals("R3", view.get("S").get("$"));
+        assertNull(view.get("T"));
+        assertNull(view.get("S").get("ε"));
+        assertFalse(view.containsKey("'a'"));
+    }
+
+    @Test
+    void testConflictsAreKeptApartFromDenseCells() {
+        Ll1Table table = new Ll1Table(1, ir.getTerminalCount());
+        int a = ir.lookaheadIndex("'a'");
+        assertTrue(table.isLl1());
+        assertEquals(Ll1Table.EMPTY, table.rule(0, a));
+        assertArrayEquals(new int[0], table.rules(0, a));
+
+        table.setConflict(0, a, new int[] {0, 1});
+
+        assertFalse(table.isLl1());
+        assertTrue(table.hasConflict(0, a));
+        assertEquals(0, table.rule(0, a));
+        assertArrayEquals(new int[] {0, 1}, table.rules(0, a));
+        assertArrayEquals(new int[] {table.cellIndex(0, a)}, table.conflictCells());
+        assertEquals(List.of("M[S, 'a'] = R1, R2"), table.describeConflicts(ir));
+    }
+}
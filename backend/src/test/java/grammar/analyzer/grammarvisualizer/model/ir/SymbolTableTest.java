@@ -0,0 +1,25 @@
+package grammar.analyzer.grammarvisualizer.model.ir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class SymbolTableTest {
+    @Test
+    void testInternAssignsDenseIds() {
+        SymbolTable table = new SymbolTable();
+        assertEquals(0, table.intern("S"));
+        assertEquals(1, table.intern("'a'"));
+        assertEquals(0, table.intern("S"));
+        assertEquals(2, table.size());
+        assertEquals("'a'", table.nameOf(1));
+    }
+
+    @Test
+    void testIdOfUnknownSymbol() {
+        SymbolTable table = new SymbolTable();
+        table.intern("S");
+        assertEquals(0, table.idOf("S"));
+        assertEquals(-1, table.idOf("A"));
+    }
+}
@@ -0,0 +1,57 @@
+package grammar.analyzer.grammarvisualizer.model.ir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TerminalSetTest {
+    @Test
+    void testAddKeepsInsertionOrder() {
+        TerminalSet set = new TerminalSet(100);
+        assertTrue(set.add(70));
+        assertTrue(set.add(3));
+        assertFalse(set.add(70));
+        assertEquals(2, set.size());
+        assertEquals(70, set.get(0));
+        assertEquals(3, set.get(1));
+    }
+
+    @Test
+    void testAddAllExceptSkipsExcludedElement() {
+        TerminalSet source = new TerminalSet(10);
+        source.add(9);
+        source.add(2);
+        TerminalSet target = new TerminalSet(10);
+        assertTrue(target.addAllExcept(source, 9));
+        assertFalse(target.contains(9));
+        assertFalse(target.addAllExcept(source, 9));
+        assertTrue(target.addAll(source));
+        assertEquals(2, target.get(0));
+        assertEquals(9, target.get(1));
+    }
+
+    @Test
+    void testRemoveAndNamesInGrammarOrder() {
+        GrammarIr ir = GrammarIr.of(Map.of("S", List.of("'a' 'b'", "epsilon")));
+        TerminalSet set = TerminalSet.of(ir, List.of("ε", "'b'", "$", "'a'"));
+        assertEquals(List.of("'a'", "'b'", "$", "ε"), List.copyOf(set.toNames(ir)));
+        assertTrue(set.remove(ir.epsilon()));
+        assertEquals(List.of("'a'", "'b'", "$"), List.copyOf(set.toNames(ir)));
+        assertEquals("['a', 'b', $]", set.format(ir));
+    }
+
+    @Test
+    void testToSortedArrayCrossesWords() {
+        TerminalSet set = new TerminalSet(200);
+        set.add(130);
+        set.add(64);
+        set.add(5);
+        set.add(63);
+        assertArrayEquals(new int[] {5, 63, 64, 130}, set.toSortedArray());
+    }
+}
@@ -1,13 +1,14 @@
 package grammar.analyzer.grammarvisualizer.service.calculators;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -44,24 +45,73 @@ class FirstSetCalculatorTest {
     }
 
     @Test
-    void testComputeFirstOfGammaWithTerminal() {
-        Map<String, Set<String>> firstSets = new HashMap<>();
-        firstSets.put("S", new LinkedHashSet<>());
-        Set<String> nonTerminals = new HashSet<>();
-        nonTerminals.add("S");
-        Set<String> result = new LinkedHashSet<>();
-        calculator.computeFirstOfGamma("'b'", firstSets, nonTerminals, result);
-        assertTrue(result.contains("'b'"));
+    void testComputeFirstSetsRevisitsOnlyDependentProductions() {
+        productionRules = new LinkedHashMap<>();
+        productionRules.put("S", List.of("A 'c'"));
+        productionRules.put("A", List.of("B"));
+        productionRules.put("B", List.of("'b'"));
+        calculator.computeFirstSets(productionRules, productionRules.keySet(), grammar);
+
+        assertEquals(Set.of("'b'"), grammar.getFirstSets().get("S"));
+        assertEquals(Set.of("'b'"), grammar.getFirstSets().get("A"));
+        // S, A, B in the first pass, then only S once FIRST(B) has grown
+        long evaluated = grammar.getFirstStepRecords().stream()
+                .filter(step -> step.getPseudocodeLine() == 14 || step.getPseudocodeLine() == 2)
+                .count();
+        assertEquals(4, evaluated);
     }
 
     @Test
-    void testComputeFirstOfGammaWithEpsilon() {
-        Map<String, Set<String>> firstSets = new HashMap<>();
-        firstSets.put("S", new LinkedHashSet<>());
-        Set<String> nonTerminals = new HashSet<>();
-        nonTerminals.add("S");
-        Set<String> result = new LinkedHashSet<>();
-        calculator.computeFirstOfGamma("epsilon", firstSets, nonTerminals, result);
-        assertTrue(result.contains("ε"));
+    void testComputeFirstSetsKeepsEpsilonThroughNullableNonTerminal() {
+        productionRules = new LinkedHashMap<>();
+        productionRules.put("S", List.of("A"));
+        productionRules.put("A", List.of("'a'", "epsilon"));
+        calculator.computeFirstSets(productionRules, productionRules.keySet(), grammar);
+
+        assertEquals(Set.of("'a'", "ε"), grammar.getFirstSets().get("S"));
+    }
+
+    @Test
+    void testComputeFirstSetsKeepsEpsilonWhenBetaIsEmpty() {
+        // X -> B has an empty β; ε reaches FIRST(B) only after X was first evaluated
+        productionRules = new LinkedHashMap<>();
+        productionRules.put("X", List.of("B"));
+        productionRules.put("B", List.of("'b'", "C"));
+        productionRules.put("C", List.of("epsilon"));
+        calculator.computeFirstSets(productionRules, productionRules.keySet(), grammar);
+
+        assertEquals(Set.of("'b'", "ε"), grammar.getFirstSets().get("X"));
+        assertTrue(grammar.getFirstStepRecords().stream()
+                .filter(step -> step.getPseudocodeLine() == 11)
+                .anyMatch(step -> step.getDescription().endsWith("['b', ε]")));
+    }
+
+    @Test
+    void testComputeFirstSetsOfSelfRecursiveNonTerminalIsEmpty() {
+        productionRules = new LinkedHashMap<>();
+        productionRules.put("N0", List.of("N0"));
+        productionRules.put("N1", List.of("N2 'x'"));
+        productionRules.put("N2", List.of("epsilon"));
+        calculator.computeFirstSets(productionRules, productionRules.keySet(), grammar);
+
+        assertEquals(Set.of(), grammar.getFirstSets().get("N0"));
+        assertEquals(Set.of("'x'"), grammar.getFirstSets().get("N1"));
+    }
+
+    @Test
+    void testComputeFirstSetsAddsEpsilonAfterWholeSequence() {
+        productionRules = new LinkedHashMap<>();
+        productionRules.put("S", List.of("A B C"));
+        productionRules.put("A", List.of("'a'", "epsilon"));
+        productionRules.put("B", List.of("'b'", "epsilon"));
+        productionRules.put("C", List.of("'c'", "epsilon"));
+        calculator.computeFirstSets(productionRules, productionRules.keySet(), grammar);
+
+        // ε follows B and C into FIRST(S) only once their sets contain it
+        TerminalSet firstOfS = grammar.getFirstBitSets()[0];
+        GrammarIr ir = GrammarIr.of(productionRules);
+        assertEquals(ir.epsilon(), firstOfS.get(firstOfS.size() - 1));
+        assertEquals(List.of("'a'", "'b'", "'c'", "ε"),
+                List.copyOf(grammar.getFirstSets().get("S")));
     }
 }
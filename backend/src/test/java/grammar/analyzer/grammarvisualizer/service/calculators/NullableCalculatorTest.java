@@ -0,0 +1,74 @@
+package grammar.analyzer.grammarvisualizer.service.calculators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NullableCalculatorTest {
+    private NullableCalculator calculator;
+    private Map<String, List<String>> productionRules;
+
+    @BeforeEach
+    void setUp() {
+        calculator = new NullableCalculator();
+        productionRules = new LinkedHashMap<>();
+        productionRules.put("S", List.of("A B", "'s'"));
+        productionRules.put("A", List.of("B B", "'a'"));
+        productionRules.put("B", List.of("'b'", "epsilon"));
+        productionRules.put("C", List.of("C 'c'", "A 'c'"));
+    }
+
+    @Test
+    void testComputeNullable() {
+        Grammar grammar = new Grammar();
+        calculator.computeNullable(GrammarIr.of(productionRules), grammar);
+        assertEquals(Set.of("S", "A", "B"), grammar.getNullableNonTerminals());
+    }
+
+    @Test
+    void testNullableSuffixes() {
+        GrammarIr ir = GrammarIr.of(productionRules);
+        Nullability nullability = calculator.computeNullable(ir);
+        int cByA = ir.productionsOf(ir.nonTerminalId("C"))[1];
+        assertFalse(nullability.isNullableFrom(cByA, 0));
+        assertTrue(nullability.isNullableFrom(cByA, 2));
+        assertTrue(nullability.isNullableFrom(ir.productionsOf(ir.nonTerminalId("S"))[0], 0));
+        assertFalse(nullability.isNullable(ir.nonTerminalId("C")));
+    }
+
+    @Test
+    void testProductionsWithTerminalsDoNotAffectCounters() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("A B", "A 'x'"));
+        rules.put("A", List.of("epsilon"));
+        rules.put("B", List.of("'b'"));
+        Grammar grammar = new Grammar();
+
+        calculator.computeNullable(GrammarIr.of(rules), grammar);
+
+        assertEquals(Set.of("A"), grammar.getNullableNonTerminals());
+    }
+
+    @Test
+    void testSelfRecursiveProductionIsNotNullable() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("N0", List.of("N0"));
+        rules.put("N1", List.of("N2 'x'"));
+        rules.put("N2", List.of("epsilon"));
+        Grammar grammar = new Grammar();
+
+        calculator.computeNullable(GrammarIr.of(rules), grammar);
+
+        assertEquals(Set.of("N2"), grammar.getNullableNonTerminals());
+    }
+}
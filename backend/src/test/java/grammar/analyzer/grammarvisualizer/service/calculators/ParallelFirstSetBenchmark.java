@@ -0,0 +1,125 @@
+package grammar.analyzer.grammarvisualizer.service.calculators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import grammar.analyzer.grammarvisualizer.util.RandomGrammars;
+import grammar.analyzer.grammarvisualizer.util.SetUtils;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the FIRST engines on a large grammar. Not part of the regular test run, since
+ * its name does not end in Test; run it with
+ * {@code mvn test -Dtest=ParallelFirstSetBenchmark}, optionally setting
+ * {@code -Dbenchmark.modules}, {@code -Dbenchmark.parallelism} and
+ * {@code -Dbenchmark.rounds}. It prints the median time of each engine and the speed-up
+ * of the parallel engine over the iterative one and over solving the same components
+ * one by one on the calling thread.
+ *
+ * <p>The grammar consists of independent modules of 64 non-terminals each, referenced
+ * from the start symbol, with short cycles inside every module.</p>
+ */
+class ParallelFirstSetBenchmark {
+    private static final int MODULE_SIZE = 64;
+
+    @Test
+    void benchmarkFirstEngines() {
+        int modules = Integer.getInteger("benchmark.modules", 1000);
+        int parallelism = Integer.getInteger("benchmark.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        int rounds = Integer.getInteger("benchmark.rounds", 10);
+
+        GrammarIr ir = GrammarIr.of(modularGrammar(new Random(42), modules));
+        Nullability nullability = new NullableCalculator().computeNullable(ir);
+        FirstSetCalculator firstSetCalculator = new FirstSetCalculator();
+        ParallelFirstSetCalculator calculator = new ParallelFirstSetCalculator(
+                firstSetCalculator);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Supplier<TerminalSet[]> iterative = () -> {
+                Grammar grammar = new Grammar();
+                firstSetCalculator.computeFirstSets(ir, nullability, StepRecorder.none(),
+                        grammar);
+                return grammar.getFirstBitSets();
+            };
+            Supplier<TerminalSet[]> components = () -> {
+                TerminalSet[] sets = SetUtils.initializeEmptyBitSets(ir);
+                calculator.computeFirstSets(ir, nullability, null, sets);
+                return sets;
+            };
+            Supplier<TerminalSet[]> parallel = () -> {
+                TerminalSet[] sets = SetUtils.initializeEmptyBitSets(ir);
+                calculator.computeFirstSets(ir, nullability, pool, sets);
+                return sets;
+            };
+            assertEquals(SetUtils.toNameSets(ir, iterative.get()),
+                    SetUtils.toNameSets(ir, parallel.get()));
+
+            double iterativeMillis = median(iterative, rounds);
+            double componentsMillis = median(components, rounds);
+            double parallelMillis = median(parallel, rounds);
+            System.out.printf("FIRST engines on %d non-terminals, %d productions, "
+                            + "parallelism %d of %d cores:%n", ir.getNonTerminalCount(),
+                    ir.getProductionCount(), parallelism,
+                    Runtime.getRuntime().availableProcessors());
+            System.out.printf("  ITERATIVE                 %10.2f ms%n", iterativeMillis);
+            System.out.printf("  PARALLEL, calling thread  %10.2f ms%n", componentsMillis);
+            System.out.printf("  PARALLEL, pool            %10.2f ms  (%.2fx iterative, "
+                            + "%.2fx calling thread)%n", parallelMillis,
+                    iterativeMillis / parallelMillis, componentsMillis / parallelMillis);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs a computation after as many warm-up runs and returns its median time.
+     */
+    private double median(Supplier<TerminalSet[]> computation, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            computation.get();
+        }
+        long[] times = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            computation.get();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[rounds / 2] / 1e6;
+    }
+
+    private Map<String, List<String>> modularGrammar(Random random, int modules) {
+        RandomGrammars grammars = new RandomGrammars(12, 3, 12);
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        List<String> roots = new ArrayList<>();
+        for (int m = 0; m < modules; m++) {
+            roots.add("M" + m + "_N0");
+        }
+        rules.put("S", roots);
+        for (int m = 0; m < modules; m++) {
+            String prefix = "M" + m + "_";
+            for (Map.Entry<String, List<String>> rule
+                    : grammars.rules(random, MODULE_SIZE).entrySet()) {
+                List<String> alternatives = new ArrayList<>();
+                for (String alternative : rule.getValue()) {
+                    alternatives.add(alternative.replaceAll("\\bN(\\d+)", prefix + "N$1"));
+                }
+                rules.put(prefix + rule.getKey(), alternatives);
+            }
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,105 @@
+package grammar.analyzer.grammarvisualizer.service.calculators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import grammar.analyzer.grammarvisualizer.util.RandomGrammars;
+import grammar.analyzer.grammarvisualizer.util.SetUtils;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelFirstSetCalculatorTest {
+    private FirstSetCalculator firstSetCalculator;
+    private ParallelFirstSetCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        firstSetCalculator = new FirstSetCalculator();
+        calculator = new ParallelFirstSetCalculator(firstSetCalculator);
+    }
+
+    @Test
+    void testMatchesIterativeCalculatorOnExpressionGrammar() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("E", List.of("T E'"));
+        rules.put("E'", List.of("'+' T E'", "epsilon"));
+        rules.put("T", List.of("F T'"));
+        rules.put("T'", List.of("'*' F T'", "epsilon"));
+        rules.put("F", List.of("'(' E ')'", "'id'"));
+        Grammar grammar = assertSameFirstSets(rules);
+        assertTrue(grammar.getFirstSets().get("E").contains("'id'"));
+    }
+
+    @Test
+    void testMatchesIterativeCalculatorOnRandomGrammars() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            assertSameFirstSets(new RandomGrammars(6, 3, 12).rules(random,
+                    1 + random.nextInt(6)));
+        }
+    }
+
+    @Test
+    void testLargeGrammarIsIndependentOfScheduling() {
+        Map<String, List<String>> rules = new RandomGrammars(12, 3, 12).rules(new Random(7),
+                ParallelFirstSetCalculator.PARALLEL_THRESHOLD * 8);
+        GrammarIr ir = GrammarIr.of(rules);
+        Nullability nullability = new NullableCalculator().computeNullable(ir);
+        Grammar expected = new Grammar();
+        firstSetCalculator.computeFirstSets(ir, nullability, expected);
+
+        TerminalSet[] sequential = SetUtils.initializeEmptyBitSets(ir);
+        int components = calculator.computeFirstSets(ir, nullability, null, sequential);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int run = 0; run < 3; run++) {
+                TerminalSet[] parallel = SetUtils.initializeEmptyBitSets(ir);
+                assertEquals(components,
+                        calculator.computeFirstSets(ir, nullability, pool, parallel));
+                // String forms compare the element order as well
+                assertEquals(SetUtils.toNameSets(ir, sequential).toString(),
+                        SetUtils.toNameSets(ir, parallel).toString());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(expected.getFirstSets(), SetUtils.toNameSets(ir, sequential));
+    }
+
+    @Test
+    void testRecordsSingleSummaryStep() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("A"));
+        rules.put("A", List.of("'a'"));
+        Grammar grammar = new Grammar();
+        GrammarIr ir = GrammarIr.of(rules);
+        calculator.computeFirstSets(ir, new NullableCalculator().computeNullable(ir), grammar);
+
+        assertEquals(1, grammar.getFirstStepRecords().size());
+        assertEquals(15, grammar.getFirstStepRecords().get(0).getPseudocodeLine());
+    }
+
+    private Grammar assertSameFirstSets(Map<String, List<String>> rules) {
+        GrammarIr ir = GrammarIr.of(rules);
+        Nullability nullability = new NullableCalculator().computeNullable(ir);
+        Grammar expected = new Grammar();
+        firstSetCalculator.computeFirstSets(ir, nullability, expected);
+
+        Grammar actual = new Grammar();
+        calculator.computeFirstSets(ir, nullability, actual);
+
+        // String forms compare the element order as well
+        assertEquals(expected.getFirstSets().toString(), actual.getFirstSets().toString(),
+                rules.toString());
+        return actual;
+    }
+}
@@ -0,0 +1,73 @@
+package grammar.analyzer.grammarvisualizer.service.calculators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.util.RandomGrammars;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelPredictSetCalculatorTest {
+    private PredictSetCalculator predictSetCalculator;
+    private ParallelPredictSetCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        predictSetCalculator = new PredictSetCalculator();
+        calculator = new ParallelPredictSetCalculator(predictSetCalculator);
+    }
+
+    @Test
+    void testMatchesIterativeCalculatorOnExpressionGrammar() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("E", List.of("T E'"));
+        rules.put("E'", List.of("'+' T E'", "epsilon"));
+        rules.put("T", List.of("F T'"));
+        rules.put("T'", List.of("'*' F T'", "epsilon"));
+        rules.put("F", List.of("'(' E ')'", "'id'"));
+        Grammar grammar = assertSamePredictSets(rules);
+
+        assertEquals(1, grammar.getPredictStepRecords().size());
+        assertEquals(4, grammar.getPredictStepRecords().get(0).getPseudocodeLine());
+        // Too few productions to be worth splitting
+        assertEquals("Line 4: PREDICT sets of 8 productions computed",
+                grammar.getPredictStepRecords().get(0).getDescription());
+    }
+
+    @Test
+    void testMatchesIterativeCalculatorOnLargeRandomGrammar() {
+        Grammar grammar = assertSamePredictSets(new RandomGrammars(40, 4)
+                .rules(new Random(42), 2000));
+
+        assertTrue(grammar.getPredictStepRecords().get(0).getDescription()
+                .endsWith("computed in parallel"));
+    }
+
+    private Grammar assertSamePredictSets(Map<String, List<String>> rules) {
+        GrammarIr ir = GrammarIr.of(rules);
+        Nullability nullability = new NullableCalculator().computeNullable(ir);
+        Grammar expected = new Grammar();
+        new FirstSetCalculator().computeFirstSets(ir, nullability, StepRecorder.none(),
+                expected);
+        new FollowSetCalculator().computeFollowSets(ir, expected.getFirstBitSets(),
+                nullability, StepRecorder.none(), expected);
+        predictSetCalculator.computePredictSets(ir, expected.getFirstBitSets(),
+                expected.getFollowBitSets(), nullability, StepRecorder.none(), expected);
+
+        Grammar actual = new Grammar();
+        calculator.computePredictSets(ir, expected.getFirstBitSets(),
+                expected.getFollowBitSets(), nullability, actual);
+
+        // String forms compare the element order as well
+        assertEquals(expected.getPredictSets().toString(), actual.getPredictSets().toString());
+        return actual;
+    }
+}
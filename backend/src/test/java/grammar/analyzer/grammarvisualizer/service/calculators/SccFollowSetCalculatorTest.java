@@ -0,0 +1,127 @@
+package grammar.analyzer.grammarvisualizer.service.calculators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.util.RandomGrammars;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SccFollowSetCalculatorTest {
+    private FirstSetCalculator firstSetCalculator;
+    private FollowSetCalculator followSetCalculator;
+    private SccFollowSetCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        firstSetCalculator = new FirstSetCalculator();
+        followSetCalculator = new FollowSetCalculator();
+        calculator = new SccFollowSetCalculator();
+    }
+
+    @Test
+    void testMatchesIterativeCalculatorOnExpressionGrammar() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("E", List.of("T E'"));
+        rules.put("E'", List.of("'+' T E'", "epsilon"));
+        rules.put("T", List.of("F T'"));
+        rules.put("T'", List.of("'*' F T'", "epsilon"));
+        rules.put("F", List.of("'(' E ')'", "'id'"));
+        assertSameFollowSets(rules);
+    }
+
+    @Test
+    void testMatchesIterativeCalculatorOnMutualInclusionCycle() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("A 'x'", "B"));
+        rules.put("A", List.of("'a' B", "epsilon"));
+        rules.put("B", List.of("'b' A", "C"));
+        rules.put("C", List.of("'c' S", "epsilon"));
+        Grammar grammar = assertSameFollowSets(rules);
+        assertTrue(grammar.getFollowSets().get("C").contains("'x'"));
+    }
+
+    @Test
+    void testMatchesIterativeCalculatorOnRandomGrammars() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            assertSameFollowSets(new RandomGrammars(4, 3).rules(random,
+                    1 + random.nextInt(6)));
+        }
+    }
+
+    @Test
+    void testDeepInclusionChainDoesNotOverflowStack() throws InterruptedException {
+        // FOLLOW(N(i-1)) includes FOLLOW(Ni), so the search from N0 descends the whole chain
+        int nonTerminals = 50_000;
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("N0", List.of("'b'"));
+        for (int a = 1; a < nonTerminals; a++) {
+            rules.put("N" + a, List.of("'a' N" + (a - 1)));
+        }
+        GrammarIr ir = GrammarIr.of(rules);
+        Nullability nullability = new NullableCalculator().computeNullable(ir);
+        Grammar grammar = new Grammar();
+        firstSetCalculator.computeFirstSets(ir, nullability, StepRecorder.none(), grammar);
+
+        // Run on a stack no larger than a typical request thread's
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                calculator.computeFollowSets(ir, grammar.getFirstBitSets(), nullability,
+                        grammar);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "follow", 512 * 1024);
+        thread.start();
+        thread.join();
+
+        assertNull(failure.get());
+        assertEquals(Set.of("$"), grammar.getFollowSets().get("N0"));
+        assertEquals(Set.of(), grammar.getFollowSets().get("N" + (nonTerminals - 1)));
+    }
+
+    @Test
+    void testRecordsSingleSummaryStep() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("A"));
+        rules.put("A", List.of("'a'"));
+        Grammar grammar = new Grammar();
+        GrammarIr ir = GrammarIr.of(rules);
+        Nullability nullability = new NullableCalculator().computeNullable(ir);
+        firstSetCalculator.computeFirstSets(ir, nullability, grammar);
+        calculator.computeFollowSets(ir, grammar.getFirstBitSets(), nullability, grammar);
+
+        assertEquals(1, grammar.getFollowStepRecords().size());
+        assertEquals(11, grammar.getFollowStepRecords().get(0).getPseudocodeLine());
+    }
+
+    private Grammar assertSameFollowSets(Map<String, List<String>> rules) {
+        GrammarIr ir = GrammarIr.of(rules);
+        Nullability nullability = new NullableCalculator().computeNullable(ir);
+        Grammar expected = new Grammar();
+        firstSetCalculator.computeFirstSets(ir, nullability, expected);
+        followSetCalculator.computeFollowSets(ir, expected.getFirstBitSets(), nullability,
+                expected);
+
+        Grammar actual = new Grammar();
+        calculator.computeFollowSets(ir, expected.getFirstBitSets(), nullability, actual);
+
+        // String forms compare the element order as well
+        assertEquals(expected.getFollowSets().toString(), actual.getFollowSets().toString(),
+                rules.toString());
+        return actual;
+    }
+}
@@ -1,34 +1,74 @@
 package grammar.analyzer.grammarvisualizer.service.ebnf.parser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import grammar.analyzer.grammarvisualizer.service.ebnf.model.token.Token;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.token.TokenType;
-import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class EbnfLexerTest {
     @Test
-    void testTokenizeSimple() {
-        String input = "a ( 'b' )";
-        List<Token> tokens = EbnfLexer.tokenize(input);
+    void testScanSimple() {
+        EbnfTokenBuffer tokens = scan("a ( 'b' )");
         assertEquals(5, tokens.size());
-        assertEquals(TokenType.IDENTIFIER, tokens.get(0).getType());
-        assertEquals("a", tokens.get(0).getText());
-        assertEquals(TokenType.LPAREN, tokens.get(1).getType());
-        assertEquals(TokenType.IDENTIFIER, tokens.get(2).getType());
-        assertEquals("'b'", tokens.get(2).getText());
-        assertEquals(TokenType.RPAREN, tokens.get(3).getType());
-        assertEquals(TokenType.END, tokens.get(4).getType());
+        assertEquals(TokenType.IDENTIFIER, tokens.type(0));
+        assertEquals("a", tokens.text(0));
+        assertEquals(TokenType.LPAREN, tokens.type(1));
+        assertEquals(TokenType.IDENTIFIER, tokens.type(2));
+        assertEquals("'b'", tokens.text(2));
+        assertEquals(TokenType.RPAREN, tokens.type(3));
+        assertEquals(TokenType.END, tokens.type(4));
     }
 
     @Test
-    void testTokenizeWithPipes() {
-        String input = "A | B";
-        List<Token> tokens = EbnfLexer.tokenize(input);
+    void testScanWithPipes() {
+        EbnfTokenBuffer tokens = scan("A | B");
         assertEquals(4, tokens.size());
-        assertEquals("A", tokens.get(0).getText());
-        assertEquals(TokenType.PIPE, tokens.get(1).getType());
-        assertEquals("B", tokens.get(2).getText());
+        assertEquals("A", tokens.text(0));
+        assertEquals(TokenType.PIPE, tokens.type(1));
+        assertEquals("B", tokens.text(2));
+    }
+
+    @Test
+    void testScanRecordsOffsetsWithoutCopying() {
+        String input = "S -> ab {'+' c}";
+        EbnfTokenBuffer tokens = EbnfLexer.scan(input, 5, input.length());
+
+        assertEquals(6, tokens.size());
+        assertEquals(TokenType.IDENTIFIER, tokens.type(0));
+        assertEquals(5, tokens.start(0));
+        assertEquals(7, tokens.end(0));
+        assertEquals(TokenType.LBRACE, tokens.type(1));
+        assertTrue(tokens.isLiteral(2));
+        assertEquals("'+'", tokens.text(2));
+        assertFalse(tokens.isLiteral(3));
+        assertEquals(TokenType.END, tokens.type(5));
+        assertSame(input, tokens.getSource());
+        assertEquals(input.length(), tokens.getRangeEnd());
+    }
+
+    @Test
+    void testScanReadsMidEscapeAsPipe() {
+        EbnfTokenBuffer tokens = scan("a\\mid \\eps");
+
+        assertEquals(4, tokens.size());
+        assertEquals("a", tokens.text(0));
+        assertEquals(TokenType.PIPE, tokens.type(1));
+        assertEquals(1, tokens.start(1));
+        assertEquals("epsilon", tokens.text(2));
+    }
+
+    @Test
+    void testScanClosesUnterminatedLiteral() {
+        EbnfTokenBuffer tokens = scan("a 'b");
+        assertEquals(3, tokens.size());
+        assertTrue(tokens.isLiteral(1));
+        assertEquals("'b'", tokens.text(1));
+    }
+
+    private EbnfTokenBuffer scan(String input) {
+        return EbnfLexer.scan(input, 0, input.length());
     }
 }
@@ -69,6 +69,22 @@ class EbnfParserTest {
         assertTrue(node instanceof RepetitionNode);
     }
 
+    @Test
+    void testParseRejectsUnmatchedClosingToken() {
+        EbnfParser parser = new EbnfParser("A ] B");
+        Exception exception = assertThrows(RuntimeException.class, parser::parse);
+        assertEquals("Unexpected token: ]", exception.getMessage());
+        assertEquals(2, parser.getOffset());
+    }
+
+    @Test
+    void testParseRejectsEmptyAlternative() {
+        EbnfParser parser = new EbnfParser("A | | B");
+        Exception exception = assertThrows(RuntimeException.class, parser::parse);
+        assertTrue(exception.getMessage().startsWith("Empty alternative is not allowed"));
+        assertEquals(4, parser.getOffset());
+    }
+
     @Test
     void testParseExpressionMissingClosing() {
         String input = "(A";
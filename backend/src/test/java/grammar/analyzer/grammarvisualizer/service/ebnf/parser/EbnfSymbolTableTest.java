@@ -0,0 +1,80 @@
+package grammar.analyzer.grammarvisualizer.service.ebnf.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class EbnfSymbolTableTest {
+    @Test
+    void testReturnsSameStringForEveryOccurrence() {
+        EbnfSymbolTable symbols = new EbnfSymbolTable();
+        EbnfTokenBuffer first = EbnfLexer.scan("expr ',' expr", 0, 13);
+        EbnfTokenBuffer second = EbnfLexer.scan("x -> expr | ','", 5, 15);
+
+        String expr = symbols.intern(first, 0);
+        String comma = symbols.intern(first, 1);
+
+        assertEquals("expr", expr);
+        assertEquals("','", comma);
+        assertSame(expr, symbols.intern(first, 2));
+        assertSame(expr, symbols.intern(second, 0));
+        assertSame(comma, symbols.intern(second, 2));
+        assertSame(expr, symbols.intern("expr"));
+        assertEquals(2, symbols.size());
+    }
+
+    @Test
+    void testInternsUnterminatedLiteralWithQuotes() {
+        EbnfSymbolTable symbols = new EbnfSymbolTable();
+        String literal = symbols.intern(EbnfLexer.scan("'ab", 0, 3), 0);
+
+        assertEquals("'ab'", literal);
+        assertSame(literal, symbols.intern(EbnfLexer.scan("'ab' c", 0, 6), 0));
+        // A literal cut off by the end of the range is closed in the same way
+        assertSame(literal, symbols.intern(EbnfLexer.scan("'abc'", 0, 3), 0));
+    }
+
+    @Test
+    void testChecksClosingQuoteWithinScannedRange() {
+        // The quote after the range must not be read, so the source refuses to yield it
+        String text = "'ab'";
+        CharSequence source = new CharSequence() {
+            @Override
+            public int length() {
+                return text.length();
+            }
+
+            @Override
+            public char charAt(int index) {
+                if (index >= 3) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return text.charAt(index);
+            }
+
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                return text.substring(start, end);
+            }
+        };
+
+        assertEquals("'ab'", new EbnfSymbolTable().intern(EbnfLexer.scan(source, 0, 3), 0));
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        EbnfSymbolTable symbols = new EbnfSymbolTable();
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            input.append("n").append(i).append(' ');
+        }
+        EbnfTokenBuffer tokens = EbnfLexer.scan(input, 0, input.length());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("n" + i, symbols.intern(tokens, i));
+        }
+
+        assertEquals(500, symbols.size());
+        assertSame(symbols.intern(tokens, 42), symbols.intern("n42"));
+    }
+}
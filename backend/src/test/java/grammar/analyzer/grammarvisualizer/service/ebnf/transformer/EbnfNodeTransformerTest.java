@@ -1,9 +1,9 @@
 package grammar.analyzer.grammarvisualizer.service.ebnf.transformer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.AlternativeNode;
+import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.EbnfNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.NonTerminalNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.OptionalNode;
 import grammar.analyzer.grammarvisualizer.service.ebnf.model.ast.RepetitionNode;
@@ -15,62 +15,74 @@ import org.junit.jupiter.api.Test;
 
 class EbnfNodeTransformerTest {
     @Test
-    void testTransformTerminalNode() {
-        TerminalNode terminalNode = new TerminalNode("'a'");
-        List<EbnfProduction> additional = new ArrayList<>();
-        String result = EbnfNodeTransformer.transformNode(terminalNode,
-                additional, prefix -> "_" + prefix + "1");
-        assertEquals("'a'", result);
-        assertTrue(additional.isEmpty());
+    void testLowerTerminalNode() {
+        assertEquals(List.of("S -> 'a'"), lower(new TerminalNode("'a'")));
     }
 
     @Test
-    void testTransformAlternativeNode() {
-        TerminalNode node1 = new TerminalNode("'a'");
-        TerminalNode node2 = new TerminalNode("'b'");
-        List<EbnfProduction> additional = new ArrayList<>();
-        AlternativeNode altNode = new AlternativeNode(List.of(node1, node2));
-        String result = EbnfNodeTransformer.transformNode(altNode, additional,
-                prefix -> "_" + prefix + "1");
-        assertTrue(result.startsWith("_alt"));
-        assertEquals(1, additional.size());
+    void testLowerAlternativeNode() {
+        AlternativeNode altNode = new AlternativeNode(List.of(new TerminalNode("'a'"),
+                new TerminalNode("'b'")));
+        assertEquals(List.of("S -> _alt1", "_alt1 -> 'a' | 'b'"), lower(altNode));
     }
 
     @Test
-    void testTransformOptionalNode() {
-        NonTerminalNode node = new NonTerminalNode("A");
-        List<EbnfProduction> additional = new ArrayList<>();
-        OptionalNode optNode = new OptionalNode(node);
-        String result = EbnfNodeTransformer.transformNode(optNode, additional,
-                prefix -> "_" + prefix + "1");
-        assertTrue(result.startsWith("_opt"));
-        assertEquals(1, additional.size());
-        EbnfProduction prod = additional.get(0);
-        assertTrue(prod.getRhs().contains("epsilon"));
+    void testLowerOptionalNode() {
+        OptionalNode optNode = new OptionalNode(new NonTerminalNode("A"));
+        assertEquals(List.of("S -> _opt1", "_opt1 -> A | epsilon"), lower(optNode));
     }
 
     @Test
-    void testTransformRepetitionNode() {
-        NonTerminalNode node = new NonTerminalNode("A");
-        List<EbnfProduction> additional = new ArrayList<>();
-        RepetitionNode repNode = new RepetitionNode(node);
-        String result = EbnfNodeTransformer.transformNode(repNode, additional,
-                prefix -> "_" + prefix + "1");
-        assertTrue(result.startsWith("_rep"));
-        assertEquals(1, additional.size());
-        EbnfProduction prod = additional.get(0);
-        assertTrue(prod.getRhs().contains("epsilon"));
+    void testLowerRepetitionNode() {
+        RepetitionNode repNode = new RepetitionNode(new NonTerminalNode("A"));
+        assertEquals(List.of("S -> _rep1", "_rep1 -> A _rep1 | epsilon"), lower(repNode));
     }
 
     @Test
-    void testTransformSequenceNode() {
-        TerminalNode node1 = new TerminalNode("'a'");
-        NonTerminalNode node2 = new NonTerminalNode("A");
-        List<EbnfProduction> additional = new ArrayList<>();
-        SequenceNode seqNode = new SequenceNode(List.of(node1, node2));
-        String result = EbnfNodeTransformer.transformNode(seqNode, additional,
-                prefix -> "_" + prefix + "1");
-        assertEquals("'a' A", result);
-        assertTrue(additional.isEmpty());
+    void testLowerSequenceNode() {
+        SequenceNode seqNode = new SequenceNode(List.of(new TerminalNode("'a'"),
+                new NonTerminalNode("A")));
+        assertEquals(List.of("S -> 'a' A"), lower(seqNode));
+    }
+
+    @Test
+    void testLowerNestedNodes() {
+        // 'a' [ A | 'b' ] { 'c' }
+        SequenceNode node = new SequenceNode(List.of(new TerminalNode("'a'"),
+                new OptionalNode(new AlternativeNode(List.of(new NonTerminalNode("A"),
+                        new TerminalNode("'b'")))),
+                new RepetitionNode(new TerminalNode("'c'"))));
+        // Helpers follow the rule in the order they are completed
+        assertEquals(List.of("S -> 'a' _opt1 _rep3", "_alt2 -> A | 'b'",
+                "_opt1 -> _alt2 | epsilon", "_rep3 -> 'c' _rep3 | epsilon"), lower(node));
+    }
+
+    @Test
+    void testLowerNodeSharesIdenticalSubexpressions() {
+        // { ',' A } [ { ',' A } ] { ',' A }
+        RepetitionNode repetition = new RepetitionNode(new SequenceNode(List.of(
+                new TerminalNode("','"), new NonTerminalNode("A"))));
+        SequenceNode node = new SequenceNode(List.of(repetition,
+                new OptionalNode(new RepetitionNode(new SequenceNode(List.of(
+                        new TerminalNode("','"), new NonTerminalNode("A"))))),
+                repetition));
+        EbnfLoweringContext context = new EbnfLoweringContext();
+        List<Object> body = new ArrayList<>();
+
+        EbnfNodeTransformer.lowerNode(node, body, context);
+
+        assertEquals(2, context.getHelperCount());
+        assertEquals(List.of("S -> _rep1 _opt2 _rep1", "_rep1 -> ',' A _rep1 | epsilon",
+                        "_opt2 -> _rep1 | epsilon"),
+                context.toRules(List.of("S"), List.of(body)).stream()
+                        .map(EbnfRule::render).toList());
+    }
+
+    private List<String> lower(EbnfNode node) {
+        EbnfLoweringContext context = new EbnfLoweringContext();
+        List<Object> body = new ArrayList<>();
+        EbnfNodeTransformer.lowerNode(node, body, context);
+        return context.toRules(List.of("S"), List.of(body)).stream()
+                .map(EbnfRule::render).toList();
     }
 }
@@ -1,8 +1,17 @@
 package grammar.analyzer.grammarvisualizer.service.ebnf.transformer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import grammar.analyzer.grammarvisualizer.exception.GrammarSyntaxException;
 import grammar.analyzer.grammarvisualizer.service.EbnfTransformerService;
+import grammar.analyzer.grammarvisualizer.util.GrammarNormalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.Test;
 
 class EbnfTransformerServiceImplTest {
@@ -22,4 +31,128 @@ class EbnfTransformerServiceImplTest {
         assertTrue(result.contains("S -> _opt1"));
         assertTrue(result.contains("_opt1 -> 'a' | epsilon"));
     }
+
+    @Test
+    void testLowerAppendsHelperRulesAfterRuleLines() {
+        EbnfTransformerService service = new EbnfTransformerServiceImpl();
+        List<EbnfRule> rules = service.lower("S -> 'a' [ B ] | C\n\nB -> { 'b' }\nC -> 'c'");
+
+        assertEquals(List.of("S -> _alt1", "B -> _rep3", "C -> 'c'",
+                        "_opt2 -> B | epsilon", "_alt1 -> 'a' _opt2 | C",
+                        "_rep3 -> 'b' _rep3 | epsilon"),
+                rules.stream().map(EbnfRule::render).toList());
+    }
+
+    @Test
+    void testLowerRejectsLineWithoutArrow() {
+        EbnfTransformerService service = new EbnfTransformerServiceImpl();
+        Exception exception = assertThrows(GrammarSyntaxException.class,
+                () -> service.lower("S -> [ 'a' ]\nB 'b'"));
+        assertTrue(exception.getMessage().contains("must contain '->'"));
+    }
+
+    @Test
+    void testLowerSharesHelpersAcrossLines() {
+        EbnfTransformerService service = new EbnfTransformerServiceImpl();
+        List<EbnfRule> rules = service.lower("L -> E { ',' E }\nA -> '[' E { ',' E } ']'"
+                + "\nS -> 'if' E S [ 'else' S ] | E [ 'else' S ]\nE -> 'e'");
+
+        assertEquals(List.of("L -> E _rep1", "A -> '[' E _rep1 ']'", "S -> _alt2",
+                        "E -> 'e'", "_rep1 -> ',' E _rep1 | epsilon",
+                        "_opt3 -> 'else' S | epsilon", "_alt2 -> 'if' E S _opt3 | E _opt3"),
+                rules.stream().map(EbnfRule::render).toList());
+    }
+
+    @Test
+    void testConcurrentTransformationsDoNotInterfere() throws Exception {
+        EbnfTransformerService service = new EbnfTransformerServiceImpl();
+        List<String> grammars = List.of("S -> [ 'a' ] { 'b' S } ( 'c' | 'd' )",
+                "S -> 'if' E 'then' S [ 'else' S ] | 'x'\nE -> 'e'",
+                "L -> E { ',' E }\nE -> ( 'x' | 'y' ) [ '!' ]");
+        List<String> expected = grammars.stream().map(service::transform).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int index = i % grammars.size();
+                results.add(executor.submit(() -> expected.get(index)
+                        .equals(service.transform(grammars.get(index)))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testParallelLoweringMatchesSequential() {
+        StringBuilder grammar = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            grammar.append("N").append(i).append(" -> 'a' { ',' N").append(i + 1)
+                    .append(" } [ 'x' ] ( 'p' | 'q' N").append(i % 7).append(" )\n");
+            if (i % 100 == 0) {
+                grammar.append("\n");
+            }
+        }
+        grammar.append("N2500 -> 'end'");
+        EbnfTransformerServiceImpl service = new EbnfTransformerServiceImpl();
+
+        List<String> sequential = render(service.lower(grammar.toString(), Integer.MAX_VALUE));
+        List<String> parallel = render(service.lower(grammar.toString(), 0));
+
+        assertEquals(sequential, parallel);
+        assertEquals("N0 -> 'a' _rep1 _opt2 _alt3", sequential.get(0));
+    }
+
+    @Test
+    void testParallelLoweringReportsErrorsOfAllMalformedLinesInOrder() {
+        StringBuilder grammar = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            grammar.append(i == 300 ? "First 'a'" : i == 900 ? "S -> ( 'b'" : "S -> [ 'a' ]")
+                    .append("\n");
+        }
+
+        GrammarSyntaxException exception = assertThrows(GrammarSyntaxException.class,
+                () -> new EbnfTransformerServiceImpl().lower(grammar.toString(), 0));
+        assertEquals(List.of("Line 301, column 1: Invalid syntax: each rule must contain "
+                        + "'->'. Rule: First 'a'", "Line 901, column 11: Expected ')' token"),
+                exception.getErrors());
+    }
+
+    @Test
+    void testLowerReportsPositionsInRawInput() {
+        EbnfTransformerService service = new EbnfTransformerServiceImpl();
+        GrammarSyntaxException exception = assertThrows(GrammarSyntaxException.class,
+                () -> service.lower("S -> [ 'a' ]\r\n\t2A -> 'b'\nB -> 'c' |\n"
+                        + "C -> { 'c' } -> 'd'\nD -> 'd' ) 'e'"));
+
+        assertEquals(List.of(
+                "Line 2, column 2: Invalid syntax: left-hand side of the rule must be a "
+                        + "valid non-terminal (e.g., A, S', Expr). Rule: 2A -> 'b'",
+                "Line 3, column 11: Empty alternative is not allowed. "
+                        + "Use 'epsilon' explicitly if needed",
+                "Line 4, column 14: Invalid syntax: exactly one '->' expected in each rule. "
+                        + "Rule: C -> { 'c' } -> 'd'",
+                "Line 5, column 10: Unexpected token: )"), exception.getErrors());
+    }
+
+    @Test
+    void testLowerReadsEscapeSequences() {
+        EbnfTransformerService service = new EbnfTransformerServiceImpl();
+        String grammar = "S \\to 'a' [ B ] \\mid \\eps\nB \\to { 'b' }\\mid'c'";
+
+        assertEquals(render(service.lower(GrammarNormalizer.normalize(grammar))),
+                render(service.lower(grammar)));
+        assertEquals("_alt1 -> 'a' _opt2 | epsilon", render(service.lower(grammar)).get(3));
+    }
+
+    private List<String> render(List<EbnfRule> rules) {
+        List<String> rendered = new ArrayList<>();
+        for (EbnfRule rule : rules) {
+            rendered.add(rule.render());
+        }
+        return rendered;
+    }
 }
@@ -0,0 +1,169 @@
+package grammar.analyzer.grammarvisualizer.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import grammar.analyzer.grammarvisualizer.config.AnalysisProperties;
+import grammar.analyzer.grammarvisualizer.dto.grammar.AnalysisStoreStatsDto;
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.util.DeferredStepRecords;
+import grammar.analyzer.grammarvisualizer.util.LazyStepRecords;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class AnalysisStoreServiceImplTest {
+    private AnalysisProperties properties;
+    private AnalysisStoreServiceImpl store;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalysisProperties();
+        properties.getStore().setMaxEntries(2);
+        store = new AnalysisStoreServiceImpl(properties);
+        now = Instant.parse("2024-01-01T00:00:00Z");
+        store.setClock(Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedAnalysis() {
+        Grammar first = new Grammar();
+        String firstId = store.put(first);
+        String secondId = store.put(new Grammar());
+        // Accessing the first analysis makes the second one the least recently used
+        assertSame(first, store.get(firstId).orElseThrow());
+        String thirdId = store.put(new Grammar());
+
+        assertTrue(store.get(firstId).isPresent());
+        assertTrue(store.get(secondId).isEmpty());
+        assertTrue(store.get(thirdId).isPresent());
+        AnalysisStoreStatsDto stats = store.getStats();
+        assertEquals(3, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2, stats.getEntries());
+    }
+
+    @Test
+    void testExpiresAnalysesNotAccessedWithinTtl() {
+        properties.getStore().setTtl(Duration.ofMinutes(10));
+        String oldId = store.put(new Grammar());
+        advance(Duration.ofMinutes(6));
+        String recentId = store.put(new Grammar());
+        advance(Duration.ofMinutes(6));
+
+        assertTrue(store.get(oldId).isEmpty());
+        assertTrue(store.get(recentId).isPresent());
+        advance(Duration.ofMinutes(11));
+        assertTrue(store.get(recentId).isEmpty());
+        assertEquals(0, store.getStats().getEntries());
+        assertEquals(2, store.getStats().getEvictions());
+    }
+
+    @Test
+    void testKeepsEstimatedMemoryBelowCeiling() {
+        properties.getStore().setMaxEntries(100);
+        properties.getStore().setMaxMemory(DataSize.ofKilobytes(64));
+        String firstId = store.put(largeGrammar());
+        String secondId = store.put(largeGrammar());
+
+        AnalysisStoreStatsDto stats = store.getStats();
+        assertTrue(store.get(firstId).isEmpty());
+        assertTrue(store.get(secondId).isPresent());
+        assertEquals(1, stats.getEntries());
+        // The most recently stored analysis is kept even when it alone exceeds the ceiling
+        assertTrue(stats.getEstimatedBytes() > stats.getMaxBytes());
+    }
+
+    @Test
+    void testAccountsDeferredStepsOnceComputed() {
+        properties.getStore().setMaxEntries(100);
+        properties.getStore().setMaxMemory(DataSize.ofKilobytes(64));
+        Grammar deferred = new Grammar();
+        deferred.setFirstStepRecords(new DeferredStepRecords(() -> steps(1000)));
+        String otherId = store.put(new Grammar());
+        String deferredId = store.put(deferred);
+        long before = store.getStats().getEstimatedBytes();
+
+        assertEquals(1000, deferred.getFirstStepRecords().size());
+        // The computed steps exceed the ceiling, which evicts the least recently used
+        assertTrue(store.getStats().getEstimatedBytes() > before);
+        assertEquals(1, store.getStats().getEvictions());
+        assertTrue(store.get(otherId).isEmpty());
+        assertTrue(store.get(deferredId).isPresent());
+    }
+
+    @Test
+    void testAccountsReplayedPageOfLazySteps() {
+        Grammar grammar = new Grammar();
+        grammar.setFollowStepRecords(new LazyStepRecords(100, List.of(),
+                (start, from, to) -> steps(to - from)));
+        store.put(grammar);
+        long before = store.getStats().getEstimatedBytes();
+
+        grammar.getFollowStepRecords().get(0);
+        long firstPage = store.getStats().getEstimatedBytes();
+        grammar.getFollowStepRecords().get(99);
+        long lastPage = store.getStats().getEstimatedBytes();
+
+        assertTrue(firstPage > before);
+        // Only the last page read is cached, and it is shorter than a full one
+        assertTrue(lastPage > before && lastPage < firstPage);
+    }
+
+    @Test
+    void testIgnoresStepsResolvedAfterRemoval() {
+        Grammar replaced = new Grammar();
+        replaced.setFirstStepRecords(new DeferredStepRecords(() -> steps(1000)));
+        store.put("id", replaced);
+        store.put("id", new Grammar());
+        long before = store.getStats().getEstimatedBytes();
+
+        replaced.getFirstStepRecords().size();
+        assertEquals(before, store.getStats().getEstimatedBytes());
+    }
+
+    @Test
+    void testReplacesAnalysisStoredUnderSameId() {
+        Grammar replacement = new Grammar();
+        store.put("id", new Grammar());
+        store.put("id", replacement);
+
+        assertSame(replacement, store.get("id").orElseThrow());
+        assertEquals(1, store.getStats().getEntries());
+        assertEquals(0, store.getStats().getEvictions());
+    }
+
+    @Test
+    void testCountsMissForMissingId() {
+        assertTrue(store.get(null).isEmpty());
+        assertTrue(store.get("unknown").isEmpty());
+        assertEquals(2, store.getStats().getMisses());
+        assertEquals(0, store.getStats().getHits());
+    }
+
+    private void advance(Duration duration) {
+        now = now.plus(duration);
+        store.setClock(Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private Grammar largeGrammar() {
+        Grammar grammar = new Grammar();
+        grammar.setFirstStepRecords(steps(1000));
+        return grammar;
+    }
+
+    private List<StepRecord> steps(int count) {
+        return Collections.nCopies(count, new StepRecord("Step", Map.of(), 1));
+    }
+}
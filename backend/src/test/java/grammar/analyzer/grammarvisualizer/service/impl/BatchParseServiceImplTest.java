@@ -0,0 +1,93 @@
+package grammar.analyzer.grammarvisualizer.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import grammar.analyzer.grammarvisualizer.model.BatchParseSummary;
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ParseResult;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class BatchParseServiceImplTest {
+    private final BatchParseServiceImpl service = new BatchParseServiceImpl(
+            new ParserServiceImpl());
+
+    @Test
+    void testPassesVerdictsOnInInputOrder() {
+        Grammar grammar = balancedParentheses();
+        int count = 3 * BatchParseServiceImpl.CHUNK_SIZE + 17;
+        List<String> sentences = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Every third sentence is missing its last closing parenthesis
+            String sentence = "( ".repeat(i % 50) + ") ".repeat(i % 50);
+            sentences.add(i % 3 == 0 && i % 50 > 0
+                    ? sentence.substring(0, sentence.length() - 2) : sentence);
+        }
+        List<ParseResult> verdicts = Collections.synchronizedList(new ArrayList<>());
+
+        BatchParseSummary summary = service.parseBatch(grammar.getGrammarIr(),
+                grammar.getParseTable(), sentences.iterator(), verdicts::add);
+
+        assertEquals(count, verdicts.size());
+        int rejected = 0;
+        for (int i = 0; i < count; i++) {
+            ParseResult verdict = verdicts.get(i);
+            assertEquals(i, verdict.getIndex());
+            boolean broken = i % 3 == 0 && i % 50 > 0;
+            assertEquals(!broken, verdict.isAccepted(), sentences.get(i));
+            if (broken) {
+                rejected++;
+                assertEquals(2 * (i % 50) - 1, verdict.getErrorPosition());
+            }
+        }
+        assertEquals(count, summary.getSentences());
+        assertEquals(rejected, summary.getRejected());
+        assertEquals(count - rejected, summary.getAccepted());
+    }
+
+    @Test
+    void testReadsSentencesOnlyAsNeeded() {
+        Grammar grammar = balancedParentheses();
+        int[] read = new int[1];
+        Iterator<String> sentences = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return read[0] < 2 * BatchParseServiceImpl.CHUNK_SIZE;
+            }
+
+            @Override
+            public String next() {
+                read[0]++;
+                return "( )";
+            }
+        };
+        List<Integer> readWhenPassedOn = new ArrayList<>();
+
+        service.parseBatch(grammar.getGrammarIr(), grammar.getParseTable(), sentences,
+                verdict -> readWhenPassedOn.add(read[0]));
+
+        // The first verdict is passed on after one chunk, not the whole input, was read
+        assertEquals(BatchParseServiceImpl.CHUNK_SIZE, readWhenPassedOn.get(0));
+    }
+
+    private Grammar balancedParentheses() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("'(' S ')' S", "epsilon"));
+        GrammarIr ir = GrammarIr.of(rules);
+        TerminalSet[] predictSets = {
+                TerminalSet.of(ir, List.of("'('")),
+                TerminalSet.of(ir, List.of("')'", "$"))
+        };
+        Grammar grammar = new Grammar();
+        grammar.setGrammarIr(ir);
+        new Ll1ServiceImpl().buildLl1Table(ir, predictSets, grammar);
+        return grammar;
+    }
+}
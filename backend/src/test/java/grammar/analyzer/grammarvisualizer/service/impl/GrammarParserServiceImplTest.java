@@ -56,4 +56,57 @@ class GrammarParserServiceImplTest {
         assertTrue(exception.getMessage().contains("left-hand side of "
                 + "the rule must be a valid non-terminal"));
     }
+
+    @Test
+    void testParseEbnfGrammarIntoHelperProductions() {
+        Map<String, List<String>> productionRules =
+                parserService.parseGrammar("S -> 'a' { ',' 'a' } [ T ]\nT -> 't'");
+
+        assertEquals(List.of("S", "T", "_rep1", "_opt2"),
+                List.copyOf(productionRules.keySet()));
+        assertEquals(List.of("'a' _rep1 _opt2"), productionRules.get("S"));
+        assertEquals(List.of("',' 'a' _rep1", "epsilon"), productionRules.get("_rep1"));
+        assertEquals(List.of("T", "epsilon"), productionRules.get("_opt2"));
+    }
+
+    @Test
+    void testParseEbnfGrammarThrowsOnEmptyOptional() {
+        Exception exception = assertThrows(GrammarSyntaxException.class,
+                () -> parserService.parseGrammar("S -> 'a' [ ]"));
+        assertTrue(exception.getMessage().contains("Empty alternative is not allowed"));
+    }
+
+    @Test
+    void testParseGrammarReportsAllErrorsWithPositions() {
+        GrammarSyntaxException exception = assertThrows(GrammarSyntaxException.class,
+                () -> parserService.parseGrammar("S -> A | \nA 'a'\nB -> C"));
+
+        List<String> errors = exception.getErrors();
+        assertEquals(4, errors.size());
+        assertTrue(errors.get(0).startsWith("Line 1, column 10: Empty alternative"));
+        assertTrue(errors.get(1).startsWith("Line 2, column 1: Invalid syntax: each rule "
+                + "must contain '->'"));
+        assertEquals("Line 1, column 6: Undefined non-terminal(s): A", errors.get(2));
+        assertEquals("Line 3, column 6: Undefined non-terminal(s): C", errors.get(3));
+    }
+
+    @Test
+    void testParseEbnfGrammarReportsErrorsWithPositions() {
+        GrammarSyntaxException exception = assertThrows(GrammarSyntaxException.class,
+                () -> parserService.parseGrammar("S -> { 'a' }\nA 'a'\nB -> [ 'b' | ]"));
+
+        assertEquals(List.of("Line 2, column 1: Invalid syntax: each rule must contain "
+                        + "'->'. Rule: A 'a'",
+                "Line 3, column 14: Empty alternative is not allowed. "
+                        + "Use 'epsilon' explicitly if needed"), exception.getErrors());
+    }
+
+    @Test
+    void testParseEbnfGrammarReportsUndefinedNonTerminal() {
+        GrammarSyntaxException exception = assertThrows(GrammarSyntaxException.class,
+                () -> parserService.parseGrammar("S -> 'a' [ T ]"));
+
+        assertEquals(List.of("Line 1, column 12: Undefined non-terminal(s): T"),
+                exception.getErrors());
+    }
 }
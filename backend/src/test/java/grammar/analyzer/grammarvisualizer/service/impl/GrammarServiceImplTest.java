@@ -1,24 +1,53 @@
 package grammar.analyzer.grammarvisualizer.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import grammar.analyzer.grammarvisualizer.config.AnalysisProperties;
+import grammar.analyzer.grammarvisualizer.config.CacheConfig;
+import grammar.analyzer.grammarvisualizer.dto.grammar.CompressedLl1TableDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarRequestDto;
 import grammar.analyzer.grammarvisualizer.dto.grammar.GrammarResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseRequestDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.ParseResponseDto;
+import grammar.analyzer.grammarvisualizer.dto.grammar.StreamParseResponseDto;
 import grammar.analyzer.grammarvisualizer.exception.GrammarNotInitializedException;
 import grammar.analyzer.grammarvisualizer.exception.UnknownAnalysisTypeException;
+import grammar.analyzer.grammarvisualizer.exception.UnknownTraceModeException;
 import grammar.analyzer.grammarvisualizer.mapper.GrammarMapper;
+import grammar.analyzer.grammarvisualizer.model.BatchParseSummary;
+import grammar.analyzer.grammarvisualizer.model.CompressedLl1Table;
 import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ParseResult;
 import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.StreamParseResult;
+import grammar.analyzer.grammarvisualizer.model.TableSizeReport;
+import grammar.analyzer.grammarvisualizer.model.TraceMode;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
 import grammar.analyzer.grammarvisualizer.service.FirstFollowPredictService;
 import grammar.analyzer.grammarvisualizer.service.GrammarParserService;
+import grammar.analyzer.grammarvisualizer.service.IncrementalAnalysisService;
 import grammar.analyzer.grammarvisualizer.service.LL1Service;
+import grammar.analyzer.grammarvisualizer.service.ParserService;
+import grammar.analyzer.grammarvisualizer.util.TerminalLexer;
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +60,9 @@ class GrammarServiceImplTest {
     private GrammarParserService grammarParserService;
     private FirstFollowPredictService firstFollowPredictService;
     private LL1Service ll1Service;
+    private IncrementalAnalysisService incrementalAnalysisService;
+    private ParserService parserService;
+    private AnalysisStoreServiceImpl analysisStoreService;
     private GrammarServiceImpl grammarService;
 
     @BeforeEach
@@ -39,8 +71,13 @@ class GrammarServiceImplTest {
         grammarParserService = mock(GrammarParserService.class);
         firstFollowPredictService = mock(FirstFollowPredictService.class);
         ll1Service = mock(LL1Service.class);
+        incrementalAnalysisService = mock(IncrementalAnalysisService.class);
+        parserService = mock(ParserService.class);
+        analysisStoreService = new AnalysisStoreServiceImpl(new AnalysisProperties());
         grammarService = new GrammarServiceImpl(grammarMapper, grammarParserService,
-                firstFollowPredictService, ll1Service);
+                firstFollowPredictService, ll1Service, incrementalAnalysisService, parserService,
+                new BatchParseServiceImpl(parserService), analysisStoreService,
+                new CacheConfig().cacheManager(new AnalysisProperties()));
     }
 
     @Test
@@ -55,6 +92,68 @@ class GrammarServiceImplTest {
         when(grammarMapper.toDto(any(Grammar.class))).thenReturn(responseDto);
         GrammarResponseDto result = grammarService.analyzeGrammar(requestDto);
         assertSame(responseDto, result);
+        assertEquals(1, analysisStoreService.getStats().getEntries());
+    }
+
+    @Test
+    void testAnalyzeGrammarWithoutTrace() {
+        GrammarRequestDto requestDto = new GrammarRequestDto();
+        requestDto.setGrammar("S -> 'a'");
+        requestDto.setTrace("none");
+        when(grammarParserService.parseGrammar(anyString()))
+                .thenReturn(Map.of("S", List.of("'a'")));
+        doAnswer(invocation -> {
+            Grammar grammar = invocation.getArgument(2);
+            assertEquals(TraceMode.NONE, grammar.getTraceMode());
+            grammar.setLl1Table(Map.of("S", Map.of("'a'", "R1")));
+            grammar.setLl1(true);
+            return null;
+        }).when(ll1Service).buildLl1Table(any(GrammarIr.class), any(), any(Grammar.class));
+
+        GrammarResponseDto result = grammarService.analyzeGrammar(requestDto);
+
+        assertTrue(result.isLl1());
+        assertEquals(Map.of("S", Map.of("'a'", "R1")), result.getLl1Table());
+        assertNull(result.getProductionRuleList());
+        assertNull(result.getTransformedGrammar());
+        assertNull(result.getAnalysisId());
+        assertEquals(0, analysisStoreService.getStats().getEntries());
+        verify(grammarMapper, never()).toDto(any(Grammar.class));
+    }
+
+    @Test
+    void testAnalyzeGrammarWithCompactTable() {
+        GrammarRequestDto requestDto = new GrammarRequestDto();
+        requestDto.setGrammar("S -> 'a'");
+        requestDto.setTrace("none");
+        requestDto.setCompactTable(true);
+        when(grammarParserService.parseGrammar(anyString()))
+                .thenReturn(Map.of("S", List.of("'a'")));
+        doAnswer(invocation -> {
+            Grammar grammar = invocation.getArgument(2);
+            grammar.setLl1Table(Map.of("S", Map.of("'a'", "R1")));
+            return null;
+        }).when(ll1Service).buildLl1Table(any(GrammarIr.class), any(), any(Grammar.class));
+        CompressedLl1Table compressed = new CompressedLl1Table(List.of("S"), List.of("'a'", "$"),
+                new int[] {0}, new int[] {0}, new int[] {0}, new int[0], new int[0][],
+                new TableSizeReport());
+        when(ll1Service.compressLl1Table(any(GrammarIr.class), any())).thenReturn(compressed);
+        CompressedLl1TableDto compressedDto = new CompressedLl1TableDto();
+        when(grammarMapper.toDto(compressed)).thenReturn(compressedDto);
+
+        GrammarResponseDto result = grammarService.analyzeGrammar(requestDto);
+
+        assertSame(compressedDto, result.getCompressedLl1Table());
+        assertNull(result.getLl1Table());
+    }
+
+    @Test
+    void testAnalyzeGrammarWithUnknownTrace() {
+        GrammarRequestDto requestDto = new GrammarRequestDto();
+        requestDto.setGrammar("S -> 'a'");
+        requestDto.setTrace("partial");
+        assertThrows(UnknownTraceModeException.class,
+                () -> grammarService.analyzeGrammar(requestDto));
     }
 
     @Test
@@ -66,11 +165,11 @@ class GrammarServiceImplTest {
         grammar.setFirstStepRecords(List.of(new StepRecord("Step",
                 Map.of(), 1)));
 
-        grammarService.setCurrentGrammar(grammar);
+        String analysisId = analysisStoreService.put(grammar);
 
         when(grammarMapper.toDto(grammar)).thenReturn(new GrammarResponseDto());
 
-        GrammarResponseDto response = grammarService.getStep("LL1",
+        GrammarResponseDto response = grammarService.getStep(analysisId, "LL1",
                 0, "S -> 'a'");
 
         assertTrue(response.isLl1());
@@ -85,11 +184,11 @@ class GrammarServiceImplTest {
                 new StepRecord("Step1", Map.of("S", Set.of("'a'")), 1),
                 new StepRecord("Step2", Map.of("S", Set.of("'b'")), 2)
         ));
-        grammarService.setCurrentGrammar(grammar);
+        String analysisId = analysisStoreService.put(grammar);
 
         when(grammarMapper.toDto(grammar)).thenReturn(new GrammarResponseDto());
 
-        GrammarResponseDto response = grammarService.getStep("FIRST",
+        GrammarResponseDto response = grammarService.getStep(analysisId, "FIRST",
                 10, "S -> 'a'");
         assertEquals(1, response.getCurrentStepIndex());
         assertEquals(2, response.getTotalSteps());
@@ -100,15 +199,191 @@ class GrammarServiceImplTest {
     void testGetStepUnknownAnalysisType() {
         Grammar grammar = new Grammar();
         grammar.setFirstStepRecords(List.of());
-        grammarService.setCurrentGrammar(grammar);
+        String analysisId = analysisStoreService.put(grammar);
         assertThrows(UnknownAnalysisTypeException.class,
-                () -> grammarService.getStep("UNKNOWN", 0, "S -> 'a'"));
+                () -> grammarService.getStep(analysisId, "UNKNOWN", 0, "S -> 'a'"));
     }
 
     @Test
     void testGetStepWithoutGrammar() {
-        grammarService.setCurrentGrammar(null);
         assertThrows(GrammarNotInitializedException.class,
-                () -> grammarService.getStep("FIRST", 0, "S -> 'a'"));
+                () -> grammarService.getStep("unknown", "FIRST", 0, null));
+        assertEquals(1, analysisStoreService.getStats().getMisses());
+    }
+
+    @Test
+    void testGetStepReanalyzesEvictedAnalysis() {
+        when(grammarParserService.parseGrammar("S -> 'a'"))
+                .thenReturn(Map.of("S", List.of("'a'")));
+        doAnswer(invocation -> {
+            Grammar grammar = invocation.getArgument(2);
+            grammar.setFirstStepRecords(List.of(new StepRecord("Step",
+                    Map.of("S", Set.of("'a'")), 3)));
+            return null;
+        }).when(firstFollowPredictService).computeFirstSets(any(GrammarIr.class), any(),
+                any(Grammar.class));
+        when(grammarMapper.toDto(any(Grammar.class))).thenReturn(new GrammarResponseDto());
+
+        GrammarResponseDto response = grammarService.getStep("evicted", "FIRST", 0,
+                "S -> 'a'");
+
+        assertEquals(3, response.getPseudoCodeLine());
+        Grammar stored = analysisStoreService.get("evicted").orElse(null);
+        assertNotNull(stored);
+        assertEquals("evicted", stored.getAnalysisId());
+        assertEquals(TraceMode.FULL, stored.getTraceMode());
+    }
+
+    @Test
+    void testAnalyzeGrammarReusesPreviousAnalysis() {
+        Grammar previous = new Grammar();
+        String previousId = analysisStoreService.put(previous);
+        GrammarRequestDto requestDto = new GrammarRequestDto();
+        requestDto.setGrammar("S -> 'b'");
+        requestDto.setPreviousAnalysisId(previousId);
+        when(grammarParserService.parseGrammar(anyString()))
+                .thenReturn(Map.of("S", List.of("'b'")));
+        when(incrementalAnalysisService.reanalyze(any(GrammarIr.class), any(), any(Grammar.class),
+                any(Grammar.class))).thenReturn(true);
+        doAnswer(invocation -> {
+            Grammar grammar = invocation.getArgument(2);
+            grammar.setFirstStepRecords(List.of(new StepRecord("Step",
+                    Map.of("S", Set.of("'b'")), 4)));
+            return null;
+        }).when(firstFollowPredictService).computeFirstSets(any(GrammarIr.class), any(),
+                any(Grammar.class));
+        GrammarResponseDto responseDto = new GrammarResponseDto();
+        responseDto.setAnalysisId("next");
+        when(grammarMapper.toDto(any(Grammar.class))).thenReturn(responseDto);
+
+        grammarService.analyzeGrammar(requestDto);
+
+        verify(incrementalAnalysisService).reanalyze(any(GrammarIr.class), any(), any(Grammar.class),
+                any(Grammar.class));
+        verify(ll1Service, never()).buildLl1Table(any(GrammarIr.class), any(), any(Grammar.class));
+        // The trace is only computed once a step is requested
+        verify(firstFollowPredictService, never()).computeFirstSets(any(GrammarIr.class), any(),
+                any(Grammar.class));
+        assertEquals(2, analysisStoreService.getStats().getEntries());
+    }
+
+    @Test
+    void testParseWithStoredAnalysis() {
+        Grammar grammar = new Grammar();
+        grammar.setGrammarIr(GrammarIr.of(Map.of("S", List.of("'a'"))));
+        grammar.setParseTable(new Ll1Table(1, 2));
+        String analysisId = analysisStoreService.put(grammar);
+        ParseRequestDto requestDto = new ParseRequestDto();
+        requestDto.setAnalysisId(analysisId);
+        requestDto.setInput("a");
+        ParseResult result = new ParseResult();
+        when(parserService.parse(grammar.getGrammarIr(), grammar.getParseTable(), "a"))
+                .thenReturn(result);
+        ParseResponseDto responseDto = new ParseResponseDto();
+        when(grammarMapper.toDto(result)).thenReturn(responseDto);
+
+        assertSame(responseDto, grammarService.parse(requestDto));
+        verify(grammarParserService, never()).parseGrammar(anyString());
+    }
+
+    @Test
+    void testParseAnalyzesGrammarWithoutStoringIt() {
+        ParseRequestDto requestDto = new ParseRequestDto();
+        requestDto.setGrammar("S -> 'a'");
+        requestDto.setInput("a");
+        when(grammarParserService.parseGrammar("S -> 'a'"))
+                .thenReturn(Map.of("S", List.of("'a'")));
+        when(parserService.parse(any(GrammarIr.class), any(), anyString()))
+                .thenReturn(new ParseResult());
+
+        grammarService.parse(requestDto);
+
+        verify(ll1Service).buildLl1Table(any(GrammarIr.class), any(), any(Grammar.class));
+        assertEquals(0, analysisStoreService.getStats().getEntries());
+    }
+
+    @Test
+    void testParseBatchMapsVerdictsInOrder() {
+        Grammar grammar = new Grammar();
+        grammar.setGrammarIr(GrammarIr.of(Map.of("S", List.of("'a'"))));
+        grammar.setParseTable(new Ll1Table(1, 2));
+        String analysisId = analysisStoreService.put(grammar);
+        when(parserService.parse(any(GrammarIr.class), any(), anyString()))
+                .thenAnswer(invocation -> {
+                    ParseResult result = new ParseResult();
+                    result.setAccepted("a".equals(invocation.getArgument(2)));
+                    return result;
+                });
+        when(grammarMapper.toDto(any(ParseResult.class))).thenAnswer(invocation -> {
+            ParseResult result = invocation.getArgument(0);
+            ParseResponseDto dto = new ParseResponseDto();
+            dto.setIndex(result.getIndex());
+            dto.setAccepted(result.isAccepted());
+            return dto;
+        });
+        List<ParseResponseDto> verdicts = new ArrayList<>();
+
+        grammarService.parseBatch(analysisId, null, List.of("a", "b", "a").iterator(),
+                verdicts::add);
+
+        assertEquals(List.of(0, 1, 2), verdicts.stream().map(ParseResponseDto::getIndex).toList());
+        assertEquals(List.of(true, false, true),
+                verdicts.stream().map(ParseResponseDto::isAccepted).toList());
+        verify(grammarMapper).toDto(any(BatchParseSummary.class));
+    }
+
+    @Test
+    void testParseRawTextCompilesLexerOnce() {
+        Grammar grammar = new Grammar();
+        grammar.setGrammarIr(GrammarIr.of(Map.of("S", List.of("'a'"))));
+        grammar.setParseTable(new Ll1Table(1, 2));
+        String analysisId = analysisStoreService.put(grammar);
+        ParseRequestDto requestDto = new ParseRequestDto();
+        requestDto.setAnalysisId(analysisId);
+        requestDto.setInput("a");
+        requestDto.setRawText(true);
+        when(parserService.parse(any(GrammarIr.class), any(), any(TerminalLexer.class), any()))
+                .thenReturn(new ParseResult());
+
+        grammarService.parse(requestDto);
+        TerminalLexer lexer = grammar.getLexer();
+        grammarService.parse(requestDto);
+
+        assertNotNull(lexer);
+        assertSame(lexer, grammar.getLexer());
+        verify(parserService, times(2)).parse(grammar.getGrammarIr(), grammar.getParseTable(),
+                lexer, "a");
+    }
+
+    @Test
+    void testParseStreamWithStoredAnalysis() {
+        Grammar grammar = new Grammar();
+        grammar.setGrammarIr(GrammarIr.of(Map.of("S", List.of("'a'"))));
+        grammar.setParseTable(new Ll1Table(1, 2));
+        String analysisId = analysisStoreService.put(grammar);
+        ReadableByteChannel input = Channels.newChannel(
+                new ByteArrayInputStream("a".getBytes(StandardCharsets.UTF_8)));
+        StreamParseResult result = new StreamParseResult();
+        when(parserService.parse(grammar.getGrammarIr(), grammar.getParseTable(), input))
+                .thenReturn(result);
+        StreamParseResponseDto responseDto = new StreamParseResponseDto();
+        when(grammarMapper.toDto(result)).thenReturn(responseDto);
+
+        assertSame(responseDto, grammarService.parseStream(analysisId, null, input));
+    }
+
+    @Test
+    void testParseWithoutGrammar() {
+        ParseRequestDto requestDto = new ParseRequestDto();
+        requestDto.setAnalysisId("unknown");
+        requestDto.setInput("a");
+        assertThrows(GrammarNotInitializedException.class,
+                () -> grammarService.parse(requestDto));
+    }
+
+    @Test
+    void testGetCacheStatsOfEmptyCache() {
+        assertEquals(0, grammarService.getCacheStats().getEntries());
+        assertEquals(0, grammarService.getCacheStats().getHits());
     }
 }
@@ -0,0 +1,168 @@
+package grammar.analyzer.grammarvisualizer.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import grammar.analyzer.grammarvisualizer.config.AnalysisProperties;
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ReuseReport;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.service.calculators.FirstSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.FollowSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.NullableCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.PredictSetCalculator;
+import grammar.analyzer.grammarvisualizer.util.RandomGrammars;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalAnalysisServiceImplTest {
+    private static final RandomGrammars GRAMMARS = new RandomGrammars(6, 3);
+
+    private AnalysisProperties properties;
+    private IncrementalAnalysisServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalysisProperties();
+        service = new IncrementalAnalysisServiceImpl(new FirstSetCalculator(),
+                new FollowSetCalculator(), new PredictSetCalculator(), new Ll1ServiceImpl(),
+                properties);
+    }
+
+    @Test
+    void testMatchesFullAnalysisAfterSingleRuleEdits() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            Map<String, List<String>> rules = GRAMMARS.rules(random, 4 + random.nextInt(20));
+            Map<String, List<String>> edited = new LinkedHashMap<>(rules);
+            int a = random.nextInt(rules.size());
+            edited.put("N" + a, GRAMMARS.alternatives(random, a, rules.size()));
+
+            assertMatchesFullAnalysis(analyze(rules), edited);
+        }
+    }
+
+    @Test
+    void testMatchesFullAnalysisWhenRulesAreAddedOrRemoved() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("A B"));
+        rules.put("A", List.of("'a' A", "epsilon"));
+        rules.put("B", List.of("'b' C"));
+        rules.put("C", List.of("'c'", "'d'"));
+        Map<String, List<String>> added = new LinkedHashMap<>(rules);
+        added.put("B", List.of("'b' C D"));
+        added.put("D", List.of("'x'", "epsilon"));
+
+        Grammar previous = analyze(rules);
+        assertMatchesFullAnalysis(previous, added);
+        assertMatchesFullAnalysis(analyze(added), rules);
+    }
+
+    @Test
+    void testReusesResultsUnaffectedByEdit() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("A B"));
+        rules.put("A", List.of("'a' A", "epsilon"));
+        rules.put("B", List.of("'b' C"));
+        rules.put("C", List.of("'c'", "'d'"));
+        Map<String, List<String>> edited = new LinkedHashMap<>(rules);
+        edited.put("C", List.of("'c'", "'d' 'c'"));
+
+        Grammar grammar = assertMatchesFullAnalysis(analyze(rules), edited);
+
+        ReuseReport report = grammar.getReuseReport();
+        assertEquals(3, report.getFirstReused());
+        assertEquals(1, report.getFirstRecomputed());
+        assertEquals(1, report.getFollowReused());
+        assertEquals(3, report.getFollowRecomputed());
+        assertEquals(5, report.getPredictReused());
+        assertEquals(1, report.getPredictRecomputed());
+        assertEquals(3, report.getTableRowsReused());
+        assertEquals(1, report.getTableRowsRebuilt());
+    }
+
+    @Test
+    void testRejectsChangedStartSymbol() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("A"));
+        rules.put("A", List.of("'a'"));
+        Map<String, List<String>> edited = new LinkedHashMap<>();
+        edited.put("A", List.of("'a'"));
+        edited.put("S", List.of("A"));
+
+        assertRejected(analyze(rules), edited);
+    }
+
+    @Test
+    void testRejectsReorderedRules() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("A B"));
+        rules.put("A", List.of("'a'"));
+        rules.put("B", List.of("'b'"));
+        Map<String, List<String>> edited = new LinkedHashMap<>();
+        edited.put("S", List.of("A B"));
+        edited.put("B", List.of("'b'"));
+        edited.put("A", List.of("'a'"));
+
+        assertRejected(analyze(rules), edited);
+    }
+
+    @Test
+    void testRejectsSccFollowEngine() {
+        Map<String, List<String>> rules = Map.of("S", List.of("'a'"));
+        Grammar previous = analyze(rules);
+        properties.setFollowEngine(AnalysisProperties.FollowEngine.SCC);
+
+        assertRejected(previous, rules);
+    }
+
+    private Grammar assertMatchesFullAnalysis(Grammar previous,
+                                              Map<String, List<String>> rules) {
+        Grammar expected = analyze(rules);
+        Grammar grammar = new Grammar();
+        GrammarIr ir = GrammarIr.of(rules);
+        new NullableCalculator().computeNullable(ir, grammar);
+
+        assertTrue(service.reanalyze(ir, grammar.getNullability(), previous, grammar));
+        // String forms compare the element order as well
+        assertEquals(expected.getFirstSets().toString(), grammar.getFirstSets().toString());
+        assertEquals(expected.getFollowSets().toString(), grammar.getFollowSets().toString());
+        assertEquals(expected.getPredictSets().toString(), grammar.getPredictSets().toString());
+        assertEquals(expected.getLl1Table(), grammar.getLl1Table());
+        assertEquals(expected.isLl1(), grammar.isLl1());
+        return grammar;
+    }
+
+    private void assertRejected(Grammar previous, Map<String, List<String>> rules) {
+        Grammar grammar = new Grammar();
+        GrammarIr ir = GrammarIr.of(rules);
+        new NullableCalculator().computeNullable(ir, grammar);
+
+        assertFalse(service.reanalyze(ir, grammar.getNullability(), previous, grammar));
+        assertNull(grammar.getReuseReport());
+    }
+
+    private Grammar analyze(Map<String, List<String>> rules) {
+        Grammar grammar = new Grammar();
+        GrammarIr ir = GrammarIr.of(rules);
+        grammar.setProductionRules(rules);
+        grammar.setGrammarIr(ir);
+        new NullableCalculator().computeNullable(ir, grammar);
+        new FirstSetCalculator().computeFirstSets(ir, grammar.getNullability(),
+                StepRecorder.none(), grammar);
+        new FollowSetCalculator().computeFollowSets(ir, grammar.getFirstBitSets(),
+                grammar.getNullability(), StepRecorder.none(), grammar);
+        new PredictSetCalculator().computePredictSets(ir, grammar.getFirstBitSets(),
+                grammar.getFollowBitSets(), grammar.getNullability(), StepRecorder.none(),
+                grammar);
+        new Ll1ServiceImpl().buildLl1Table(ir, grammar.getPredictBitSets(), grammar);
+        return grammar;
+    }
+}
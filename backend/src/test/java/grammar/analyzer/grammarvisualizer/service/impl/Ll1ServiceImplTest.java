@@ -1,9 +1,17 @@
 package grammar.analyzer.grammarvisualizer.service.impl;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import grammar.analyzer.grammarvisualizer.model.CompressedLl1Table;
 import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.TableSizeReport;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Ll1Table;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -26,4 +34,186 @@ class Ll1ServiceImplTest {
         assertNotNull(grammar.getLl1Table());
         assertTrue(grammar.getLl1Table().containsKey("S"));
     }
+
+    @Test
+    void testBuildLL1TableKeepsReusableRows() {
+        Map<String, List<String>> productionRules = new LinkedHashMap<>();
+        productionRules.put("S", List.of("'a' A"));
+        productionRules.put("A", List.of("'a'", "'b'"));
+        GrammarIr ir = GrammarIr.of(productionRules);
+        TerminalSet[] predictSets = {
+                TerminalSet.of(ir, List.of("'a'")),
+                TerminalSet.of(ir, List.of("'a'")),
+                TerminalSet.of(ir, List.of("'b'"))
+        };
+        Ll1Table previousTable = new Ll1Table(1, ir.getTerminalCount());
+        previousTable.setConflict(0, ir.lookaheadIndex("'a'"), new int[] {0, 1});
+        Grammar grammar = new Grammar();
+
+        new Ll1ServiceImpl().buildLl1Table(ir, predictSets, previousTable, new int[] {0, -1},
+                grammar);
+
+        assertEquals(Map.of("'a'", "R1, R2", "'b'", "", "$", ""),
+                grammar.getLl1Table().get("S"));
+        assertEquals("R2", grammar.getLl1Table().get("A").get("'a'"));
+        assertEquals("R3", grammar.getLl1Table().get("A").get("'b'"));
+        // The conflict of the kept row still decides the verdict
+        assertFalse(grammar.isLl1());
+    }
+
+    @Test
+    void testBuildLL1TableListsConflicts() {
+        Map<String, List<String>> productionRules = new LinkedHashMap<>();
+        productionRules.put("S", List.of("'a' S", "'a'", "epsilon"));
+        GrammarIr ir = GrammarIr.of(productionRules);
+        TerminalSet[] predictSets = {
+                TerminalSet.of(ir, List.of("'a'")),
+                TerminalSet.of(ir, List.of("'a'")),
+                TerminalSet.of(ir, List.of("$"))
+        };
+        Grammar grammar = new Grammar();
+
+        new Ll1ServiceImpl().buildLl1Table(ir, predictSets, grammar);
+
+        assertEquals(List.of("M[S, 'a'] = R1, R2"), grammar.getLl1Conflicts());
+        assertEquals("R3", grammar.getLl1Table().get("S").get("$"));
+        int a = ir.lookaheadIndex("'a'");
+        assertArrayEquals(new int[] {0, 1}, grammar.getParseTable().rules(0, a));
+        assertEquals(0, grammar.getParseTable().rule(0, a));
+        assertFalse(grammar.isLl1());
+    }
+
+    @Test
+    void testBuildLargeLL1TableIsDeterministic() {
+        // Enough rows and columns for the rows to be built in parallel
+        Map<String, List<String>> productionRules = new LinkedHashMap<>();
+        int nonTerminals = 600;
+        for (int a = 0; a < nonTerminals; a++) {
+            productionRules.put("N" + a, List.of("'t" + a + "' N" + ((a + 1) % nonTerminals),
+                    "'t" + (a * 7 % nonTerminals) + "'"));
+        }
+        GrammarIr ir = GrammarIr.of(productionRules);
+        assertTrue((long) ir.getNonTerminalCount() * ir.getTerminalCount()
+                >= Ll1ServiceImpl.PARALLEL_THRESHOLD);
+        TerminalSet[] predictSets = new TerminalSet[ir.getProductionCount()];
+        for (int p = 0; p < predictSets.length; p++) {
+            predictSets[p] = TerminalSet.of(ir, List.of(ir.symbolName(ir.rhs(p)[0])));
+        }
+
+        Grammar first = new Grammar();
+        Grammar second = new Grammar();
+        Ll1ServiceImpl service = new Ll1ServiceImpl();
+        service.buildLl1Table(ir, predictSets, first);
+        service.buildLl1Table(ir, predictSets, second);
+
+        assertEquals(first.getLl1Table().toString(), second.getLl1Table().toString());
+        assertEquals(first.getLl1Conflicts(), second.getLl1Conflicts());
+        // Rule 2a + 1 conflicts with rule 2a + 2 exactly where a * 7 ≡ a (mod 600)
+        assertEquals("M[N0, 't0'] = R1, R2", first.getLl1Conflicts().get(0));
+        assertEquals(first.getLl1Conflicts().isEmpty(), first.isLl1());
+        assertEquals(List.copyOf(first.getLl1Table().keySet()), ir.nonTerminalNames());
+    }
+
+    @Test
+    void testCompressedTableMatchesDenseTable() {
+        Map<String, List<String>> productionRules = new LinkedHashMap<>();
+        productionRules.put("S", List.of("'a' S", "'a'", "epsilon"));
+        productionRules.put("A", List.of("'b'"));
+        productionRules.put("B", List.of("'c' B"));
+        productionRules.put("C", List.of("'d'", "'e'"));
+        GrammarIr ir = GrammarIr.of(productionRules);
+        TerminalSet[] predictSets = {
+                TerminalSet.of(ir, List.of("'a'")),
+                TerminalSet.of(ir, List.of("'a'")),
+                TerminalSet.of(ir, List.of("$")),
+                TerminalSet.of(ir, List.of("'b'")),
+                TerminalSet.of(ir, List.of()),
+                TerminalSet.of(ir, List.of("'d'")),
+                TerminalSet.of(ir, List.of("'e'"))
+        };
+        Grammar grammar = new Grammar();
+        Ll1ServiceImpl service = new Ll1ServiceImpl();
+        service.buildLl1Table(ir, predictSets, grammar);
+
+        CompressedLl1Table compressed = service.compressLl1Table(ir, grammar.getParseTable());
+
+        for (int a = 0; a < ir.getNonTerminalCount(); a++) {
+            for (int t = 0; t < ir.getTerminalCount(); t++) {
+                assertEquals(grammar.getParseTable().rule(a, t), compressed.rule(a, t));
+            }
+        }
+        assertEquals(ir.nonTerminalNames(), compressed.getNonTerminals());
+        assertEquals(List.of("'a'", "'b'", "'c'", "'d'", "'e'", "$"), compressed.getTerminals());
+        // B has no rule in any column
+        assertEquals(CompressedLl1Table.DEFAULT_ERROR_ROW, compressed.getBase()[2]);
+        assertArrayEquals(new int[] {ir.lookaheadIndex("'a'")}, compressed.getConflictCells());
+        assertArrayEquals(new int[] {0, 1}, compressed.getConflictRules()[0]);
+
+        TableSizeReport report = compressed.getSizeReport();
+        assertEquals(24, report.getCells());
+        assertEquals(5, report.getFilledCells());
+        assertEquals(1, report.getDefaultErrorRows());
+        // The filled columns of S, C and A interleave within the width of one row
+        assertEquals(6, report.getCompressedSlots());
+        assertEquals(96, report.getDenseBytes());
+        assertEquals((4 + 2 * 6) * Integer.BYTES, report.getCompressedBytes());
+    }
+
+    @Test
+    void testCompressedRowsTakeLowestFreeBases() {
+        Map<String, List<String>> productionRules = new LinkedHashMap<>();
+        productionRules.put("X", List.of("'a'", "'b'", "'c'", "'d'"));
+        productionRules.put("Y", List.of("'a'"));
+        productionRules.put("Z", List.of("'b'"));
+        productionRules.put("W", List.of("'a'", "'b'"));
+        GrammarIr ir = GrammarIr.of(productionRules);
+        TerminalSet[] predictSets = new TerminalSet[ir.getProductionCount()];
+        for (int p = 0; p < predictSets.length; p++) {
+            predictSets[p] = TerminalSet.of(ir, List.of(ir.symbolName(ir.rhs(p)[0])));
+        }
+        Grammar grammar = new Grammar();
+        Ll1ServiceImpl service = new Ll1ServiceImpl();
+        service.buildLl1Table(ir, predictSets, grammar);
+
+        CompressedLl1Table compressed = service.compressLl1Table(ir, grammar.getParseTable());
+
+        // X fills slots 0-3 and W slots 4-5; Y and Z then share base 6
+        assertArrayEquals(new int[] {0, 6, 6, 4}, compressed.getBase());
+        assertEquals(8, compressed.getSizeReport().getCompressedSlots());
+        for (int a = 0; a < ir.getNonTerminalCount(); a++) {
+            for (int t = 0; t < ir.getTerminalCount(); t++) {
+                assertEquals(grammar.getParseTable().rule(a, t), compressed.rule(a, t));
+            }
+        }
+    }
+
+    @Test
+    void testCompressedLargeTableMatchesDenseTable() {
+        Map<String, List<String>> productionRules = new LinkedHashMap<>();
+        int nonTerminals = 300;
+        for (int a = 0; a < nonTerminals; a++) {
+            productionRules.put("N" + a, List.of("'t" + a + "' N" + ((a + 1) % nonTerminals),
+                    "'t" + (a * 7 % nonTerminals) + "'", "'t" + (a * 13 % nonTerminals) + "'"));
+        }
+        GrammarIr ir = GrammarIr.of(productionRules);
+        TerminalSet[] predictSets = new TerminalSet[ir.getProductionCount()];
+        for (int p = 0; p < predictSets.length; p++) {
+            predictSets[p] = TerminalSet.of(ir, List.of(ir.symbolName(ir.rhs(p)[0])));
+        }
+        Grammar grammar = new Grammar();
+        Ll1ServiceImpl service = new Ll1ServiceImpl();
+        service.buildLl1Table(ir, predictSets, grammar);
+
+        CompressedLl1Table compressed = service.compressLl1Table(ir, grammar.getParseTable());
+
+        for (int a = 0; a < ir.getNonTerminalCount(); a++) {
+            for (int t = 0; t < ir.getTerminalCount(); t++) {
+                assertEquals(grammar.getParseTable().rule(a, t), compressed.rule(a, t));
+            }
+        }
+        TableSizeReport report = compressed.getSizeReport();
+        assertEquals(grammar.getParseTable().getConflictCount(),
+                compressed.getConflictCells().length);
+        assertTrue(report.getCompressedBytes() * 10 < report.getDenseBytes());
+    }
 }
@@ -0,0 +1,197 @@
+package grammar.analyzer.grammarvisualizer.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ParseResult;
+import grammar.analyzer.grammarvisualizer.model.StreamParseResult;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.service.calculators.FirstSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.FollowSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.NullableCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.PredictSetCalculator;
+import grammar.analyzer.grammarvisualizer.util.StepRecorder;
+import grammar.analyzer.grammarvisualizer.util.TerminalLexer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParserServiceImplTest {
+    private ParserServiceImpl parserService;
+    private Grammar grammar;
+
+    @BeforeEach
+    void setUp() {
+        parserService = new ParserServiceImpl();
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("E", List.of("T E'"));
+        rules.put("E'", List.of("'+' T E'", "epsilon"));
+        rules.put("T", List.of("F T'"));
+        rules.put("T'", List.of("'*' F T'", "epsilon"));
+        rules.put("F", List.of("'(' E ')'", "'id'"));
+        grammar = analyze(rules);
+    }
+
+    @Test
+    void testAcceptsSentences() {
+        assertTrue(parse("id + id * id").isAccepted());
+        assertTrue(parse("'(' 'id' '+' 'id' ')' '*' 'id'").isAccepted());
+        ParseResult result = parse("  ( id )  ");
+        assertTrue(result.isAccepted());
+        assertEquals(3, result.getTokenCount());
+        assertEquals(-1, result.getErrorPosition());
+        assertTrue(result.isLl1());
+    }
+
+    @Test
+    void testRejectsUnexpectedToken() {
+        ParseResult result = parse("id + * id");
+
+        assertFalse(result.isAccepted());
+        assertEquals(2, result.getErrorPosition());
+        assertEquals("*", result.getErrorToken());
+        assertEquals(List.of("'('", "'id'"), result.getExpected());
+    }
+
+    @Test
+    void testRejectsEarlyEndOfInput() {
+        ParseResult result = parse("( id");
+
+        assertFalse(result.isAccepted());
+        assertEquals(2, result.getErrorPosition());
+        assertEquals("$", result.getErrorToken());
+        assertEquals(List.of("')'"), result.getExpected());
+        assertEquals(0, parse("").getErrorPosition());
+    }
+
+    @Test
+    void testRejectsUnknownTokens() {
+        assertEquals(1, parse("id - id").getErrorPosition());
+        // The end marker is implicit and cannot be written
+        assertEquals(1, parse("id $").getErrorPosition());
+    }
+
+    @Test
+    void testParsesDeepNestingWithoutRecursion() {
+        int depth = 100_000;
+        String input = "( ".repeat(depth) + "id" + " )".repeat(depth);
+
+        ParseResult result = parse(input);
+
+        assertTrue(result.isAccepted());
+        assertEquals(2 * depth + 1, result.getTokenCount());
+        assertEquals(2 * depth, parse(input.substring(0, input.length() - 2))
+                .getErrorPosition());
+    }
+
+    @Test
+    void testParsesStreamLikeString() {
+        for (String input : List.of("id + id * id", "( id", "id + * id", "id - id", "")) {
+            ParseResult expected = parse(input);
+            StreamParseResult result = parseStream(input);
+
+            assertEquals(expected.isAccepted(), result.isAccepted());
+            // The stream is not read past the failing token
+            assertEquals(expected.isAccepted() ? expected.getTokenCount()
+                    : Math.min(expected.getErrorPosition() + 1, expected.getTokenCount()),
+                    result.getTokenCount());
+            assertEquals(expected.getErrorPosition(), result.getErrorPosition());
+            assertEquals(expected.getErrorToken(), result.getErrorToken());
+            assertEquals(expected.getExpected(), result.getExpected());
+        }
+    }
+
+    @Test
+    void testParsesMappedFile(@TempDir Path directory) throws IOException {
+        int depth = 50_000;
+        Path file = directory.resolve("tokens.txt");
+        Files.writeString(file, "(\n".repeat(depth) + "'id'" + "\n)".repeat(depth));
+
+        StreamParseResult result;
+        try (FileChannel channel = FileChannel.open(file)) {
+            result = parserService.parse(grammar.getGrammarIr(), grammar.getParseTable(),
+                    channel);
+        }
+
+        assertTrue(result.isAccepted());
+        assertEquals(2 * depth + 1, result.getTokenCount());
+        assertTrue(result.getPeakHeapBytes() > 0);
+        assertTrue(result.getTokensPerSecond() >= 0);
+    }
+
+    @Test
+    void testParsesRawTextWithLexer() {
+        TerminalLexer lexer = TerminalLexer.of(grammar.getGrammarIr());
+
+        ParseResult accepted = parserService.parse(grammar.getGrammarIr(),
+                grammar.getParseTable(), lexer, "(id+id)*id");
+        ParseResult rejected = parserService.parse(grammar.getGrammarIr(),
+                grammar.getParseTable(), lexer, "id+idx");
+
+        assertTrue(accepted.isAccepted());
+        assertEquals(7, accepted.getTokenCount());
+        assertFalse(rejected.isAccepted());
+        assertEquals(2, rejected.getErrorPosition());
+        assertEquals("idx", rejected.getErrorToken());
+    }
+
+    @Test
+    void testStopsAtConflictOfLeftRecursiveGrammar() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("E", List.of("E '+' T", "T"));
+        rules.put("T", List.of("'id'"));
+        Grammar leftRecursive = analyze(rules);
+
+        ParseResult result = parserService.parse(leftRecursive.getGrammarIr(),
+                leftRecursive.getParseTable(), "id + id");
+        StreamParseResult streamed = parserService.parse(leftRecursive.getGrammarIr(),
+                leftRecursive.getParseTable(), Channels.newChannel(new ByteArrayInputStream(
+                        "id".getBytes(StandardCharsets.UTF_8))));
+
+        assertFalse(result.isLl1());
+        assertFalse(result.isAccepted());
+        assertEquals(0, result.getErrorPosition());
+        assertEquals("id", result.getErrorToken());
+        assertEquals("M[E, 'id'] = R1, R2", result.getConflict());
+        assertFalse(streamed.isAccepted());
+        assertEquals("M[E, 'id'] = R1, R2", streamed.getConflict());
+    }
+
+    private StreamParseResult parseStream(String input) {
+        return parserService.parse(grammar.getGrammarIr(), grammar.getParseTable(),
+                Channels.newChannel(new ByteArrayInputStream(
+                        input.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private ParseResult parse(String input) {
+        return parserService.parse(grammar.getGrammarIr(), grammar.getParseTable(), input);
+    }
+
+    private Grammar analyze(Map<String, List<String>> rules) {
+        Grammar analysis = new Grammar();
+        GrammarIr ir = GrammarIr.of(rules);
+        analysis.setGrammarIr(ir);
+        new NullableCalculator().computeNullable(ir, analysis);
+        new FirstSetCalculator().computeFirstSets(ir, analysis.getNullability(),
+                StepRecorder.none(), analysis);
+        new FollowSetCalculator().computeFollowSets(ir, analysis.getFirstBitSets(),
+                analysis.getNullability(), StepRecorder.none(), analysis);
+        new PredictSetCalculator().computePredictSets(ir, analysis.getFirstBitSets(),
+                analysis.getFollowBitSets(), analysis.getNullability(), StepRecorder.none(),
+                analysis);
+        new Ll1ServiceImpl().buildLl1Table(ir, analysis.getPredictBitSets(), analysis);
+        return analysis;
+    }
+}
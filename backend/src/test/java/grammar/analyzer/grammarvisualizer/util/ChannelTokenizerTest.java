@@ -0,0 +1,116 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChannelTokenizerTest {
+    private GrammarIr ir;
+    private TerminalDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("'a' S", "'bb'", "epsilon"));
+        ir = GrammarIr.of(rules);
+        dictionary = TerminalDictionary.of(ir);
+    }
+
+    @Test
+    void testReadsTokensAndEndOfInput() {
+        ChannelTokenizer tokenizer = tokenizer(" a\t'bb'\r\nc  ");
+
+        assertEquals(ir.lookaheadIndex("'a'"), tokenizer.next());
+        assertEquals("a", tokenizer.lastToken());
+        assertEquals(ir.lookaheadIndex("'bb'"), tokenizer.next());
+        assertEquals(-1, tokenizer.next());
+        assertEquals("c", tokenizer.lastToken());
+        assertEquals(ir.endMarker(), tokenizer.next());
+        assertEquals("$", tokenizer.lastToken());
+        assertEquals(ir.endMarker(), tokenizer.next());
+        assertEquals(3, tokenizer.getTokenCount());
+    }
+
+    @Test
+    void testRejectsTokensLongerThanAnyTerminal() {
+        ChannelTokenizer tokenizer = tokenizer("abbbbbbbbb a");
+
+        assertEquals(-1, tokenizer.next());
+        assertEquals("abbb...", tokenizer.lastToken());
+        assertEquals(ir.lookaheadIndex("'a'"), tokenizer.next());
+    }
+
+    @Test
+    void testSamplesHeapEveryIntervalOfTokens() {
+        // One block holds all tokens, so only the token count triggers samples in between
+        int tokens = ChannelTokenizer.HEAP_SAMPLE_INTERVAL * 3 + 5;
+        long[] samples = new long[1];
+        ChannelTokenizer tokenizer = new ChannelTokenizer(channel("a ".repeat(tokens)),
+                dictionary, ir.endMarker(), () -> ++samples[0]);
+        for (int i = 0; i < ChannelTokenizer.HEAP_SAMPLE_INTERVAL; i++) {
+            tokenizer.next();
+        }
+        assertEquals(3, samples[0]);
+        while (tokenizer.next() != ir.endMarker()) {
+            // Read the rest of the input
+        }
+
+        // Creation, the block load, three intervals and the end of input
+        assertEquals(6, samples[0]);
+        assertEquals(6, tokenizer.getPeakHeapBytes());
+    }
+
+    @Test
+    void testTokensSpanningBuffersMatchMappedFile(@TempDir Path directory) throws IOException {
+        StringBuilder input = new StringBuilder();
+        while (input.length() < 3 * ChannelTokenizer.BUFFER_SIZE) {
+            input.append("a bb ");
+        }
+        // Shift by one byte so tokens straddle the buffer boundaries
+        String text = " " + input;
+        Path file = directory.resolve("tokens.txt");
+        Files.writeString(file, text);
+
+        List<Integer> streamed = readAll(tokenizer(text));
+        List<Integer> mapped;
+        try (FileChannel channel = FileChannel.open(file)) {
+            mapped = readAll(new ChannelTokenizer(channel, dictionary, ir.endMarker()));
+        }
+
+        assertEquals(text.trim().split(" ").length, streamed.size());
+        assertEquals(streamed, mapped);
+        assertEquals(-1, streamed.indexOf(-1));
+    }
+
+    private List<Integer> readAll(ChannelTokenizer tokenizer) {
+        List<Integer> tokens = new ArrayList<>();
+        for (int token = tokenizer.next(); token != ir.endMarker(); token = tokenizer.next()) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private ChannelTokenizer tokenizer(String input) {
+        return new ChannelTokenizer(channel(input), dictionary, ir.endMarker());
+    }
+
+    private ReadableByteChannel channel(String input) {
+        return Channels.newChannel(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+    }
+}
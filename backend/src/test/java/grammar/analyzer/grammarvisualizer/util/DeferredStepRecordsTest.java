@@ -0,0 +1,30 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class DeferredStepRecordsTest {
+    @Test
+    void testComputesStepsOnceOnFirstRead() {
+        AtomicInteger calls = new AtomicInteger();
+        StepRecord step = new StepRecord("Step", Map.of(), 1);
+        DeferredStepRecords steps = new DeferredStepRecords(() -> {
+            calls.incrementAndGet();
+            return List.of(step, step);
+        });
+
+        assertNull(steps.getResolved());
+        assertEquals(0, calls.get());
+        assertEquals(2, steps.size());
+        assertSame(step, steps.get(1));
+        assertEquals(2, steps.getResolved().size());
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,33 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class GrammarNormalizerTest {
+    @Test
+    void testRewritesEscapeSequences() {
+        assertEquals("S -> 'a' | epsilon",
+                GrammarNormalizer.normalize("S \\to 'a' \\mid \\eps"));
+    }
+
+    @Test
+    void testCollapsesWhitespaceAndKeepsLines() {
+        assertEquals("S -> 'a' A\n\nA -> 'b'",
+                GrammarNormalizer.normalize("\tS  ->\t'a'   A \r\n   \nA -> 'b'\n \n"));
+    }
+
+    @Test
+    void testNormalizesNullToEmptyGrammar() {
+        assertEquals("", GrammarNormalizer.normalize(null));
+    }
+
+    @Test
+    void testHashesText() {
+        String hash = GrammarNormalizer.hash("S -> 'a'");
+        assertEquals(64, hash.length());
+        assertEquals(hash, GrammarNormalizer.hash("S -> 'a'"));
+        assertNotEquals(hash, GrammarNormalizer.hash("S -> 'b'"));
+    }
+}
@@ -0,0 +1,86 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class GrammarScannerTest {
+    @Test
+    void testScanBuildsProductionsFromRawInput() {
+        GrammarScanner scanner = new GrammarScanner(
+                "  S \\to  'a'\tA \\mid \\eps\r\nA -> 'x'|'y' A\n\n");
+
+        Map<String, List<String>> productions = scanner.scan();
+
+        assertEquals(List.of("S", "A"), List.copyOf(productions.keySet()));
+        assertEquals(List.of("'a' A", "epsilon"), productions.get("S"));
+        assertEquals(List.of("'x'", "'y' A"), productions.get("A"));
+        assertTrue(scanner.getErrors().isEmpty());
+        assertTrue(scanner.findUndefined(productions).isEmpty());
+        assertFalse(scanner.hasEbnfConstructs());
+    }
+
+    @Test
+    void testScanMatchesNormalizedGrammar() {
+        String grammar = "E -> T E'\nE' -> '+' T E' | \\eps\nT -> '(' E ')' | 'id'";
+        GrammarScanner raw = new GrammarScanner(grammar.replace(" ", "  \t"));
+        GrammarScanner normalized = new GrammarScanner(GrammarNormalizer.normalize(grammar));
+
+        assertEquals(normalized.scan(), raw.scan());
+    }
+
+    @Test
+    void testScanReportsAllErrorsWithPositions() {
+        GrammarScanner scanner = new GrammarScanner(
+                "S 'a'\nA B -> 'b'\nC -> 'c' |\nD -> 'd' -> 'e'\n\nF -> 'f' | | 'g'");
+
+        scanner.scan();
+
+        assertEquals(List.of(
+                "Line 1, column 1: Invalid syntax: each rule must contain '->'. Rule: S 'a'",
+                "Line 2, column 1: Invalid syntax: left-hand side of the rule must be a valid "
+                        + "non-terminal (e.g., A, S', Expr). Rule: A B -> 'b'",
+                "Line 3, column 11: Empty alternative is not allowed. "
+                        + "Use 'epsilon' explicitly if needed",
+                "Line 4, column 10: Invalid syntax: exactly one '->' expected in each rule. "
+                        + "Rule: D -> 'd' -> 'e'",
+                "Line 5, column 1: Invalid syntax: each rule must contain '->'. Rule: ",
+                "Line 6, column 12: Empty alternative is not allowed. "
+                        + "Use 'epsilon' explicitly if needed"), scanner.getErrors());
+    }
+
+    @Test
+    void testFindUndefinedReportsFirstUses() {
+        GrammarScanner scanner = new GrammarScanner("S -> A 'x' B\nA -> B | C A\nB -> 'b'");
+
+        Map<String, List<String>> productions = scanner.scan();
+
+        assertEquals(List.of("Line 2, column 10: Undefined non-terminal(s): C"),
+                scanner.findUndefined(productions));
+    }
+
+    @Test
+    void testDetectsEbnfConstructsWithoutScanning() {
+        GrammarScanner scanner = new GrammarScanner("S -> 'a' { B }\nB -> 'b' [C]\n");
+
+        assertTrue(scanner.hasEbnfConstructs());
+        assertEquals(List.of("Undefined non-terminal(s): _rep1",
+                        "Line 1, column 12: Undefined non-terminal(s): B",
+                        "Line 2, column 11: Undefined non-terminal(s): C"),
+                scanner.findUndefined(Map.of("S", List.of("'a' _rep1 B C"))));
+    }
+
+    @Test
+    void testIsNonTerminal() {
+        assertTrue(GrammarScanner.isNonTerminal("S'"));
+        assertTrue(GrammarScanner.isNonTerminal("_expr2"));
+        assertFalse(GrammarScanner.isNonTerminal(""));
+        assertFalse(GrammarScanner.isNonTerminal("2S"));
+        assertFalse(GrammarScanner.isNonTerminal("'a'"));
+        assertFalse(GrammarScanner.isNonTerminal("A-B"));
+    }
+}
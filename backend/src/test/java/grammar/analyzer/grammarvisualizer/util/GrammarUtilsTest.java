@@ -1,45 +1,61 @@
 package grammar.analyzer.grammarvisualizer.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.util.HashMap;
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import grammar.analyzer.grammarvisualizer.service.calculators.FirstSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.NullableCalculator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class GrammarUtilsTest {
+    private GrammarIr ir;
+    private Nullability nullability;
+    private TerminalSet[] firstSets;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("'b' A", "A 'b'", "A A"));
+        rules.put("A", List.of("'a'", "epsilon"));
+        ir = GrammarIr.of(rules);
+        nullability = new NullableCalculator().computeNullable(ir);
+        Grammar grammar = new Grammar();
+        new FirstSetCalculator().computeFirstSets(ir, nullability, grammar);
+        firstSets = grammar.getFirstBitSets();
+    }
+
     @Test
-    void testComputeFirstOfSymbolTerminal() {
-        Map<String, Set<String>> firstSets = new HashMap<>();
-        Set<String> result = GrammarUtils.computeFirstOfSymbol("'a'", firstSets);
-        assertEquals(Set.of("'a'"), result);
+    void testComputeFirstOfSequenceStartingWithTerminal() {
+        assertEquals(Set.of("'b'"), firstOf(ir.productionsOf(0)[0], 0));
     }
 
     @Test
-    void testComputeFirstOfSymbolEpsilon() {
-        Map<String, Set<String>> firstSets = new HashMap<>();
-        Set<String> result = GrammarUtils.computeFirstOfSymbol("epsilon", firstSets);
-        assertEquals(Set.of("ε"), result);
+    void testComputeFirstOfSequencePassesNullableNonTerminal() {
+        assertEquals(Set.of("'a'", "'b'"), firstOf(ir.productionsOf(0)[1], 0));
     }
 
     @Test
-    void testComputeFirstOfSymbolNonTerminal() {
-        Map<String, Set<String>> firstSets = new HashMap<>();
-        firstSets.put("A", Set.of("'a'"));
-        Set<String> result = GrammarUtils.computeFirstOfSymbol("A", firstSets);
-        assertEquals(Set.of("'a'"), result);
+    void testComputeFirstOfNullableSequenceAddsEpsilon() {
+        assertEquals(Set.of("'a'", "ε"), firstOf(ir.productionsOf(0)[2], 0));
     }
 
     @Test
-    void testComputeFirstOfAlpha() {
-        Map<String, Set<String>> firstSets = new HashMap<>();
-        firstSets.put("A", Set.of("'a'", "ε"));
-        String[] alpha = {"A", "'b'"};
-        Set<String> result = GrammarUtils.computeFirstOfAlpha(alpha, firstSets);
-        assertTrue(result.contains("'a'"));
-        assertTrue(result.contains("'b'"));
-        assertFalse(result.contains("ε"));
+    void testComputeFirstOfEmptySequenceIsEpsilon() {
+        assertEquals(Set.of("ε"), firstOf(ir.productionsOf(1)[1], 0));
+        // A suffix past the last symbol is empty as well
+        assertEquals(Set.of("ε"), firstOf(ir.productionsOf(0)[0], 2));
+    }
+
+    private Set<String> firstOf(int production, int from) {
+        return GrammarUtils.computeFirstOfSequence(ir, ir.rhs(production), from, firstSets,
+                nullability, new TerminalSet(ir.lookaheadCount())).toNames(ir);
     }
 }
@@ -0,0 +1,119 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import grammar.analyzer.grammarvisualizer.model.Grammar;
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.Nullability;
+import grammar.analyzer.grammarvisualizer.service.calculators.FirstSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.FollowSetCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.NullableCalculator;
+import grammar.analyzer.grammarvisualizer.service.calculators.PredictSetCalculator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LazyStepRecordsTest {
+    private GrammarIr ir;
+    private Nullability nullability;
+    private Grammar eager;
+    private Grammar lazy;
+
+    @BeforeEach
+    void setUp() {
+        // A long chain of nullable non-terminals, so that every trace spans many checkpoints
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        int count = 60;
+        for (int a = 0; a < count; a++) {
+            String next = a + 1 < count ? "N" + (a + 1) : "'end'";
+            rules.put("N" + a, List.of(next + " 't" + a + "' N" + (count - 1 - a),
+                    "'u" + a + "' N" + a, "epsilon"));
+        }
+        ir = GrammarIr.of(rules);
+        nullability = new NullableCalculator().computeNullable(ir);
+
+        eager = new Grammar();
+        new FirstSetCalculator().computeFirstSets(ir, nullability, StepRecorder.full(), eager);
+        new FollowSetCalculator().computeFollowSets(ir, eager.getFirstBitSets(), nullability,
+                StepRecorder.full(), eager);
+        new PredictSetCalculator().computePredictSets(ir, eager.getFirstBitSets(),
+                eager.getFollowBitSets(), nullability, StepRecorder.full(), eager);
+
+        lazy = new Grammar();
+        new FirstSetCalculator().computeFirstSets(ir, nullability, StepRecorder.counting(), lazy);
+        new FollowSetCalculator().computeFollowSets(ir, lazy.getFirstBitSets(), nullability,
+                StepRecorder.counting(), lazy);
+        new PredictSetCalculator().computePredictSets(ir, lazy.getFirstBitSets(),
+                lazy.getFollowBitSets(), nullability, StepRecorder.counting(), lazy);
+    }
+
+    @Test
+    void testLazyAnalysisComputesSameSets() {
+        assertEquals(eager.getFirstSets(), lazy.getFirstSets());
+        assertEquals(eager.getFollowSets(), lazy.getFollowSets());
+        assertEquals(eager.getPredictSets(), lazy.getPredictSets());
+        assertInstanceOf(LazyStepRecords.class, lazy.getFirstStepRecords());
+    }
+
+    @Test
+    void testReplayedFirstStepsMatchFullTrace() {
+        assertTrue(eager.getFirstStepRecords().size() > 1024);
+        assertSameSteps(eager.getFirstStepRecords(), lazy.getFirstStepRecords());
+    }
+
+    @Test
+    void testReplayedFollowStepsMatchFullTrace() {
+        assertTrue(eager.getFollowStepRecords().size() > 512);
+        assertSameSteps(eager.getFollowStepRecords(), lazy.getFollowStepRecords());
+    }
+
+    @Test
+    void testReplayedPredictStepsMatchFullTrace() {
+        assertSameSteps(eager.getPredictStepRecords(), lazy.getPredictStepRecords());
+    }
+
+    @Test
+    void testReplaysEachPageOnceWhenSteppingThrough() {
+        List<int[]> windows = new ArrayList<>();
+        LazyStepRecords steps = new LazyStepRecords(100, List.of(), (start, from, to) -> {
+            windows.add(new int[] {from, to});
+            List<StepRecord> page = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                page.add(new StepRecord("step " + i, Map.of(), i));
+            }
+            return page;
+        });
+
+        for (int i = 0; i < steps.size(); i++) {
+            assertEquals("step " + i, steps.get(i).getDescription());
+        }
+        assertEquals(4, windows.size());
+        assertEquals(96, windows.get(3)[0]);
+        assertEquals(100, windows.get(3)[1]);
+    }
+
+    private void assertSameSteps(List<StepRecord> expected, List<StepRecord> actual) {
+        assertEquals(expected.size(), actual.size());
+        // Walk backwards as well, so pages are replayed from checkpoints out of order
+        for (int i = expected.size() - 1; i >= 0; i -= 7) {
+            assertSameStep(expected, actual, i);
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameStep(expected, actual, i);
+        }
+    }
+
+    private void assertSameStep(List<StepRecord> expected, List<StepRecord> actual, int i) {
+        StepRecord step = actual.get(i);
+        assertEquals(expected.get(i).getDescription(), step.getDescription());
+        assertEquals(expected.get(i).getPseudocodeLine(), step.getPseudocodeLine());
+        assertEquals(StepRecorder.snapshotAt(expected, i).toString(),
+                StepRecorder.snapshotAt(actual, i).toString(), "step " + i);
+    }
+}
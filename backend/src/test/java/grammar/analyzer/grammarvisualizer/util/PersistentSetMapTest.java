@@ -0,0 +1,100 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PersistentSetMapTest {
+    @Test
+    void testKeepsInsertionOrderAndPositionOfUpdatedKeys() {
+        PersistentSetMap map = PersistentSetMap.empty()
+                .with("S", Set.of("'a'"))
+                .with("E'", Set.of())
+                .with("A", new LinkedHashSet<>(List.of("'c'", "ε")))
+                .with("E'", Set.of("'+'"));
+
+        assertEquals(List.of("S", "E'", "A"), new ArrayList<>(map.keySet()));
+        assertEquals(Set.of("'+'"), map.get("E'"));
+        assertEquals(List.of("'c'", "ε"), new ArrayList<>(map.get("A")));
+        assertNull(map.get("B"));
+        assertFalse(map.containsKey("B"));
+    }
+
+    @Test
+    void testUpdatesShareUnchangedEntriesAndLeaveOriginalIntact() {
+        PersistentSetMap original = PersistentSetMap.empty()
+                .with("S", new LinkedHashSet<>(List.of("'a'")))
+                .with("A", new LinkedHashSet<>(List.of("'b'")));
+        PersistentSetMap updated = original.with("A", new LinkedHashSet<>(List.of("'b'", "'c'")));
+
+        assertSame(original.get("S"), updated.get("S"));
+        assertEquals(Set.of("'b'"), original.get("A"));
+        assertEquals(Set.of("'b'", "'c'"), updated.get("A"));
+    }
+
+    @Test
+    void testBehavesLikeLinkedHashMapAcrossTrieLevels() {
+        PersistentSetMap map = PersistentSetMap.empty();
+        Map<String, Set<String>> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            String key = "N" + (i * 7919 % 2000);
+            Set<String> value = Set.of("'t" + i + "'");
+            map = map.with(key, value);
+            expected.put(key, value);
+        }
+
+        assertEquals(expected, map);
+        assertEquals(expected.toString(), map.toString());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+    }
+
+    @Test
+    void testHandlesHashCollisions() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        PersistentSetMap map = PersistentSetMap.empty()
+                .with("Aa", Set.of("'x'"))
+                .with("BB", Set.of("'y'"))
+                .with("AaAa", Set.of("'z'"))
+                .with("BBBB", Set.of("'w'"))
+                .with("Aa", Set.of("'v'"));
+
+        assertEquals(4, map.size());
+        assertEquals(Set.of("'v'"), map.get("Aa"));
+        assertEquals(Set.of("'y'"), map.get("BB"));
+        assertEquals(Set.of("'w'"), map.get("BBBB"));
+        assertEquals(List.of("Aa", "BB", "AaAa", "BBBB"), new ArrayList<>(map.keySet()));
+    }
+
+    @Test
+    void testIsImmutable() {
+        PersistentSetMap map = PersistentSetMap.empty().with("S", new LinkedHashSet<>());
+
+        assertThrows(UnsupportedOperationException.class, () -> map.put("A", Set.of()));
+        assertThrows(UnsupportedOperationException.class, () -> map.get("S").add("'a'"));
+        assertTrue(map.get("S").isEmpty());
+    }
+
+    @Test
+    void testSerializesLikeLinkedHashMap() throws JsonProcessingException {
+        Map<String, Set<String>> expected = new LinkedHashMap<>();
+        expected.put("S", new LinkedHashSet<>(List.of("'b'", "'a'")));
+        expected.put("A", new LinkedHashSet<>());
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals(mapper.writeValueAsString(expected),
+                mapper.writeValueAsString(PersistentSetMap.copyOf(expected)));
+    }
+}
@@ -0,0 +1,96 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Random grammars for tests comparing engines or analyses with each other.
+ * Non-terminals are named {@code N0..N(n-1)} and terminals {@code 't0'..}. Every
+ * alternative has up to three symbols, each a non-terminal or a terminal with equal
+ * probability, and an alternative without symbols is written as {@code epsilon}.
+ */
+public final class RandomGrammars {
+    private static final int MAX_LENGTH = 3;
+
+    private final int terminals;
+    private final int maxAlternatives;
+    private final int window;
+
+    /**
+     * Creates a generator of grammars referencing any non-terminal.
+     *
+     * @param terminals       number of distinct terminals
+     * @param maxAlternatives maximum number of alternatives of a non-terminal
+     */
+    public RandomGrammars(int terminals, int maxAlternatives) {
+        this(terminals, maxAlternatives, 0);
+    }
+
+    /**
+     * Creates a generator of grammars whose rules reference nearby non-terminals only.
+     *
+     * @param terminals       number of distinct terminals
+     * @param maxAlternatives maximum number of alternatives of a non-terminal
+     * @param window          number of non-terminals a rule can reference, from two before
+     *                        it onwards and wrapping around, which gives mostly forward
+     *                        references with short cycles; 0 allows any non-terminal
+     */
+    public RandomGrammars(int terminals, int maxAlternatives, int window) {
+        this.terminals = terminals;
+        this.maxAlternatives = maxAlternatives;
+        this.window = window;
+    }
+
+    /**
+     * Generates the rules of a grammar, in the order of the non-terminals.
+     *
+     * @param random       source of randomness, making the grammar reproducible
+     * @param nonTerminals number of non-terminals
+     * @return ordered map of non-terminals to their alternatives
+     */
+    public Map<String, List<String>> rules(Random random, int nonTerminals) {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        for (int a = 0; a < nonTerminals; a++) {
+            rules.put("N" + a, alternatives(random, a, nonTerminals));
+        }
+        return rules;
+    }
+
+    /**
+     * Generates the alternatives of one non-terminal, e.g. to replace them in an edit.
+     *
+     * @param random       source of randomness
+     * @param a            index of the non-terminal
+     * @param nonTerminals number of non-terminals of the grammar
+     * @return alternatives of the non-terminal
+     */
+    public List<String> alternatives(Random random, int a, int nonTerminals) {
+        List<String> alternatives = new ArrayList<>();
+        int count = 1 + random.nextInt(maxAlternatives);
+        for (int k = 0; k < count; k++) {
+            int length = random.nextInt(MAX_LENGTH + 1);
+            if (length == 0) {
+                alternatives.add("epsilon");
+                continue;
+            }
+            List<String> symbols = new ArrayList<>();
+            for (int i = 0; i < length; i++) {
+                symbols.add(random.nextBoolean()
+                        ? "N" + reference(random, a, nonTerminals)
+                        : "'t" + random.nextInt(terminals) + "'");
+            }
+            alternatives.add(String.join(" ", symbols));
+        }
+        return alternatives;
+    }
+
+    private int reference(Random random, int a, int nonTerminals) {
+        if (window == 0) {
+            return random.nextInt(nonTerminals);
+        }
+        return Math.floorMod(a - 2 + random.nextInt(window), nonTerminals);
+    }
+}
@@ -0,0 +1,157 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import grammar.analyzer.grammarvisualizer.model.StepRecord;
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import grammar.analyzer.grammarvisualizer.model.ir.TerminalSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StepRecorderTest {
+    private GrammarIr ir;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("'a' A", "'b'"));
+        rules.put("A", List.of("'c'", "epsilon"));
+        ir = GrammarIr.of(rules);
+    }
+
+    @Test
+    void testRecordsDeltasBetweenCheckpoints() {
+        TerminalSet[] sets = SetUtils.initializeEmptyBitSets(ir);
+        StepRecorder recorder = StepRecorder.full();
+        recorder.trackNonTerminals(ir, sets);
+        List<StepRecord> steps = recorder.getSteps();
+        recorder.record("init", 0);
+        sets[0].add(ir.lookaheadIndex("'b'"));
+        recorder.record("grow", 1);
+        recorder.record("no-op", 2);
+
+        assertTrue(steps.get(0).isCheckpoint());
+        assertFalse(steps.get(1).isCheckpoint());
+        assertEquals(Map.of("S", List.of("'b'")), steps.get(1).getAdded());
+        assertTrue(steps.get(2).getAdded().isEmpty());
+        assertEquals(Map.of("S", Set.of("'b'"), "A", Set.of()),
+                StepRecorder.snapshotAt(steps, 2));
+    }
+
+    @Test
+    void testSnapshotMatchesStateAcrossCheckpointsAndRemovals() {
+        TerminalSet[] sets = SetUtils.initializeEmptyBitSets(ir);
+        StepRecorder recorder = StepRecorder.full();
+        recorder.trackNonTerminals(ir, sets);
+        List<StepRecord> steps = recorder.getSteps();
+        List<Map<String, Set<String>>> expected = new ArrayList<>();
+        for (int i = 0; i < 3 * StepRecorder.CHECKPOINT_INTERVAL; i++) {
+            int element = i % ir.lookaheadCount();
+            if (i % 5 == 0) {
+                sets[i % 2].remove(element);
+            } else {
+                sets[i % 2].add(element);
+            }
+            recorder.record("step " + i, i);
+            expected.add(SetUtils.toNameSets(ir, sets));
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            Map<String, Set<String>> snapshot = StepRecorder.snapshotAt(steps, i);
+            assertEquals(expected.get(i), snapshot);
+            assertEquals(expected.get(i).get("S").toString(), snapshot.get("S").toString());
+        }
+    }
+
+    @Test
+    void testCheckpointsShareUnchangedSets() {
+        TerminalSet[] sets = SetUtils.initializeEmptyBitSets(ir);
+        StepRecorder recorder = StepRecorder.full();
+        recorder.trackNonTerminals(ir, sets);
+        List<StepRecord> steps = recorder.getSteps();
+        for (int i = 0; i <= StepRecorder.CHECKPOINT_INTERVAL; i++) {
+            if (i == 1) {
+                sets[0].add(ir.lookaheadIndex("'b'"));
+            }
+            recorder.record("step " + i, i);
+        }
+
+        Map<String, Set<String>> first = steps.get(0).getPartialResult();
+        Map<String, Set<String>> second = steps.get(StepRecorder.CHECKPOINT_INTERVAL)
+                .getPartialResult();
+        assertSame(first.get("A"), second.get("A"));
+        assertEquals(Set.of(), first.get("S"));
+        assertEquals(Set.of("'b'"), second.get("S"));
+    }
+
+    @Test
+    void testProductionKeysAppearWhenSetIsAssigned() {
+        TerminalSet[] predict = new TerminalSet[ir.getProductionCount()];
+        StepRecorder recorder = StepRecorder.full();
+        recorder.trackProductions(ir, predict);
+        List<StepRecord> steps = recorder.getSteps();
+        recorder.record("start", 0);
+        predict[0] = new TerminalSet(ir.lookaheadCount());
+        recorder.record("empty set", 1);
+
+        assertEquals(Map.of(), StepRecorder.snapshotAt(steps, 0));
+        assertEquals(Map.of("S -> 'a' A", Set.of()), StepRecorder.snapshotAt(steps, 1));
+    }
+
+    @Test
+    void testWindowRecordsOnlyRequestedSteps() {
+        StepRecorder recorder = StepRecorder.window(null, 2, 4);
+        recorder.trackNonTerminals(ir, SetUtils.initializeEmptyBitSets(ir));
+        List<Boolean> materialized = new ArrayList<>();
+        while (!recorder.isComplete()) {
+            boolean step = recorder.step();
+            materialized.add(step);
+            if (step) {
+                recorder.record("step", 0);
+            }
+        }
+
+        assertEquals(List.of(false, false, true, true), materialized);
+        assertEquals(2, recorder.getSteps().size());
+        assertTrue(recorder.getSteps().get(0).isCheckpoint());
+    }
+
+    @Test
+    void testRecorderWithoutTraceRecordsNothing() {
+        StepRecorder recorder = StepRecorder.none();
+        recorder.trackNonTerminals(ir, SetUtils.initializeEmptyBitSets(ir));
+        for (int i = 0; i < 100; i++) {
+            assertFalse(recorder.step());
+        }
+
+        assertFalse(recorder.isComplete());
+        assertFalse(recorder.isCheckpointDue());
+        assertTrue(recorder.toStepRecords((start, from, to) -> List.of()).isEmpty());
+    }
+
+    @Test
+    void testCountingRecorderKeepsBoundedCheckpoints() {
+        StepRecorder recorder = StepRecorder.counting();
+        for (int i = 0; i < 1_000_000; i++) {
+            if (recorder.isCheckpointDue()) {
+                recorder.checkpoint(i);
+            }
+            assertFalse(recorder.step());
+        }
+
+        List<StepRecorder.Checkpoint> checkpoints = recorder.getCheckpoints();
+        assertEquals(1_000_000, recorder.getStepCount());
+        assertTrue(checkpoints.size() <= 64);
+        assertTrue(checkpoints.get(checkpoints.size() - 1).stepIndex() > 900_000);
+        for (StepRecorder.Checkpoint checkpoint : checkpoints) {
+            assertEquals(checkpoint.stepIndex(), checkpoint.state());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TerminalDictionaryTest {
+    @Test
+    void testResolvesQuotedAndUnquotedTerminals() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("'if' S 'then'", "'x'", "epsilon"));
+        GrammarIr ir = GrammarIr.of(rules);
+        TerminalDictionary dictionary = TerminalDictionary.of(ir);
+
+        assertEquals(ir.lookaheadIndex("'if'"), lookup(dictionary, "if"));
+        assertEquals(ir.lookaheadIndex("'if'"), lookup(dictionary, "'if'"));
+        assertEquals(ir.lookaheadIndex("'x'"), lookup(dictionary, "x"));
+        assertEquals(-1, lookup(dictionary, "S"));
+        assertEquals(-1, lookup(dictionary, "$"));
+        assertEquals(-1, lookup(dictionary, "epsilon"));
+        assertEquals(6, dictionary.getMaxLength());
+    }
+
+    private int lookup(TerminalDictionary dictionary, String token) {
+        byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+        int hash = TerminalDictionary.initialHash();
+        for (byte b : bytes) {
+            hash = TerminalDictionary.hash(hash, b);
+        }
+        return dictionary.lookup(bytes, bytes.length, hash);
+    }
+}
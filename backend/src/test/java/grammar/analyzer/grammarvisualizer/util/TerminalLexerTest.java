@@ -0,0 +1,69 @@
+package grammar.analyzer.grammarvisualizer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import grammar.analyzer.grammarvisualizer.model.ir.GrammarIr;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TerminalLexerTest {
+    private GrammarIr ir;
+    private TerminalLexer lexer;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("S", List.of("'if' C 'then' S", "'x' '=' 'x'", "epsilon"));
+        rules.put("C", List.of("'x' '<' 'x'", "'x' '<=' 'x'", "'x' '≠' 'x'"));
+        ir = GrammarIr.of(rules);
+        lexer = TerminalLexer.of(ir);
+    }
+
+    @Test
+    void testPrefersLongestMatch() {
+        assertEquals(List.of("'x'", "'<='", "'x'", "'<'", "'x'"), terminals("x<=x<x"));
+        assertEquals(List.of("'x'", "'≠'", "'x'"), terminals(" x ≠\tx\n"));
+    }
+
+    @Test
+    void testMatchesKeywordsOnlyAtWordBoundaries() {
+        assertEquals(List.of("'if'", "'x'", "'then'", "'x'", "'='", "'x'"),
+                terminals("if x then x=x"));
+        assertEquals(List.of("?", "'='", "'x'"), terminals("iffy=x"));
+        TerminalLexer.Scanner scanner = lexer.scan("iffy=x", ir.endMarker());
+        scanner.next();
+        assertEquals("iffy", scanner.lastToken());
+    }
+
+    @Test
+    void testReadsUnknownCharactersOneByOne() {
+        TerminalLexer.Scanner scanner = lexer.scan("x+<", ir.endMarker());
+
+        assertEquals(ir.lookaheadIndex("'x'"), scanner.next());
+        assertEquals(-1, scanner.next());
+        assertEquals("+", scanner.lastToken());
+        assertEquals(ir.lookaheadIndex("'<'"), scanner.next());
+        assertEquals(ir.endMarker(), scanner.next());
+        assertEquals("$", scanner.lastToken());
+        assertEquals(3, scanner.getTokenCount());
+    }
+
+    @Test
+    void testBuildsOneStatePerTriePrefix() {
+        // Start, i-f, t-h-e-n, x, =, <, <=, ≠
+        assertEquals(1 + 2 + 4 + 1 + 1 + 1 + 1 + 1, lexer.getStateCount());
+    }
+
+    private List<String> terminals(String text) {
+        TerminalLexer.Scanner scanner = lexer.scan(text, ir.endMarker());
+        List<String> terminals = new ArrayList<>();
+        for (int t = scanner.next(); t != ir.endMarker(); t = scanner.next()) {
+            terminals.add(t < 0 ? "?" : ir.terminalName(t));
+        }
+        return terminals;
+    }
+}
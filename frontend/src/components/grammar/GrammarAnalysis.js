@@ -40,6 +40,8 @@ const GrammarAnalysis = () => {
     const [cachedResults, setCachedResults] = useState({});
     const [totalSteps, setTotalSteps] = useState(0);
     const isFirstRenderRef = useRef(true);
+    // Id of the server-side analysis the steps are fetched from
+    const analysisIdRef = useRef(null);
     const [lastStepTimestamp, setLastStepTimestamp] = useState(0);
     const { t } = useTranslation();
 
@@ -87,6 +89,7 @@ const GrammarAnalysis = () => {
                 const { data } = await api.post(
                     "/grammar/step",
                     {
+                        analysisId: analysisIdRef.current,
                         analysisType: currentAnalysisType,
                         stepIndex,
                         grammar: trimmedGrammar,
@@ -108,6 +111,7 @@ const GrammarAnalysis = () => {
                 setPseudoCodeLine(computedPseudoCodeLine);
                 setCurrentStepIndex(data.currentStepIndex);
                 setTotalSteps(data.totalSteps);
+                analysisIdRef.current = data.analysisId ?? analysisIdRef.current;
 
                 setCachedResults((prev) => ({
                     ...prev,
@@ -148,9 +152,13 @@ const GrammarAnalysis = () => {
         try {
             const { data } = await api.post(
                 "/grammar/analyze",
-                { grammar: grammar.trim() }
+                {
+                    grammar: grammar.trim(),
+                    previousAnalysisId: analysisIdRef.current,
+                }
             );
 
+            analysisIdRef.current = data.analysisId;
             await fetchStep(0);
 
             if (data.transformedGrammar && data.transformedGrammar !== grammar.trim()) {
@@ -74,6 +74,7 @@ const resources = {
             "errorInvalidLHS":        "Left-hand side must be a valid non-terminal (e.g. A, S', Expr). (Rule: {{rule}})",
             "errorEmptyAlternative":  "Empty alternative is not allowed; use 'epsilon' explicitly. (Rule: {{rule}})",
             "undefinedNonTerminals":  "Undefined non-terminal(s): {{terms}}",
+            "errorPosition":          "Line {{line}}, column {{column}}: ",
             "analysisError":          "Analysis error. Check your grammar or try again."
         }
     },
@@ -143,6 +144,7 @@ const resources = {
             "errorInvalidLHS":        "Ľavá strana musí byť platný neterminál (napr. A, S', Expr). (Pravidlo: {{rule}})",
             "errorEmptyAlternative":  "Prázdna alternatíva nie je povolená; použite 'epsilon'. (Pravidlo: {{rule}})",
             "undefinedNonTerminals":  "Nedefinovaný neterminál(ály): {{terms}}",
+            "errorPosition":          "Riadok {{line}}, stĺpec {{column}}: ",
             "analysisError":          "Chyba analýzy. Skontrolujte gramatiku alebo skúste znova."
         }
     }
@@ -1,6 +1,10 @@
+/** Position prefix the backend puts before grammar syntax errors. */
+const POSITION_PATTERN = /^Line (\d+), column (\d+): /;
+
 /**
  * Maps raw backend error messages to user-friendly, translatable strings.
- * Recognizes specific syntax error patterns and extracts context (e.g., rule text).
+ * Recognizes specific syntax error patterns and extracts context (e.g., rule text),
+ * keeping the line and column of the error if the backend reported them.
  * Falls back to a generic analysis error translation if no pattern matches.
  *
  * @param {string} rawMessage - The error message returned by the backend.
@@ -10,6 +14,18 @@
 export const mapBackendErrorToTranslation = (rawMessage, t) => {
     if (!rawMessage) return t("analysisError");
 
+    const position = rawMessage.match(POSITION_PATTERN);
+    if (position) {
+        return t("errorPosition", { line: position[1], column: position[2] })
+            + translateMessage(rawMessage.slice(position[0].length), t);
+    }
+    return translateMessage(rawMessage, t);
+};
+
+/**
+ * Translates an error message without its position prefix.
+ */
+const translateMessage = (rawMessage, t) => {
     if (rawMessage.startsWith("Invalid syntax: each rule must contain '->'")) {
         const rule = rawMessage.split("Rule: ")[1];
         return t("errorRequiredArrow", { rule });